@@ -20,13 +20,13 @@ import io.gravitee.repository.management.model.MembershipReferenceType;
 import io.gravitee.repository.management.model.RoleScope;
 import io.gravitee.rest.api.model.ApplicationEntity;
 import io.gravitee.rest.api.model.GroupEntity;
-import io.gravitee.rest.api.model.RoleEntity;
 import io.gravitee.rest.api.model.api.ApiEntity;
-import io.gravitee.rest.api.model.permissions.SystemRole;
+import io.gravitee.rest.api.model.permissions.CompiledPermissions;
 import io.gravitee.rest.api.management.rest.resource.AbstractResource;
 import io.gravitee.rest.api.management.rest.security.Permission;
 import io.gravitee.rest.api.management.rest.security.Permissions;
 import io.gravitee.rest.api.service.*;
+import io.gravitee.rest.api.service.common.EntityCache;
 import io.gravitee.rest.api.service.exceptions.ForbiddenAccessException;
 import io.gravitee.rest.api.service.exceptions.UnauthorizedAccessException;
 
@@ -44,7 +44,6 @@ import javax.ws.rs.ext.Provider;
 import java.io.IOException;
 import java.security.Principal;
 import java.util.List;
-import java.util.Map;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -73,7 +72,7 @@ public class PermissionsFilter implements ContainerRequestFilter {
     private ApiService apiService;
 
     @Inject
-    private RoleService roleService;
+    private EntityCache entityCache;
 
     @Inject
     private GroupService groupService;
@@ -96,45 +95,33 @@ public class PermissionsFilter implements ContainerRequestFilter {
             if (principal != null) {
                 String username = principal.getName();
                 for (Permission permission : permissions.value()) {
-                    RoleEntity role;
-                    Map<String, char[]> memberPermissions;
+                    CompiledPermissions memberPermissions;
                     switch (permission.value().getScope()) {
                         case MANAGEMENT:
-                            role = membershipService.getRole(MembershipReferenceType.MANAGEMENT, MembershipDefaultReferenceId.DEFAULT.name(), username, RoleScope.MANAGEMENT);
-                            if (roleService.hasPermission(role.getPermissions(), permission.value().getPermission(), permission.acls())) {
-                                return;
-                            }
+                            memberPermissions = membershipService.getCompiledPermissions(MembershipReferenceType.MANAGEMENT, MembershipDefaultReferenceId.DEFAULT.name(), null, username, RoleScope.MANAGEMENT);
                             break;
                         case PORTAL:
-                            role = membershipService.getRole(MembershipReferenceType.PORTAL, MembershipDefaultReferenceId.DEFAULT.name(), username, RoleScope.PORTAL);
-                            if (roleService.hasPermission(role.getPermissions(), permission.value().getPermission(), permission.acls())) {
-                                return;
-                            }
+                            memberPermissions = membershipService.getCompiledPermissions(MembershipReferenceType.PORTAL, MembershipDefaultReferenceId.DEFAULT.name(), null, username, RoleScope.PORTAL);
                             break;
                         case APPLICATION:
                             ApplicationEntity application = getApplication(requestContext);
-                            memberPermissions = membershipService.getMemberPermissions(application, username);
-                            if (roleService.hasPermission(memberPermissions, permission.value().getPermission(), permission.acls())) {
-                                return;
-                            }
+                            memberPermissions = membershipService.getCompiledPermissions(MembershipReferenceType.APPLICATION, application.getId(), application.getGroups(), username, RoleScope.APPLICATION);
                             break;
                         case API:
                             ApiEntity api = getApi(requestContext);
-                            memberPermissions = membershipService.getMemberPermissions(api, username);
-                            if (roleService.hasPermission(memberPermissions, permission.value().getPermission(), permission.acls())) {
-                                return;
-                            }
+                            memberPermissions = membershipService.getCompiledPermissions(MembershipReferenceType.API, api.getId(), api.getGroups(), username, RoleScope.API);
                             break;
                         case GROUP:
                             GroupEntity group = getGroup(requestContext);
-                            memberPermissions = membershipService.getMemberPermissions(group, username);
-                            if (roleService.hasPermission(memberPermissions, permission.value().getPermission(), permission.acls())) {
-                                return;
-                            }
+                            memberPermissions = membershipService.getCompiledPermissions(MembershipReferenceType.GROUP, group.getId(), null, username, RoleScope.GROUP);
                             break;
                         default:
+                            memberPermissions = CompiledPermissions.EMPTY;
                             sendSecurityError();
                     }
+                    if (memberPermissions.hasPermission(permission.value(), permission.acls())) {
+                        return;
+                    }
                 }
             }
             sendSecurityError();
@@ -146,7 +133,7 @@ public class PermissionsFilter implements ContainerRequestFilter {
         if (apiId == null) {
             return null;
         }
-        return apiService.findById(apiId);
+        return entityCache.getApi(apiId, apiService::findById);
     }
 
     private GroupEntity getGroup(ContainerRequestContext requestContext) {
@@ -162,7 +149,7 @@ public class PermissionsFilter implements ContainerRequestFilter {
         if (applicationId == null) {
             return null;
         }
-        return applicationService.findById(applicationId);
+        return entityCache.getApplication(applicationId, applicationService::findById);
     }
 
     private String getId(String key, ContainerRequestContext requestContext) {
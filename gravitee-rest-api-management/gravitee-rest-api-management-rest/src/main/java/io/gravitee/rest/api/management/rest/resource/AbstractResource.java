@@ -24,22 +24,34 @@ import io.gravitee.rest.api.service.ApiService;
 import io.gravitee.rest.api.service.MembershipService;
 import io.gravitee.rest.api.service.PermissionService;
 import io.gravitee.rest.api.service.RoleService;
+import io.gravitee.rest.api.service.common.GraviteeContext;
 import io.gravitee.rest.api.service.exceptions.UploadUnauthorized;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import javax.imageio.ImageIO;
 import javax.imageio.ImageReader;
 import javax.imageio.stream.ImageInputStream;
 import javax.inject.Inject;
+import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
+import javax.ws.rs.core.StreamingOutput;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -52,6 +64,8 @@ public abstract class AbstractResource {
     public final static String MANAGEMENT_ADMIN = RoleScope.MANAGEMENT.name() + ':' + SystemRole.ADMIN.name();
     public final static String PORTAL_ADMIN = RoleScope.PORTAL.name() + ':' + SystemRole.ADMIN.name();
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(AbstractResource.class);
+
     @Context
     protected SecurityContext securityContext;
 
@@ -97,6 +111,50 @@ public abstract class AbstractResource {
         return isAuthenticated() && (isAdmin() || permissionService.hasPermission(permission, referenceId, acls));
     }
 
+    /**
+     * Resume the suspended response once the future is completed: with its result, or with its failure so that it is
+     * mapped as if it had been thrown by the resource.
+     */
+    protected void resume(final AsyncResponse response, final CompletableFuture<?> future) {
+        future.whenComplete((entity, throwable) -> {
+            if (throwable == null) {
+                response.resume(Response.ok(entity).build());
+            } else {
+                response.resume(throwable instanceof CompletionException && throwable.getCause() != null ?
+                        throwable.getCause() : throwable);
+            }
+        });
+    }
+
+    /**
+     * Stream a CSV export. The entity is written once the response filters have cleaned the Gravitee context, so the
+     * environment and organization of the request are read here and set again while writing.
+     */
+    protected StreamingOutput streamCsv(final String export, final CsvExport csvExport) {
+        final String environment = GraviteeContext.getCurrentEnvironment();
+        final String organization = GraviteeContext.getCurrentOrganization();
+        return output -> {
+            GraviteeContext.setCurrentEnvironment(environment);
+            GraviteeContext.setCurrentOrganization(organization);
+            try {
+                final Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+                csvExport.write(writer);
+                writer.flush();
+            } catch (IOException | RuntimeException ex) {
+                // the first rows may already be sent with a 200 status
+                LOGGER.error("Export of {} failed, the client may have received a partial export", export, ex);
+                throw ex;
+            } finally {
+                GraviteeContext.cleanContext();
+            }
+        };
+    }
+
+    @FunctionalInterface
+    protected interface CsvExport {
+        void write(Writer writer) throws IOException;
+    }
+
     String checkAndScaleImage(final String encodedPicture) {
         if (encodedPicture != null) {
             // first check that the image is in a valid format to prevent from XSS attack
@@ -27,6 +27,7 @@ import io.gravitee.rest.api.management.rest.security.Permissions;
 import io.gravitee.rest.api.service.LogsService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 
@@ -61,16 +62,7 @@ public class ApiLogsResource extends AbstractResource {
 
         param.validate();
 
-        LogQuery logQuery = new LogQuery();
-        logQuery.setQuery(param.getQuery());
-        logQuery.setPage(param.getPage());
-        logQuery.setSize(param.getSize());
-        logQuery.setFrom(param.getFrom());
-        logQuery.setTo(param.getTo());
-        logQuery.setField(param.getField());
-        logQuery.setOrder(param.isOrder());
-
-        return logsService.findByApi(api, logQuery);
+        return logsService.findByApi(api, toLogQuery(param));
     }
 
     @GET
@@ -98,11 +90,33 @@ public class ApiLogsResource extends AbstractResource {
     @Permissions({@Permission(value = RolePermission.API_LOG, acls = RolePermissionAction.READ)})
     public Response exportAPILogsAsCSV(
             @PathParam("api") String api,
-            @BeanParam LogsParam param) {
-        final SearchLogResponse searchLogResponse = apiLogs(api, param);
+            @BeanParam LogsParam param,
+            @ApiParam(value = "Export every matching log instead of the requested page")
+            @QueryParam("all") @DefaultValue("false") boolean all) {
+        final Object entity;
+        if (all) {
+            param.validate();
+
+            final LogQuery logQuery = toLogQuery(param);
+            entity = streamCsv("logs of API " + api, writer -> logsService.exportByApiAsCsv(api, logQuery, writer));
+        } else {
+            entity = logsService.exportAsCsv(apiLogs(api, param));
+        }
         return Response
-                .ok(logsService.exportAsCsv(searchLogResponse))
+                .ok(entity)
                 .header(HttpHeaders.CONTENT_DISPOSITION, format("attachment;filename=logs-%s-%s.csv", api, System.currentTimeMillis()))
                 .build();
     }
+
+    private LogQuery toLogQuery(LogsParam param) {
+        LogQuery logQuery = new LogQuery();
+        logQuery.setQuery(param.getQuery());
+        logQuery.setPage(param.getPage());
+        logQuery.setSize(param.getSize());
+        logQuery.setFrom(param.getFrom());
+        logQuery.setTo(param.getTo());
+        logQuery.setField(param.getField());
+        logQuery.setOrder(param.isOrder());
+        return logQuery;
+    }
 }
@@ -49,7 +49,9 @@ import javax.inject.Inject;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import javax.ws.rs.*;
+import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.container.ResourceContext;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.*;
 import javax.ws.rs.core.Response.Status;
 import java.io.ByteArrayOutputStream;
@@ -493,8 +495,8 @@ public class ApiResource extends AbstractResource {
     @Permissions({
             @Permission(value = RolePermission.API_MESSAGE, acls = RolePermissionAction.CREATE)
     })
-    public Response create(@PathParam("api") String api, final MessageEntity message) {
-        return Response.ok(messageService.create(api, message)).build();
+    public void create(@PathParam("api") String api, final MessageEntity message, @Suspended final AsyncResponse response) {
+        resume(response, messageService.create(api, message));
     }
 
     @GET
@@ -137,10 +137,19 @@ public class ApiSubscriptionsResource extends AbstractResource {
     public Response exportAPILogsAsCSV(
             @PathParam("api") String api,
             @BeanParam SubscriptionParam subscriptionParam,
-            @Valid @BeanParam Pageable pageable) {
-        final PagedResult<SubscriptionEntity> subscriptions = listApiSubscriptions(subscriptionParam, pageable);
+            @Valid @BeanParam Pageable pageable,
+            @ApiParam(value = "Export every matching subscription instead of the requested page")
+            @QueryParam("all") @DefaultValue("false") boolean all) {
+        final Object entity;
+        if (all) {
+            final SubscriptionQuery subscriptionQuery = subscriptionParam.toQuery();
+            entity = streamCsv("subscriptions of API " + api, writer -> subscriptionService.exportAsCsv(subscriptionQuery, writer));
+        } else {
+            final PagedResult<SubscriptionEntity> subscriptions = listApiSubscriptions(subscriptionParam, pageable);
+            entity = subscriptionService.exportAsCsv(subscriptions.getData(), subscriptions.getMetadata());
+        }
         return Response
-                .ok(subscriptionService.exportAsCsv(subscriptions.getData(), subscriptions.getMetadata()))
+                .ok(entity)
                 .header(HttpHeaders.CONTENT_DISPOSITION, format("attachment;filename=subscriptions-%s-%s.csv", api, System.currentTimeMillis()))
                 .build();
     }
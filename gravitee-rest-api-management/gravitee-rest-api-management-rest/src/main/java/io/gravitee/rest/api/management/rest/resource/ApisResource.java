@@ -26,6 +26,7 @@ import io.gravitee.rest.api.model.ImportSwaggerDescriptorEntity;
 import io.gravitee.rest.api.model.RatingSummaryEntity;
 import io.gravitee.rest.api.model.WorkflowState;
 import io.gravitee.rest.api.model.api.*;
+import io.gravitee.rest.api.model.permissions.CompiledPermissions;
 import io.gravitee.rest.api.model.permissions.RolePermission;
 import io.gravitee.rest.api.model.permissions.RolePermissionAction;
 import io.gravitee.rest.api.service.*;
@@ -34,6 +35,8 @@ import io.gravitee.rest.api.service.exceptions.ApiAlreadyExistsException;
 import io.gravitee.rest.api.service.notification.ApiHook;
 import io.gravitee.rest.api.service.notification.Hook;
 import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.model.MembershipReferenceType;
+import io.gravitee.repository.management.model.RoleScope;
 import io.swagger.annotations.*;
 
 import javax.inject.Inject;
@@ -127,9 +130,10 @@ public class ApisResource extends AbstractResource {
                     .collect(toList());
         }
 
+        final Map<String, CompiledPermissions> permissions = getPermissions(apis);
         return apis.stream()
                 .map(this::convert)
-                .map(this::setManageable)
+                .map(api -> setManageable(api, permissions))
                 .sorted((o1, o2) -> String.CASE_INSENSITIVE_ORDER.compare(o1.getName(), o2.getName()))
                 .collect(toList());
     }
@@ -252,10 +256,12 @@ public class ApisResource extends AbstractResource {
             Map<String, Object> filters = new HashMap<>();
             filters.put("api", apis.stream().map(ApiEntity::getId).collect(Collectors.toSet()));
 
-            return Response.ok().entity(apiService.search(query, filters)
+            final Collection<ApiEntity> results = apiService.search(query, filters);
+            final Map<String, CompiledPermissions> permissions = getPermissions(results);
+            return Response.ok().entity(results
                     .stream()
                     .map(this::convert)
-                    .map(this::setManageable)
+                    .map(api -> setManageable(api, permissions))
                     .collect(toList())).build();
         } catch (TechnicalException te) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(te).build();
@@ -325,9 +331,22 @@ public class ApisResource extends AbstractResource {
         return apiItem;
     }
 
-    private ApiListItem setManageable(ApiListItem api) {
+    /**
+     * Permissions of the authenticated user on the APIs, resolved for all of them at once.
+     */
+    private Map<String, CompiledPermissions> getPermissions(Collection<ApiEntity> apis) {
+        if (!isAuthenticated() || isAdmin() || apis.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        final Map<String, Set<String>> groupsByApi = new HashMap<>(apis.size());
+        apis.forEach(api -> groupsByApi.put(api.getId(), api.getGroups()));
+        return membershipService.getCompiledPermissions(MembershipReferenceType.API, groupsByApi, getAuthenticatedUser(), RoleScope.API);
+    }
+
+    private ApiListItem setManageable(ApiListItem api, Map<String, CompiledPermissions> permissions) {
         api.setManageable(isAuthenticated() &&
-                (isAdmin() || hasPermission(RolePermission.API_GATEWAY_DEFINITION, api.getId(), RolePermissionAction.READ))
+                (isAdmin() || permissions.getOrDefault(api.getId(), CompiledPermissions.EMPTY)
+                        .hasPermission(RolePermission.API_GATEWAY_DEFINITION, RolePermissionAction.READ))
         );
         return api;
     }
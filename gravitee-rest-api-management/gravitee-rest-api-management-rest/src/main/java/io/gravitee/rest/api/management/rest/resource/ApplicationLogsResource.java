@@ -27,6 +27,7 @@ import io.gravitee.rest.api.management.rest.security.Permissions;
 import io.gravitee.rest.api.service.LogsService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 
@@ -63,16 +64,7 @@ public class ApplicationLogsResource extends AbstractResource {
 
         param.validate();
 
-        LogQuery logQuery = new LogQuery();
-        logQuery.setQuery(param.getQuery());
-        logQuery.setPage(param.getPage());
-        logQuery.setSize(param.getSize());
-        logQuery.setFrom(param.getFrom());
-        logQuery.setTo(param.getTo());
-        logQuery.setField(param.getField());
-        logQuery.setOrder(param.isOrder());
-
-        return logsService.findByApplication(application, logQuery);
+        return logsService.findByApplication(application, toLogQuery(param));
     }
 
     @GET
@@ -102,11 +94,34 @@ public class ApplicationLogsResource extends AbstractResource {
     @Permissions({@Permission(value = RolePermission.APPLICATION_LOG, acls = RolePermissionAction.READ)})
     public Response exportApplicationLogsAsCSV(
             @PathParam("application") String application,
-            @BeanParam LogsParam param) {
-        final SearchLogResponse searchLogResponse = applicationLogs(application, param);
+            @BeanParam LogsParam param,
+            @ApiParam(value = "Export every matching log instead of the requested page")
+            @QueryParam("all") @DefaultValue("false") boolean all) {
+        final Object entity;
+        if (all) {
+            param.validate();
+
+            final LogQuery logQuery = toLogQuery(param);
+            entity = streamCsv("logs of application " + application,
+                    writer -> logsService.exportByApplicationAsCsv(application, logQuery, writer));
+        } else {
+            entity = logsService.exportAsCsv(applicationLogs(application, param));
+        }
         return Response
-                .ok(logsService.exportAsCsv(searchLogResponse))
+                .ok(entity)
                 .header(HttpHeaders.CONTENT_DISPOSITION, format("attachment;filename=logs-%s-%s.csv", application, System.currentTimeMillis()))
                 .build();
     }
+
+    private LogQuery toLogQuery(LogsParam param) {
+        LogQuery logQuery = new LogQuery();
+        logQuery.setQuery(param.getQuery());
+        logQuery.setPage(param.getPage());
+        logQuery.setSize(param.getSize());
+        logQuery.setFrom(param.getFrom());
+        logQuery.setTo(param.getTo());
+        logQuery.setField(param.getField());
+        logQuery.setOrder(param.isOrder());
+        return logQuery;
+    }
 }
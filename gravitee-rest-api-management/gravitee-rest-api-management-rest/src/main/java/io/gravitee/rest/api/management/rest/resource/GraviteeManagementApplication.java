@@ -30,6 +30,7 @@ import org.glassfish.jersey.server.ServerProperties;
 import com.fasterxml.jackson.databind.JavaType;
 
 import io.gravitee.common.util.Version;
+import io.gravitee.rest.api.management.rest.filter.EntityCacheFilter;
 import io.gravitee.rest.api.management.rest.filter.GraviteeContextRequestFilter;
 import io.gravitee.rest.api.management.rest.filter.GraviteeContextResponseFilter;
 import io.gravitee.rest.api.management.rest.filter.PermissionsFilter;
@@ -113,6 +114,7 @@ public class GraviteeManagementApplication extends ResourceConfig {
         register(BadRequestExceptionMapper.class);
 
         register(SecurityContextFilter.class);
+        register(EntityCacheFilter.class);
         register(PermissionsFilter.class);
         register(GraviteeContextRequestFilter.class);
         register(GraviteeContextResponseFilter.class);
@@ -30,7 +30,8 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
-import javax.ws.rs.core.Response;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 
 /**
  * @author Nicolas GERAUD (nicolas.geraud at graviteesource.com)
@@ -48,7 +49,7 @@ public class MessagesResource extends AbstractResource {
     @Permissions({
             @Permission(value = RolePermission.MANAGEMENT_MESSAGE, acls = RolePermissionAction.CREATE)
     })
-    public Response create(final MessageEntity message) {
-        return Response.ok(messageService.create(message)).build();
+    public void create(final MessageEntity message, @Suspended final AsyncResponse response) {
+        resume(response, messageService.create(message));
     }
 }
@@ -16,11 +16,12 @@
 package io.gravitee.rest.api.management.rest.resource;
 
 import io.gravitee.common.http.MediaType;
+import io.gravitee.repository.management.model.MembershipReferenceType;
+import io.gravitee.repository.management.model.RoleScope;
 import io.gravitee.rest.api.model.ApplicationEntity;
 import io.gravitee.rest.api.model.analytics.Analytics;
 import io.gravitee.rest.api.model.analytics.query.*;
-import io.gravitee.rest.api.model.api.ApiEntity;
-import io.gravitee.rest.api.model.application.ApplicationListItem;
+import io.gravitee.rest.api.model.permissions.RolePermission;
 import io.gravitee.rest.api.management.rest.resource.param.Aggregation;
 import io.gravitee.rest.api.management.rest.resource.param.AnalyticsParam;
 import io.gravitee.rest.api.management.rest.resource.param.Range;
@@ -43,8 +44,10 @@ import static io.gravitee.rest.api.model.permissions.RolePermission.APPLICATION_
 import static io.gravitee.rest.api.model.permissions.RolePermission.MANAGEMENT_PLATFORM;
 import static io.gravitee.rest.api.model.permissions.RolePermissionAction.READ;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -88,18 +91,16 @@ public class PlatformAnalyticsResource extends AbstractResource  {
             List<String> ids = null;
             if ("api".equals(analyticsParam.getField()) || "tenant".equals(analyticsParam.getField())) {
                 fieldName = "api";
-                ids = apiService.findByUser(getAuthenticatedUser(), null)
-                        .stream()
-                        .filter(api -> permissionService.hasPermission(API_ANALYTICS, api.getId(), READ))
-                        .map(ApiEntity::getId)
-                        .collect(Collectors.toList());
+                final Map<String, Set<String>> groupsByApi = new HashMap<>();
+                apiService.findByUser(getAuthenticatedUser(), null)
+                        .forEach(api -> groupsByApi.put(api.getId(), api.getGroups()));
+                ids = getReferencesWithPermission(MembershipReferenceType.API, groupsByApi, RoleScope.API, API_ANALYTICS);
             } else if ("application".equals(analyticsParam.getField())) {
                 fieldName = analyticsParam.getField();
-                ids = applicationService.findByUser(getAuthenticatedUser())
-                        .stream()
-                        .filter(app -> permissionService.hasPermission(APPLICATION_ANALYTICS, app.getId(), READ))
-                        .map(ApplicationListItem::getId)
-                        .collect(Collectors.toList());
+                final Map<String, Set<String>> groupsByApplication = new HashMap<>();
+                applicationService.findByUser(getAuthenticatedUser())
+                        .forEach(application -> groupsByApplication.put(application.getId(), application.getGroups()));
+                ids = getReferencesWithPermission(MembershipReferenceType.APPLICATION, groupsByApplication, RoleScope.APPLICATION, APPLICATION_ANALYTICS);
             }
 
             if (fieldName != null) {
@@ -214,6 +215,19 @@ public class PlatformAnalyticsResource extends AbstractResource  {
         }
     }
 
+    /**
+     * Ids of the references on which the authenticated user has the permission, resolved for all of them at once.
+     */
+    private List<String> getReferencesWithPermission(MembershipReferenceType referenceType, Map<String, Set<String>> groupsByReference,
+                                                     RoleScope roleScope, RolePermission permission) {
+        return membershipService.getCompiledPermissions(referenceType, groupsByReference, getAuthenticatedUser(), roleScope)
+                .entrySet()
+                .stream()
+                .filter(permissions -> permissions.getValue().hasPermission(permission, READ))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
     private String getExtraFilter(String fieldName, List<String> ids) {
         if (ids != null && !ids.isEmpty()) {
             return fieldName + ":(" + ids.stream().collect(Collectors.joining(" OR ")) + ")";
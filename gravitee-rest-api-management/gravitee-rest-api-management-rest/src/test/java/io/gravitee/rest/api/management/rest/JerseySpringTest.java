@@ -67,7 +67,12 @@ public abstract class JerseySpringTest {
 
     public final WebTarget target(final String path)
     {
-        return _jerseyTest.target("/organizations/DEFAULT/environments/DEFAULT/" + contextPath() + path);
+        return target("DEFAULT", path);
+    }
+
+    public final WebTarget target(final String environment, final String path)
+    {
+        return _jerseyTest.target("/organizations/DEFAULT/environments/" + environment + "/" + contextPath() + path);
     }
 
     @Before
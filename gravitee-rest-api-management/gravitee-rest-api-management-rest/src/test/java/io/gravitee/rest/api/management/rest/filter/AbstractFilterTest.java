@@ -24,6 +24,7 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.support.AnnotationConfigContextLoader;
 
 import io.gravitee.rest.api.service.*;
+import io.gravitee.rest.api.service.common.EntityCache;
 
 import javax.ws.rs.container.ResourceInfo;
 import javax.ws.rs.core.SecurityContext;
@@ -84,6 +85,11 @@ public abstract class AbstractFilterTest {
             return mock(MembershipService.class);
         }
 
+        @Bean
+        public EntityCache entityCache() {
+            return mock(EntityCache.class);
+        }
+
         @Bean
         public RoleService roleService() {
             return mock(RoleService.class);
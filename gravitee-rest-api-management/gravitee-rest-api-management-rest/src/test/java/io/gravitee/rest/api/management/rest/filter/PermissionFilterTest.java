@@ -18,8 +18,8 @@ package io.gravitee.rest.api.management.rest.filter;
 import io.gravitee.repository.management.model.MembershipReferenceType;
 import io.gravitee.repository.management.model.RoleScope;
 import io.gravitee.rest.api.model.ApplicationEntity;
-import io.gravitee.rest.api.model.RoleEntity;
 import io.gravitee.rest.api.model.api.ApiEntity;
+import io.gravitee.rest.api.model.permissions.CompiledPermissions;
 import io.gravitee.rest.api.model.permissions.RolePermission;
 import io.gravitee.rest.api.model.permissions.RolePermissionAction;
 import io.gravitee.rest.api.management.rest.filter.PermissionsFilter;
@@ -28,7 +28,7 @@ import io.gravitee.rest.api.management.rest.security.Permissions;
 import io.gravitee.rest.api.service.ApiService;
 import io.gravitee.rest.api.service.ApplicationService;
 import io.gravitee.rest.api.service.MembershipService;
-import io.gravitee.rest.api.service.RoleService;
+import io.gravitee.rest.api.service.common.EntityCache;
 import io.gravitee.rest.api.service.exceptions.ForbiddenAccessException;
 
 import org.junit.Assert;
@@ -36,6 +36,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 
 import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.core.MultivaluedHashMap;
@@ -69,8 +70,8 @@ public class PermissionFilterTest {
     @Mock
     protected MembershipService membershipService;
 
-    @Mock
-    protected RoleService roleService;
+    @Spy
+    protected EntityCache entityCache = new EntityCache();
 
     @Mock
     protected Permissions permissions;
@@ -89,6 +90,14 @@ public class PermissionFilterTest {
         initMocks(this);
     }
 
+    private CompiledPermissions compiledPermissions(RolePermission permission, boolean granted) {
+        if (!granted) {
+            return CompiledPermissions.EMPTY;
+        }
+        return CompiledPermissions.compile(permission.getScope(),
+                Collections.singletonMap(permission.getPermission().getName(), new char[]{RolePermissionAction.UPDATE.getId()}));
+    }
+
     /**
      * API Tests
      */
@@ -113,16 +122,16 @@ public class PermissionFilterTest {
     @Test(expected = ForbiddenAccessException.class)
     public void shouldThrowForbiddenExceptionWhenNoApiPermissions() {
         ApiEntity api = initApiMocks();
-        when(roleService.hasPermission(any(), any(), any())).thenReturn(false);
+        when(membershipService.getCompiledPermissions(eq(MembershipReferenceType.API), any(), any(), eq(USERNAME), eq(RoleScope.API)))
+                .thenReturn(compiledPermissions(RolePermission.API_ANALYTICS, false));
 
         try {
             permissionFilter.filter(permissions, containerRequestContext);
         } catch(ForbiddenAccessException e) {
             verify(apiService, times(1)).findById(api.getId());
             verify(applicationService, never()).findById(any());
-            verify(roleService, times(1)).hasPermission(any(), any(), any());
-            verify(membershipService, times(1)).getMemberPermissions(api, USERNAME);
-            verify(membershipService, never()).getRole(any(), any(), any(), any());
+            verify(membershipService, times(1)).getCompiledPermissions(MembershipReferenceType.API, API_ID, null, USERNAME, RoleScope.API);
+            verify(membershipService, never()).getCompiledPermissions(eq(MembershipReferenceType.MANAGEMENT), any(), any(), any(), any());
             throw e;
         }
 
@@ -132,14 +141,14 @@ public class PermissionFilterTest {
     @Test
     public void shouldBeAuthorizedWhenApiPermissions() {
         ApiEntity api = initApiMocks();
-        when(roleService.hasPermission(any(), any(), any())).thenReturn(true);
+        when(membershipService.getCompiledPermissions(eq(MembershipReferenceType.API), any(), any(), eq(USERNAME), eq(RoleScope.API)))
+                .thenReturn(compiledPermissions(RolePermission.API_ANALYTICS, true));
 
         permissionFilter.filter(permissions, containerRequestContext);
         verify(apiService, times(1)).findById(api.getId());
         verify(applicationService, never()).findById(any());
-        verify(roleService, times(1)).hasPermission(any(), any(), any());
-        verify(membershipService, times(1)).getMemberPermissions(api, USERNAME);
-        verify(membershipService, never()).getRole(any(), any(), any(), any());
+        verify(membershipService, times(1)).getCompiledPermissions(MembershipReferenceType.API, API_ID, null, USERNAME, RoleScope.API);
+        verify(membershipService, never()).getCompiledPermissions(eq(MembershipReferenceType.MANAGEMENT), any(), any(), any(), any());
     }
 
     /**
@@ -166,16 +175,16 @@ public class PermissionFilterTest {
     @Test(expected = ForbiddenAccessException.class)
     public void shouldThrowForbiddenExceptionWhenNoApplicationPermissions() {
         ApplicationEntity application = initApplicationMocks();
-        when(roleService.hasPermission(any(), any(), any())).thenReturn(false);
+        when(membershipService.getCompiledPermissions(eq(MembershipReferenceType.APPLICATION), any(), any(), eq(USERNAME), eq(RoleScope.APPLICATION)))
+                .thenReturn(compiledPermissions(RolePermission.APPLICATION_ANALYTICS, false));
 
         try {
             permissionFilter.filter(permissions, containerRequestContext);
         } catch(ForbiddenAccessException e) {
             verify(applicationService, times(1)).findById(application.getId());
             verify(apiService, never()).findById(any());
-            verify(roleService, times(1)).hasPermission(any(), any(), any());
-            verify(membershipService, times(1)).getMemberPermissions(application, USERNAME);
-            verify(membershipService, never()).getRole(any(), any(), any(), any());
+            verify(membershipService, times(1)).getCompiledPermissions(MembershipReferenceType.APPLICATION, APPLICATION_ID, null, USERNAME, RoleScope.APPLICATION);
+            verify(membershipService, never()).getCompiledPermissions(eq(MembershipReferenceType.MANAGEMENT), any(), any(), any(), any());
             throw e;
         }
 
@@ -185,14 +194,14 @@ public class PermissionFilterTest {
     @Test
     public void shouldBeAuthorizedWhenApplicationPermissions() {
         ApplicationEntity application = initApplicationMocks();
-        when(roleService.hasPermission(any(), any(), any())).thenReturn(true);
+        when(membershipService.getCompiledPermissions(eq(MembershipReferenceType.APPLICATION), any(), any(), eq(USERNAME), eq(RoleScope.APPLICATION)))
+                .thenReturn(compiledPermissions(RolePermission.APPLICATION_ANALYTICS, true));
 
         permissionFilter.filter(permissions, containerRequestContext);
         verify(apiService, never()).findById(any());
         verify(applicationService, times(1)).findById(application.getId());
-        verify(roleService, times(1)).hasPermission(any(), any(), any());
-        verify(membershipService, times(1)).getMemberPermissions(application, USERNAME);
-        verify(membershipService, never()).getRole(any(), any(), any(), any());
+        verify(membershipService, times(1)).getCompiledPermissions(MembershipReferenceType.APPLICATION, APPLICATION_ID, null, USERNAME, RoleScope.APPLICATION);
+        verify(membershipService, never()).getCompiledPermissions(eq(MembershipReferenceType.MANAGEMENT), any(), any(), any(), any());
     }
 
     /**
@@ -208,23 +217,22 @@ public class PermissionFilterTest {
         when(permissions.value()).thenReturn(new Permission[]{perm});
         UriInfo uriInfo = mock(UriInfo.class);
         when(containerRequestContext.getUriInfo()).thenReturn(uriInfo);
-        when(membershipService.getRole(any(), any(), any(), any())).thenReturn(mock(RoleEntity.class));
     }
 
     @Test(expected = ForbiddenAccessException.class)
     public void shouldThrowForbiddenExceptionWhenNoManagementPermissions() {
         initManagementMocks();
-        when(roleService.hasPermission(any(), any(), any())).thenReturn(false);
+        when(membershipService.getCompiledPermissions(eq(MembershipReferenceType.MANAGEMENT), any(), any(), eq(USERNAME), eq(RoleScope.MANAGEMENT)))
+                .thenReturn(compiledPermissions(RolePermission.MANAGEMENT_API, false));
 
         try {
             permissionFilter.filter(permissions, containerRequestContext);
         } catch(ForbiddenAccessException e) {
             verify(applicationService, never()).findById(any());
             verify(apiService, never()).findById(any());
-            verify(roleService, times(1)).hasPermission(any(), any(), any());
-            verify(membershipService, never()).getMemberPermissions(any(ApiEntity.class), any());
-            verify(membershipService, never()).getMemberPermissions(any(ApplicationEntity.class), any());
-            verify(membershipService, times(1)).getRole(eq(MembershipReferenceType.MANAGEMENT), any(), any(), eq(RoleScope.MANAGEMENT));
+            verify(membershipService, never()).getCompiledPermissions(eq(MembershipReferenceType.API), any(), any(), any(), any());
+            verify(membershipService, never()).getCompiledPermissions(eq(MembershipReferenceType.APPLICATION), any(), any(), any(), any());
+            verify(membershipService, times(1)).getCompiledPermissions(eq(MembershipReferenceType.MANAGEMENT), eq("DEFAULT"), isNull(), eq(USERNAME), eq(RoleScope.MANAGEMENT));
             throw e;
         }
 
@@ -234,16 +242,16 @@ public class PermissionFilterTest {
     @Test
     public void shouldBeAuthorizedWhenManagementPermissions() {
         initManagementMocks();
-        when(roleService.hasPermission(any(), any(), any())).thenReturn(true);
+        when(membershipService.getCompiledPermissions(eq(MembershipReferenceType.MANAGEMENT), any(), any(), eq(USERNAME), eq(RoleScope.MANAGEMENT)))
+                .thenReturn(compiledPermissions(RolePermission.MANAGEMENT_API, true));
 
         permissionFilter.filter(permissions, containerRequestContext);
 
         verify(applicationService, never()).findById(any());
         verify(apiService, never()).findById(any());
-        verify(roleService, times(1)).hasPermission(any(), any(), any());
-        verify(membershipService, never()).getMemberPermissions(any(ApiEntity.class), any());
-        verify(membershipService, never()).getMemberPermissions(any(ApplicationEntity.class), any());
-        verify(membershipService, times(1)).getRole(eq(MembershipReferenceType.MANAGEMENT), any(), any(), eq(RoleScope.MANAGEMENT));
+        verify(membershipService, never()).getCompiledPermissions(eq(MembershipReferenceType.API), any(), any(), any(), any());
+        verify(membershipService, never()).getCompiledPermissions(eq(MembershipReferenceType.APPLICATION), any(), any(), any(), any());
+        verify(membershipService, times(1)).getCompiledPermissions(eq(MembershipReferenceType.MANAGEMENT), eq("DEFAULT"), isNull(), eq(USERNAME), eq(RoleScope.MANAGEMENT));
     }
 
     /**
@@ -259,23 +267,22 @@ public class PermissionFilterTest {
         when(permissions.value()).thenReturn(new Permission[]{perm});
         UriInfo uriInfo = mock(UriInfo.class);
         when(containerRequestContext.getUriInfo()).thenReturn(uriInfo);
-        when(membershipService.getRole(any(), any(), any(), any())).thenReturn(mock(RoleEntity.class));
     }
 
     @Test(expected = ForbiddenAccessException.class)
     public void shouldThrowForbiddenExceptionWhenNoPortalPermissions() {
         initPortalMocks();
-        when(roleService.hasPermission(any(), any(), any())).thenReturn(false);
+        when(membershipService.getCompiledPermissions(eq(MembershipReferenceType.PORTAL), any(), any(), eq(USERNAME), eq(RoleScope.PORTAL)))
+                .thenReturn(compiledPermissions(RolePermission.PORTAL_METADATA, false));
 
         try {
             permissionFilter.filter(permissions, containerRequestContext);
         } catch(ForbiddenAccessException e) {
             verify(applicationService, never()).findById(any());
             verify(apiService, never()).findById(any());
-            verify(roleService, times(1)).hasPermission(any(), any(), any());
-            verify(membershipService, never()).getMemberPermissions(any(ApiEntity.class), any());
-            verify(membershipService, never()).getMemberPermissions(any(ApplicationEntity.class), any());
-            verify(membershipService, times(1)).getRole(eq(MembershipReferenceType.PORTAL), any(), any(), eq(RoleScope.PORTAL));
+            verify(membershipService, never()).getCompiledPermissions(eq(MembershipReferenceType.API), any(), any(), any(), any());
+            verify(membershipService, never()).getCompiledPermissions(eq(MembershipReferenceType.APPLICATION), any(), any(), any(), any());
+            verify(membershipService, times(1)).getCompiledPermissions(eq(MembershipReferenceType.PORTAL), eq("DEFAULT"), isNull(), eq(USERNAME), eq(RoleScope.PORTAL));
             throw e;
         }
 
@@ -285,15 +292,15 @@ public class PermissionFilterTest {
     @Test
     public void shouldBeAuthorizedWhenPortalPermissions() {
         initPortalMocks();
-        when(roleService.hasPermission(any(), any(), any())).thenReturn(true);
+        when(membershipService.getCompiledPermissions(eq(MembershipReferenceType.PORTAL), any(), any(), eq(USERNAME), eq(RoleScope.PORTAL)))
+                .thenReturn(compiledPermissions(RolePermission.PORTAL_METADATA, true));
 
         permissionFilter.filter(permissions, containerRequestContext);
 
         verify(applicationService, never()).findById(any());
         verify(apiService, never()).findById(any());
-        verify(roleService, times(1)).hasPermission(any(), any(), any());
-        verify(membershipService, never()).getMemberPermissions(any(ApiEntity.class), any());
-        verify(membershipService, never()).getMemberPermissions(any(ApplicationEntity.class), any());
-        verify(membershipService, times(1)).getRole(eq(MembershipReferenceType.PORTAL), any(), any(), eq(RoleScope.PORTAL));
+        verify(membershipService, never()).getCompiledPermissions(eq(MembershipReferenceType.API), any(), any(), any(), any());
+        verify(membershipService, never()).getCompiledPermissions(eq(MembershipReferenceType.APPLICATION), any(), any(), any(), any());
+        verify(membershipService, times(1)).getCompiledPermissions(eq(MembershipReferenceType.PORTAL), eq("DEFAULT"), isNull(), eq(USERNAME), eq(RoleScope.PORTAL));
     }
 }
@@ -20,6 +20,7 @@ import io.gravitee.rest.api.security.authentication.AuthenticationProvider;
 import io.gravitee.rest.api.security.authentication.AuthenticationProviderManager;
 import io.gravitee.rest.api.security.cookies.JWTCookieGenerator;
 import io.gravitee.rest.api.service.*;
+import io.gravitee.rest.api.service.common.EntityCache;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -132,6 +133,9 @@ public abstract class AbstractResourceTest extends JerseySpringTest {
     @Autowired
     protected EnvironmentService environmentService;
 
+    @Autowired
+    protected LogsService logsService;
+
     @Configuration
     @PropertySource("classpath:/io/gravitee/rest/api/management/rest/resource/jwt.properties")
     static class ContextConfiguration {
@@ -171,6 +175,11 @@ public abstract class AbstractResourceTest extends JerseySpringTest {
             return mock(MembershipService.class);
         }
 
+        @Bean
+        public EntityCache entityCache() {
+            return mock(EntityCache.class);
+        }
+
         @Bean
         public RoleService roleService() {
             return mock(RoleService.class);
@@ -270,5 +279,10 @@ public abstract class AbstractResourceTest extends JerseySpringTest {
         public EnvironmentService environmentService() {
             return mock(EnvironmentService.class);
         }
+
+        @Bean
+        public LogsService logsService() {
+            return mock(LogsService.class);
+        }
     }
 }
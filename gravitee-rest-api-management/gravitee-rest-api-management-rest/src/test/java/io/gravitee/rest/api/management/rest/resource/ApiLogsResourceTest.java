@@ -0,0 +1,70 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.management.rest.resource;
+
+import io.gravitee.rest.api.service.common.GraviteeContext;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.core.Response;
+import java.io.Writer;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static io.gravitee.common.http.HttpStatusCode.OK_200;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.reset;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class ApiLogsResourceTest extends AbstractResourceTest {
+
+    private static final String API = "my-api";
+    private static final String ENVIRONMENT = "my-environment";
+
+    protected String contextPath() {
+        return "apis/" + API + "/logs/";
+    }
+
+    @Before
+    public void init() {
+        reset(logsService);
+    }
+
+    @Test
+    public void shouldExportAllLogsInEnvironmentOfRequest() {
+        final AtomicReference<String> exportEnvironment = new AtomicReference<>();
+        doAnswer(invocation -> {
+            exportEnvironment.set(GraviteeContext.getCurrentEnvironment());
+            invocation.<Writer>getArgument(2).write("log-1\n");
+            return null;
+        }).when(logsService).exportByApiAsCsv(eq(API), any(), any());
+
+        final Response response = target(ENVIRONMENT, "export")
+                .queryParam("all", true)
+                .queryParam("from", 1)
+                .queryParam("to", 2)
+                .request()
+                .get();
+
+        assertEquals(OK_200, response.getStatus());
+        assertEquals("log-1\n", response.readEntity(String.class));
+        assertEquals(ENVIRONMENT, exportEnvironment.get());
+    }
+}
@@ -69,6 +69,8 @@ public final class JettyEmbeddedContainer extends AbstractLifecycleComponent<Jet
         final ServletHolder servletManagementHolder = new ServletHolder(ServletContainer.class);
         servletManagementHolder.setInitParameter("javax.ws.rs.Application", GraviteeManagementApplication.class.getName());
         servletManagementHolder.setInitOrder(0);
+        // resources may suspend the response while waiting for a remote call
+        servletManagementHolder.setAsyncSupported(true);
         context.addServlet(servletManagementHolder, "/management/*");
 
         // Spring configuration
@@ -83,7 +85,9 @@ public final class JettyEmbeddedContainer extends AbstractLifecycleComponent<Jet
         context.addEventListener(new ContextLoaderListener(webApplicationContext));
 
         // Spring Security filter
-        context.addFilter(new FilterHolder(new DelegatingFilterProxy("springSecurityFilterChain")),"/*", EnumSet.allOf(DispatcherType.class));
+        final FilterHolder securityFilterHolder = new FilterHolder(new DelegatingFilterProxy("springSecurityFilterChain"));
+        securityFilterHolder.setAsyncSupported(true);
+        context.addFilter(securityFilterHolder, "/*", EnumSet.allOf(DispatcherType.class));
 
         // start the server
         server.start();
@@ -0,0 +1,129 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.model.permissions;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Permissions of a role compiled as a bitset: each {@link RolePermission} has one bit per {@link RolePermissionAction},
+ * so checking a permission does not need any lookup nor allocation.
+ *
+ * @author GraviteeSource Team
+ */
+public final class CompiledPermissions {
+
+    private static final int ACTIONS = RolePermissionAction.values().length;
+
+    private static final int WORDS = (RolePermission.values().length * ACTIONS + Long.SIZE - 1) / Long.SIZE;
+
+    private static final Map<RoleScope, Map<String, RolePermission>> PERMISSIONS_BY_SCOPE = new EnumMap<>(RoleScope.class);
+
+    static {
+        for (RolePermission rolePermission : RolePermission.values()) {
+            PERMISSIONS_BY_SCOPE
+                    .computeIfAbsent(rolePermission.getScope(), scope -> new HashMap<>())
+                    .put(rolePermission.getPermission().getName(), rolePermission);
+        }
+    }
+
+    public static final CompiledPermissions EMPTY = new CompiledPermissions(new long[WORDS]);
+
+    private final long[] bits;
+
+    private CompiledPermissions(long[] bits) {
+        this.bits = bits;
+    }
+
+    /**
+     * Compile the permissions of a role, as stored in {@link io.gravitee.rest.api.model.RoleEntity#getPermissions()}.
+     */
+    public static CompiledPermissions compile(RoleScope scope, Map<String, char[]> permissions) {
+        if (scope == null || permissions == null || permissions.isEmpty()) {
+            return EMPTY;
+        }
+
+        final Map<String, RolePermission> scopePermissions = PERMISSIONS_BY_SCOPE.get(scope);
+        if (scopePermissions == null) {
+            return EMPTY;
+        }
+
+        final long[] bits = new long[WORDS];
+        for (Map.Entry<String, char[]> permission : permissions.entrySet()) {
+            final RolePermission rolePermission = scopePermissions.get(permission.getKey());
+            if (rolePermission != null && permission.getValue() != null) {
+                for (char action : permission.getValue()) {
+                    final int index = index(rolePermission, RolePermissionAction.findById(action));
+                    bits[index / Long.SIZE] |= 1L << (index % Long.SIZE);
+                }
+            }
+        }
+        return new CompiledPermissions(bits);
+    }
+
+    /**
+     * Merge these permissions with the given ones, for instance to compute the permissions given by several groups.
+     */
+    public CompiledPermissions or(CompiledPermissions other) {
+        if (other == null || other == EMPTY) {
+            return this;
+        }
+        if (this == EMPTY) {
+            return other;
+        }
+
+        final long[] merged = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            merged[i] = bits[i] | other.bits[i];
+        }
+        return new CompiledPermissions(merged);
+    }
+
+    /**
+     * @return <code>true</code> if at least one of the actions is granted for the permission.
+     */
+    public boolean hasPermission(RolePermission permission, RolePermissionAction... acls) {
+        if (acls == null) {
+            return false;
+        }
+        for (RolePermissionAction acl : acls) {
+            final int index = index(permission, acl);
+            if ((bits[index / Long.SIZE] & (1L << (index % Long.SIZE))) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int index(RolePermission permission, RolePermissionAction action) {
+        return permission.ordinal() * ACTIONS + action.ordinal();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CompiledPermissions that = (CompiledPermissions) o;
+        return Arrays.equals(bits, that.bits);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bits);
+    }
+}
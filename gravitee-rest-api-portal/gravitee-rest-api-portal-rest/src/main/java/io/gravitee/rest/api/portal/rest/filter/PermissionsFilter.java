@@ -18,7 +18,6 @@ package io.gravitee.rest.api.portal.rest.filter;
 import java.io.IOException;
 import java.security.Principal;
 import java.util.List;
-import java.util.Map;
 
 import javax.annotation.Priority;
 import javax.inject.Inject;
@@ -36,8 +35,8 @@ import io.gravitee.repository.management.model.MembershipDefaultReferenceId;
 import io.gravitee.repository.management.model.MembershipReferenceType;
 import io.gravitee.repository.management.model.RoleScope;
 import io.gravitee.rest.api.model.ApplicationEntity;
-import io.gravitee.rest.api.model.RoleEntity;
 import io.gravitee.rest.api.model.api.ApiEntity;
+import io.gravitee.rest.api.model.permissions.CompiledPermissions;
 import io.gravitee.rest.api.portal.rest.resource.AbstractResource;
 import io.gravitee.rest.api.portal.rest.security.Permission;
 import io.gravitee.rest.api.portal.rest.security.Permissions;
@@ -45,7 +44,7 @@ import io.gravitee.rest.api.service.ApiService;
 import io.gravitee.rest.api.service.ApplicationService;
 import io.gravitee.rest.api.service.GroupService;
 import io.gravitee.rest.api.service.MembershipService;
-import io.gravitee.rest.api.service.RoleService;
+import io.gravitee.rest.api.service.common.EntityCache;
 import io.gravitee.rest.api.service.exceptions.ForbiddenAccessException;
 import io.gravitee.rest.api.service.exceptions.UnauthorizedAccessException;
 
@@ -76,7 +75,7 @@ public class PermissionsFilter implements ContainerRequestFilter {
     private ApiService apiService;
 
     @Inject
-    private RoleService roleService;
+    private EntityCache entityCache;
 
     @Inject
     private GroupService groupService;
@@ -109,23 +108,22 @@ public class PermissionsFilter implements ContainerRequestFilter {
     }
 
     protected boolean hasPermission(ContainerRequestContext requestContext, String username, Permission permission) {
-        RoleEntity role;
-        Map<String, char[]> memberPermissions;
+        CompiledPermissions memberPermissions;
         switch (permission.value().getScope()) {
             case MANAGEMENT:
-                role = membershipService.getRole(MembershipReferenceType.MANAGEMENT, MembershipDefaultReferenceId.DEFAULT.name(), username, RoleScope.MANAGEMENT);
-                return roleService.hasPermission(role.getPermissions(), permission.value().getPermission(), permission.acls());
+                memberPermissions = membershipService.getCompiledPermissions(MembershipReferenceType.MANAGEMENT, MembershipDefaultReferenceId.DEFAULT.name(), null, username, RoleScope.MANAGEMENT);
+                return memberPermissions.hasPermission(permission.value(), permission.acls());
             case PORTAL:
-                role = membershipService.getRole(MembershipReferenceType.PORTAL, MembershipDefaultReferenceId.DEFAULT.name(), username, RoleScope.PORTAL);
-                return roleService.hasPermission(role.getPermissions(), permission.value().getPermission(), permission.acls());
+                memberPermissions = membershipService.getCompiledPermissions(MembershipReferenceType.PORTAL, MembershipDefaultReferenceId.DEFAULT.name(), null, username, RoleScope.PORTAL);
+                return memberPermissions.hasPermission(permission.value(), permission.acls());
             case APPLICATION:
                 ApplicationEntity application = getApplication(requestContext);
-                memberPermissions = membershipService.getMemberPermissions(application, username);
-                return roleService.hasPermission(memberPermissions, permission.value().getPermission(), permission.acls());
+                memberPermissions = membershipService.getCompiledPermissions(MembershipReferenceType.APPLICATION, application.getId(), application.getGroups(), username, RoleScope.APPLICATION);
+                return memberPermissions.hasPermission(permission.value(), permission.acls());
             case API:
                 ApiEntity api = getApi(requestContext);
-                memberPermissions = membershipService.getMemberPermissions(api, username);
-                return roleService.hasPermission(memberPermissions, permission.value().getPermission(), permission.acls());
+                memberPermissions = membershipService.getCompiledPermissions(MembershipReferenceType.API, api.getId(), api.getGroups(), username, RoleScope.API);
+                return memberPermissions.hasPermission(permission.value(), permission.acls());
             default:
                 sendSecurityError();
         }
@@ -137,7 +135,7 @@ public class PermissionsFilter implements ContainerRequestFilter {
         if (apiId == null) {
             return null;
         }
-        return apiService.findById(apiId);
+        return entityCache.getApi(apiId, apiService::findById);
     }
 
     private ApplicationEntity getApplication(ContainerRequestContext requestContext) {
@@ -145,7 +143,7 @@ public class PermissionsFilter implements ContainerRequestFilter {
         if (applicationId == null) {
             return null;
         }
-        return applicationService.findById(applicationId);
+        return entityCache.getApplication(applicationId, applicationService::findById);
     }
 
     private String getId(String key, ContainerRequestContext requestContext) {
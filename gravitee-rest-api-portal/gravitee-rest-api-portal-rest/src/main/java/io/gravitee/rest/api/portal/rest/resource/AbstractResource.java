@@ -28,6 +28,7 @@ import io.gravitee.rest.api.service.ApiService;
 import io.gravitee.rest.api.service.MembershipService;
 import io.gravitee.rest.api.service.PermissionService;
 import io.gravitee.rest.api.service.RoleService;
+import io.gravitee.rest.api.service.common.GraviteeContext;
 import io.gravitee.rest.api.service.exceptions.PaginationInvalidException;
 import io.gravitee.rest.api.service.exceptions.UploadUnauthorized;
 import org.glassfish.jersey.message.internal.HttpHeaderReader;
@@ -45,8 +46,12 @@ import javax.ws.rs.core.*;
 import javax.ws.rs.core.Response.Status;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.*;
 
@@ -138,6 +143,35 @@ public abstract class AbstractResource {
         }
     }
 
+    /**
+     * Stream a CSV export. The entity is written once the response filters have run, so the environment and
+     * organization of the request are read here and set again while writing.
+     */
+    protected StreamingOutput streamCsv(final String export, final CsvExport csvExport) {
+        final String environment = GraviteeContext.getCurrentEnvironment();
+        final String organization = GraviteeContext.getCurrentOrganization();
+        return output -> {
+            GraviteeContext.setCurrentEnvironment(environment);
+            GraviteeContext.setCurrentOrganization(organization);
+            try {
+                final Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+                csvExport.write(writer);
+                writer.flush();
+            } catch (IOException | RuntimeException ex) {
+                // the first rows may already be sent with a 200 status
+                LOGGER.error("Export of {} failed, the client may have received a partial export", export, ex);
+                throw ex;
+            } finally {
+                GraviteeContext.cleanContext();
+            }
+        };
+    }
+
+    @FunctionalInterface
+    protected interface CsvExport {
+        void write(Writer writer) throws IOException;
+    }
+
     String checkAndScaleImage(final String encodedPicture) {
         if (encodedPicture != null) {
             // first check that the image is in a valid format to prevent from XSS attack
@@ -259,26 +293,31 @@ public abstract class AbstractResource {
 
     protected List paginateResultList(List list, Integer totalItems, Integer page, Integer size,
             Map<String, Object> paginationMetadata) {
+        computePaginationMetadata(totalItems, page, size, paginationMetadata);
+
+        Integer startIndex = (page - 1) * size;
+        Integer lastIndex = Math.min(startIndex + size, totalItems);
+        return list.subList(startIndex, lastIndex);
+    }
+
+    protected void computePaginationMetadata(Integer totalItems, Integer page, Integer size,
+            Map<String, Object> paginationMetadata) {
         Integer startIndex = (page - 1) * size;
         Integer lastIndex = Math.min(startIndex + size, totalItems);
         Integer totalPages = (int) Math.ceil((double) totalItems / size);
 
         if (startIndex >= totalItems || page < 1) {
             throw new PaginationInvalidException();
-        } else {
-
-            paginationMetadata.put(METADATA_PAGINATION_CURRENT_PAGE_KEY, page);
-            paginationMetadata.put(METADATA_PAGINATION_SIZE_KEY, size);
+        }
 
-            paginationMetadata.put(METADATA_PAGINATION_FIRST_ITEM_INDEX_KEY, startIndex + 1);
-            paginationMetadata.put(METADATA_PAGINATION_LAST_ITEM_INDEX_KEY, lastIndex);
+        paginationMetadata.put(METADATA_PAGINATION_CURRENT_PAGE_KEY, page);
+        paginationMetadata.put(METADATA_PAGINATION_SIZE_KEY, size);
 
-            paginationMetadata.put(METADATA_PAGINATION_TOTAL_KEY, totalItems);
-            paginationMetadata.put(METADATA_PAGINATION_TOTAL_PAGE_KEY, totalPages);
-
-            return list.subList(startIndex, lastIndex);
-        }
+        paginationMetadata.put(METADATA_PAGINATION_FIRST_ITEM_INDEX_KEY, startIndex + 1);
+        paginationMetadata.put(METADATA_PAGINATION_LAST_ITEM_INDEX_KEY, lastIndex);
 
+        paginationMetadata.put(METADATA_PAGINATION_TOTAL_KEY, totalItems);
+        paginationMetadata.put(METADATA_PAGINATION_TOTAL_PAGE_KEY, totalPages);
     }
 
     protected DataResponse createDataResponse(List dataList, PaginationParam paginationParam,
@@ -310,6 +349,27 @@ public abstract class AbstractResource {
                 .links(this.computePaginatedLinks(paginationParam.getPage(), paginationParam.getSize(), totalItems));
     }
 
+    /**
+     * Same as {@link #createDataResponse(List, PaginationParam, Map, boolean)} for a list which is already the
+     * requested page of a result containing <code>totalItems</code> elements.
+     */
+    protected DataResponse createPagedDataResponse(List pageList, int totalItems, PaginationParam paginationParam,
+            Map<String, Map<String, Object>> metadata) {
+        Map<String, Object> dataMetadata = new HashMap<>();
+        Map<String, Object> paginationMetadata = new HashMap<>();
+
+        if (totalItems > 0) {
+            this.computePaginationMetadata(totalItems, paginationParam.getPage(), paginationParam.getSize(),
+                    paginationMetadata);
+        }
+
+        dataMetadata.put(METADATA_DATA_TOTAL_KEY, pageList.size());
+
+        return new DataResponse().data(pageList)
+                .metadata(this.computeMetadata(metadata, dataMetadata, paginationMetadata))
+                .links(this.computePaginatedLinks(paginationParam.getPage(), paginationParam.getSize(), totalItems));
+    }
+
     protected Map<String, Map<String, Object>> computeMetadata(Map<String, Map<String, Object>> metadata,
             Map<String, Object> dataMetadata, Map<String, Object> paginationMetadata) {
         if (metadata == null) {
@@ -340,6 +400,11 @@ public abstract class AbstractResource {
         return Response.ok(createDataResponse(dataList, paginationParam, metadata, withPagination)).build();
     }
 
+    protected Response createPagedListResponse(List pageList, int totalItems, PaginationParam paginationParam,
+            Map<String, Map<String, Object>> metadata) {
+        return Response.ok(createPagedDataResponse(pageList, totalItems, paginationParam, metadata)).build();
+    }
+
     protected Response createPictureResponse(Request request, InlinePictureEntity image) {
         if (image == null || image.getContent() == null) {
             return Response.ok().build();
@@ -15,6 +15,7 @@
  */
 package io.gravitee.rest.api.portal.rest.resource;
 
+import io.gravitee.common.data.domain.Page;
 import io.gravitee.common.http.MediaType;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.rest.api.model.RatingSummaryEntity;
@@ -23,6 +24,7 @@ import io.gravitee.rest.api.model.TopApiEntity;
 import io.gravitee.rest.api.model.api.ApiEntity;
 import io.gravitee.rest.api.model.api.ApiQuery;
 import io.gravitee.rest.api.model.application.ApplicationListItem;
+import io.gravitee.rest.api.model.common.PageableImpl;
 import io.gravitee.rest.api.model.subscription.SubscriptionQuery;
 import io.gravitee.rest.api.portal.rest.mapper.ApiMapper;
 import io.gravitee.rest.api.portal.rest.model.Api;
@@ -73,6 +75,21 @@ public class ApisResource extends AbstractResource {
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     public Response getApis(@BeanParam PaginationParam paginationParam, @BeanParam ApisParam apisParam) {
+        // Without category, only the requested page of APIs has to be loaded
+        if (apisParam.getCategory() == null && apisParam.getExcludedCategory() == null
+                && paginationParam.getSize() != null && paginationParam.getSize() > 0) {
+            final Page<ApiEntity> apisPage = apiService.findPublishedByUser(getAuthenticatedUserOrNull(),
+                    createQueryFromParam(apisParam),
+                    new PageableImpl(paginationParam.getPage(), paginationParam.getSize()));
+
+            List<Api> apisList = apisPage.getContent().stream()
+                    .map(apiMapper::convert)
+                    .map(this::addApiLinks)
+                    .collect(Collectors.toList());
+
+            return createPagedListResponse(apisList, (int) apisPage.getTotalElements(), paginationParam, null);
+        }
+
         Collection<ApiEntity> apis = apiService.findPublishedByUser(getAuthenticatedUserOrNull(),
                 createQueryFromParam(apisParam));
 
@@ -84,6 +84,10 @@ public class ApplicationLogsResource extends AbstractResource {
             PaginationParam paginationParam, LogsParam logsParam) {
         logsParam.validate();
 
+        return logsService.findByApplication(applicationId, toLogQuery(paginationParam, logsParam));
+    }
+
+    private LogQuery toLogQuery(PaginationParam paginationParam, LogsParam logsParam) {
         LogQuery logQuery = new LogQuery();
         logQuery.setPage(paginationParam.getPage());
         logQuery.setSize(paginationParam.getSize());
@@ -93,8 +97,7 @@ public class ApplicationLogsResource extends AbstractResource {
         logQuery.setTo(logsParam.getTo());
         logQuery.setField(logsParam.getField());
         logQuery.setOrder(!"DESC".equals(logsParam.getOrder()));
-
-        return logsService.findByApplication(applicationId, logQuery);
+        return logQuery;
     }
 
     @GET
@@ -126,13 +129,24 @@ public class ApplicationLogsResource extends AbstractResource {
     public Response exportApplicationLogsAsCSV(
             @PathParam("applicationId") String applicationId,
             @BeanParam PaginationParam paginationParam,
-            @BeanParam LogsParam logsParam) {
+            @BeanParam LogsParam logsParam,
+            @QueryParam("all") @DefaultValue("false") boolean all) {
         //Does application exists ?
         applicationService.findById(applicationId);
         
-        final SearchLogResponse<ApplicationRequestItem> searchLogResponse = getSearchLogResponse(applicationId, paginationParam, logsParam);
+        final Object entity;
+        if (all) {
+            logsParam.validate();
+
+            final LogQuery logQuery = toLogQuery(paginationParam, logsParam);
+            entity = streamCsv("logs of application " + applicationId,
+                    writer -> logsService.exportByApplicationAsCsv(applicationId, logQuery, writer));
+        } else {
+            final SearchLogResponse<ApplicationRequestItem> searchLogResponse = getSearchLogResponse(applicationId, paginationParam, logsParam);
+            entity = logsService.exportAsCsv(searchLogResponse);
+        }
         return Response
-                .ok(logsService.exportAsCsv(searchLogResponse))
+                .ok(entity)
                 .header(HttpHeaders.CONTENT_DISPOSITION, format("attachment;filename=logs-%s-%s.csv", applicationId, System.currentTimeMillis()))
                 .build();
     }
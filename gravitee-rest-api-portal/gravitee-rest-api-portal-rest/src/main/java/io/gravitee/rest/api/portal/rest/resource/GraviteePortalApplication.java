@@ -15,6 +15,7 @@
  */
 package io.gravitee.rest.api.portal.rest.resource;
 
+import io.gravitee.rest.api.portal.rest.filter.EntityCacheFilter;
 import io.gravitee.rest.api.portal.rest.filter.GraviteeContextFilter;
 import io.gravitee.rest.api.portal.rest.filter.PermissionsFilter;
 import io.gravitee.rest.api.portal.rest.filter.SecurityContextFilter;
@@ -58,6 +59,7 @@ public class GraviteePortalApplication extends ResourceConfig {
 
         register(SecurityContextFilter.class);
         register(GraviteeContextFilter.class);
+        register(EntityCacheFilter.class);
         register(PermissionsFilter.class);
         register(UriBuilderRequestFilter.class);
         register(ByteArrayOutputStreamWriter.class);
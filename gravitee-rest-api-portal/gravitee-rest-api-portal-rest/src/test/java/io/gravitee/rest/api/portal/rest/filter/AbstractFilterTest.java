@@ -32,6 +32,7 @@ import io.gravitee.rest.api.service.ApiService;
 import io.gravitee.rest.api.service.ApplicationService;
 import io.gravitee.rest.api.service.MembershipService;
 import io.gravitee.rest.api.service.RoleService;
+import io.gravitee.rest.api.service.common.EntityCache;
 
 /**
  * @author Nicolas GERAUD (nicolas.geraud at graviteesource.com)
@@ -87,6 +88,11 @@ public abstract class AbstractFilterTest {
             return mock(MembershipService.class);
         }
 
+        @Bean
+        public EntityCache entityCache() {
+            return mock(EntityCache.class);
+        }
+
         @Bean
         public RoleService roleService() {
             return mock(RoleService.class);
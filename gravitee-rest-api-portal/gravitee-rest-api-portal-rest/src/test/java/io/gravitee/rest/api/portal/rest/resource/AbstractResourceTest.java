@@ -22,6 +22,7 @@ import io.gravitee.rest.api.security.authentication.AuthenticationProvider;
 import io.gravitee.rest.api.security.authentication.AuthenticationProviderManager;
 import io.gravitee.rest.api.security.cookies.JWTCookieGenerator;
 import io.gravitee.rest.api.service.*;
+import io.gravitee.rest.api.service.common.EntityCache;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -326,6 +327,11 @@ public abstract class AbstractResourceTest extends JerseySpringTest {
             return mock(MembershipService.class);
         }
 
+        @Bean
+        public EntityCache entityCache() {
+            return mock(EntityCache.class);
+        }
+
         @Bean
         public RoleService roleService() {
             return mock(RoleService.class);
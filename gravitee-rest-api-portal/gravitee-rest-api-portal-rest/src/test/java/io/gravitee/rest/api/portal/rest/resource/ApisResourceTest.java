@@ -15,6 +15,7 @@
  */
 package io.gravitee.rest.api.portal.rest.resource;
 
+import io.gravitee.common.data.domain.Page;
 import io.gravitee.common.http.HttpStatusCode;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.rest.api.model.RatingSummaryEntity;
@@ -24,6 +25,7 @@ import io.gravitee.rest.api.model.api.ApiEntity;
 import io.gravitee.rest.api.model.api.ApiLifecycleState;
 import io.gravitee.rest.api.model.api.ApiQuery;
 import io.gravitee.rest.api.model.application.ApplicationListItem;
+import io.gravitee.rest.api.model.common.Pageable;
 import io.gravitee.rest.api.portal.rest.model.Error;
 import io.gravitee.rest.api.portal.rest.model.*;
 import org.junit.Before;
@@ -39,6 +41,7 @@ import java.util.stream.Collectors;
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 
 /**
@@ -89,6 +92,16 @@ public class ApisResourceTest extends AbstractResourceTest {
         Set<ApiEntity> mockApis = new HashSet<>(
                 Arrays.asList(publishedApi5, publishedApi2, publishedApi1, publishedApi3, publishedApi4));
         doReturn(mockApis).when(apiService).findPublishedByUser(any(), any());
+        doAnswer(invocation -> {
+            final Pageable pageable = invocation.getArgument(2);
+            final List<ApiEntity> sortedApis = mockApis.stream()
+                    .sorted(Comparator.comparing(ApiEntity::getName))
+                    .collect(Collectors.toList());
+            final int startIndex = (pageable.getPageNumber() - 1) * pageable.getPageSize();
+            final List<ApiEntity> content = startIndex < 0 || startIndex >= sortedApis.size() ? Collections.emptyList() :
+                    sortedApis.subList(startIndex, Math.min(startIndex + pageable.getPageSize(), sortedApis.size()));
+            return new Page<>(content, pageable.getPageNumber(), content.size(), sortedApis.size());
+        }).when(apiService).findPublishedByUser(any(), any(), any(Pageable.class));
 
         doReturn(false).when(ratingService).isEnabled();
 
@@ -108,8 +121,11 @@ public class ApisResourceTest extends AbstractResourceTest {
         assertEquals(HttpStatusCode.OK_200, response.getStatus());
 
         ArgumentCaptor<ApiQuery> queryCaptor = ArgumentCaptor.forClass(ApiQuery.class);
-        Mockito.verify(apiService).findPublishedByUser(eq(USER_NAME), queryCaptor.capture());
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+        Mockito.verify(apiService).findPublishedByUser(eq(USER_NAME), queryCaptor.capture(), pageableCaptor.capture());
         final ApiQuery query = queryCaptor.getValue();
+        assertEquals(1, pageableCaptor.getValue().getPageNumber());
+        assertEquals(10, pageableCaptor.getValue().getPageSize());
         assertEquals("context-path", query.getContextPath());
         assertEquals("label", query.getLabel());
         assertEquals("version", query.getVersion());
@@ -295,15 +311,16 @@ public class ApisResourceTest extends AbstractResourceTest {
         final Response response = target().queryParam("page", 3).queryParam("size", 1).request().get();
         assertEquals(HttpStatusCode.OK_200, response.getStatus());
 
+        // Only the requested page is converted
         ArgumentCaptor<ApiEntity> apiEntityCaptor = ArgumentCaptor.forClass(ApiEntity.class);
-        Mockito.verify(apiMapper, Mockito.times(5)).convert(apiEntityCaptor.capture());
-        final List<String> allNameValues = apiEntityCaptor.getAllValues().stream().map(a -> a.getName())
-                .collect(Collectors.toList());
-        assertEquals(5, allNameValues.size());
-        assertTrue(allNameValues.containsAll(Arrays.asList("1", "3", "4", "5", "6")));
+        Mockito.verify(apiMapper, Mockito.times(1)).convert(apiEntityCaptor.capture());
+        assertEquals("4", apiEntityCaptor.getValue().getName());
 
         ApisResponse apiResponse = response.readEntity(ApisResponse.class);
         assertEquals(1, apiResponse.getData().size());
+        Map<String, Object> paginationMetadata = apiResponse.getMetadata().get(AbstractResource.METADATA_PAGINATION_KEY);
+        assertEquals(5, paginationMetadata.get(AbstractResource.METADATA_PAGINATION_TOTAL_KEY));
+        assertEquals(3, paginationMetadata.get(AbstractResource.METADATA_PAGINATION_CURRENT_PAGE_KEY));
 
         Links links = apiResponse.getLinks();
         assertNotNull(links);
@@ -363,6 +380,7 @@ public class ApisResourceTest extends AbstractResourceTest {
     public void shouldGetNoPublishedApiAndNoLink() {
 
         doReturn(new HashSet<>()).when(apiService).findPublishedByUser(any(), any());
+        doReturn(new Page<>(Collections.emptyList(), 1, 0, 0)).when(apiService).findPublishedByUser(any(), any(), any(Pageable.class));
 
         // Test with default limit
         final Response response = target().request().get();
@@ -31,6 +31,7 @@ import org.mockito.Mockito;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import java.io.Writer;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -39,6 +40,7 @@ import java.util.Map;
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 
 /**
@@ -182,5 +184,28 @@ public class ApplicationLogsResourceTest extends AbstractResourceTest {
         assertTrue(((String)headers.getFirst(HttpHeaders.CONTENT_DISPOSITION)).startsWith("attachment;filename=logs-"+APPLICATION));
 
     }
+
+    @Test
+    public void shouldExportAllLogs() {
+        doAnswer(invocation -> {
+            ((Writer) invocation.getArgument(2)).write("EXPORT");
+            return null;
+        }).when(logsService).exportByApplicationAsCsv(eq(APPLICATION), any(), any());
+        final Response response = target(APPLICATION).path("logs").path("_export")
+                .queryParam("query", APPLICATION)
+                .queryParam("from", 0)
+                .queryParam("to", 100)
+                .queryParam("all", true)
+                .request().post(null);
+        assertEquals(HttpStatusCode.OK_200, response.getStatus());
+
+        String exportString = response.readEntity(String.class);
+        assertEquals("EXPORT", exportString);
+
+        ArgumentCaptor<LogQuery> logQueryCaptor = ArgumentCaptor.forClass(LogQuery.class);
+        Mockito.verify(logsService).exportByApplicationAsCsv(eq(APPLICATION), logQueryCaptor.capture(), any());
+        assertEquals(APPLICATION, logQueryCaptor.getValue().getQuery());
+        Mockito.verify(logsService, Mockito.never()).exportAsCsv(any());
+    }
     
 }
@@ -15,9 +15,11 @@
  */
 package io.gravitee.rest.api.service;
 
+import io.gravitee.common.data.domain.Page;
 import io.gravitee.rest.api.model.*;
 import io.gravitee.rest.api.model.api.*;
 import io.gravitee.rest.api.model.api.header.ApiHeaderEntity;
+import io.gravitee.rest.api.model.common.Pageable;
 import io.gravitee.repository.exceptions.TechnicalException;
 
 import java.util.*;
@@ -31,6 +33,8 @@ public interface ApiService {
 
     ApiEntity findById(String apiId);
 
+    Set<ApiEntity> findByIds(List<String> apiIds);
+
     Set<ApiEntity> findAll();
 
     Set<ApiEntity> findAllLight();
@@ -40,6 +44,12 @@ public interface ApiService {
     Set<ApiEntity> findPublishedByUser(String userId);
     Set<ApiEntity> findPublishedByUser(String userId, ApiQuery apiQuery);
 
+    /**
+     * Find a page of the published APIs visible by the user, sorted by name. Only the APIs of the requested page are
+     * converted, the total is computed on the lightweight APIs.
+     */
+    Page<ApiEntity> findPublishedByUser(String userId, ApiQuery apiQuery, Pageable pageable);
+
     Set<ApiEntity> findByVisibility(Visibility visibility);
 
     ApiEntity create(NewApiEntity api, String userId);
@@ -16,6 +16,7 @@
 package io.gravitee.rest.api.service;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import io.gravitee.common.http.HttpMethod;
 import io.vertx.core.buffer.Buffer;
@@ -27,4 +28,15 @@ import io.vertx.core.buffer.Buffer;
 public interface HttpClientService {
 
     Buffer request(HttpMethod method, final String uri, final Map<String, String> headers, String body, Boolean useSystemProxy);
+
+    /**
+     * Send the request without blocking the calling thread.
+     *
+     * The future fails with a {@link java.util.concurrent.TimeoutException} if the response has not been received
+     * within the timeout, and cancelling it aborts the request.
+     *
+     * @param timeout the deadline of the whole call, in milliseconds
+     * @throws IllegalArgumentException if the timeout is not positive
+     */
+    CompletableFuture<Buffer> requestAsync(HttpMethod method, final String uri, final Map<String, String> headers, String body, Boolean useSystemProxy, long timeout);
 }
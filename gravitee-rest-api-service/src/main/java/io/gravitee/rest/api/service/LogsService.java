@@ -20,6 +20,8 @@ import io.gravitee.rest.api.model.log.ApiRequest;
 import io.gravitee.rest.api.model.log.ApplicationRequest;
 import io.gravitee.rest.api.model.log.SearchLogResponse;
 
+import java.io.Writer;
+
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
@@ -31,4 +33,16 @@ public interface LogsService {
     ApiRequest findApiLog(String id, Long timestamp);
     ApplicationRequest findApplicationLog(String id, Long timestamp);
     String exportAsCsv(SearchLogResponse searchLogResponse);
+
+    /**
+     * Write every log of the API matching the query as CSV, fetching and flushing one page at a time.
+     * Page and size of the given query are ignored.
+     */
+    void exportByApiAsCsv(String api, LogQuery query, Writer writer);
+
+    /**
+     * Write every log of the application matching the query as CSV, fetching and flushing one page at a time.
+     * Page and size of the given query are ignored.
+     */
+    void exportByApplicationAsCsv(String application, LogQuery query, Writer writer);
 }
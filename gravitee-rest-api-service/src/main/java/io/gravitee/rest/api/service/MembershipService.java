@@ -20,6 +20,7 @@ import io.gravitee.repository.management.model.RoleScope;
 import io.gravitee.rest.api.model.*;
 import io.gravitee.rest.api.model.api.ApiEntity;
 import io.gravitee.rest.api.model.pagedresult.Metadata;
+import io.gravitee.rest.api.model.permissions.CompiledPermissions;
 
 import java.util.List;
 import java.util.Map;
@@ -43,6 +44,27 @@ public interface MembershipService {
     Map<String, char[]> getMemberPermissions(ApiEntity api, String userId);
     Map<String, char[]> getMemberPermissions(ApplicationEntity application, String userId);
     Map<String, char[]> getMemberPermissions(GroupEntity group, String userId);
+
+    /**
+     * Get the permissions of the user on the reference, compiled from his role or, if he is not a direct member,
+     * from the roles of the given groups. The result is cached for a short time.
+     */
+    CompiledPermissions getCompiledPermissions(MembershipReferenceType referenceType, String referenceId, Set<String> groups, String userId, RoleScope roleScope);
+
+    /**
+     * Get the permissions of the user on each of the references, the way {@link #getCompiledPermissions(MembershipReferenceType, String, Set, String, RoleScope)}
+     * does for one reference, but with one query for the direct memberships and one for the group memberships whatever
+     * the number of references. Meant for list resources.
+     *
+     * @param groupsByReference the groups of each reference, by reference id
+     * @return the permissions by reference id
+     */
+    Map<String, CompiledPermissions> getCompiledPermissions(MembershipReferenceType referenceType, Map<String, Set<String>> groupsByReference, String userId, RoleScope roleScope);
+    void invalidateCompiledPermissions();
+    /**
+     * Invalidate the compiled permissions of all the users on the reference, when its groups change.
+     */
+    void invalidateCompiledPermissions(MembershipReferenceType referenceType, String referenceId);
     boolean removeRole(MembershipReferenceType referenceType, String referenceId, String userId, RoleScope roleScope);
     void removeRoleUsage(RoleScope roleScope, String roleName, String newName);
     void removeUser(String userId);
@@ -21,6 +21,7 @@ import io.gravitee.rest.api.model.plan.PlanQuery;
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author Nicolas GERAUD (nicolas.geraud at graviteesource.com)
@@ -32,17 +33,19 @@ public interface MessageService {
      * send a message to api consumers according to recipients filters
      * @param apiId api id
      * @param message message
-     * @return the number of recipients
+     * @return the number of recipients, completed once the message is sent: a message to an HTTP endpoint does not
+     * hold the calling thread while the endpoint answers.
      */
-    int create(String apiId, MessageEntity message);
+    CompletableFuture<Integer> create(String apiId, MessageEntity message);
 
 
     /**
      * send a message to all users according to recipients filters
      * @param message message
-     * @return the number of recipients
+     * @return the number of recipients, completed once the message is sent: a message to an HTTP endpoint does not
+     * hold the calling thread while the endpoint answers.
      */
-    int create(MessageEntity message);
+    CompletableFuture<Integer> create(MessageEntity message);
 
     /**
      * get the user ids of recipients
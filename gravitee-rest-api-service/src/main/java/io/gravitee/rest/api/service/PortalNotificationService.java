@@ -31,6 +31,12 @@ public interface PortalNotificationService {
 
     PortalNotificationEntity findById(String notificationId);
     
+    /**
+     * Create the portal notification of the hook for each user, by batches.
+     *
+     * @throws io.gravitee.rest.api.service.exceptions.PortalNotificationsPartiallyCreatedException if a batch fails:
+     * the notifications of the users before {@code getCreated()} are created, a retry must resume from there.
+     */
     void create(Hook hook, List<String> users, Object param);
 
     void delete(String notificationId);
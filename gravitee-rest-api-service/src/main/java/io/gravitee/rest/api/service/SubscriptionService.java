@@ -21,6 +21,7 @@ import io.gravitee.rest.api.model.common.Pageable;
 import io.gravitee.rest.api.model.pagedresult.Metadata;
 import io.gravitee.rest.api.model.subscription.SubscriptionQuery;
 
+import java.io.Writer;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -67,4 +68,9 @@ public interface SubscriptionService {
     Metadata getMetadata(List<SubscriptionEntity> subscriptions);
     SubscriptionEntity transfer(TransferSubscriptionEntity transferSubscription, String userId);
     String exportAsCsv(Collection<SubscriptionEntity> subscriptions, Map<String, Map<String, Object>> metadata);
+
+    /**
+     * Write every subscription matching the query as CSV, fetching and flushing one page at a time.
+     */
+    void exportAsCsv(SubscriptionQuery query, Writer writer);
 }
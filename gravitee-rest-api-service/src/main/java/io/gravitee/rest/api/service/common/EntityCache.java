@@ -0,0 +1,144 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service.common;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import io.gravitee.common.event.Event;
+import io.gravitee.common.event.EventListener;
+import io.gravitee.common.event.EventManager;
+import io.gravitee.rest.api.model.ApplicationEntity;
+import io.gravitee.rest.api.model.api.ApiEntity;
+import io.gravitee.rest.api.service.event.ApiEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Node-local cache of the APIs and applications used by the permission filters to check the permissions of a
+ * request. Cached entities are shared between requests, so they must only be read: they are loaded outside of the
+ * {@link RequestEntityCache} so the resources never get these instances.
+ *
+ * APIs are evicted when they are deployed, updated or undeployed, and APIs and applications are evicted when they
+ * are modified on this node. Entries expire after a few seconds to catch up with changes made on other nodes.
+ *
+ * The statistics of both caches, and the hits and misses of the {@link RequestEntityCache}, are published as metrics of
+ * the node.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class EntityCache implements EventListener<ApiEvent, ApiEntity>, InitializingBean, MeterBinder {
+
+    private final Logger LOGGER = LoggerFactory.getLogger(EntityCache.class);
+
+    private static final int MAX_SIZE = 1000;
+    private static final int TTL_SECONDS = 10;
+
+    @Autowired
+    private EventManager eventManager;
+
+    private final Cache<String, ApiEntity> apis = CacheBuilder
+            .newBuilder()
+            .maximumSize(MAX_SIZE)
+            .expireAfterWrite(TTL_SECONDS, TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+
+    private final Cache<String, ApplicationEntity> applications = CacheBuilder
+            .newBuilder()
+            .maximumSize(MAX_SIZE)
+            .expireAfterWrite(TTL_SECONDS, TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+
+    @Override
+    public void afterPropertiesSet() {
+        eventManager.subscribeForEvents(this, ApiEvent.class);
+        NodeMetrics.bind(this);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        GuavaCacheMetrics.monitor(registry, apis, "entities.apis");
+        GuavaCacheMetrics.monitor(registry, applications, "entities.applications");
+        FunctionCounter.builder("entities.request.gets", RequestEntityCache.class, type -> RequestEntityCache.getHitCount())
+                .tag("result", "hit")
+                .description("Entities read from the identity map of their request")
+                .register(registry);
+        FunctionCounter.builder("entities.request.gets", RequestEntityCache.class, type -> RequestEntityCache.getMissCount())
+                .tag("result", "miss")
+                .description("Entities loaded and added to the identity map of their request")
+                .register(registry);
+    }
+
+    @Override
+    public void onEvent(Event<ApiEvent, ApiEntity> event) {
+        if (event.content() != null) {
+            LOGGER.debug("Evict API {} from cache on {}", event.content().getId(), event.type());
+            apis.invalidate(event.content().getId());
+        }
+    }
+
+    public ApiEntity getApi(String apiId, Function<String, ApiEntity> loader) {
+        return get(apis, apiId, loader);
+    }
+
+    public ApplicationEntity getApplication(String applicationId, Function<String, ApplicationEntity> loader) {
+        return get(applications, applicationId, loader);
+    }
+
+    public void invalidateApi(String apiId) {
+        apis.invalidate(apiId);
+    }
+
+    public void invalidateApplication(String applicationId) {
+        applications.invalidate(applicationId);
+    }
+
+    public CacheStats getApiStats() {
+        return apis.stats();
+    }
+
+    public CacheStats getApplicationStats() {
+        return applications.stats();
+    }
+
+    private <T> T get(Cache<String, T> cache, String id, Function<String, T> loader) {
+        if (id == null) {
+            return null;
+        }
+
+        T entity = cache.getIfPresent(id);
+        if (entity == null) {
+            entity = RequestEntityCache.bypass(() -> loader.apply(id));
+            if (entity != null) {
+                cache.put(id, entity);
+            }
+        }
+        return entity;
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.vertx.micrometer.backends.BackendRegistries;
+
+/**
+ * Access to the metrics registry of the node, which is exposed by the metrics service of the node when it is enabled
+ * (see <code>services.metrics</code>).
+ *
+ * When the metrics service is disabled, meters are registered into a registry which does not record anything, so
+ * callers never have to check whether metrics are enabled.
+ *
+ * @author GraviteeSource Team
+ */
+public final class NodeMetrics {
+
+    private static final MeterRegistry NOOP_REGISTRY = new CompositeMeterRegistry();
+
+    private NodeMetrics() {
+    }
+
+    /**
+     * Get the metrics registry of the node.
+     *
+     * @return the registry of the node, or a registry which does not record anything if metrics are disabled.
+     */
+    public static MeterRegistry registry() {
+        final MeterRegistry registry = BackendRegistries.getDefaultNow();
+        return (registry == null) ? NOOP_REGISTRY : registry;
+    }
+
+    /**
+     * Register the meters of the given binder into the metrics registry of the node.
+     *
+     * @param binder the binder of the meters to register.
+     */
+    public static void bind(MeterBinder binder) {
+        binder.bindTo(registry());
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service.common;
+
+import org.springframework.beans.BeanUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Identity map of the entities loaded during the current request, so an entity loaded by a filter and then by the
+ * resource is read only once from the repositories.
+ *
+ * The map is only active between {@link #start()} and {@link #stop()}, which are called for read-only requests:
+ * outside of them, entities are always loaded.
+ *
+ * As the resources adjust the entities they return (picture URL, sensitive data, ...), each caller gets its own
+ * shallow copy of the entity: its properties can be set freely, but the nested objects and collections are shared
+ * and must only be read.
+ *
+ * @author GraviteeSource Team
+ */
+public final class RequestEntityCache {
+
+    private static final ThreadLocal<Map<String, Object>> entities = new ThreadLocal<>();
+
+    private static final AtomicLong hitCounter = new AtomicLong(0);
+    private static final AtomicLong missCounter = new AtomicLong(0);
+
+    private RequestEntityCache() {
+    }
+
+    public static void start() {
+        entities.set(new HashMap<>());
+    }
+
+    public static void stop() {
+        entities.remove();
+    }
+
+    /**
+     * Get a copy of the entity from the current request, loading it if this is the first time it is requested.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T get(Class<T> type, String id, Supplier<T> loader) {
+        final Map<String, Object> requestEntities = entities.get();
+        if (requestEntities == null || id == null) {
+            return loader.get();
+        }
+
+        final String key = type.getName() + ':' + id;
+        T entity = (T) requestEntities.get(key);
+        if (entity != null) {
+            hitCounter.incrementAndGet();
+            return copy(entity);
+        }
+
+        missCounter.incrementAndGet();
+        entity = loader.get();
+        if (entity != null) {
+            requestEntities.put(key, entity);
+            return copy(entity);
+        }
+        return null;
+    }
+
+    /**
+     * Load entities without reading nor filling the map of the current request, for entities which outlive the
+     * request and must not be handed to its resources.
+     */
+    public static <T> T bypass(Supplier<T> loader) {
+        final Map<String, Object> requestEntities = entities.get();
+        if (requestEntities == null) {
+            return loader.get();
+        }
+
+        entities.remove();
+        try {
+            return loader.get();
+        } finally {
+            entities.set(requestEntities);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T copy(T entity) {
+        final T copy = (T) BeanUtils.instantiateClass(entity.getClass());
+        BeanUtils.copyProperties(entity, copy);
+        return copy;
+    }
+
+    public static long getHitCount() {
+        return hitCounter.get();
+    }
+
+    public static long getMissCount() {
+        return missCounter.get();
+    }
+}
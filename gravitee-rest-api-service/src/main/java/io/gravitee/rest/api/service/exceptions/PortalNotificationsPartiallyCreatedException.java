@@ -0,0 +1,64 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service.exceptions;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.lang.String.format;
+import static java.lang.String.valueOf;
+
+/**
+ * Thrown when a batch of portal notifications fails to be inserted: the notifications of the previous batches are
+ * kept, so that a retry must resume from the first user not notified yet to avoid duplicates.
+ *
+ * @author GraviteeSource Team
+ */
+public class PortalNotificationsPartiallyCreatedException extends TechnicalManagementException {
+
+    private final int created;
+    private final int total;
+
+    public PortalNotificationsPartiallyCreatedException(int created, int total, Throwable cause) {
+        super(cause);
+        this.created = created;
+        this.total = total;
+    }
+
+    /**
+     * @return the number of users, from the start of the list, whose notification has been created.
+     */
+    public int getCreated() {
+        return created;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    @Override
+    public String getMessage() {
+        return format("Portal notifications created for %d / %d users, the next batch failed", created, total);
+    }
+
+    @Override
+    public Map<String, String> getParameters() {
+        final Map<String, String> parameters = new HashMap<>();
+        parameters.put("created", valueOf(created));
+        parameters.put("total", valueOf(total));
+        return parameters;
+    }
+}
@@ -25,14 +25,9 @@ import io.gravitee.repository.analytics.query.groupby.GroupByResponse;
 import io.gravitee.repository.analytics.query.response.histogram.Data;
 import io.gravitee.repository.analytics.query.response.histogram.DateHistogramResponse;
 import io.gravitee.repository.analytics.query.stats.StatsResponse;
-import io.gravitee.repository.management.model.ApplicationStatus;
-import io.gravitee.rest.api.model.ApplicationEntity;
-import io.gravitee.rest.api.model.PlanEntity;
-import io.gravitee.rest.api.model.TenantEntity;
 import io.gravitee.rest.api.model.analytics.*;
 import io.gravitee.rest.api.model.analytics.query.*;
 import io.gravitee.rest.api.model.analytics.query.DateHistogramQuery;
-import io.gravitee.rest.api.model.api.ApiEntity;
 import io.gravitee.rest.api.service.*;
 import io.gravitee.rest.api.service.exceptions.*;
 
@@ -57,23 +52,13 @@ public class AnalyticsServiceImpl implements AnalyticsService {
      */
     private final Logger logger = LoggerFactory.getLogger(AnalyticsServiceImpl.class);
 
-    private static final String UNKNOWN_API = "1";
-    private static final String APPLICATION_KEYLESS = "1";
+    private static final Set<String> HISTOGRAM_METADATA_FIELDS = new HashSet<>(Arrays.asList("api", "application", "tenant"));
 
     @Autowired
     private AnalyticsRepository analyticsRepository;
 
     @Autowired
-    private ApiService apiService;
-
-    @Autowired
-    private ApplicationService applicationService;
-
-    @Autowired
-    private PlanService planService;
-
-    @Autowired
-    private TenantService tenantService;
+    private ReferenceMetadataResolver referenceMetadataResolver;
 
     @Override
     public StatsAnalytics execute(final StatsQuery query) {
@@ -184,9 +169,15 @@ public class AnalyticsServiceImpl implements AnalyticsService {
 
             analytics.setTimestamp(new Timestamp(from, to, interval));
 
+            // Resolve the metadata of all the buckets at once
+            Map<String, Set<String>> keysByField = new HashMap<>();
+            collectMetadataKeys(histogramResponse.values(), keysByField);
+            Map<String, Map<String, Map<String, String>>> metadataByField = new HashMap<>();
+            keysByField.forEach((field, keys) -> metadataByField.put(field, getMetadata(field, keys)));
+
             List<Bucket> buckets = new ArrayList<>(histogramResponse.values().size());
             for (io.gravitee.repository.analytics.query.response.histogram.Bucket bucket : histogramResponse.values()) {
-                Bucket analyticsBucket = convertBucket(histogramResponse.timestamps(), from, interval, bucket);
+                Bucket analyticsBucket = convertBucket(histogramResponse.timestamps(), from, interval, bucket, metadataByField);
                 buckets.add(analyticsBucket);
             }
             analytics.setValues(buckets);
@@ -195,7 +186,17 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         return analytics;
     }
 
-    private Bucket convertBucket(List<Long> timestamps, long from, long interval, io.gravitee.repository.analytics.query.response.histogram.Bucket bucket) {
+    private void collectMetadataKeys(List<io.gravitee.repository.analytics.query.response.histogram.Bucket> buckets, Map<String, Set<String>> keysByField) {
+        for (io.gravitee.repository.analytics.query.response.histogram.Bucket bucket : buckets) {
+            if (HISTOGRAM_METADATA_FIELDS.contains(bucket.field())) {
+                keysByField.computeIfAbsent(bucket.field(), field -> new HashSet<>()).addAll(bucket.data().keySet());
+            }
+            collectMetadataKeys(bucket.buckets(), keysByField);
+        }
+    }
+
+    private Bucket convertBucket(List<Long> timestamps, long from, long interval, io.gravitee.repository.analytics.query.response.histogram.Bucket bucket,
+                                 Map<String, Map<String, Map<String, String>>> metadataByField) {
         Bucket analyticsBucket = new Bucket();
         analyticsBucket.setName(bucket.name());
         analyticsBucket.setField(bucket.field());
@@ -203,31 +204,14 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         List<Bucket> childBuckets = new ArrayList<>();
 
         for (io.gravitee.repository.analytics.query.response.histogram.Bucket childBucket : bucket.buckets()) {
-            childBuckets.add(convertBucket(timestamps, from, interval, childBucket));
+            childBuckets.add(convertBucket(timestamps, from, interval, childBucket, metadataByField));
         }
 
-        if (analyticsBucket.getField().equals("application")) {
-            // Prepare metadata
-            Map<String, Map<String, String>> metadata = new HashMap<>();
-            bucket.data().keySet().stream().forEach(app -> {
-                metadata.put(app, getApplicationMetadata(app));
-            });
-
-            analyticsBucket.setMetadata(metadata);
-        } else if (analyticsBucket.getField().equals("api")) {
+        if (HISTOGRAM_METADATA_FIELDS.contains(analyticsBucket.getField())) {
             // Prepare metadata
+            Map<String, Map<String, String>> fieldMetadata = metadataByField.getOrDefault(analyticsBucket.getField(), Collections.emptyMap());
             Map<String, Map<String, String>> metadata = new HashMap<>();
-            bucket.data().keySet().stream().forEach(api -> {
-                metadata.put(api, getAPIMetadata(api));
-            });
-
-            analyticsBucket.setMetadata(metadata);
-        } else if (analyticsBucket.getField().equals("tenant")) {
-            // Prepare metadata
-            Map<String, Map<String, String>> metadata = new HashMap<>();
-            bucket.data().keySet().stream().forEach(tenant -> {
-                metadata.put(tenant, getTenantMetadata(tenant));
-            });
+            bucket.data().keySet().forEach(key -> metadata.put(key, fieldMetadata.get(key)));
 
             analyticsBucket.setMetadata(metadata);
         }
@@ -292,18 +276,7 @@ public class AnalyticsServiceImpl implements AnalyticsService {
             // Prepare metadata
             Map<String, Map<String, String>> metadata = new HashMap<>();
             if (topHitsAnalytics.getValues() != null) {
-                for (String key : topHitsAnalytics.getValues().keySet()) {
-                    switch(fieldName) {
-                        case "api": metadata.put(key, getAPIMetadata(key)); break;
-                        case "application": metadata.put(key, getApplicationMetadata(key)); break;
-                        case "plan": metadata.put(key, getPlanMetadata(key)); break;
-                        case "tenant": metadata.put(key, getTenantMetadata(key)); break;
-                        case "geoip.country_iso_code": metadata.put(key, getCountryName(key)); break;
-                        default:
-                            metadata.put(key, getGenericMetadata(key)); break;
-
-                    }
-                }
+                metadata.putAll(getMetadata(fieldName, topHitsAnalytics.getValues().keySet()));
             }
 
             topHitsAnalytics.setMetadata(metadata);
@@ -312,73 +285,21 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         return topHitsAnalytics;
     }
 
-    private Map<String, String> getAPIMetadata(String api) {
-        Map<String, String> metadata = new HashMap<>();
-
-        try {
-            ApiEntity apiEntity = apiService.findById(api);
-            metadata.put("name", apiEntity.getName());
-            metadata.put("version", apiEntity.getVersion());
-        } catch (ApiNotFoundException anfe) {
-            metadata.put("deleted", "true");
-            metadata.put("name", "Deleted API");
-            if (api.equals(UNKNOWN_API)) {
-                metadata.put("name", "Unknown API (not found)");
-            } else {
-                metadata.put("name", "Deleted API");
-            }
+    private Map<String, Map<String, String>> getMetadata(String fieldName, Collection<String> keys) {
+        switch (fieldName) {
+            case "api":
+                return referenceMetadataResolver.resolveApis(keys);
+            case "application":
+                return referenceMetadataResolver.resolveApplications(keys);
+            case "plan":
+                return referenceMetadataResolver.resolvePlans(keys);
+            case "tenant":
+                return referenceMetadataResolver.resolveTenants(keys);
+            case "geoip.country_iso_code":
+                return keys.stream().collect(Collectors.toMap(key -> key, this::getCountryName));
+            default:
+                return keys.stream().collect(Collectors.toMap(key -> key, this::getGenericMetadata));
         }
-
-        return metadata;
-    }
-
-    private Map<String, String> getApplicationMetadata(String application) {
-        Map<String, String> metadata = new HashMap<>();
-
-        try {
-            ApplicationEntity applicationEntity = applicationService.findById(application);
-            metadata.put("name", applicationEntity.getName());
-            if (ApplicationStatus.ARCHIVED.toString().equals(applicationEntity.getStatus())) {
-                metadata.put("deleted", "true");
-            }
-        } catch (ApplicationNotFoundException anfe) {
-            metadata.put("deleted", "true");
-            if (application.equals(APPLICATION_KEYLESS)) {
-                metadata.put("name", "Unknown application (keyless)");
-            } else {
-                metadata.put("name", "Deleted application");
-            }
-        }
-
-        return metadata;
-    }
-
-    private Map<String, String> getPlanMetadata(String plan) {
-        Map<String, String> metadata = new HashMap<>();
-
-        try {
-            PlanEntity planEntity = planService.findById(plan);
-            metadata.put("name", planEntity.getName());
-        } catch (PlanNotFoundException anfe) {
-            metadata.put("deleted", "true");
-            metadata.put("name", "Deleted plan");
-        }
-
-        return metadata;
-    }
-
-    private Map<String, String> getTenantMetadata(String tenant) {
-        Map<String, String> metadata = new HashMap<>();
-
-        try {
-            TenantEntity tenantEntity = tenantService.findById(tenant);
-            metadata.put("name", tenantEntity.getName());
-        } catch (TenantNotFoundException tnfe) {
-            metadata.put("deleted", "true");
-            metadata.put("name", "Deleted tenant");
-        }
-
-        return metadata;
     }
 
     private Map<String, String> getCountryName(String country_iso) {
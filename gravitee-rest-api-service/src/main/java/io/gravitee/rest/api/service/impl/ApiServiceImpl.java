@@ -44,6 +44,7 @@ import io.gravitee.rest.api.model.alert.AlertTriggerEntity;
 import io.gravitee.rest.api.model.api.*;
 import io.gravitee.rest.api.model.api.header.ApiHeaderEntity;
 import io.gravitee.rest.api.model.application.ApplicationListItem;
+import io.gravitee.rest.api.model.common.Pageable;
 import io.gravitee.rest.api.model.documentation.PageQuery;
 import io.gravitee.rest.api.model.notification.GenericNotificationConfigEntity;
 import io.gravitee.rest.api.model.parameters.Key;
@@ -51,7 +52,9 @@ import io.gravitee.rest.api.model.permissions.SystemRole;
 import io.gravitee.rest.api.model.plan.PlanQuery;
 import io.gravitee.rest.api.model.subscription.SubscriptionQuery;
 import io.gravitee.rest.api.service.*;
+import io.gravitee.rest.api.service.common.EntityCache;
 import io.gravitee.rest.api.service.common.GraviteeContext;
+import io.gravitee.rest.api.service.common.RequestEntityCache;
 import io.gravitee.rest.api.service.exceptions.*;
 import io.gravitee.rest.api.service.impl.search.SearchResult;
 import io.gravitee.rest.api.service.jackson.ser.api.ApiSerializer;
@@ -116,6 +119,8 @@ public class ApiServiceImpl extends AbstractService implements ApiService {
     @Autowired
     private MembershipRepository membershipRepository;
     @Autowired
+    private ApiVisibilityCache apiVisibilityCache;
+    @Autowired
     private ObjectMapper objectMapper;
     @Autowired
     private EventService eventService;
@@ -126,6 +131,8 @@ public class ApiServiceImpl extends AbstractService implements ApiService {
     @Autowired
     private MembershipService membershipService;
     @Autowired
+    private EntityCache entityCache;
+    @Autowired
     private GroupService groupService;
     @Autowired
     private PlanService planService;
@@ -477,6 +484,7 @@ public class ApiServiceImpl extends AbstractService implements ApiService {
                 membership.setCreatedAt(repoApi.getCreatedAt());
                 membership.setUpdatedAt(repoApi.getCreatedAt());
                 membershipRepository.create(membership);
+                apiVisibilityCache.invalidate(primaryOwner.getId());
 
                 // create the default mail notification
                 GenericNotificationConfigEntity notificationConfigEntity = new GenericNotificationConfigEntity();
@@ -556,6 +564,10 @@ public class ApiServiceImpl extends AbstractService implements ApiService {
 
     @Override
     public ApiEntity findById(String apiId) {
+        return RequestEntityCache.get(ApiEntity.class, apiId, () -> loadById(apiId));
+    }
+
+    private ApiEntity loadById(String apiId) {
         try {
             LOGGER.debug("Find API by ID: {}", apiId);
 
@@ -589,6 +601,27 @@ public class ApiServiceImpl extends AbstractService implements ApiService {
         }
     }
 
+    @Override
+    public Set<ApiEntity> findByIds(List<String> apiIds) {
+        try {
+            LOGGER.debug("Find APIs by IDs: {}", apiIds);
+
+            if (apiIds == null || apiIds.isEmpty()) {
+                return emptySet();
+            }
+
+            final Set<ApiEntity> apis = convert(apiRepository.search(new ApiCriteria.Builder()
+                    .ids(apiIds.toArray(new String[0]))
+                    .build()));
+            apis.forEach(this::calculateEntrypoints);
+
+            return apis;
+        } catch (TechnicalException ex) {
+            LOGGER.error("An error occurs while trying to find APIs using their IDs: {}", apiIds, ex);
+            throw new TechnicalManagementException("An error occurs while trying to find APIs using their IDs: " + apiIds, ex);
+        }
+    }
+
     private void calculateEntrypoints(ApiEntity api) {
         List<ApiEntrypointEntity> apiEntrypoints = new ArrayList<>();
 
@@ -678,58 +711,92 @@ public class ApiServiceImpl extends AbstractService implements ApiService {
         try {
             LOGGER.debug("Find APIs by user {}", userId);
 
-            //get all public apis
-            List<Api> publicApis = apiRepository.search(queryToCriteria(apiQuery).visibility(PUBLIC).build());
+            final Set<ApiEntity> apis = convert(new ArrayList<>(findByUser(userId, apiQuery, null)));
+            return filterApiByQuery(apis.stream(), apiQuery).collect(toSet());
+        } catch (TechnicalException ex) {
+            LOGGER.error("An error occurs while trying to find APIs for user {}", userId, ex);
+            throw new TechnicalManagementException("An error occurs while trying to find APIs for user " + userId, ex);
+        }
+    }
+
+    /**
+     * Find the APIs visible by the user: public APIs, APIs the user is member of (directly or through a group) and
+     * APIs subscribed by one of the user applications.
+     */
+    private Collection<Api> findByUser(String userId, ApiQuery apiQuery, ApiFieldExclusionFilter exclusionFilter)
+            throws TechnicalException {
+        final Map<String, Api> apis = new LinkedHashMap<>();
+
+        //get all public apis
+        search(queryToCriteria(apiQuery).visibility(PUBLIC).build(), exclusionFilter)
+                .forEach(api -> apis.putIfAbsent(api.getId(), api));
+
+        if (userId == null) {
+            return apis.values();
+        }
+
+        final ApiVisibilityCache.VisibleApis visibleApis =
+                apiVisibilityCache.get(userId, this::findVisibleApis);
+
+        // get user apis and user subscribed apis which are not already loaded
+        final String[] apiIds = visibleApis.getApiIds().stream()
+                .filter(apiId -> !apis.containsKey(apiId))
+                .toArray(String[]::new);
+        if (apiIds.length > 0) {
+            search(queryToCriteria(apiQuery).ids(apiIds).build(), exclusionFilter)
+                    .forEach(api -> apis.putIfAbsent(api.getId(), api));
+        }
+
+        // get user groups apis
+        if (!visibleApis.getGroupIds().isEmpty()) {
+            search(queryToCriteria(apiQuery).groups(visibleApis.getGroupIds().toArray(new String[0])).build(), exclusionFilter)
+                    .forEach(api -> apis.putIfAbsent(api.getId(), api));
+        }
+
+        return apis.values();
+    }
+
+    private ApiVisibilityCache.VisibleApis findVisibleApis(String userId) {
+        try {
+            LOGGER.debug("Compute APIs visible by user {}", userId);
 
-            // get user apis
-            List<Api> userApis = emptyList();
-            final String[] userApiIds = membershipRepository
+            // user apis
+            final Set<String> apiIds = membershipRepository
                     .findByUserAndReferenceType(userId, MembershipReferenceType.API).stream()
                     .map(Membership::getReferenceId)
-                    .toArray(String[]::new);
-            if (userApiIds.length > 0) {
-                userApis = apiRepository.search(queryToCriteria(apiQuery).ids(userApiIds).build());
-            }
+                    .collect(toSet());
 
-            // get user groups apis
-            List<Api> groupApis = emptyList();
-            final String[] groupIds = membershipRepository
+            // user groups with an API role
+            final Set<String> groupIds = membershipRepository
                     .findByUserAndReferenceType(userId, MembershipReferenceType.GROUP).stream()
                     .filter(m -> m.getRoles().keySet().contains(RoleScope.API.getId()))
                     .map(Membership::getReferenceId)
-                    .toArray(String[]::new);
-            if (groupIds.length > 0 && groupIds[0] != null) {
-                groupApis = apiRepository.search(queryToCriteria(apiQuery).groups(groupIds).build());
-            }
+                    .filter(Objects::nonNull)
+                    .collect(toSet());
 
-            // get user subscribed apis, useful when an API becomes private and an app owner is not anymore in members
+            // user subscribed apis, useful when an API becomes private and an app owner is not anymore in members
             final Set<String> applications =
                     applicationService.findByUser(userId).stream().map(ApplicationListItem::getId).collect(toSet());
-            List<Api> subscribedApis = emptyList();
             if (!applications.isEmpty()) {
                 final SubscriptionQuery query = new SubscriptionQuery();
                 query.setApplications(applications);
                 final Collection<SubscriptionEntity> subscriptions = subscriptionService.search(query);
-                if (subscriptions != null && !subscriptions.isEmpty()) {
-                    subscribedApis = apiRepository
-                            .search(queryToCriteria(apiQuery).ids(subscriptions.stream()
-                                    .map(SubscriptionEntity::getApi).distinct().toArray(String[]::new)).build());
+                if (subscriptions != null) {
+                    subscriptions.forEach(subscription -> apiIds.add(subscription.getApi()));
                 }
             }
 
-            // merge all apis
-            final Set<ApiEntity> apis = new HashSet<>();
-            apis.addAll(convert(publicApis));
-            apis.addAll(convert(userApis));
-            apis.addAll(convert(groupApis));
-            apis.addAll(convert(subscribedApis));
-            return filterApiByQuery(apis.stream(), apiQuery).collect(toSet());
+            return new ApiVisibilityCache.VisibleApis(apiIds, groupIds);
         } catch (TechnicalException ex) {
-            LOGGER.error("An error occurs while trying to find APIs for user {}", userId, ex);
-            throw new TechnicalManagementException("An error occurs while trying to find APIs for user " + userId, ex);
+            LOGGER.error("An error occurs while trying to find APIs visible by user {}", userId, ex);
+            throw new TechnicalManagementException("An error occurs while trying to find APIs visible by user " + userId, ex);
         }
     }
 
+    private List<Api> search(ApiCriteria criteria, ApiFieldExclusionFilter exclusionFilter) throws TechnicalException {
+        return exclusionFilter == null ? apiRepository.search(criteria) : apiRepository.search(criteria, exclusionFilter);
+    }
+
     @Override
     public Set<ApiEntity> findPublishedByUser(String userId, ApiQuery apiQuery) {
         if (apiQuery == null) {
@@ -739,6 +806,73 @@ public class ApiServiceImpl extends AbstractService implements ApiService {
         return findByUser(userId, apiQuery);
     }
 
+    @Override
+    public io.gravitee.common.data.domain.Page<ApiEntity> findPublishedByUser(String userId, ApiQuery apiQuery, Pageable pageable) {
+        final ApiQuery query = apiQuery == null ? new ApiQuery() : apiQuery;
+        query.setLifecycleStates(Arrays.asList(io.gravitee.rest.api.model.api.ApiLifecycleState.PUBLISHED));
+
+        try {
+            LOGGER.debug("Find page {} of published APIs by user {}", pageable.getPageNumber(), userId);
+
+            // The definition is only needed to filter on tag or context-path
+            final boolean filterOnDefinition = query.getTag() != null || query.getContextPath() != null;
+            final ApiFieldExclusionFilter exclusionFilter = filterOnDefinition ?
+                    new ApiFieldExclusionFilter.Builder().excludePicture().build() :
+                    new ApiFieldExclusionFilter.Builder().excludeDefinition().excludePicture().build();
+
+            // Filter and sort the light APIs, without converting them
+            final List<Api> apis = findByUser(userId, query, exclusionFilter).stream()
+                    .filter(api -> !filterOnDefinition || matchDefinition(api, query))
+                    .sorted(comparing(Api::getName, String.CASE_INSENSITIVE_ORDER))
+                    .collect(toList());
+
+            final int startIndex = (pageable.getPageNumber() - 1) * pageable.getPageSize();
+            if (startIndex < 0 || startIndex >= apis.size()) {
+                return new io.gravitee.common.data.domain.Page<>(emptyList(), pageable.getPageNumber(), 0, apis.size());
+            }
+
+            final String[] pageApiIds = apis.subList(startIndex, Math.min(startIndex + pageable.getPageSize(), apis.size()))
+                    .stream()
+                    .map(Api::getId)
+                    .toArray(String[]::new);
+
+            // Only the APIs of the requested page are fully loaded and converted
+            final Map<String, ApiEntity> pageApis = convert(apiRepository.search(new ApiCriteria.Builder()
+                    .environment(GraviteeContext.getCurrentEnvironment())
+                    .ids(pageApiIds)
+                    .build()))
+                    .stream()
+                    .collect(toMap(ApiEntity::getId, Function.identity()));
+
+            final List<ApiEntity> content = Arrays.stream(pageApiIds)
+                    .map(pageApis::get)
+                    .filter(Objects::nonNull)
+                    .collect(toList());
+
+            return new io.gravitee.common.data.domain.Page<>(content, pageable.getPageNumber(), content.size(), apis.size());
+        } catch (TechnicalException ex) {
+            LOGGER.error("An error occurs while trying to find published APIs for user {}", userId, ex);
+            throw new TechnicalManagementException("An error occurs while trying to find published APIs for user " + userId, ex);
+        }
+    }
+
+    private boolean matchDefinition(Api api, ApiQuery query) {
+        if (api.getDefinition() == null) {
+            return false;
+        }
+
+        try {
+            final io.gravitee.definition.model.Api apiDefinition = objectMapper.readValue(api.getDefinition(),
+                    io.gravitee.definition.model.Api.class);
+            return (query.getTag() == null || (apiDefinition.getTags() != null && apiDefinition.getTags().contains(query.getTag())))
+                    && (query.getContextPath() == null || (apiDefinition.getProxy() != null && apiDefinition.getProxy().getVirtualHosts().stream()
+                    .anyMatch(virtualHost -> query.getContextPath().equals(virtualHost.getPath()))));
+        } catch (IOException ioe) {
+            LOGGER.error("Unexpected error while reading definition of API {}", api.getId(), ioe);
+            return false;
+        }
+    }
+
     @Override
     public Set<ApiEntity> findPublishedByUser(String userId) {
         return findPublishedByUser(userId, null);
@@ -855,6 +989,12 @@ public class ApiServiceImpl extends AbstractService implements ApiService {
                 }
 
                 Api updatedApi = apiRepository.update(api);
+                entityCache.invalidateApi(apiId);
+
+                // The permissions given by the groups of the API have changed
+                if (!Objects.equals(apiToUpdate.getGroups(), updatedApi.getGroups())) {
+                    membershipService.invalidateCompiledPermissions(MembershipReferenceType.API, apiId);
+                }
 
                 // Audit
                 auditService.createApiAuditLog(
@@ -991,6 +1131,7 @@ public class ApiServiceImpl extends AbstractService implements ApiService {
 
                 // Delete API
                 apiRepository.delete(apiId);
+                entityCache.invalidateApi(apiId);
                 // Delete top API
                 topApiService.delete(apiId);
                 // Delete alerts
@@ -1151,6 +1292,7 @@ public class ApiServiceImpl extends AbstractService implements ApiService {
             apiValue.setUpdatedAt(new Date());
             apiValue.setDeployedAt(apiValue.getUpdatedAt());
             apiValue = apiRepository.update(apiValue);
+            entityCache.invalidateApi(apiValue.getId());
 
             Map<String, String> properties = new HashMap<>();
             properties.put(Event.EventProperties.API_ID.getValue(), apiValue.getId());
@@ -1465,6 +1607,7 @@ public class ApiServiceImpl extends AbstractService implements ApiService {
                 api.getViews().remove(viewId);
                 api.setUpdatedAt(new Date());
                 apiRepository.update(api);
+                entityCache.invalidateApi(apiId);
                 // Audit
                 auditService.createApiAuditLog(
                         apiId,
@@ -1748,6 +1891,7 @@ public class ApiServiceImpl extends AbstractService implements ApiService {
             api.setUpdatedAt(new Date());
             api.setLifecycleState(lifecycleState);
             ApiEntity apiEntity = convert(apiRepository.update(api));
+            entityCache.invalidateApi(apiId);
             // Audit
             auditService.createApiAuditLog(
                     apiId,
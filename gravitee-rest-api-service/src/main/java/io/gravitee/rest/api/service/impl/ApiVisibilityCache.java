@@ -0,0 +1,75 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Cache of the non public APIs visible by a user: the APIs the user is a direct member of or subscribed to by one of
+ * their applications, and the groups through which they can see APIs.
+ *
+ * Entries are invalidated when a membership or a subscription changes on this node, and expire after a few minutes
+ * to catch up with changes made on other nodes.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class ApiVisibilityCache {
+
+    private final Cache<String, VisibleApis> visibleApisByUser = CacheBuilder
+            .newBuilder()
+            .expireAfterWrite(5, TimeUnit.MINUTES)
+            .build();
+
+    /**
+     * Get the APIs visible by the user, computing them if they are not cached yet.
+     */
+    public VisibleApis get(String userId, Function<String, VisibleApis> loader) {
+        return visibleApisByUser.asMap().computeIfAbsent(userId, loader);
+    }
+
+    public void invalidate(String userId) {
+        if (userId != null) {
+            visibleApisByUser.invalidate(userId);
+        }
+    }
+
+    public static class VisibleApis {
+
+        private final Set<String> apiIds;
+        private final Set<String> groupIds;
+
+        public VisibleApis(Set<String> apiIds, Set<String> groupIds) {
+            this.apiIds = Collections.unmodifiableSet(apiIds);
+            this.groupIds = Collections.unmodifiableSet(groupIds);
+        }
+
+        public Set<String> getApiIds() {
+            return apiIds;
+        }
+
+        public Set<String> getGroupIds() {
+            return groupIds;
+        }
+    }
+}
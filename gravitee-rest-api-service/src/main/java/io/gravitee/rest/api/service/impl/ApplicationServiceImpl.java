@@ -30,7 +30,9 @@ import io.gravitee.rest.api.model.parameters.Key;
 import io.gravitee.rest.api.model.permissions.SystemRole;
 import io.gravitee.rest.api.model.subscription.SubscriptionQuery;
 import io.gravitee.rest.api.service.*;
+import io.gravitee.rest.api.service.common.EntityCache;
 import io.gravitee.rest.api.service.common.GraviteeContext;
+import io.gravitee.rest.api.service.common.RequestEntityCache;
 import io.gravitee.rest.api.service.configuration.application.ClientRegistrationService;
 import io.gravitee.rest.api.service.exceptions.*;
 import io.gravitee.rest.api.service.impl.configuration.application.registration.client.register.ClientRegistrationResponse;
@@ -74,6 +76,12 @@ public class ApplicationServiceImpl extends AbstractService implements Applicati
     @Autowired
     private MembershipRepository membershipRepository;
 
+    @Autowired
+    private MembershipService membershipService;
+
+    @Autowired
+    private EntityCache entityCache;
+
     @Autowired
     private GroupService groupService;
 
@@ -102,6 +110,10 @@ public class ApplicationServiceImpl extends AbstractService implements Applicati
 
     @Override
     public ApplicationEntity findById(String applicationId) {
+        return RequestEntityCache.get(ApplicationEntity.class, applicationId, () -> loadById(applicationId));
+    }
+
+    private ApplicationEntity loadById(String applicationId) {
         try {
             LOGGER.debug("Find application by ID: {}", applicationId);
 
@@ -405,6 +417,12 @@ public class ApplicationServiceImpl extends AbstractService implements Applicati
             metadata.forEach((key, value) -> application.getMetadata().put(key, value));
 
             Application updatedApplication =  applicationRepository.update(application);
+            entityCache.invalidateApplication(applicationId);
+
+            // The permissions given by the groups of the application have changed
+            if (!Objects.equals(optApplicationToUpdate.get().getGroups(), updatedApplication.getGroups())) {
+                membershipService.invalidateCompiledPermissions(MembershipReferenceType.APPLICATION, applicationId);
+            }
 
             // Audit
             auditService.createApplicationAuditLog(
@@ -481,6 +499,7 @@ public class ApplicationServiceImpl extends AbstractService implements Applicati
                 metadata.forEach((key, value) -> application.getMetadata().put(key, value));
 
                 Application updatedApplication =  applicationRepository.update(application);
+                entityCache.invalidateApplication(updatedApplication.getId());
 
                 // Audit
                 auditService.createApplicationAuditLog(
@@ -552,6 +571,7 @@ public class ApplicationServiceImpl extends AbstractService implements Applicati
             application.setUpdatedAt(new Date());
             application.setStatus(ApplicationStatus.ARCHIVED);
             applicationRepository.update(application);
+            entityCache.invalidateApplication(applicationId);
             // Audit
             auditService.createApplicationAuditLog(
                     application.getId(),
@@ -15,9 +15,6 @@
  */
 package io.gravitee.rest.api.service.impl;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.github.fge.jsonpatch.diff.JsonDiff;
 import io.gravitee.common.data.domain.MetadataPage;
 import io.gravitee.common.data.domain.Page;
 import io.gravitee.common.utils.UUID;
@@ -26,24 +23,20 @@ import io.gravitee.repository.management.api.*;
 import io.gravitee.repository.management.api.search.AuditCriteria.Builder;
 import io.gravitee.repository.management.api.search.builder.PageableBuilder;
 import io.gravitee.repository.management.model.*;
-import io.gravitee.rest.api.model.UserEntity;
 import io.gravitee.rest.api.model.audit.AuditEntity;
 import io.gravitee.rest.api.model.audit.AuditQuery;
 import io.gravitee.rest.api.service.AuditService;
-import io.gravitee.rest.api.service.UserService;
 import io.gravitee.rest.api.service.exceptions.TechnicalManagementException;
-import io.gravitee.rest.api.service.exceptions.UserNotFoundException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Lazy;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 import static io.gravitee.rest.api.service.impl.MetadataServiceImpl.getDefautReferenceId;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -61,27 +54,14 @@ public class AuditServiceImpl extends AbstractService implements AuditService {
     @Autowired
     private PageRepository pageRepository;
 
-    @Autowired
-    private PlanRepository planRepository;
-
     @Autowired
     private MetadataRepository metadataRepository;
 
     @Autowired
-    private GroupRepository groupRepository;
-
-    @Autowired
-    private ApiRepository apiRepository;
-
-    @Autowired
-    private ApplicationRepository applicationRepository;
-
-    @Autowired
-    @Lazy
-    private UserService userService;
+    private AuditWriter auditWriter;
 
     @Autowired
-    private ObjectMapper mapper;
+    private ReferenceMetadataResolver referenceMetadataResolver;
 
     @Override
     public MetadataPage<AuditEntity> search(AuditQuery query) {
@@ -122,44 +102,66 @@ public class AuditServiceImpl extends AbstractService implements AuditService {
     }
 
     private Map<String, String> getMetadata(List<AuditEntity> content) {
+        // collect the references of the whole page first, to resolve each type at once
+        final Set<String> userIds = new HashSet<>();
+        final Set<String> apiIds = new HashSet<>();
+        final Set<String> applicationIds = new HashSet<>();
+        final Set<String> planIds = new HashSet<>();
+        final Set<String> groupIds = new HashSet<>();
+        for (AuditEntity auditEntity : content) {
+            userIds.add(auditEntity.getUser());
+            if (Audit.AuditReferenceType.API.name().equals(auditEntity.getReferenceType())) {
+                apiIds.add(auditEntity.getReferenceId());
+            } else if (Audit.AuditReferenceType.APPLICATION.name().equals(auditEntity.getReferenceType())) {
+                applicationIds.add(auditEntity.getReferenceId());
+            }
+
+            if (auditEntity.getProperties() != null) {
+                for (Map.Entry<String, String> property : auditEntity.getProperties().entrySet()) {
+                    switch (Audit.AuditProperties.valueOf(property.getKey())) {
+                        case API:
+                            apiIds.add(property.getValue());
+                            break;
+                        case APPLICATION:
+                            applicationIds.add(property.getValue());
+                            break;
+                        case PLAN:
+                            planIds.add(property.getValue());
+                            break;
+                        case GROUP:
+                            groupIds.add(property.getValue());
+                            break;
+                        case USER:
+                            userIds.add(property.getValue());
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            }
+        }
+
+        final Map<String, Map<String, String>> users = resolve(referenceMetadataResolver::resolveUsers, userIds);
+        final Map<String, Map<String, String>> apis = resolve(referenceMetadataResolver::resolveApis, apiIds);
+        final Map<String, Map<String, String>> applications = resolve(referenceMetadataResolver::resolveApplications, applicationIds);
+        final Map<String, Map<String, String>> plans = resolve(referenceMetadataResolver::resolvePlans, planIds);
+        final Map<String, Map<String, String>> groups = resolve(referenceMetadataResolver::resolveGroups, groupIds);
+
         Map<String, String> metadata = new HashMap<>();
         for (AuditEntity auditEntity : content) {
             //add user's display name
             String metadataKey = "USER:"+auditEntity.getUser()+":name";
-            try {
-                UserEntity user = userService.findById(auditEntity.getUser());
-                metadata.put(metadataKey, user.getDisplayName());
-            } catch (TechnicalManagementException e) {
-                LOGGER.error("Error finding metadata {}", auditEntity.getUser());
-            } catch (UserNotFoundException unfe) {
-                metadata.put(metadataKey, auditEntity.getUser());
-            }
+            metadata.put(metadataKey, getName(users, auditEntity.getUser()));
 
             if (Audit.AuditReferenceType.API.name().equals(auditEntity.getReferenceType())) {
                 metadataKey = "API:" + auditEntity.getReferenceId() + ":name";
                 if (!metadata.containsKey(metadataKey)) {
-                    try {
-                        Optional<Api> optApi = apiRepository.findById(auditEntity.getReferenceId());
-                        if (optApi.isPresent()) {
-                            metadata.put(metadataKey, optApi.get().getName());
-                        }
-                    } catch (TechnicalException e) {
-                        LOGGER.error("Error finding metadata {}", metadataKey);
-                        metadata.put(metadataKey, auditEntity.getReferenceId());
-                    }
+                    metadata.put(metadataKey, getName(apis, auditEntity.getReferenceId()));
                 }
             } else if (Audit.AuditReferenceType.APPLICATION.name().equals(auditEntity.getReferenceType())) {
                 metadataKey = "APPLICATION:" + auditEntity.getReferenceId() + ":name";
                 if (!metadata.containsKey(metadataKey)) {
-                    try {
-                        Optional<Application> optApp = applicationRepository.findById(auditEntity.getReferenceId());
-                        if (optApp.isPresent()) {
-                            metadata.put(metadataKey, optApp.get().getName());
-                        }
-                    } catch (TechnicalException e) {
-                        LOGGER.error("Error finding metadata {}", metadataKey);
-                        metadata.put(metadataKey, auditEntity.getReferenceId());
-                    }
+                    metadata.put(metadataKey, getName(applications, auditEntity.getReferenceId()));
                 }
             }
 
@@ -177,16 +179,10 @@ public class AuditServiceImpl extends AbstractService implements AuditService {
                         try {
                             switch (Audit.AuditProperties.valueOf(property.getKey())) {
                                 case API:
-                                    Optional<Api> optApi = apiRepository.findById(property.getValue());
-                                    if (optApi.isPresent()) {
-                                        name = optApi.get().getName();
-                                    }
+                                    name = getName(apis, property.getValue());
                                     break;
                                 case APPLICATION:
-                                    Optional<Application> optApp = applicationRepository.findById(property.getValue());
-                                    if (optApp.isPresent()) {
-                                        name = optApp.get().getName();
-                                    }
+                                    name = getName(applications, property.getValue());
                                     break;
                                 case PAGE:
                                     Optional<io.gravitee.repository.management.model.Page> optPage = pageRepository.findById(property.getValue());
@@ -195,10 +191,7 @@ public class AuditServiceImpl extends AbstractService implements AuditService {
                                     }
                                     break;
                                 case PLAN:
-                                    Optional<Plan> optPlan = planRepository.findById(property.getValue());
-                                    if (optPlan.isPresent()) {
-                                        name = optPlan.get().getName();
-                                    }
+                                    name = getName(plans, property.getValue());
                                     break;
                                 case METADATA:
                                     MetadataReferenceType refType = (Audit.AuditReferenceType.API.name().equals(auditEntity.getReferenceType()))
@@ -214,18 +207,11 @@ public class AuditServiceImpl extends AbstractService implements AuditService {
                                     }
                                     break;
                                 case GROUP:
-                                    Optional<Group> optGroup = groupRepository.findById(property.getValue());
-                                    if (optGroup.isPresent()) {
-                                        name = optGroup.get().getName();
-                                    }
+                                    name = getName(groups, property.getValue());
                                     break;
                                 case USER:
-                                    try {
-                                        UserEntity user = userService.findById(property.getValue());
-                                        name = user.getDisplayName();
-                                    } catch (UserNotFoundException unfe) {
-                                        name = property.getValue();
-                                    }
+                                    name = getName(users, property.getValue());
+                                    break;
                                 default:
                                     break;
                             }
@@ -241,14 +227,47 @@ public class AuditServiceImpl extends AbstractService implements AuditService {
         return metadata;
     }
 
+    private Map<String, Map<String, String>> resolve(Function<Collection<String>, Map<String, Map<String, String>>> resolver,
+                                                     Set<String> ids) {
+        try {
+            return resolver.apply(ids);
+        } catch (TechnicalManagementException e) {
+            // names fall back to the ids
+            LOGGER.error("Error finding metadata {}", ids, e);
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Get the resolved name of a reference, archived and deleted references included, or its id when no name has
+     * been resolved.
+     */
+    private String getName(Map<String, Map<String, String>> metadata, String id) {
+        final Map<String, String> referenceMetadata = metadata.get(id);
+        return referenceMetadata == null || referenceMetadata.get("name") == null ? id : referenceMetadata.get("name");
+    }
+
     @Override
     public void createApiAuditLog(String apiId, Map<Audit.AuditProperties,String> properties, Audit.AuditEvent event, Date createdAt,
                                   Object oldValue, Object newValue) {
-        create(Audit.AuditReferenceType.API,
+        createApiAuditLog(
                 apiId,
                 properties,
                 event,
                 getAuthenticatedUsernameOrSystem(),
+                createdAt,
+                oldValue,
+                newValue);
+    }
+
+    @Override
+    public void createApiAuditLog(String apiId, Map<Audit.AuditProperties,String> properties, Audit.AuditEvent event, String userId, Date createdAt,
+                                  Object oldValue, Object newValue) {
+        create(Audit.AuditReferenceType.API,
+                apiId,
+                properties,
+                event,
+                userId,
                 createdAt==null ? new Date() : createdAt,
                 oldValue,
                 newValue);
@@ -302,10 +321,9 @@ public class AuditServiceImpl extends AbstractService implements AuditService {
                 newValue);
     }
 
-    @Async
-    protected void create(Audit.AuditReferenceType referenceType, String referenceId, Map<Audit.AuditProperties,String> properties,
-                          Audit.AuditEvent event, String userId, Date createdAt,
-                          Object oldValue, Object newValue) {
+    private void create(Audit.AuditReferenceType referenceType, String referenceId, Map<Audit.AuditProperties,String> properties,
+                        Audit.AuditEvent event, String userId, Date createdAt,
+                        Object oldValue, Object newValue) {
 
         Audit audit = new Audit();
         audit.setId(UUID.toString(UUID.random()));
@@ -320,20 +338,8 @@ public class AuditServiceImpl extends AbstractService implements AuditService {
         audit.setReferenceId(referenceId);
         audit.setEvent(event.name());
 
-        ObjectNode oldNode = oldValue == null
-                ? mapper.createObjectNode()
-                : mapper.convertValue(oldValue, ObjectNode.class).remove(Arrays.asList("updatedAt", "createdAt"));
-        ObjectNode newNode = newValue == null
-                ? mapper.createObjectNode()
-                : mapper.convertValue(newValue, ObjectNode.class).remove(Arrays.asList("updatedAt", "createdAt"));
-
-        audit.setPatch(JsonDiff.asJson(oldNode, newNode).toString());
-
-        try {
-            auditRepository.create(audit);
-        } catch (TechnicalException e) {
-            LOGGER.error("Error occurs during the creation of an Audit Log {}.", e);
-        }
+        // the patch is computed and the audit stored by the writer threads
+        auditWriter.write(audit, oldValue, newValue);
     }
 
     private AuditEntity convert(Audit audit) {
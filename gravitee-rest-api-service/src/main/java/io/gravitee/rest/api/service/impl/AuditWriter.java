@@ -0,0 +1,206 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.fge.jsonpatch.diff.JsonDiff;
+import io.gravitee.repository.management.api.AuditRepository;
+import io.gravitee.repository.management.model.Audit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write audit records out of the request thread.
+ *
+ * Audits are added to a bounded queue which is drained by batches by a dedicated pool of writer threads. The JSON
+ * patch between the old and the new values is computed by the writer threads, so the given values must not be
+ * modified by the caller once added. When the queue is full, the audit is written by the caller itself: audits are
+ * never dropped, and the overflow counter tells that the writer does not keep up.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class AuditWriter implements InitializingBean, DisposableBean {
+
+    private final Logger LOGGER = LoggerFactory.getLogger(AuditWriter.class);
+
+    @Autowired
+    private AuditRepository auditRepository;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Value("${audit.writer.queueSize:10000}")
+    private int queueSize;
+
+    @Value("${audit.writer.batchSize:100}")
+    private int batchSize;
+
+    @Value("${audit.writer.threads:2}")
+    private int threads;
+
+    private BlockingQueue<PendingAudit> queue;
+
+    private ExecutorService executor;
+
+    private volatile boolean running;
+
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong overflowed = new AtomicLong();
+
+    @Override
+    public void afterPropertiesSet() {
+        queue = new ArrayBlockingQueue<>(queueSize);
+        running = true;
+
+        final AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "audit-writer-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < threads; i++) {
+            executor.execute(this::drain);
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        running = false;
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            LOGGER.warn("Audit writers did not stop in time, {} audits still queued", queue.size());
+        }
+
+        // write what could have been added while the writers were stopping
+        final List<PendingAudit> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        write(remaining);
+
+        LOGGER.info("Audit writer stopped: {} written, {} failed, {} written by the caller on overflow",
+                written.get(), failed.get(), overflowed.get());
+    }
+
+    public void write(Audit audit, Object oldValue, Object newValue) {
+        final PendingAudit pendingAudit = new PendingAudit(audit, oldValue, newValue);
+        if (running && queue.offer(pendingAudit)) {
+            queued.incrementAndGet();
+        } else {
+            // backpressure: the caller pays for the write instead of losing the audit
+            final long overflow = overflowed.incrementAndGet();
+            if (overflow % 1000 == 1) {
+                LOGGER.warn("Audit queue is full ({} audits), {} audits written by the caller so far", queueSize, overflow);
+            }
+            write(Collections.singletonList(pendingAudit));
+        }
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public long getQueued() {
+        return queued.get();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public long getOverflowed() {
+        return overflowed.get();
+    }
+
+    private void drain() {
+        final List<PendingAudit> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingAudit pendingAudit = queue.poll(1, TimeUnit.SECONDS);
+                if (pendingAudit != null) {
+                    batch.add(pendingAudit);
+                    queue.drainTo(batch, batchSize - 1);
+                    write(batch);
+                }
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingAudit> batch) {
+        for (PendingAudit pendingAudit : batch) {
+            final Audit audit = pendingAudit.audit;
+            try {
+                audit.setPatch(diff(pendingAudit.oldValue, pendingAudit.newValue));
+                auditRepository.create(audit);
+                written.incrementAndGet();
+            } catch (Exception ex) {
+                failed.incrementAndGet();
+                LOGGER.error("Error occurs during the creation of an Audit Log {}.", audit.getId(), ex);
+            }
+        }
+    }
+
+    private String diff(Object oldValue, Object newValue) {
+        ObjectNode oldNode = oldValue == null
+                ? mapper.createObjectNode()
+                : mapper.convertValue(oldValue, ObjectNode.class).remove(Arrays.asList("updatedAt", "createdAt"));
+        ObjectNode newNode = newValue == null
+                ? mapper.createObjectNode()
+                : mapper.convertValue(newValue, ObjectNode.class).remove(Arrays.asList("updatedAt", "createdAt"));
+
+        return JsonDiff.asJson(oldNode, newNode).toString();
+    }
+
+    private static class PendingAudit {
+        private final Audit audit;
+        private final Object oldValue;
+        private final Object newValue;
+
+        private PendingAudit(Audit audit, Object oldValue, Object newValue) {
+            this.audit = audit;
+            this.oldValue = oldValue;
+            this.newValue = newValue;
+        }
+    }
+}
@@ -47,6 +47,9 @@ public class GenericNotificationConfigServiceImpl extends AbstractService implem
     @Autowired
     GenericNotificationConfigRepository genericNotificationConfigRepository;
 
+    @Autowired
+    private NotificationConfigCache notificationConfigCache;
+
     @Override
     public GenericNotificationConfigEntity create(GenericNotificationConfigEntity entity) {
         if (entity.getNotifier() == null || entity.getNotifier().isEmpty()
@@ -58,7 +61,9 @@ public class GenericNotificationConfigServiceImpl extends AbstractService implem
             notificationConfig.setId(UUID.toString(UUID.random()));
             notificationConfig.setCreatedAt(new Date());
             notificationConfig.setUpdatedAt(notificationConfig.getCreatedAt());
-            return convert(genericNotificationConfigRepository.create(notificationConfig));
+            final GenericNotificationConfigEntity created = convert(genericNotificationConfigRepository.create(notificationConfig));
+            notificationConfigCache.invalidate(notificationConfig.getReferenceType(), notificationConfig.getReferenceId());
+            return created;
         } catch (TechnicalException te) {
             LOGGER.error("An error occurs while trying to save the generic notification settings {}", entity, te);
             throw new TechnicalManagementException("An error occurs while trying to save the generic notification settings " + entity, te);
@@ -84,7 +89,10 @@ public class GenericNotificationConfigServiceImpl extends AbstractService implem
             GenericNotificationConfig notificationConfig = convert(entity);
             notificationConfig.setCreatedAt(optionalConfig.get().getCreatedAt());
             notificationConfig.setUpdatedAt(new Date());
-            return convert(genericNotificationConfigRepository.update(notificationConfig));
+            final GenericNotificationConfigEntity updated = convert(genericNotificationConfigRepository.update(notificationConfig));
+            notificationConfigCache.invalidate(optionalConfig.get().getReferenceType(), optionalConfig.get().getReferenceId());
+            notificationConfigCache.invalidate(notificationConfig.getReferenceType(), notificationConfig.getReferenceId());
+            return updated;
         } catch (TechnicalException te) {
             LOGGER.error("An error occurs while trying to save the generic notification settings {}", entity, te);
             throw new TechnicalManagementException("An error occurs while trying to save the generic notification settings " + entity, te);
@@ -95,6 +103,8 @@ public class GenericNotificationConfigServiceImpl extends AbstractService implem
     public void delete(String id) {
         try {
             genericNotificationConfigRepository.delete(id);
+            // the reference of the deleted configuration is unknown here
+            notificationConfigCache.invalidateAll();
         } catch (TechnicalException te) {
             LOGGER.error("An error occurs while trying to delete the generic notification {}", id, te);
             throw new TechnicalManagementException("An error occurs while trying to delete the generic notification " + id, te);
@@ -135,6 +145,7 @@ public class GenericNotificationConfigServiceImpl extends AbstractService implem
             // currently, we only remove email notification. The configuration of this type of notifications contains only its email
             if (user.getEmail() != null && !user.getEmail().isEmpty()) {
                 genericNotificationConfigRepository.deleteByConfig(user.getEmail());
+                notificationConfigCache.invalidateAll();
             }
         } catch (TechnicalException e) {
             LOGGER.error("An error occurs while trying to delete the notification config for user {}", user.getId(), e);
@@ -33,6 +33,7 @@ import io.gravitee.rest.api.service.AuditService;
 import io.gravitee.rest.api.service.GroupService;
 import io.gravitee.rest.api.service.MembershipService;
 import io.gravitee.rest.api.service.PermissionService;
+import io.gravitee.rest.api.service.common.EntityCache;
 import io.gravitee.rest.api.service.common.GraviteeContext;
 import io.gravitee.rest.api.service.exceptions.GroupNameAlreadyExistsException;
 import io.gravitee.rest.api.service.exceptions.GroupNotFoundException;
@@ -70,6 +71,8 @@ public class GroupServiceImpl extends AbstractService implements GroupService {
     @Autowired
     private MembershipService membershipService;
     @Autowired
+    private EntityCache entityCache;
+    @Autowired
     private AuditService auditService;
     @Autowired
     private PermissionService permissionService;
@@ -290,6 +293,9 @@ public class GroupServiceImpl extends AbstractService implements GroupService {
                         }
                     });
 
+            // the members of the group lost the permissions it gave them
+            membershipService.invalidateCompiledPermissions();
+
             //remove all applications or apis
             Date updatedDate = new Date();
             apiRepository.search(new ApiCriteria.Builder().environment(GraviteeContext.getCurrentEnvironment()).groups(groupId).build()).forEach(api -> {
@@ -297,6 +303,7 @@ public class GroupServiceImpl extends AbstractService implements GroupService {
                 api.setUpdatedAt(updatedDate);
                 try {
                     apiRepository.update(api);
+                    entityCache.invalidateApi(api.getId());
                 } catch (TechnicalException ex) {
                     logger.error("An error occurs while trying to delete a group", ex);
                     throw new TechnicalManagementException("An error occurs while trying to delete a group", ex);
@@ -307,6 +314,7 @@ public class GroupServiceImpl extends AbstractService implements GroupService {
                 application.setUpdatedAt(updatedDate);
                 try {
                     applicationRepository.update(application);
+                    entityCache.invalidateApplication(application.getId());
                 } catch (TechnicalException ex) {
                     logger.error("An error occurs while trying to delete a group", ex);
                     throw new TechnicalManagementException("An error occurs while trying to delete a group", ex);
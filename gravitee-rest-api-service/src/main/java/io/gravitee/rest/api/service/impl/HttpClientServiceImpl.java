@@ -19,6 +19,7 @@ import java.net.URI;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,14 +34,11 @@ import io.gravitee.common.http.MediaType;
 import io.gravitee.common.utils.UUID;
 import io.gravitee.rest.api.service.HttpClientService;
 import io.gravitee.rest.api.service.exceptions.TechnicalManagementException;
+import io.gravitee.rest.api.service.vertx.HttpClientRegistry;
 import io.gravitee.rest.api.service.vertx.VertxCompletableFuture;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
-import io.vertx.core.http.HttpClient;
-import io.vertx.core.http.HttpClientOptions;
 import io.vertx.core.http.HttpClientRequest;
-import io.vertx.core.net.ProxyOptions;
-import io.vertx.core.net.ProxyType;
 
 /**
  * @author Florent CHAMFROY (forent.chamfroy at graviteesource.com)
@@ -50,67 +48,17 @@ import io.vertx.core.net.ProxyType;
 public class HttpClientServiceImpl extends AbstractService implements HttpClientService {
     private final Logger LOGGER = LoggerFactory.getLogger(HttpClientServiceImpl.class);
 
-    private static final String HTTPS_SCHEME = "https";
-
     @Value("${httpClient.timeout:10000}")
     private int httpClientTimeout;
-    @Value("${httpClient.proxy.type:HTTP}")
-    private String httpClientProxyType;
-
-    @Value("${httpClient.proxy.http.host:#{systemProperties['http.proxyHost'] ?: 'localhost'}}")
-    private String httpClientProxyHttpHost;
-    @Value("${httpClient.proxy.http.port:#{systemProperties['http.proxyPort'] ?: 3128}}")
-    private int httpClientProxyHttpPort;
-    @Value("${httpClient.proxy.http.username:#{null}}")
-    private String httpClientProxyHttpUsername;
-    @Value("${httpClient.proxy.http.password:#{null}}")
-    private String httpClientProxyHttpPassword;
-
-    @Value("${httpClient.proxy.https.host:#{systemProperties['https.proxyHost'] ?: 'localhost'}}")
-    private String httpClientProxyHttpsHost;
-    @Value("${httpClient.proxy.https.port:#{systemProperties['https.proxyPort'] ?: 3128}}")
-    private int httpClientProxyHttpsPort;
-    @Value("${httpClient.proxy.https.username:#{null}}")
-    private String httpClientProxyHttpsUsername;
-    @Value("${httpClient.proxy.https.password:#{null}}")
-    private String httpClientProxyHttpsPassword;
-    
+
     @Value("#{systemProperties['httpClient.proxy'] == null ? false : true }")
     private boolean isProxyConfigured;
     
     @Autowired
     private Vertx vertx;
-    
-    private HttpClient getHttpClient(String uriScheme, Boolean useSystemProxy) {
-        boolean ssl = HTTPS_SCHEME.equalsIgnoreCase(uriScheme);
-
-        final HttpClientOptions options = new HttpClientOptions()
-                .setSsl(ssl)
-                .setTrustAll(true)
-                .setMaxPoolSize(1)
-                .setKeepAlive(false)
-                .setTcpKeepAlive(false)
-                .setConnectTimeout(httpClientTimeout);
-        
-        if ((useSystemProxy != null && useSystemProxy == Boolean.TRUE) || (useSystemProxy == null && this.isProxyConfigured)) {
-            ProxyOptions proxyOptions = new ProxyOptions();
-            proxyOptions.setType(ProxyType.valueOf(httpClientProxyType));
-            if (HTTPS_SCHEME.equals(uriScheme)) {
-                proxyOptions.setHost(httpClientProxyHttpsHost);
-                proxyOptions.setPort(httpClientProxyHttpsPort);
-                proxyOptions.setUsername(httpClientProxyHttpsUsername);
-                proxyOptions.setPassword(httpClientProxyHttpsPassword);
-            } else {
-                proxyOptions.setHost(httpClientProxyHttpHost);
-                proxyOptions.setPort(httpClientProxyHttpPort);
-                proxyOptions.setUsername(httpClientProxyHttpUsername);
-                proxyOptions.setPassword(httpClientProxyHttpPassword);
-            }
-            options.setProxyOptions(proxyOptions);
-        }
-        
-        return vertx.createHttpClient(options);
-    }
+
+    @Autowired
+    private HttpClientRegistry httpClientRegistry;
 
     @Override
     public Buffer request(HttpMethod method, String uri, Map<String, String> headers, String body, Boolean useSystemProxy) {
@@ -118,23 +66,35 @@ public class HttpClientServiceImpl extends AbstractService implements HttpClient
             LOGGER.error("HttpClient configuration is empty");
             return null;
         }
-        
+
+        try {
+            return requestAsync(method, uri, headers, body, useSystemProxy, httpClientTimeout).get();
+        } catch (InterruptedException | ExecutionException e) {
+            LOGGER.error(e.getMessage(), e);
+            throw new TechnicalManagementException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Buffer> requestAsync(HttpMethod method, String uri, Map<String, String> headers, String body,
+                                                  Boolean useSystemProxy, long timeout) {
+        if (uri == null || uri.isEmpty()) {
+            LOGGER.error("HttpClient configuration is empty");
+            return CompletableFuture.completedFuture(null);
+        }
+        if (timeout <= 0) {
+            throw new IllegalArgumentException("The timeout of a request must be positive: " + timeout);
+        }
+
         CompletableFuture<Buffer> future = new VertxCompletableFuture<>(vertx);
         URI requestUri = URI.create(uri);
 
-        final HttpClient httpClient = this.getHttpClient(requestUri.getScheme(), useSystemProxy);
+        final HttpClientRegistry.Target target = httpClientRegistry.getTarget(requestUri,
+                (useSystemProxy != null && useSystemProxy == Boolean.TRUE) || (useSystemProxy == null && this.isProxyConfigured));
 
-        final int port = requestUri.getPort() != -1 ? requestUri.getPort() :
-                (HTTPS_SCHEME.equals(requestUri.getScheme()) ? 443 : 80);
-
-        HttpClientRequest request = httpClient.request(
-                io.vertx.core.http.HttpMethod.valueOf(method.name()),
-                port,
-                requestUri.getHost(),
-                requestUri.toString(),
-                response -> LOGGER.debug("Web response status code : {}", response.statusCode())
-        );
-        request.setTimeout(httpClientTimeout);
+        final long start = System.nanoTime();
+        HttpClientRequest request = target.request(io.vertx.core.http.HttpMethod.valueOf(method.name()), requestUri);
+        request.setTimeout(timeout);
 
         //headers
         if(headers != null) {
@@ -148,37 +108,35 @@ public class HttpClientServiceImpl extends AbstractService implements HttpClient
         request.putHeader("X-Gravitee-Request-Id", UUID.toString(UUID.random()));
 
         request.handler(response -> {
+            LOGGER.debug("Web response status code : {}", response.statusCode());
             if (response.statusCode() == HttpStatusCode.OK_200) {
                 response.bodyHandler(buffer -> {
+                    target.record(start, true);
                     future.complete(buffer);
-
-                    // Close client
-                    httpClient.close();
                 });
             } else {
+                target.record(start, false);
                 future.completeExceptionally(new TechnicalManagementException(" Error on url '" + uri + "'. Status code: " + response.statusCode() + ". Message: " + response.statusMessage(), null));
             }
         });
         request.exceptionHandler(event -> {
-            try {
-                future.completeExceptionally(event);
+            target.record(start, false);
+            future.completeExceptionally(event);
+        });
 
-                // Close client
-                httpClient.close();
-            } catch (IllegalStateException ise) {
-                // Do not take care about exception when closing client
+        // the request timeout only applies while waiting for data, the deadline covers the whole call
+        final long deadline = vertx.setTimer(timeout, id ->
+                future.completeExceptionally(new TimeoutException("No response from url '" + uri + "' within " + timeout + " ms")));
+        future.whenComplete((buffer, throwable) -> {
+            vertx.cancelTimer(deadline);
+            if (throwable != null) {
+                // timed out or cancelled by the caller: abort the request, if it is still running
+                request.reset();
             }
         });
 
         request.end();
 
-        try {
-            return future.get();
-        } catch (InterruptedException | ExecutionException e) {
-            LOGGER.error(e.getMessage(), e);
-            throw new TechnicalManagementException(e.getMessage(), e);
-        }
+        return future;
     }
-
-
 }
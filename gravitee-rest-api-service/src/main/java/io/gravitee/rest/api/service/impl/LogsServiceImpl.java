@@ -17,7 +17,6 @@ package io.gravitee.rest.api.service.impl;
 
 import io.gravitee.rest.api.model.*;
 import io.gravitee.rest.api.model.analytics.query.LogQuery;
-import io.gravitee.rest.api.model.api.ApiEntity;
 import io.gravitee.rest.api.model.log.*;
 import io.gravitee.rest.api.model.log.extended.Request;
 import io.gravitee.rest.api.model.log.extended.Response;
@@ -29,7 +28,6 @@ import io.gravitee.repository.analytics.query.*;
 import io.gravitee.repository.analytics.query.tabular.TabularResponse;
 import io.gravitee.repository.log.api.LogRepository;
 import io.gravitee.repository.log.model.ExtendedLog;
-import io.gravitee.repository.management.model.ApplicationStatus;
 import io.netty.handler.codec.http.QueryStringDecoder;
 import org.apache.commons.lang3.time.FastDateFormat;
 import org.slf4j.Logger;
@@ -37,6 +35,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -55,22 +55,16 @@ public class LogsServiceImpl implements LogsService {
 
     private final Logger logger = LoggerFactory.getLogger(LogsServiceImpl.class);
 
-    private static final String APPLICATION_KEYLESS = "1";
     private static final String RFC_3339_DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSSZ";
     private static final FastDateFormat dateFormatter = FastDateFormat.getInstance(RFC_3339_DATE_FORMAT);
     private static final char separator = ';';
+    private static final int EXPORT_PAGE_SIZE = 1000;
 
     @Autowired
     private LogRepository logRepository;
     @Autowired
-    private ApiService apiService;
-    @Autowired
-    private ApplicationService applicationService;
-    @Autowired
     private PlanService planService;
     @Autowired
-    private InstanceService instanceService;
-    @Autowired
     private ApiKeyService apiKeyService;
     @Autowired
     private SubscriptionService subscriptionService;
@@ -78,6 +72,8 @@ public class LogsServiceImpl implements LogsService {
     private AuditService auditService;
     @Autowired
     private ParameterService parameterService;
+    @Autowired
+    private ReferenceMetadataResolver referenceMetadataResolver;
 
     @Override
     public SearchLogResponse findByApi(String api, LogQuery query) {
@@ -105,19 +101,21 @@ public class LogsServiceImpl implements LogsService {
             // Add metadata (only if they are results)
             if (response.getSize() > 0) {
                 Map<String, Map<String, String>> metadata = new HashMap<>();
+                Set<String> applications = new HashSet<>();
+                Set<String> plans = new HashSet<>();
 
                 logResponse.getLogs().forEach(logItem -> {
-                    String application = logItem.getApplication();
-                    String plan = logItem.getPlan();
-
-                    if (application != null) {
-                        metadata.computeIfAbsent(application, getApplicationMetadata(application));
+                    if (logItem.getApplication() != null) {
+                        applications.add(logItem.getApplication());
                     }
-                    if (plan != null) {
-                        metadata.computeIfAbsent(plan, getPlanMetadata(plan));
+                    if (logItem.getPlan() != null) {
+                        plans.add(logItem.getPlan());
                     }
                 });
 
+                referenceMetadataResolver.resolveApplications(applications).forEach(metadata::putIfAbsent);
+                referenceMetadataResolver.resolvePlans(plans).forEach(metadata::putIfAbsent);
+
                 logResponse.setMetadata(metadata);
             }
 
@@ -174,19 +172,21 @@ public class LogsServiceImpl implements LogsService {
             // Add metadata (only if they are results)
             if (response.getSize() > 0) {
                 Map<String, Map<String, String>> metadata = new HashMap<>();
+                Set<String> apis = new HashSet<>();
+                Set<String> plans = new HashSet<>();
 
                 logResponse.getLogs().forEach(logItem -> {
-                    String api = logItem.getApi();
-                    String plan = logItem.getPlan();
-
-                    if (api != null) {
-                        metadata.computeIfAbsent(api, getAPIMetadata(api));
+                    if (logItem.getApi() != null) {
+                        apis.add(logItem.getApi());
                     }
-                    if (plan != null) {
-                        metadata.computeIfAbsent(plan, getPlanMetadata(plan));
+                    if (logItem.getPlan() != null) {
+                        plans.add(logItem.getPlan());
                     }
                 });
 
+                referenceMetadataResolver.resolveApis(apis).forEach(metadata::putIfAbsent);
+                referenceMetadataResolver.resolvePlans(plans).forEach(metadata::putIfAbsent);
+
                 logResponse.setMetadata(metadata);
             }
 
@@ -210,81 +210,6 @@ public class LogsServiceImpl implements LogsService {
         }
     }
 
-    private Function<String, Map<String, String>> getAPIMetadata(String api) {
-        return s -> {
-            Map<String, String> metadata = new HashMap<>();
-
-            try {
-                ApiEntity apiEntity = apiService.findById(api);
-                metadata.put("name", apiEntity.getName());
-                metadata.put("version", apiEntity.getVersion());
-            } catch (ApiNotFoundException anfe) {
-                metadata.put("name", "Deleted API");
-                metadata.put("deleted", "true");
-            }
-
-            return metadata;
-        };
-    }
-
-    private Function<String, Map<String, String>> getApplicationMetadata(String application) {
-        return s -> {
-            Map<String, String> metadata = new HashMap<>();
-
-            try {
-                ApplicationEntity applicationEntity = applicationService.findById(application);
-                metadata.put("name", applicationEntity.getName());
-                if (ApplicationStatus.ARCHIVED.toString().equals(applicationEntity.getStatus())) {
-                    metadata.put("deleted", "true");
-                }
-            } catch (ApplicationNotFoundException anfe) {
-                metadata.put("deleted", "true");
-                if (application.equals(APPLICATION_KEYLESS)) {
-                    metadata.put("name", "Unknown application (keyless)");
-                } else {
-                    metadata.put("name", "Deleted application");
-                }
-            }
-
-            return metadata;
-        };
-    }
-
-    private Function<String, Map<String, String>> getPlanMetadata(String plan) {
-        return s -> {
-            Map<String, String> metadata = new HashMap<>();
-
-            try {
-                PlanEntity planEntity = planService.findById(plan);
-                metadata.put("name", planEntity.getName());
-            } catch (PlanNotFoundException anfe) {
-                metadata.put("deleted", "true");
-            }
-
-            return metadata;
-        };
-    }
-
-    private Function<String, Map<String, String>> getGatewayMetadata(String gateway) {
-        return s -> {
-            Map<String, String> metadata = new HashMap<>();
-
-            Optional<InstanceListItem> instanceOptional = instanceService.findInstances(true, gateway).stream().findFirst();
-
-            if (instanceOptional.isPresent()) {
-                metadata.put("hostname", instanceOptional.get().getHostname());
-                metadata.put("ip", instanceOptional.get().getIp());
-                if (instanceOptional.get().getTenant() != null) {
-                    metadata.put("tenant", instanceOptional.get().getTenant());
-                }
-            } else {
-                metadata.put("deleted", "true");
-            }
-
-            return metadata;
-        };
-    }
-
     private String getSubscription(io.gravitee.repository.log.model.ExtendedLog log) {
         if ("API_KEY".equals(log.getSecurityType())) {
             try {
@@ -313,27 +238,81 @@ public class LogsServiceImpl implements LogsService {
             return "";
         }
         final StringBuilder sb = new StringBuilder();
-        sb.append("Date");
-        sb.append(separator);
-        sb.append("Request Id");
-        sb.append(separator);
-        sb.append("Transaction Id");
-        sb.append(separator);
-        sb.append("Method");
-        sb.append(separator);
-        sb.append("Path");
-        sb.append(separator);
-        sb.append("Status");
-        sb.append(separator);
-        sb.append("Response Time");
-        sb.append(separator);
-        sb.append("Plan");
-        sb.append(separator);
+        appendCsv(sb, searchLogResponse, true);
+        return sb.toString();
+    }
+
+    @Override
+    public void exportByApiAsCsv(final String api, final LogQuery query, final Writer writer) {
+        exportAsCsv(query, pageQuery -> findByApi(api, pageQuery), writer);
+    }
+
+    @Override
+    public void exportByApplicationAsCsv(final String application, final LogQuery query, final Writer writer) {
+        exportAsCsv(query, pageQuery -> findByApplication(application, pageQuery), writer);
+    }
+
+    private void exportAsCsv(final LogQuery query, final Function<LogQuery, SearchLogResponse> search, final Writer writer) {
+        final LogQuery pageQuery = new LogQuery();
+        pageQuery.setQuery(query.getQuery());
+        pageQuery.setFrom(query.getFrom());
+        pageQuery.setTo(query.getTo());
+        pageQuery.setInterval(query.getInterval());
+        pageQuery.setField(query.getField());
+        pageQuery.setOrder(query.isOrder());
+        pageQuery.setSize(EXPORT_PAGE_SIZE);
+
+        try {
+            long exported = 0;
+            int page = 1;
+            SearchLogResponse searchLogResponse;
+            do {
+                pageQuery.setPage(page++);
+                searchLogResponse = search.apply(pageQuery);
+                if (searchLogResponse.getLogs() == null || searchLogResponse.getLogs().isEmpty()) {
+                    break;
+                }
+
+                // each page is written and flushed before fetching the next one
+                final StringBuilder sb = new StringBuilder();
+                appendCsv(sb, searchLogResponse, exported == 0);
+                writer.write(sb.toString());
+                writer.flush();
+
+                exported += searchLogResponse.getLogs().size();
+            } while (searchLogResponse.getLogs().size() == EXPORT_PAGE_SIZE && exported < searchLogResponse.getTotal());
+        } catch (IOException ioe) {
+            logger.error("An error occurs while trying to export logs", ioe);
+            throw new TechnicalManagementException("An error occurs while trying to export logs", ioe);
+        }
+    }
+
+    private void appendCsv(final StringBuilder sb, final SearchLogResponse searchLogResponse, final boolean withHeader) {
+        if (withHeader) {
+            sb.append("Date");
+            sb.append(separator);
+            sb.append("Request Id");
+            sb.append(separator);
+            sb.append("Transaction Id");
+            sb.append(separator);
+            sb.append("Method");
+            sb.append(separator);
+            sb.append("Path");
+            sb.append(separator);
+            sb.append("Status");
+            sb.append(separator);
+            sb.append("Response Time");
+            sb.append(separator);
+            sb.append("Plan");
+            sb.append(separator);
+        }
 
         //get the first item to define the type of export
         if (searchLogResponse.getLogs().get(0) instanceof ApiRequestItem) {
-            sb.append("Application");
-            sb.append(lineSeparator());
+            if (withHeader) {
+                sb.append("Application");
+                sb.append(lineSeparator());
+            }
 
             for (final Object log : searchLogResponse.getLogs()) {
                 final ApiRequestItem apiLog = (ApiRequestItem) log;
@@ -360,8 +339,10 @@ public class LogsServiceImpl implements LogsService {
             }
 
         } else if (searchLogResponse.getLogs().get(0) instanceof ApplicationRequestItem) {
-            sb.append("API");
-            sb.append(lineSeparator());
+            if (withHeader) {
+                sb.append("API");
+                sb.append(lineSeparator());
+            }
 
             for (final Object log : searchLogResponse.getLogs()) {
                 final ApplicationRequestItem applicationLog = (ApplicationRequestItem) log;
@@ -387,7 +368,6 @@ public class LogsServiceImpl implements LogsService {
                 sb.append(lineSeparator());
             }
         }
-        return sb.toString();
     }
 
     private String getName(Object map) {
@@ -464,13 +444,13 @@ public class LogsServiceImpl implements LogsService {
 
 
         if (application != null) {
-            metadata.computeIfAbsent(application, getApplicationMetadata(application));
+            referenceMetadataResolver.resolveApplications(Collections.singleton(application)).forEach(metadata::putIfAbsent);
         }
         if (plan != null) {
-            metadata.computeIfAbsent(plan, getPlanMetadata(plan));
+            referenceMetadataResolver.resolvePlans(Collections.singleton(plan)).forEach(metadata::putIfAbsent);
         }
         if (gateway != null) {
-            metadata.computeIfAbsent(gateway, getGatewayMetadata(gateway));
+            metadata.putIfAbsent(gateway, referenceMetadataResolver.resolveGateway(gateway));
         }
 
         req.setMetadata(metadata);
@@ -532,13 +512,13 @@ public class LogsServiceImpl implements LogsService {
         String gateway = log.getGateway();
 
         if (api != null) {
-            metadata.computeIfAbsent(api, getAPIMetadata(api));
+            referenceMetadataResolver.resolveApis(Collections.singleton(api)).forEach(metadata::putIfAbsent);
         }
         if (plan != null) {
-            metadata.computeIfAbsent(plan, getPlanMetadata(plan));
+            referenceMetadataResolver.resolvePlans(Collections.singleton(plan)).forEach(metadata::putIfAbsent);
         }
         if (gateway != null) {
-            metadata.computeIfAbsent(gateway, getGatewayMetadata(gateway));
+            metadata.putIfAbsent(gateway, referenceMetadataResolver.resolveGateway(gateway));
         }
 
         req.setMetadata(metadata);
@@ -15,6 +15,8 @@
  */
 package io.gravitee.rest.api.service.impl;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.ApiRepository;
 import io.gravitee.repository.management.api.ApplicationRepository;
@@ -29,10 +31,12 @@ import io.gravitee.rest.api.model.*;
 import io.gravitee.rest.api.model.api.ApiEntity;
 import io.gravitee.rest.api.model.api.ApiQuery;
 import io.gravitee.rest.api.model.pagedresult.Metadata;
+import io.gravitee.rest.api.model.permissions.CompiledPermissions;
 import io.gravitee.rest.api.model.permissions.SystemRole;
 import io.gravitee.rest.api.model.providers.User;
 import io.gravitee.rest.api.service.*;
 import io.gravitee.rest.api.service.builder.EmailNotificationBuilder;
+import io.gravitee.rest.api.service.common.GraviteeContext;
 import io.gravitee.rest.api.service.exceptions.*;
 import io.gravitee.rest.api.service.notification.NotificationParamsBuilder;
 
@@ -42,6 +46,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static io.gravitee.repository.management.model.Membership.AuditEvent.*;
@@ -85,6 +91,16 @@ public class MembershipServiceImpl extends AbstractService implements Membership
     private NotifierService notifierService;
     @Autowired
     private InvitationService invitationService;
+    @Autowired
+    private ApiVisibilityCache apiVisibilityCache;
+
+    /**
+     * Effective permissions by user and reference, kept for a short time as they are checked on every request.
+     */
+    private final Cache<String, CompiledPermissions> compiledPermissions = CacheBuilder
+            .newBuilder()
+            .expireAfterWrite(30, TimeUnit.SECONDS)
+            .build();
 
     @Override
     public Set<MemberEntity> getMembers(MembershipReferenceType referenceType, String referenceId, RoleScope roleScope) {
@@ -294,6 +310,9 @@ public class MembershipServiceImpl extends AbstractService implements Membership
                 }
             }
 
+            apiVisibilityCache.invalidate(userEntity.getId());
+            invalidateCompiledPermissions(userEntity.getId());
+
             return convert(returnedMembership, role.getScope());
         } catch (TechnicalException ex) {
             LOGGER.error("An error occurs while trying to add member for {} {}", reference.getType(), reference.getId(), ex);
@@ -319,6 +338,8 @@ public class MembershipServiceImpl extends AbstractService implements Membership
             Membership membership = new Membership(userId, referenceId, referenceType);
             membershipRepository.delete(membership);
             createAuditLog(MEMBERSHIP_DELETED, new Date(), membership, null);
+            apiVisibilityCache.invalidate(userId);
+            invalidateCompiledPermissions(userId);
         } catch (TechnicalException ex) {
             LOGGER.error("An error occurs while trying to delete member {} for {} {}", userId, referenceType, referenceId, ex);
             throw new TechnicalManagementException("An error occurs while trying to delete member " + userId + " for " + referenceType + " " + referenceId, ex);
@@ -382,6 +403,148 @@ public class MembershipServiceImpl extends AbstractService implements Membership
                 RoleScope.GROUP);
     }
 
+    @Override
+    public CompiledPermissions getCompiledPermissions(MembershipReferenceType referenceType, String referenceId,
+                                                      Set<String> groups, String userId, RoleScope roleScope) {
+        if (userId == null || referenceId == null) {
+            return CompiledPermissions.EMPTY;
+        }
+
+        try {
+            return compiledPermissions.get(
+                    compiledPermissionsKey(userId, referenceType, referenceId, roleScope),
+                    () -> compilePermissions(referenceType, referenceId, groups, userId, roleScope));
+        } catch (ExecutionException ex) {
+            LOGGER.error("An error occurs while trying to get permissions of user {} for {} {}", userId, referenceType, referenceId, ex);
+            throw new TechnicalManagementException("An error occurs while trying to get permissions of user " + userId + " for " + referenceType + " " + referenceId, ex.getCause());
+        }
+    }
+
+    @Override
+    public Map<String, CompiledPermissions> getCompiledPermissions(MembershipReferenceType referenceType, Map<String, Set<String>> groupsByReference,
+                                                                   String userId, RoleScope roleScope) {
+        if (userId == null || groupsByReference == null || groupsByReference.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        final Map<String, CompiledPermissions> permissions = new HashMap<>(groupsByReference.size());
+        final Set<String> referenceIds = new HashSet<>();
+        for (String referenceId : groupsByReference.keySet()) {
+            final CompiledPermissions cached = compiledPermissions.getIfPresent(compiledPermissionsKey(userId, referenceType, referenceId, roleScope));
+            if (cached != null) {
+                permissions.put(referenceId, cached);
+            } else {
+                referenceIds.add(referenceId);
+            }
+        }
+        if (referenceIds.isEmpty()) {
+            return permissions;
+        }
+
+        try {
+            LOGGER.debug("Compile permissions of user {} for {} {}", userId, referenceType, referenceIds);
+
+            // a direct membership takes precedence over the groups
+            final Map<String, String> roleNames = roleNamesByReference(membershipRepository.findByIds(userId, referenceType, referenceIds), roleScope);
+
+            final Set<String> groups = referenceIds.stream()
+                    .filter(referenceId -> !roleNames.containsKey(referenceId))
+                    .map(groupsByReference::get)
+                    .filter(Objects::nonNull)
+                    .flatMap(Set::stream)
+                    .collect(Collectors.toSet());
+            final Map<String, String> groupRoleNames = groups.isEmpty() ? Collections.emptyMap() :
+                    roleNamesByReference(membershipRepository.findByIds(userId, GROUP, groups), roleScope);
+
+            // most references share a handful of roles
+            final Map<String, CompiledPermissions> roles = new HashMap<>();
+            for (String referenceId : referenceIds) {
+                CompiledPermissions referencePermissions = CompiledPermissions.EMPTY;
+                final String roleName = roleNames.get(referenceId);
+                if (roleName != null) {
+                    referencePermissions = roles.computeIfAbsent(roleName, name -> compile(roleService.findById(roleScope, name)));
+                } else if (groupsByReference.get(referenceId) != null) {
+                    for (String group : groupsByReference.get(referenceId)) {
+                        final String groupRoleName = groupRoleNames.get(group);
+                        if (groupRoleName != null) {
+                            referencePermissions = referencePermissions.or(
+                                    roles.computeIfAbsent(groupRoleName, name -> compile(roleService.findById(roleScope, name))));
+                        }
+                    }
+                }
+                compiledPermissions.put(compiledPermissionsKey(userId, referenceType, referenceId, roleScope), referencePermissions);
+                permissions.put(referenceId, referencePermissions);
+            }
+            return permissions;
+        } catch (TechnicalException ex) {
+            LOGGER.error("An error occurs while trying to get permissions of user {} for {} {}", userId, referenceType, referenceIds, ex);
+            throw new TechnicalManagementException("An error occurs while trying to get permissions of user " + userId + " for " + referenceType + " " + referenceIds, ex);
+        }
+    }
+
+    private Map<String, String> roleNamesByReference(Set<Membership> memberships, RoleScope roleScope) {
+        if (memberships == null) {
+            return Collections.emptyMap();
+        }
+        final Map<String, String> roleNames = new HashMap<>(memberships.size());
+        for (Membership membership : memberships) {
+            final String roleName = membership.getRoles().get(roleScope.getId());
+            if (roleName != null) {
+                roleNames.put(membership.getReferenceId(), roleName);
+            }
+        }
+        return roleNames;
+    }
+
+    private String compiledPermissionsKey(String userId, MembershipReferenceType referenceType, String referenceId, RoleScope roleScope) {
+        return userId + ':' + GraviteeContext.getCurrentOrganization() + ':' + referenceType + ':' + referenceId + ':' + roleScope;
+    }
+
+    private CompiledPermissions compilePermissions(MembershipReferenceType referenceType, String referenceId,
+                                                   Set<String> groups, String userId, RoleScope roleScope) throws TechnicalException {
+        // a direct membership takes precedence over the groups
+        final String roleName = membershipRepository.findById(userId, referenceType, referenceId)
+                .map(membership -> membership.getRoles().get(roleScope.getId()))
+                .orElse(null);
+        if (roleName != null) {
+            return compile(roleService.findById(roleScope, roleName));
+        }
+
+        CompiledPermissions permissions = CompiledPermissions.EMPTY;
+        if (groups != null && !groups.isEmpty()) {
+            final Set<Membership> groupMemberships = membershipRepository.findByIds(userId, GROUP, groups);
+            if (groupMemberships != null) {
+                for (Membership groupMembership : groupMemberships) {
+                    final String groupRoleName = groupMembership.getRoles().get(roleScope.getId());
+                    if (groupRoleName != null) {
+                        permissions = permissions.or(compile(roleService.findById(roleScope, groupRoleName)));
+                    }
+                }
+            }
+        }
+        return permissions;
+    }
+
+    private CompiledPermissions compile(RoleEntity role) {
+        return role == null ? CompiledPermissions.EMPTY : CompiledPermissions.compile(role.getScope(), role.getPermissions());
+    }
+
+    @Override
+    public void invalidateCompiledPermissions() {
+        compiledPermissions.invalidateAll();
+    }
+
+    @Override
+    public void invalidateCompiledPermissions(MembershipReferenceType referenceType, String referenceId) {
+        final String suffix = ":" + referenceType + ':' + referenceId + ':';
+        compiledPermissions.asMap().keySet().removeIf(key -> key.contains(suffix));
+    }
+
+    private void invalidateCompiledPermissions(String userId) {
+        final String prefix = userId + ':';
+        compiledPermissions.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
     @Override
     public boolean removeRole(MembershipReferenceType referenceType, String referenceId, String userId, RoleScope roleScope) {
         try {
@@ -396,6 +559,8 @@ public class MembershipServiceImpl extends AbstractService implements Membership
                 } else {
                     membershipRepository.update(membership);
                     createAuditLog(MEMBERSHIP_UPDATED, membership.getUpdatedAt(), previousMembership, membership);
+                    apiVisibilityCache.invalidate(userId);
+                    invalidateCompiledPermissions(userId);
                     return true;
                 }
             }
@@ -414,6 +579,7 @@ public class MembershipServiceImpl extends AbstractService implements Membership
                 membership.getRoles().put(roleScope.getId(), newRole);
                 membershipRepository.update(membership);
             }
+            invalidateCompiledPermissions();
         } catch (TechnicalException ex) {
             LOGGER.error("An error occurs while trying to remove role {} {}", roleScope, roleName, ex);
             throw new TechnicalManagementException("An error occurs while trying to remove role " + roleScope + " " + roleName, ex);
@@ -426,6 +592,8 @@ public class MembershipServiceImpl extends AbstractService implements Membership
             for(Membership membership : membershipRepository.findByUser(userId)) {
                 membershipRepository.delete(membership);
             }
+            apiVisibilityCache.invalidate(userId);
+            invalidateCompiledPermissions(userId);
         } catch (TechnicalException ex) {
             LOGGER.error("An error occurs while trying to remove user {}", userId, ex);
             throw new TechnicalManagementException("An error occurs while trying to remove user " + userId, ex);
@@ -48,6 +48,8 @@ import static io.gravitee.rest.api.service.impl.MessageServiceImpl.MessageEvent.
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 /**
@@ -92,12 +94,15 @@ public class MessageServiceImpl extends AbstractService implements MessageServic
     @Value("${email.from}")
     private String defaultFrom;
 
+    @Value("${httpClient.timeout:10000}")
+    private long httpClientTimeout;
+
     public enum MessageEvent implements Audit.AuditEvent {
         MESSAGE_SENT
     }
 
     @Override
-    public int create(String apiId, MessageEntity message) {
+    public CompletableFuture<Integer> create(String apiId, MessageEntity message) {
         assertMessageNotEmpty(message);
         try {
             Optional<Api> optionalApi = apiRepository.findById(apiId);
@@ -106,16 +111,19 @@ public class MessageServiceImpl extends AbstractService implements MessageServic
             }
             Api api = optionalApi.get();
 
-            int msgSize = send(api, message, getRecipientsId(api, message));
-
-            auditService.createApiAuditLog(
-                    apiId,
-                    Collections.emptyMap(),
-                    MESSAGE_SENT,
-                    new Date(),
-                    null,
-                    message);
-            return msgSize;
+            // the message may be sent by another thread, where nobody is authenticated
+            final String username = getAuthenticatedUsername();
+            return send(api, message, getRecipientsId(api, message)).thenApply(msgSize -> {
+                auditService.createApiAuditLog(
+                        apiId,
+                        Collections.emptyMap(),
+                        MESSAGE_SENT,
+                        username,
+                        new Date(),
+                        null,
+                        message);
+                return msgSize;
+            });
         } catch(TechnicalException ex) {
             LOGGER.error("An error occurs while trying to get create a message", ex);
             throw new TechnicalManagementException("An error occurs while trying to create a message", ex);
@@ -123,22 +131,24 @@ public class MessageServiceImpl extends AbstractService implements MessageServic
     }
 
     @Override
-    public int create(MessageEntity message) {
+    public CompletableFuture<Integer> create(MessageEntity message) {
         assertMessageNotEmpty(message);
 
-        int msgSize = send(null, message, getRecipientsId(message));
-
-        auditService.createPortalAuditLog(
-                Collections.emptyMap(),
-                MESSAGE_SENT,
-                getAuthenticatedUsername(),
-                new Date(),
-                null,
-                message);
-        return msgSize;
+        // the message may be sent by another thread, where nobody is authenticated
+        final String username = getAuthenticatedUsername();
+        return send(null, message, getRecipientsId(message)).thenApply(msgSize -> {
+            auditService.createPortalAuditLog(
+                    Collections.emptyMap(),
+                    MESSAGE_SENT,
+                    username,
+                    new Date(),
+                    null,
+                    message);
+            return msgSize;
+        });
     }
 
-    private int send(Api api, MessageEntity message, Set<String> recipientsId) {
+    private CompletableFuture<Integer> send(Api api, MessageEntity message, Set<String> recipientsId) {
         switch (message.getChannel()) {
             case MAIL:
                 Set<String> mails = getRecipientsEmails(recipientsId);
@@ -151,23 +161,33 @@ public class MessageServiceImpl extends AbstractService implements MessageServic
                                 .params(Collections.singletonMap("message", message.getText()))
                                 .build());
                 }
-                return mails.size();
+                return CompletableFuture.completedFuture(mails.size());
 
             case PORTAL:
                 Hook hook = api==null ? PortalHook.MESSAGE : ApiHook.MESSAGE;
                 portalNotificationService.create(hook, new ArrayList<>(recipientsId), getPortalParams(api, message));
-                return recipientsId.size();
+                return CompletableFuture.completedFuture(recipientsId.size());
 
             case HTTP:
-                httpClientService.request(
+                final String url = recipientsId.iterator().next();
+                return httpClientService.requestAsync(
                         HttpMethod.POST,
-                        recipientsId.iterator().next(),
+                        url,
                         message.getParams(),
                         getPostMessage(api, message),
-                        Boolean.valueOf(message.isUseSystemProxy()));
-                return 1;
+                        Boolean.valueOf(message.isUseSystemProxy()),
+                        httpClientTimeout)
+                        .handle((buffer, throwable) -> {
+                            if (throwable != null) {
+                                final Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ?
+                                        throwable.getCause() : throwable;
+                                LOGGER.error("An error occurs while trying to send a message to {}", url, cause);
+                                throw new TechnicalManagementException("An error occurs while trying to send a message to " + url, cause);
+                            }
+                            return 1;
+                        });
             default:
-                return 0;
+                return CompletableFuture.completedFuture(0);
         }
     }
 
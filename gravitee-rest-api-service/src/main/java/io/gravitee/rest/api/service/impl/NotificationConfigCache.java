@@ -0,0 +1,142 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.gravitee.repository.management.model.GenericNotificationConfig;
+import io.gravitee.repository.management.model.NotificationReferenceType;
+import io.gravitee.rest.api.service.notification.Hook;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of the subscribers of a hook on a reference: the users notified on the portal and the generic notification
+ * configurations (emails, webhooks). Hooks without any subscriber are cached too, so that their notifications are
+ * dropped without querying the repositories.
+ *
+ * Entries of a reference are invalidated when one of its notification configurations is saved on this node, and
+ * expire after a minute to catch up with changes made on other nodes. Subscribers loaded while an invalidation occurs
+ * may be stale, they are not kept: see {@link #getGeneration()}.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class NotificationConfigCache {
+
+    private final Cache<Key, Subscribers> subscribers = CacheBuilder
+            .newBuilder()
+            .expireAfterWrite(1, TimeUnit.MINUTES)
+            .maximumSize(100000)
+            .build();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Get the cached subscribers of the hook on the reference, or <code>null</code> if they are not cached.
+     */
+    public Subscribers get(Hook hook, NotificationReferenceType referenceType, String referenceId) {
+        return subscribers.getIfPresent(new Key(hook.name(), referenceType, referenceId));
+    }
+
+    /**
+     * Get the current generation of the cache, to be read before loading the subscribers to {@link #put}.
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Cache the subscribers of the hook on the reference, unless the cache has been invalidated since the given
+     * generation was read: the subscribers may have been loaded before the invalidated change.
+     */
+    public void put(Hook hook, NotificationReferenceType referenceType, String referenceId, Subscribers hookSubscribers, long loadGeneration) {
+        final Key key = new Key(hook.name(), referenceType, referenceId);
+        subscribers.put(key, hookSubscribers);
+        // an invalidation either bumps the generation before this check, or removes the entry after it
+        if (generation.get() != loadGeneration) {
+            subscribers.invalidate(key);
+        }
+    }
+
+    /**
+     * Invalidate the subscribers of all the hooks of the reference.
+     */
+    public void invalidate(NotificationReferenceType referenceType, String referenceId) {
+        generation.incrementAndGet();
+        subscribers.asMap().keySet().removeIf(key -> key.referenceType == referenceType && Objects.equals(key.referenceId, referenceId));
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        subscribers.invalidateAll();
+    }
+
+    public static class Subscribers {
+
+        private final List<String> userIds;
+        private final List<GenericNotificationConfig> genericNotificationConfigs;
+
+        public Subscribers(List<String> userIds, List<GenericNotificationConfig> genericNotificationConfigs) {
+            this.userIds = Collections.unmodifiableList(userIds);
+            this.genericNotificationConfigs = Collections.unmodifiableList(genericNotificationConfigs);
+        }
+
+        public List<String> getUserIds() {
+            return userIds;
+        }
+
+        public List<GenericNotificationConfig> getGenericNotificationConfigs() {
+            return genericNotificationConfigs;
+        }
+
+        public boolean isEmpty() {
+            return userIds.isEmpty() && genericNotificationConfigs.isEmpty();
+        }
+    }
+
+    private static class Key {
+        private final String hook;
+        private final NotificationReferenceType referenceType;
+        private final String referenceId;
+
+        private Key(String hook, NotificationReferenceType referenceType, String referenceId) {
+            this.hook = hook;
+            this.referenceType = referenceType;
+            this.referenceId = referenceId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(hook, key.hook) &&
+                    referenceType == key.referenceType &&
+                    Objects.equals(referenceId, key.referenceId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(hook, referenceType, referenceId);
+        }
+    }
+}
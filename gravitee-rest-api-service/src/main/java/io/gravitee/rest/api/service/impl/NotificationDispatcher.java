@@ -0,0 +1,503 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.GenericNotificationConfigRepository;
+import io.gravitee.repository.management.api.PortalNotificationConfigRepository;
+import io.gravitee.repository.management.model.GenericNotificationConfig;
+import io.gravitee.repository.management.model.NotificationReferenceType;
+import io.gravitee.repository.management.model.PortalNotificationConfig;
+import io.gravitee.rest.api.service.PortalNotificationService;
+import io.gravitee.rest.api.service.common.NodeMetrics;
+import io.gravitee.rest.api.service.notification.Hook;
+import io.gravitee.rest.api.service.notifiers.EmailNotifierService;
+import io.gravitee.rest.api.service.notifiers.WebhookNotifierService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import static io.gravitee.rest.api.service.impl.NotifierServiceImpl.DEFAULT_EMAIL_NOTIFIER_ID;
+import static io.gravitee.rest.api.service.impl.NotifierServiceImpl.DEFAULT_WEBHOOK_NOTIFIER_ID;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Dispatch notifications out of the thread which triggers them.
+ *
+ * Triggered events are added to a bounded queue drained by dispatcher threads, which look for the notification
+ * configurations of the hook, create the portal notifications and hand the email and webhook notifications over to
+ * a pool of workers per notifier, so that a slow webhook receiver does not delay the emails nor the other events.
+ * Failed webhooks are retried with an exponential backoff.
+ *
+ * An event identical to the previous event of the same reference (same hook and parameters), triggered within the
+ * coalescing window, is dropped: another event of the reference in between resets it, so a start, stop then start of
+ * an API is notified three times. When the queue is full, the event is dispatched by the caller itself, and when the
+ * workers of a notifier are saturated, the dispatcher delivers itself: events are never lost. Retries are never run
+ * by the retry scheduler, but postponed while the webhook workers are saturated.
+ *
+ * The subscribers of a hook are looked up in the {@link NotificationConfigCache}: an event whose hook is known to
+ * have no subscriber is dropped right away, without being queued nor querying the repositories.
+ *
+ * On shutdown, the queued events are dispatched and the retries due within the shutdown timeout are run, the retries
+ * still pending after it are dropped and counted as failed. The queues, counters and latency are published as
+ * <code>notifications.*</code> metrics of the node.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class NotificationDispatcher implements MeterBinder, InitializingBean, DisposableBean {
+
+    private final Logger LOGGER = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    @Autowired
+    private PortalNotificationConfigRepository portalNotificationConfigRepository;
+
+    @Autowired
+    private GenericNotificationConfigRepository genericNotificationConfigRepository;
+
+    @Autowired
+    private NotificationConfigCache notificationConfigCache;
+
+    @Autowired
+    private PortalNotificationService portalNotificationService;
+
+    @Autowired
+    @Lazy
+    private EmailNotifierService emailNotifierService;
+
+    @Autowired
+    @Lazy
+    private WebhookNotifierService webhookNotifierService;
+
+    @Value("${notifiers.dispatcher.queueSize:10000}")
+    private int queueSize = 10000;
+
+    @Value("${notifiers.dispatcher.threads:2}")
+    private int threads = 2;
+
+    @Value("${notifiers.dispatcher.coalesceWindow:1000}")
+    private long coalesceWindow = 1000;
+
+    @Value("${notifiers.dispatcher.email.threads:2}")
+    private int emailThreads = 2;
+
+    @Value("${notifiers.dispatcher.webhook.threads:4}")
+    private int webhookThreads = 4;
+
+    @Value("${notifiers.dispatcher.webhook.retries:3}")
+    private int webhookRetries = 3;
+
+    @Value("${notifiers.dispatcher.webhook.backoff:1000}")
+    private long webhookBackoff = 1000;
+
+    @Value("${notifiers.dispatcher.shutdownTimeout:10000}")
+    private long shutdownTimeout = 10000;
+
+    private BlockingQueue<PendingEvent> queue;
+
+    private ExecutorService dispatchers;
+    private ThreadPoolExecutor emailWorkers;
+    private ThreadPoolExecutor webhookWorkers;
+    private ScheduledThreadPoolExecutor retryScheduler;
+
+    private Cache<String, PendingEvent> lastEvents;
+
+    private volatile boolean running;
+
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong overflowed = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong latency = new AtomicLong();
+
+    @Override
+    public void afterPropertiesSet() {
+        queue = new ArrayBlockingQueue<>(queueSize);
+        lastEvents = CacheBuilder.newBuilder()
+                .expireAfterWrite(coalesceWindow, TimeUnit.MILLISECONDS)
+                .maximumSize(queueSize)
+                .build();
+        running = true;
+
+        // saturated workers reject the tasks, see execute() and retryWebhook()
+        emailWorkers = new ThreadPoolExecutor(emailThreads, emailThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), threadFactory("notifier-email-"));
+        webhookWorkers = new ThreadPoolExecutor(webhookThreads, webhookThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), threadFactory("notifier-webhook-"));
+        retryScheduler = new ScheduledThreadPoolExecutor(1, threadFactory("notifier-retry-"));
+
+        dispatchers = Executors.newFixedThreadPool(threads, threadFactory("notifier-dispatcher-"));
+        for (int i = 0; i < threads; i++) {
+            dispatchers.execute(this::drain);
+        }
+
+        NodeMetrics.bind(this);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        queueSize(registry, "events", NotificationDispatcher::getQueueSize);
+        queueSize(registry, "email", NotificationDispatcher::getEmailQueueSize);
+        queueSize(registry, "webhook", NotificationDispatcher::getWebhookQueueSize);
+        queueSize(registry, "retry", NotificationDispatcher::getPendingRetries);
+        Gauge.builder("notifications.latency", this, NotificationDispatcher::getAverageLatency)
+                .description("Average time between the trigger of an event and the delivery of its notifications, in milliseconds")
+                .register(registry);
+
+        count(registry, "notifications.events", "queued", queued, "Events queued for dispatch");
+        count(registry, "notifications.events", "coalesced", coalesced, "Events dropped as identical to the previous event of their reference");
+        count(registry, "notifications.events", "skipped", skipped, "Events dropped as their hook has no subscriber");
+        count(registry, "notifications.events", "overflowed", overflowed, "Events dispatched by the caller as the queue was full");
+        count(registry, "notifications.deliveries", "delivered", delivered, "Notifications delivered");
+        count(registry, "notifications.deliveries", "retried", retried, "Webhook notifications retried");
+        count(registry, "notifications.deliveries", "failed", failed, "Notifications which could not be delivered");
+    }
+
+    private void queueSize(MeterRegistry registry, String queue, ToDoubleFunction<NotificationDispatcher> size) {
+        Gauge.builder("notifications.queue.size", this, size)
+                .tag("queue", queue)
+                .description("Notifications waiting in the queue")
+                .register(registry);
+    }
+
+    private static void count(MeterRegistry registry, String name, String result, AtomicLong counter, String description) {
+        FunctionCounter.builder(name, counter, AtomicLong::get)
+                .tag("result", result)
+                .description(description)
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        running = false;
+        dispatchers.shutdown();
+        if (!dispatchers.awaitTermination(shutdownTimeout, TimeUnit.MILLISECONDS)) {
+            LOGGER.warn("Notification dispatchers did not stop in time, {} events still queued", queue.size());
+        }
+
+        // the retries due in time are handed over to the webhook workers, which are still running
+        retryScheduler.shutdown();
+        if (!retryScheduler.awaitTermination(shutdownTimeout, TimeUnit.MILLISECONDS)) {
+            final int dropped = retryScheduler.shutdownNow().size();
+            failed.addAndGet(dropped);
+            LOGGER.warn("Notification dispatcher stopped before {} webhook retries were due, they are dropped", dropped);
+        }
+
+        emailWorkers.shutdown();
+        webhookWorkers.shutdown();
+        emailWorkers.awaitTermination(shutdownTimeout, TimeUnit.MILLISECONDS);
+        webhookWorkers.awaitTermination(shutdownTimeout, TimeUnit.MILLISECONDS);
+
+        LOGGER.info("Notification dispatcher stopped: {} delivered, {} failed, {} retried, {} coalesced, {} without subscriber, {} dispatched by the caller on overflow",
+                delivered.get(), failed.get(), retried.get(), coalesced.get(), skipped.get(), overflowed.get());
+    }
+
+    public void dispatch(Hook hook, NotificationReferenceType referenceType, String referenceId, Map<String, Object> params) {
+        final NotificationConfigCache.Subscribers subscribers = notificationConfigCache.get(hook, referenceType, referenceId);
+        if (subscribers != null && subscribers.isEmpty()) {
+            skipped.incrementAndGet();
+            return;
+        }
+
+        final PendingEvent event = new PendingEvent(hook, referenceType, referenceId, params);
+        if (isRepeated(event)) {
+            coalesced.incrementAndGet();
+            LOGGER.debug("Notification {} for {} {} already triggered, skip it", hook, referenceType, referenceId);
+            return;
+        }
+
+        if (running && queue.offer(event)) {
+            queued.incrementAndGet();
+        } else {
+            // backpressure: the caller pays for the dispatch instead of losing the event
+            final long overflow = overflowed.incrementAndGet();
+            if (overflow % 1000 == 1) {
+                LOGGER.warn("Notification queue is full ({} events), {} events dispatched by the caller so far", queueSize, overflow);
+            }
+            dispatch(event);
+        }
+    }
+
+    /**
+     * Record the event as the last one of its reference, unless it is identical to the current last one.
+     *
+     * @return <code>true</code> if the event repeats the last event of its reference.
+     */
+    private boolean isRepeated(PendingEvent event) {
+        final ConcurrentMap<String, PendingEvent> events = lastEvents.asMap();
+        final String reference = event.referenceType + ":" + event.referenceId;
+        while (true) {
+            final PendingEvent lastEvent = events.putIfAbsent(reference, event);
+            if (lastEvent == null) {
+                return false;
+            }
+            if (lastEvent.equals(event)) {
+                // the window starts with the first of the repeated events
+                return true;
+            }
+            if (events.replace(reference, lastEvent, event)) {
+                return false;
+            }
+        }
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public int getEmailQueueSize() {
+        return emailWorkers.getQueue().size();
+    }
+
+    public int getWebhookQueueSize() {
+        return webhookWorkers.getQueue().size();
+    }
+
+    /**
+     * @return the number of webhook retries waiting for their backoff delay.
+     */
+    public int getPendingRetries() {
+        return retryScheduler.getQueue().size();
+    }
+
+    public long getQueued() {
+        return queued.get();
+    }
+
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    /**
+     * @return the number of events dropped because their hook has no subscriber.
+     */
+    public long getSkipped() {
+        return skipped.get();
+    }
+
+    public long getOverflowed() {
+        return overflowed.get();
+    }
+
+    public long getDelivered() {
+        return delivered.get();
+    }
+
+    public long getRetried() {
+        return retried.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * @return the average time between the trigger of an event and the delivery of its notifications, in milliseconds.
+     */
+    public long getAverageLatency() {
+        final long count = delivered.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(latency.get() / count);
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingEvent event = queue.poll(1, TimeUnit.SECONDS);
+                if (event != null) {
+                    dispatch(event);
+                }
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception ex) {
+                LOGGER.error("An error occurs while dispatching a notification", ex);
+            }
+        }
+    }
+
+    private void dispatch(PendingEvent event) {
+        final NotificationConfigCache.Subscribers subscribers = getSubscribers(event);
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+
+        if (!subscribers.getUserIds().isEmpty()) {
+            portalNotificationService.create(event.hook, subscribers.getUserIds(), event.params);
+            delivered(event);
+        }
+
+        for (GenericNotificationConfig genericNotificationConfig : subscribers.getGenericNotificationConfigs()) {
+            switch (genericNotificationConfig.getNotifier()) {
+                case DEFAULT_EMAIL_NOTIFIER_ID:
+                    execute(emailWorkers, () -> sendEmail(event, genericNotificationConfig));
+                    break;
+                case DEFAULT_WEBHOOK_NOTIFIER_ID:
+                    execute(webhookWorkers, () -> callWebhook(event, genericNotificationConfig, 0));
+                    break;
+                default:
+                    LOGGER.error("Unknown notifier {}", genericNotificationConfig.getNotifier());
+                    break;
+            }
+        }
+    }
+
+    /**
+     * When the notifier does not keep up, the dispatcher delivers itself and stops draining the queue.
+     */
+    private void execute(ThreadPoolExecutor workers, Runnable task) {
+        try {
+            workers.execute(task);
+        } catch (RejectedExecutionException ree) {
+            task.run();
+        }
+    }
+
+    private NotificationConfigCache.Subscribers getSubscribers(PendingEvent event) {
+        NotificationConfigCache.Subscribers subscribers = notificationConfigCache.get(event.hook, event.referenceType, event.referenceId);
+        if (subscribers != null) {
+            return subscribers;
+        }
+
+        final long generation = notificationConfigCache.getGeneration();
+        try {
+            final List<String> userIds = portalNotificationConfigRepository.findByReferenceAndHook(event.hook.name(), event.referenceType, event.referenceId).
+                    stream().
+                    map(PortalNotificationConfig::getUser).
+                    collect(Collectors.toList());
+            final List<GenericNotificationConfig> genericNotificationConfigs =
+                    genericNotificationConfigRepository.findByReferenceAndHook(event.hook.name(), event.referenceType, event.referenceId);
+            subscribers = new NotificationConfigCache.Subscribers(userIds, genericNotificationConfigs);
+            notificationConfigCache.put(event.hook, event.referenceType, event.referenceId, subscribers, generation);
+            return subscribers;
+        } catch (TechnicalException e) {
+            LOGGER.error("Error looking for notification configs with {}/{}/{}", event.hook, event.referenceType, event.referenceId, e);
+            return null;
+        }
+    }
+
+    private void sendEmail(PendingEvent event, GenericNotificationConfig genericNotificationConfig) {
+        try {
+            emailNotifierService.trigger(event.hook, genericNotificationConfig, event.params);
+            delivered(event);
+        } catch (Exception ex) {
+            failed.incrementAndGet();
+            LOGGER.error("An error occurs while sending the email notification {} for {} {}", event.hook, event.referenceType, event.referenceId, ex);
+        }
+    }
+
+    private void callWebhook(PendingEvent event, GenericNotificationConfig genericNotificationConfig, int attempt) {
+        try {
+            webhookNotifierService.trigger(event.hook, genericNotificationConfig, event.params);
+            delivered(event);
+        } catch (Exception ex) {
+            if (attempt < webhookRetries && running) {
+                final long delay = webhookBackoff << attempt;
+                retried.incrementAndGet();
+                LOGGER.warn("Webhook notification {} to {} failed, retry in {} ms: {}", event.hook, genericNotificationConfig.getConfig(), delay, ex.getMessage());
+                retryWebhook(event, genericNotificationConfig, attempt + 1, delay);
+            } else {
+                failed.incrementAndGet();
+                LOGGER.error("An error occurs while calling the webhook {} for notification {}", genericNotificationConfig.getConfig(), event.hook, ex);
+            }
+        }
+    }
+
+    private void retryWebhook(PendingEvent event, GenericNotificationConfig genericNotificationConfig, int attempt, long delay) {
+        try {
+            retryScheduler.schedule(() -> {
+                try {
+                    webhookWorkers.execute(() -> callWebhook(event, genericNotificationConfig, attempt));
+                } catch (RejectedExecutionException ree) {
+                    // the scheduler thread must not call the webhook itself, the retry waits for the workers instead
+                    if (running) {
+                        retryWebhook(event, genericNotificationConfig, attempt, delay);
+                    } else {
+                        failed.incrementAndGet();
+                    }
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ree) {
+            failed.incrementAndGet();
+        }
+    }
+
+    private void delivered(PendingEvent event) {
+        delivered.incrementAndGet();
+        latency.addAndGet(System.nanoTime() - event.triggeredAt);
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        final AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static class PendingEvent {
+        private final Hook hook;
+        private final NotificationReferenceType referenceType;
+        private final String referenceId;
+        private final Map<String, Object> params;
+        private final long triggeredAt = System.nanoTime();
+
+        private PendingEvent(Hook hook, NotificationReferenceType referenceType, String referenceId, Map<String, Object> params) {
+            this.hook = hook;
+            this.referenceType = referenceType;
+            this.referenceId = referenceId;
+            this.params = params;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            PendingEvent that = (PendingEvent) o;
+            return hook == that.hook &&
+                    referenceType == that.referenceType &&
+                    Objects.equals(referenceId, that.referenceId) &&
+                    Objects.equals(params, that.params);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(hook, referenceType, referenceId, params);
+        }
+    }
+}
@@ -19,31 +19,20 @@ import com.google.common.base.Charsets;
 import com.google.common.io.Resources;
 import io.gravitee.plugin.core.api.ConfigurablePluginManager;
 import io.gravitee.plugin.notifier.NotifierPlugin;
-import io.gravitee.repository.exceptions.TechnicalException;
-import io.gravitee.repository.management.api.GenericNotificationConfigRepository;
-import io.gravitee.repository.management.api.PortalNotificationConfigRepository;
-import io.gravitee.repository.management.model.GenericNotificationConfig;
 import io.gravitee.repository.management.model.NotificationReferenceType;
-import io.gravitee.repository.management.model.PortalNotificationConfig;
 import io.gravitee.repository.management.model.PortalNotificationDefaultReferenceId;
 import io.gravitee.rest.api.model.PluginEntity;
 import io.gravitee.rest.api.model.notification.NotifierEntity;
 import io.gravitee.rest.api.service.NotifierService;
-import io.gravitee.rest.api.service.PortalNotificationService;
 import io.gravitee.rest.api.service.exceptions.NotifierNotFoundException;
 import io.gravitee.rest.api.service.exceptions.TechnicalManagementException;
 import io.gravitee.rest.api.service.notification.ApiHook;
 import io.gravitee.rest.api.service.notification.ApplicationHook;
-import io.gravitee.rest.api.service.notification.Hook;
 import io.gravitee.rest.api.service.notification.PortalHook;
-import io.gravitee.rest.api.service.notifiers.EmailNotifierService;
-import io.gravitee.rest.api.service.notifiers.WebhookNotifierService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Lazy;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
@@ -62,7 +51,7 @@ public class NotifierServiceImpl extends AbstractService implements NotifierServ
      * Default Notifier IDs
      */
     public static final String DEFAULT_EMAIL_NOTIFIER_ID = "default-email";
-    private static final String DEFAULT_WEBHOOK_NOTIFIER_ID = "default-webhook";
+    public static final String DEFAULT_WEBHOOK_NOTIFIER_ID = "default-webhook";
 
     private final Logger LOGGER = LoggerFactory.getLogger(NotifierServiceImpl.class);
 
@@ -79,75 +68,21 @@ public class NotifierServiceImpl extends AbstractService implements NotifierServ
     private ConfigurablePluginManager<NotifierPlugin> notifierManager;
 
     @Autowired
-    PortalNotificationConfigRepository portalNotificationConfigRepository;
-
-    @Autowired
-    PortalNotificationService portalNotificationService;
-
-    @Autowired
-    GenericNotificationConfigRepository genericNotificationConfigRepository;
-
-    @Autowired
-    @Lazy
-    EmailNotifierService emailNotifierService;
-
-    @Autowired
-    @Lazy
-    WebhookNotifierService webhookNotifierService;
+    private NotificationDispatcher notificationDispatcher;
 
     @Override
-    @Async
     public void trigger(final ApiHook hook, final String apiId, Map<String, Object> params) {
-        triggerPortalNotifications(hook, NotificationReferenceType.API, apiId, params);
-        triggerGenericNotifications(hook, NotificationReferenceType.API, apiId, params);
+        notificationDispatcher.dispatch(hook, NotificationReferenceType.API, apiId, params);
     }
 
     @Override
-    @Async
     public void trigger(final ApplicationHook hook, final String applicationId, Map<String, Object> params) {
-        triggerPortalNotifications(hook, NotificationReferenceType.APPLICATION, applicationId, params);
-        triggerGenericNotifications(hook, NotificationReferenceType.APPLICATION, applicationId, params);
+        notificationDispatcher.dispatch(hook, NotificationReferenceType.APPLICATION, applicationId, params);
     }
 
     @Override
-    @Async
     public void trigger(final PortalHook hook, Map<String, Object> params) {
-        triggerPortalNotifications(hook, NotificationReferenceType.PORTAL, PortalNotificationDefaultReferenceId.DEFAULT.name(), params);
-        triggerGenericNotifications(hook, NotificationReferenceType.PORTAL, PortalNotificationDefaultReferenceId.DEFAULT.name(), params);
-    }
-
-    private void triggerPortalNotifications(final Hook hook, final NotificationReferenceType refType, final String refId, final Map<String, Object> params) {
-        try {
-            List<String> userIds = portalNotificationConfigRepository.findByReferenceAndHook(hook.name(), refType, refId).
-                    stream().
-                    map(PortalNotificationConfig::getUser).
-                    collect(Collectors.toList());
-            if (!userIds.isEmpty()) {
-                portalNotificationService.create(hook, userIds, params);
-            }
-        } catch (TechnicalException e) {
-            LOGGER.error("Error looking for PortalNotificationConfig with {}/{}/{}", hook, refType, refId, e);
-        }
-    }
-
-    private void triggerGenericNotifications(final Hook hook, final NotificationReferenceType refType, final String refId, final Map<String, Object> params) {
-        try {
-            for (GenericNotificationConfig genericNotificationConfig : genericNotificationConfigRepository.findByReferenceAndHook(hook.name(), refType, refId)) {
-                switch (genericNotificationConfig.getNotifier()) {
-                    case DEFAULT_EMAIL_NOTIFIER_ID:
-                        emailNotifierService.trigger(hook, genericNotificationConfig, params);
-                        break;
-                    case DEFAULT_WEBHOOK_NOTIFIER_ID:
-                        webhookNotifierService.trigger(hook, genericNotificationConfig, params);
-                        break;
-                    default:
-                        LOGGER.error("Unknown notifier {}", genericNotificationConfig.getNotifier());
-                        break;
-                }
-            }
-        } catch (TechnicalException e) {
-            LOGGER.error("Error looking for GenericNotificationConfig with {}/{}/{}", hook, refType, refId, e);
-        }
+        notificationDispatcher.dispatch(hook, NotificationReferenceType.PORTAL, PortalNotificationDefaultReferenceId.DEFAULT.name(), params);
     }
 
     @Override
@@ -26,6 +26,7 @@ import io.gravitee.rest.api.model.api.ApiLifecycleState;
 import io.gravitee.rest.api.model.parameters.Key;
 import io.gravitee.rest.api.model.plan.PlanQuery;
 import io.gravitee.rest.api.service.*;
+import io.gravitee.rest.api.service.common.RequestEntityCache;
 import io.gravitee.rest.api.service.exceptions.*;
 import io.gravitee.rest.api.service.processor.PlanSynchronizationProcessor;
 import io.gravitee.repository.exceptions.TechnicalException;
@@ -79,6 +80,10 @@ public class PlanServiceImpl extends TransactionalService implements PlanService
 
     @Override
     public PlanEntity findById(String plan) {
+        return RequestEntityCache.get(PlanEntity.class, plan, () -> loadById(plan));
+    }
+
+    private PlanEntity loadById(String plan) {
         try {
             logger.debug("Find plan by id : {}", plan);
 
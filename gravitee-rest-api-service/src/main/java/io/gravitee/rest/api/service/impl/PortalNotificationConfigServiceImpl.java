@@ -45,11 +45,15 @@ public class PortalNotificationConfigServiceImpl extends AbstractService impleme
     @Autowired
     private PortalNotificationConfigRepository portalNotificationConfigRepository;
 
+    @Autowired
+    private NotificationConfigCache notificationConfigCache;
+
     @Override
     public PortalNotificationConfigEntity save(PortalNotificationConfigEntity notificationEntity) {
         try {
             if (notificationEntity.getHooks() == null || notificationEntity.getHooks().isEmpty()) {
                 portalNotificationConfigRepository.delete(convert(notificationEntity));
+                invalidateCache(notificationEntity);
                 return getDefaultEmpty(
                         notificationEntity.getUser(),
                         NotificationReferenceType.valueOf(notificationEntity.getReferenceType()),
@@ -61,22 +65,35 @@ public class PortalNotificationConfigServiceImpl extends AbstractService impleme
                         notificationEntity.getReferenceId());
                 PortalNotificationConfig notificationConfig = convert(notificationEntity);
 
+                final PortalNotificationConfig savedConfig;
                 if (optionalConfig.isPresent()) {
                     notificationConfig.setCreatedAt(optionalConfig.get().getCreatedAt());
                     notificationConfig.setUpdatedAt(new Date());
-                    return convert(portalNotificationConfigRepository.update(notificationConfig));
+                    savedConfig = portalNotificationConfigRepository.update(notificationConfig);
                 } else {
                     notificationConfig.setCreatedAt(new Date());
                     notificationConfig.setUpdatedAt(notificationConfig.getCreatedAt());
-                    return convert(portalNotificationConfigRepository.create(notificationConfig));
+                    savedConfig = portalNotificationConfigRepository.create(notificationConfig);
                 }
+                invalidateCache(notificationEntity);
+                return convert(savedConfig);
             }
         } catch (TechnicalException te) {
             LOGGER.error("An error occurs while trying to save the notification settings {}", notificationEntity, te);
+            // the settings may have been partially saved
+            invalidateCache(notificationEntity);
             throw new TechnicalManagementException("An error occurs while trying to save the notification settings " + notificationEntity, te);
         }
     }
 
+    private void invalidateCache(PortalNotificationConfigEntity notificationEntity) {
+        if (notificationEntity.getReferenceType() != null) {
+            notificationConfigCache.invalidate(
+                    NotificationReferenceType.valueOf(notificationEntity.getReferenceType()),
+                    notificationEntity.getReferenceId());
+        }
+    }
+
     @Override
     public PortalNotificationConfigEntity findById(String user, NotificationReferenceType referenceType, String referenceId) {
         try {
@@ -95,6 +112,7 @@ public class PortalNotificationConfigServiceImpl extends AbstractService impleme
     public void deleteByUser(String user) {
         try {
             portalNotificationConfigRepository.deleteByUser(user);
+            notificationConfigCache.invalidateAll();
         } catch (TechnicalException te) {
             LOGGER.error("An error occurs while trying to delete notification settings for user {}", user, te);
             throw new TechnicalManagementException("An error occurs while trying to delete notification settings for user " + user, te);
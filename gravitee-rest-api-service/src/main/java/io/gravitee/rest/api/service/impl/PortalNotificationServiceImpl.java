@@ -21,17 +21,18 @@ import io.gravitee.common.utils.UUID;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.PortalNotificationRepository;
 import io.gravitee.repository.management.model.PortalNotification;
-import io.gravitee.rest.api.model.notification.NewPortalNotificationEntity;
 import io.gravitee.rest.api.model.notification.PortalNotificationEntity;
 import io.gravitee.rest.api.service.PortalNotificationService;
 import io.gravitee.rest.api.service.exceptions.NotificationConfigNotFoundException;
 import io.gravitee.rest.api.service.exceptions.PortalNotificationNotFoundException;
+import io.gravitee.rest.api.service.exceptions.PortalNotificationsPartiallyCreatedException;
 import io.gravitee.rest.api.service.exceptions.TechnicalManagementException;
 import io.gravitee.rest.api.service.notification.Hook;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.yaml.snakeyaml.Yaml;
 
@@ -56,6 +57,9 @@ public class PortalNotificationServiceImpl extends AbstractService implements Po
     @Autowired
     private Configuration freemarkerConfiguration;
 
+    @Value("${notifiers.portal.batchSize:500}")
+    private int batchSize = 500;
+
     @Override
     public List<PortalNotificationEntity> findByUser(String user) {
         try {
@@ -87,28 +91,35 @@ public class PortalNotificationServiceImpl extends AbstractService implements Po
     
     @Override
     public void create(Hook hook, List<String> users, Object params) {
+        final Map<String, String> load;
         try {
-            // get notification template
+            // get notification template, rendered once for all the users
             String tpl = RELATIVE_TPL_PATH + hook.getScope().name() + "." + hook.name() + ".yml";
             final Template template = freemarkerConfiguration.getTemplate(tpl);
             final String yamlContent = processTemplateIntoString(template, params);
             Yaml yaml = new Yaml();
-            Map<String, String> load = yaml.loadAs(yamlContent, HashMap.class);
-
-            List<NewPortalNotificationEntity> notifications = new ArrayList<>(users.size());
-            users.forEach(user -> {
-                NewPortalNotificationEntity notification = new NewPortalNotificationEntity();
-                notification.setUser(user);
-                notification.setTitle(load.get("title"));
-                notification.setMessage(load.get("message"));
-                notifications.add(notification);
-            });
-
-            create(notifications);
+            load = yaml.loadAs(yamlContent, HashMap.class);
         } catch (final Exception ex) {
             LOGGER.error("Error while sending notification", ex);
             throw new TechnicalManagementException("Error while sending notification", ex);
         }
+
+        // large audiences are inserted by batches, so that each insert stays small
+        final Date now = new Date();
+        for (int from = 0; from < users.size(); from += batchSize) {
+            final List<String> batch = users.subList(from, Math.min(from + batchSize, users.size()));
+            try {
+                create(batch, load.get("title"), load.get("message"), now);
+            } catch (TechnicalException ex) {
+                // the previous batches are kept: report where to resume from, so that a retry does not duplicate them
+                LOGGER.error("An error occurs while trying to create the portal notifications {} of users {} to {} / {}, the previous ones are created",
+                        hook, from, from + batch.size(), users.size(), ex);
+                throw new PortalNotificationsPartiallyCreatedException(from, users.size(), ex);
+            }
+            if (users.size() > batchSize) {
+                LOGGER.info("{} / {} portal notifications {} created", from + batch.size(), users.size(), hook);
+            }
+        }
     }
 
     @Override
@@ -131,30 +142,18 @@ public class PortalNotificationServiceImpl extends AbstractService implements Po
         }
     }
 
-    private void create(List<NewPortalNotificationEntity> notificationEntities) {
-        final Date now = new Date();
-        List<PortalNotification> notifications = notificationEntities.
-                stream().
-                map(this::convert).
-                collect(Collectors.toList());
-        notifications.forEach( n -> {
-            n.setId(UUID.toString(UUID.random()));
-            n.setCreatedAt(now);
+    private void create(List<String> users, String title, String message, Date createdAt) throws TechnicalException {
+        List<PortalNotification> notifications = new ArrayList<>(users.size());
+        users.forEach(user -> {
+            PortalNotification notification = new PortalNotification();
+            notification.setId(UUID.toString(UUID.random()));
+            notification.setUser(user);
+            notification.setTitle(title);
+            notification.setMessage(message);
+            notification.setCreatedAt(createdAt);
+            notifications.add(notification);
         });
-        try {
-            portalNotificationRepository.create(notifications);
-        } catch (TechnicalException ex) {
-            LOGGER.error("An error occurs while trying to create {}", notifications, ex);
-            throw new TechnicalManagementException("An error occurs while trying create " + notifications, ex);
-        }
-    }
-
-    private PortalNotification convert(NewPortalNotificationEntity entity) {
-        PortalNotification notification = new PortalNotification();
-        notification.setTitle(entity.getTitle());
-        notification.setMessage(entity.getMessage());
-        notification.setUser(entity.getUser());
-        return notification;
+        portalNotificationRepository.create(notifications);
     }
 
     private PortalNotificationEntity convert(PortalNotification notification) {
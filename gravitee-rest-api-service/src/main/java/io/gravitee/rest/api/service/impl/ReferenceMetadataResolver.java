@@ -0,0 +1,284 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.ApiRepository;
+import io.gravitee.repository.management.api.ApplicationRepository;
+import io.gravitee.repository.management.api.GroupRepository;
+import io.gravitee.repository.management.api.search.ApiCriteria;
+import io.gravitee.repository.management.api.search.ApiFieldExclusionFilter;
+import io.gravitee.repository.management.model.Api;
+import io.gravitee.repository.management.model.Application;
+import io.gravitee.repository.management.model.ApplicationStatus;
+import io.gravitee.repository.management.model.Group;
+import io.gravitee.rest.api.model.InstanceListItem;
+import io.gravitee.rest.api.model.PlanEntity;
+import io.gravitee.rest.api.model.TenantEntity;
+import io.gravitee.rest.api.model.UserEntity;
+import io.gravitee.rest.api.service.InstanceService;
+import io.gravitee.rest.api.service.PlanService;
+import io.gravitee.rest.api.service.TenantService;
+import io.gravitee.rest.api.service.UserService;
+import io.gravitee.rest.api.service.common.GraviteeContext;
+import io.gravitee.rest.api.service.exceptions.PlanNotFoundException;
+import io.gravitee.rest.api.service.exceptions.TechnicalManagementException;
+import io.gravitee.rest.api.service.exceptions.TenantNotFoundException;
+import io.gravitee.rest.api.service.exceptions.UserNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Resolve the metadata (name, version, deleted flag...) of the APIs, applications, plans, tenants, gateways, users
+ * and groups referenced by logs, analytics and audits.
+ *
+ * All the ids of a response are resolved at once, with a single repository call by type when the repository allows
+ * it, and the results are cached for a short time as dashboards and audit pages request the same references again
+ * and again. APIs and applications are only resolved within the current environment.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class ReferenceMetadataResolver {
+
+    private final Logger LOGGER = LoggerFactory.getLogger(ReferenceMetadataResolver.class);
+
+    private static final String UNKNOWN_API = "1";
+    private static final String APPLICATION_KEYLESS = "1";
+
+    @Autowired
+    private ApiRepository apiRepository;
+    @Autowired
+    private ApplicationRepository applicationRepository;
+    @Autowired
+    private PlanService planService;
+    @Autowired
+    private TenantService tenantService;
+    @Autowired
+    private InstanceService instanceService;
+    @Autowired
+    @Lazy
+    private UserService userService;
+    @Autowired
+    private GroupRepository groupRepository;
+
+    private final Cache<String, Map<String, String>> metadataCache = CacheBuilder
+            .newBuilder()
+            .maximumSize(10000)
+            .expireAfterWrite(1, TimeUnit.MINUTES)
+            .build();
+
+    public Map<String, Map<String, String>> resolveApis(Collection<String> apiIds) {
+        final String environment = GraviteeContext.getCurrentEnvironment();
+        return resolve("api:" + environment, apiIds, ids -> {
+            final Map<String, Map<String, String>> metadata = new HashMap<>();
+            try {
+                final List<Api> apis = apiRepository.search(
+                        new ApiCriteria.Builder().environment(environment).ids(ids.toArray(new String[0])).build(),
+                        new ApiFieldExclusionFilter.Builder().excludeDefinition().excludePicture().build());
+                for (Api api : apis) {
+                    Map<String, String> apiMetadata = new HashMap<>();
+                    apiMetadata.put("name", api.getName());
+                    apiMetadata.put("version", api.getVersion());
+                    metadata.put(api.getId(), apiMetadata);
+                }
+            } catch (TechnicalException ex) {
+                LOGGER.error("An error occurs while trying to find APIs using their IDs: {}", ids, ex);
+                throw new TechnicalManagementException("An error occurs while trying to find APIs using their IDs: " + ids, ex);
+            }
+
+            ids.stream()
+                    .filter(id -> !metadata.containsKey(id))
+                    .forEach(id -> {
+                        Map<String, String> apiMetadata = new HashMap<>();
+                        apiMetadata.put("deleted", "true");
+                        apiMetadata.put("name", UNKNOWN_API.equals(id) ? "Unknown API (not found)" : "Deleted API");
+                        metadata.put(id, apiMetadata);
+                    });
+            return metadata;
+        });
+    }
+
+    public Map<String, Map<String, String>> resolveApplications(Collection<String> applicationIds) {
+        final String environment = GraviteeContext.getCurrentEnvironment();
+        return resolve("application:" + environment, applicationIds, ids -> {
+            final Map<String, Map<String, String>> metadata = new HashMap<>();
+            try {
+                for (Application application : applicationRepository.findByIds(new ArrayList<>(ids))) {
+                    if (!environment.equals(application.getEnvironmentId())) {
+                        continue;
+                    }
+                    Map<String, String> applicationMetadata = new HashMap<>();
+                    applicationMetadata.put("name", application.getName());
+                    if (ApplicationStatus.ARCHIVED.equals(application.getStatus())) {
+                        applicationMetadata.put("deleted", "true");
+                    }
+                    metadata.put(application.getId(), applicationMetadata);
+                }
+            } catch (TechnicalException ex) {
+                LOGGER.error("An error occurs while trying to find applications using their IDs: {}", ids, ex);
+                throw new TechnicalManagementException("An error occurs while trying to find applications using their IDs: " + ids, ex);
+            }
+
+            ids.stream()
+                    .filter(id -> !metadata.containsKey(id))
+                    .forEach(id -> {
+                        Map<String, String> applicationMetadata = new HashMap<>();
+                        applicationMetadata.put("deleted", "true");
+                        applicationMetadata.put("name", APPLICATION_KEYLESS.equals(id) ? "Unknown application (keyless)" : "Deleted application");
+                        metadata.put(id, applicationMetadata);
+                    });
+            return metadata;
+        });
+    }
+
+    public Map<String, Map<String, String>> resolvePlans(Collection<String> planIds) {
+        // plans can only be found one by one, but they are cached as the others
+        return resolve("plan", planIds, ids -> {
+            final Map<String, Map<String, String>> metadata = new HashMap<>();
+            for (String id : ids) {
+                Map<String, String> planMetadata = new HashMap<>();
+                try {
+                    PlanEntity plan = planService.findById(id);
+                    planMetadata.put("name", plan.getName());
+                } catch (PlanNotFoundException pnfe) {
+                    planMetadata.put("deleted", "true");
+                    planMetadata.put("name", "Deleted plan");
+                }
+                metadata.put(id, planMetadata);
+            }
+            return metadata;
+        });
+    }
+
+    public Map<String, Map<String, String>> resolveTenants(Collection<String> tenantIds) {
+        return resolve("tenant", tenantIds, ids -> {
+            final Map<String, Map<String, String>> metadata = new HashMap<>();
+            for (String id : ids) {
+                Map<String, String> tenantMetadata = new HashMap<>();
+                try {
+                    TenantEntity tenant = tenantService.findById(id);
+                    tenantMetadata.put("name", tenant.getName());
+                } catch (TenantNotFoundException tnfe) {
+                    tenantMetadata.put("deleted", "true");
+                    tenantMetadata.put("name", "Deleted tenant");
+                }
+                metadata.put(id, tenantMetadata);
+            }
+            return metadata;
+        });
+    }
+
+    public Map<String, Map<String, String>> resolveUsers(Collection<String> userIds) {
+        return resolve("user", userIds, ids -> {
+            final Map<String, Map<String, String>> metadata = new HashMap<>();
+            try {
+                for (UserEntity user : userService.findByIds(new ArrayList<>(ids))) {
+                    Map<String, String> userMetadata = new HashMap<>();
+                    userMetadata.put("name", user.getDisplayName());
+                    metadata.put(user.getId(), userMetadata);
+                }
+            } catch (UserNotFoundException unfe) {
+                // none of the users exists anymore
+            }
+
+            ids.stream()
+                    .filter(id -> !metadata.containsKey(id))
+                    .forEach(id -> metadata.put(id, Collections.singletonMap("deleted", "true")));
+            return metadata;
+        });
+    }
+
+    public Map<String, Map<String, String>> resolveGroups(Collection<String> groupIds) {
+        return resolve("group", groupIds, ids -> {
+            final Map<String, Map<String, String>> metadata = new HashMap<>();
+            try {
+                for (Group group : groupRepository.findByIds(ids)) {
+                    Map<String, String> groupMetadata = new HashMap<>();
+                    groupMetadata.put("name", group.getName());
+                    metadata.put(group.getId(), groupMetadata);
+                }
+            } catch (TechnicalException ex) {
+                LOGGER.error("An error occurs while trying to find groups using their IDs: {}", ids, ex);
+                throw new TechnicalManagementException("An error occurs while trying to find groups using their IDs: " + ids, ex);
+            }
+
+            ids.stream()
+                    .filter(id -> !metadata.containsKey(id))
+                    .forEach(id -> metadata.put(id, Collections.singletonMap("deleted", "true")));
+            return metadata;
+        });
+    }
+
+    public Map<String, String> resolveGateway(String gatewayId) {
+        return resolve("gateway", Collections.singleton(gatewayId), ids -> {
+            Map<String, String> gatewayMetadata = new HashMap<>();
+
+            Optional<InstanceListItem> instanceOptional = instanceService.findInstances(true, gatewayId).stream().findFirst();
+            if (instanceOptional.isPresent()) {
+                gatewayMetadata.put("hostname", instanceOptional.get().getHostname());
+                gatewayMetadata.put("ip", instanceOptional.get().getIp());
+                if (instanceOptional.get().getTenant() != null) {
+                    gatewayMetadata.put("tenant", instanceOptional.get().getTenant());
+                }
+            } else {
+                gatewayMetadata.put("deleted", "true");
+            }
+            return Collections.singletonMap(gatewayId, gatewayMetadata);
+        }).get(gatewayId);
+    }
+
+    /**
+     * Get the metadata of the given references from the cache, and load the missing ones at once.
+     * Returned maps are copies, so they can be modified by the caller.
+     */
+    private Map<String, Map<String, String>> resolve(String type, Collection<String> ids,
+                                                     Function<Set<String>, Map<String, Map<String, String>>> loader) {
+        final Map<String, Map<String, String>> metadata = new HashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return metadata;
+        }
+
+        final Set<String> missingIds = new HashSet<>();
+        for (String id : ids) {
+            if (id != null && !metadata.containsKey(id)) {
+                Map<String, String> cachedMetadata = metadataCache.getIfPresent(type + ':' + id);
+                if (cachedMetadata == null) {
+                    missingIds.add(id);
+                } else {
+                    metadata.put(id, new HashMap<>(cachedMetadata));
+                }
+            }
+        }
+
+        if (!missingIds.isEmpty()) {
+            loader.apply(missingIds).forEach((id, loadedMetadata) -> {
+                metadataCache.put(type + ':' + id, loadedMetadata);
+                metadata.put(id, new HashMap<>(loadedMetadata));
+            });
+        }
+        return metadata;
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service.impl;
+
+import io.gravitee.repository.management.model.Role;
+import io.gravitee.repository.management.model.RoleScope;
+import io.gravitee.rest.api.service.common.NodeMetrics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Roles of each organization, held as immutable tables which are read without locking.
+ *
+ * A table is loaded on first use and replaced as a whole by a new version when a role of the organization is created,
+ * updated or deleted, on this node or on another one through the {@link RoleCacheSynchronizer}. Tables are also
+ * reloaded once they are older than the configured max age, in case such a notification has been missed.
+ *
+ * The version and the size of the table of each organization are published as metrics of the node.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class RoleCache implements MeterBinder, InitializingBean {
+
+    @Value("${roles.cache.maxAge:60000}")
+    private long maxAge = 60000;
+
+    private final AtomicLong versions = new AtomicLong();
+
+    private final ConcurrentMap<String, RoleTable> tables = new ConcurrentHashMap<>();
+
+    private final Set<String> measuredOrganizations = ConcurrentHashMap.newKeySet();
+
+    private volatile MeterRegistry registry;
+
+    @Override
+    public void afterPropertiesSet() {
+        NodeMetrics.bind(this);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        FunctionCounter.builder("roles.cache.loads", versions, AtomicLong::get)
+                .description("Role tables loaded into the cache")
+                .register(registry);
+        measuredOrganizations.forEach(this::measure);
+    }
+
+    /**
+     * Get the role table of the organization, loading it if it is missing or too old.
+     */
+    public RoleTable get(String organizationId, Function<String, Collection<Role>> loader) {
+        final long now = System.currentTimeMillis();
+        final RoleTable table = tables.get(organizationId);
+        if (table != null && !table.isExpired(now, maxAge)) {
+            return table;
+        }
+
+        // another thread may have loaded it meanwhile
+        final RoleTable loaded = tables.compute(organizationId, (id, current) ->
+                current != null && !current.isExpired(now, maxAge)
+                        ? current
+                        : new RoleTable(versions.incrementAndGet(), now, loader.apply(id)));
+        if (measuredOrganizations.add(organizationId)) {
+            measure(organizationId);
+        }
+        return loaded;
+    }
+
+    public void invalidate(String organizationId) {
+        tables.remove(organizationId);
+    }
+
+    /**
+     * Version of the role table of the organization, or 0 if it has not been loaded yet.
+     */
+    public long getVersion(String organizationId) {
+        final RoleTable table = tables.get(organizationId);
+        return table == null ? 0 : table.getVersion();
+    }
+
+    /**
+     * Number of roles of the organization, or 0 if its table has not been loaded yet.
+     */
+    public int getSize(String organizationId) {
+        final RoleTable table = tables.get(organizationId);
+        return table == null ? 0 : table.size();
+    }
+
+    private void measure(String organizationId) {
+        final MeterRegistry registry = this.registry;
+        if (registry == null) {
+            return;
+        }
+        Gauge.builder("roles.cache.version", this, cache -> cache.getVersion(organizationId))
+                .tag("organization", organizationId)
+                .description("Version of the role table of the organization")
+                .register(registry);
+        Gauge.builder("roles.cache.size", this, cache -> cache.getSize(organizationId))
+                .tag("organization", organizationId)
+                .description("Number of roles of the organization")
+                .register(registry);
+    }
+
+    public static class RoleTable {
+
+        private final long version;
+        private final long loadedAt;
+        private final List<Role> roles;
+        private final Map<String, Role> rolesByKey;
+
+        private RoleTable(long version, long loadedAt, Collection<Role> roles) {
+            this.version = version;
+            this.loadedAt = loadedAt;
+            this.roles = Collections.unmodifiableList(new ArrayList<>(roles));
+
+            final Map<String, Role> byKey = new HashMap<>(roles.size());
+            roles.forEach(role -> byKey.put(key(role.getScope(), role.getName()), role));
+            this.rolesByKey = Collections.unmodifiableMap(byKey);
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public int size() {
+            return roles.size();
+        }
+
+        public Optional<Role> find(RoleScope scope, String name) {
+            return Optional.ofNullable(rolesByKey.get(key(scope, name)));
+        }
+
+        public List<Role> findAll() {
+            return roles;
+        }
+
+        private boolean isExpired(long now, long maxAge) {
+            return now - loadedAt > maxAge;
+        }
+
+        private static String key(RoleScope scope, String name) {
+            return scope.name() + ':' + name;
+        }
+    }
+}
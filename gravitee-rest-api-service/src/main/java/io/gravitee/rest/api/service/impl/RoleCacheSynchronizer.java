@@ -0,0 +1,111 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service.impl;
+
+import io.gravitee.repository.management.model.MessageRecipient;
+import io.gravitee.rest.api.model.command.CommandEntity;
+import io.gravitee.rest.api.model.command.CommandQuery;
+import io.gravitee.rest.api.model.command.CommandTags;
+import io.gravitee.rest.api.model.command.NewCommandEntity;
+import io.gravitee.rest.api.service.CommandService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keep the {@link RoleCache} of the nodes in line with each other.
+ *
+ * A change of the roles of an organization is notified to all the nodes through a command, and the commands received
+ * by this node are polled periodically to reload the role table of the organizations they refer to.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class RoleCacheSynchronizer implements InitializingBean, DisposableBean {
+
+    private final Logger LOGGER = LoggerFactory.getLogger(RoleCacheSynchronizer.class);
+
+    @Autowired
+    private CommandService commandService;
+
+    @Autowired
+    private RoleCache roleCache;
+
+    @Value("${roles.cache.sync.interval:5000}")
+    private long syncInterval = 5000;
+
+    private ScheduledExecutorService executor;
+
+    @Override
+    public void afterPropertiesSet() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "role-cache-synchronizer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::synchronize, syncInterval, syncInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Notify all the nodes that the roles of the organization have changed.
+     */
+    public void propagate(String organizationId) {
+        try {
+            NewCommandEntity command = new NewCommandEntity();
+            command.setTags(Collections.singletonList(CommandTags.ROLES_TO_RELOAD));
+            command.setTo(MessageRecipient.MANAGEMENT_APIS.name());
+            command.setTtlInSeconds(60);
+            command.setContent(organizationId);
+            commandService.send(command);
+        } catch (Exception ex) {
+            // other nodes will reload the roles once their table is too old
+            LOGGER.error("An error occurs while notifying the change of the roles of organization {}", organizationId, ex);
+        }
+    }
+
+    /**
+     * Reload the role table of the organizations whose roles have changed on any node.
+     */
+    public void synchronize() {
+        try {
+            CommandQuery query = new CommandQuery();
+            query.setTo(MessageRecipient.MANAGEMENT_APIS.name());
+            query.setTags(Collections.singletonList(CommandTags.ROLES_TO_RELOAD));
+            List<CommandEntity> commands = commandService.search(query);
+            commands.forEach(command -> {
+                commandService.ack(command.getId());
+                roleCache.invalidate(command.getContent());
+            });
+        } catch (Exception ex) {
+            LOGGER.error("An error occurs while synchronizing the roles cache", ex);
+        }
+    }
+}
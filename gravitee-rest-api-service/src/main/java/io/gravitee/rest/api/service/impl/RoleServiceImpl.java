@@ -69,24 +69,25 @@ public class RoleServiceImpl extends AbstractService implements RoleService {
     @Autowired
     private AuditService auditService;
 
+    @Autowired
+    private RoleCache roleCache;
+
+    @Autowired
+    private RoleCacheSynchronizer roleCacheSynchronizer;
+
     @Override
     public RoleEntity findById(final RoleScope scope, final String name) {
         return this.findById(scope, name, GraviteeContext.getCurrentOrganization());
     }
 
     private RoleEntity findById(final RoleScope scope, final String name, String organizationId) {
-        try {
-            LOGGER.debug("Find Role by id");
+        LOGGER.debug("Find Role by id");
 
-            Optional<Role> role = roleRepository.findById(scope, name, organizationId, RoleReferenceType.ORGANIZATION);
-            if (!role.isPresent()) {
-                throw new RoleNotFoundException(scope, name);
-            }
-            return convert(role.get());
-        } catch (TechnicalException ex) {
-            LOGGER.error("An error occurs while trying to find a role : {} {}", scope, name,  ex);
-            throw new TechnicalManagementException("An error occurs while trying to find a role : " + scope + " " + name, ex);
+        Optional<Role> role = getRoleTable(organizationId).find(scope, name);
+        if (!role.isPresent()) {
+            throw new RoleNotFoundException(scope, name);
         }
+        return convert(role.get());
     }
 
     @Override
@@ -95,15 +96,27 @@ public class RoleServiceImpl extends AbstractService implements RoleService {
     }
     
     private List<RoleEntity> findAllByOrganization(String organizationId) {
-        try {
-            LOGGER.debug("Find all Roles");
-            return roleRepository.findAllByReferenceIdAndReferenceType(organizationId, RoleReferenceType.ORGANIZATION)
-                    .stream()
-                    .map(this::convert).collect(toList());
-        } catch (TechnicalException ex) {
-            LOGGER.error("An error occurs while trying to find all roles", ex);
-            throw new TechnicalManagementException("An error occurs while trying to find all roles", ex);
-        }
+        LOGGER.debug("Find all Roles");
+        return getRoleTable(organizationId).findAll()
+                .stream()
+                .map(this::convert).collect(toList());
+    }
+
+    private RoleCache.RoleTable getRoleTable(String organizationId) {
+        return roleCache.get(organizationId, id -> {
+            try {
+                LOGGER.debug("Load the roles of organization {}", id);
+                return roleRepository.findAllByReferenceIdAndReferenceType(id, RoleReferenceType.ORGANIZATION);
+            } catch (TechnicalException ex) {
+                LOGGER.error("An error occurs while trying to find all roles", ex);
+                throw new TechnicalManagementException("An error occurs while trying to find all roles", ex);
+            }
+        });
+    }
+
+    private void invalidateRoles(String organizationId) {
+        roleCache.invalidate(organizationId);
+        roleCacheSynchronizer.propagate(organizationId);
     }
 
     @Override
@@ -123,6 +136,7 @@ public class RoleServiceImpl extends AbstractService implements RoleService {
             role.setReferenceType(RoleReferenceType.ORGANIZATION);
             
             RoleEntity entity = convert(roleRepository.create(role));
+            invalidateRoles(organizationId);
             auditService.createPortalAuditLog(
                     Collections.singletonMap(ROLE, role.getScope() + ":" + role.getName()),
                     ROLE_CREATED,
@@ -131,6 +145,7 @@ public class RoleServiceImpl extends AbstractService implements RoleService {
                     role);
             if (entity.isDefaultRole()) {
                 toggleDefaultRole(convert(roleEntity.getScope()), entity.getName());
+                invalidateRoles(organizationId);
             }
             return entity;
         } catch (TechnicalException ex) {
@@ -154,6 +169,7 @@ public class RoleServiceImpl extends AbstractService implements RoleService {
             Role updatedRole = convert(roleEntity);
             updatedRole.setCreatedAt(role.getCreatedAt());
             RoleEntity entity = convert(roleRepository.update(updatedRole));
+            invalidateRoles(GraviteeContext.getCurrentOrganization());
             auditService.createPortalAuditLog(
                     Collections.singletonMap(ROLE, role.getScope()+":"+role.getName()),
                     ROLE_UPDATED,
@@ -162,7 +178,9 @@ public class RoleServiceImpl extends AbstractService implements RoleService {
                     updatedRole);
             if (entity.isDefaultRole()) {
                 toggleDefaultRole(scope, entity.getName());
+                invalidateRoles(GraviteeContext.getCurrentOrganization());
             }
+            membershipService.invalidateCompiledPermissions();
             return entity;
         } catch (TechnicalException ex) {
             LOGGER.error("An error occurs while trying to update role {}", roleEntity.getName(), ex);
@@ -192,6 +210,7 @@ public class RoleServiceImpl extends AbstractService implements RoleService {
             membershipService.removeRoleUsage(scope, name, defaultRoleByScopes.get(0).getName());
 
             roleRepository.delete(scope, name, GraviteeContext.getCurrentOrganization(), RoleReferenceType.ORGANIZATION);
+            invalidateRoles(GraviteeContext.getCurrentOrganization());
 
             auditService.createPortalAuditLog(
                     Collections.singletonMap(ROLE, role.getScope()+":"+role.getName()),
@@ -207,57 +226,48 @@ public class RoleServiceImpl extends AbstractService implements RoleService {
 
     @Override
     public List<RoleEntity> findByScope(RoleScope scope) {
-        try {
-            LOGGER.debug("Find Roles by scope");
-            return roleRepository.findByScopeAndReferenceIdAndReferenceType(scope, GraviteeContext.getCurrentOrganization(), RoleReferenceType.ORGANIZATION).stream()
-                    .map(this::convert)
-                    .sorted(comparing(RoleEntity::getName))
-                    .collect(toList());
-        } catch (TechnicalException ex) {
-            LOGGER.error("An error occurs while trying to find roles by scope", ex);
-            throw new TechnicalManagementException("An error occurs while trying to find roles by scope", ex);
-        }
+        LOGGER.debug("Find Roles by scope");
+        return getRoleTable(GraviteeContext.getCurrentOrganization()).findAll().stream()
+                .filter(role -> scope.equals(role.getScope()))
+                .map(this::convert)
+                .sorted(comparing(RoleEntity::getName))
+                .collect(toList());
     }
 
     @Override
     public List<RoleEntity> findDefaultRoleByScopes(RoleScope... scopes) {
-        try {
-            LOGGER.debug("Find default Roles by scope");
-            List<RoleEntity> roles = new ArrayList<>();
-            for (RoleScope scope : scopes) {
-                roles.addAll(
-                        roleRepository.findByScopeAndReferenceIdAndReferenceType(scope, GraviteeContext.getCurrentOrganization(), RoleReferenceType.ORGANIZATION).
-                                stream().
-                                filter(Role::isDefaultRole).
-                                map(this::convert).
-                                collect(toList())
-                );
-            }
-            return roles;
-        } catch (TechnicalException ex) {
-            LOGGER.error("An error occurs while trying to find default roles by scope", ex);
-            throw new TechnicalManagementException("An error occurs while trying to find default roles by scope", ex);
+        LOGGER.debug("Find default Roles by scope");
+        final List<Role> organizationRoles = getRoleTable(GraviteeContext.getCurrentOrganization()).findAll();
+        List<RoleEntity> roles = new ArrayList<>();
+        for (RoleScope scope : scopes) {
+            roles.addAll(
+                    organizationRoles.
+                            stream().
+                            filter(role -> scope.equals(role.getScope())).
+                            filter(Role::isDefaultRole).
+                            map(this::convert).
+                            collect(toList())
+            );
         }
+        return roles;
     }
 
     @Override
     public boolean hasPermission(Map<String, char[]> userPermissions, Permission permission, RolePermissionAction[] acls) {
-        boolean hasPermission = false;
-        if (userPermissions != null) {
-            Iterator<Map.Entry<String, char[]>> it = userPermissions.entrySet().iterator();
-            while (it.hasNext() && !hasPermission) {
-                Map.Entry<String, char[]> entry = it.next();
-                if (permission.getName().equals(entry.getKey())) {
-                    String crud = Arrays.toString(entry.getValue());
-                    for (RolePermissionAction perm : acls) {
-                        if (crud.indexOf(perm.getId()) != -1) {
-                            hasPermission = true;
-                        }
+        if (userPermissions == null || acls == null) {
+            return false;
+        }
+        final char[] crud = userPermissions.get(permission.getName());
+        if (crud != null) {
+            for (RolePermissionAction perm : acls) {
+                for (char c : crud) {
+                    if (c == perm.getId()) {
+                        return true;
                     }
                 }
             }
         }
-        return hasPermission;
+        return false;
     }
 
     private void toggleDefaultRole(RoleScope scope, String newDefaultRoleName) throws TechnicalException {
@@ -439,6 +449,8 @@ public class RoleServiceImpl extends AbstractService implements RoleService {
         } catch (TechnicalException ex) {
             LOGGER.error("An error occurs while trying to create admin roles", ex);
             throw new TechnicalManagementException("An error occurs while trying to create admin roles ", ex);
+        } finally {
+            invalidateRoles(organizationId);
         }
     }
 
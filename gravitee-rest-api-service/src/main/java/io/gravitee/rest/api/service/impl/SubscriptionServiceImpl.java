@@ -22,6 +22,7 @@ import io.gravitee.rest.api.model.*;
 import io.gravitee.rest.api.model.api.ApiEntity;
 import io.gravitee.rest.api.model.application.ApplicationListItem;
 import io.gravitee.rest.api.model.common.Pageable;
+import io.gravitee.rest.api.model.common.PageableImpl;
 import io.gravitee.rest.api.model.pagedresult.Metadata;
 import io.gravitee.rest.api.model.subscription.SubscriptionQuery;
 import io.gravitee.rest.api.service.*;
@@ -30,11 +31,16 @@ import io.gravitee.rest.api.service.notification.ApiHook;
 import io.gravitee.rest.api.service.notification.ApplicationHook;
 import io.gravitee.rest.api.service.notification.NotificationParamsBuilder;
 import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.ApiKeyRepository;
+import io.gravitee.repository.management.api.MembershipRepository;
 import io.gravitee.repository.management.api.SubscriptionRepository;
 import io.gravitee.repository.management.api.search.SubscriptionCriteria;
 import io.gravitee.repository.management.api.search.builder.PageableBuilder;
+import io.gravitee.repository.management.model.ApiKey;
 import io.gravitee.repository.management.model.ApplicationType;
 import io.gravitee.repository.management.model.Audit;
+import io.gravitee.repository.management.model.MembershipReferenceType;
+import io.gravitee.repository.management.model.RoleScope;
 import io.gravitee.repository.management.model.Subscription;
 import org.apache.commons.lang3.time.FastDateFormat;
 import org.slf4j.Logger;
@@ -43,10 +49,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.*;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static io.gravitee.repository.management.model.Audit.AuditProperties.API;
 import static io.gravitee.repository.management.model.Audit.AuditProperties.APPLICATION;
@@ -71,12 +78,15 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
     private static final String RFC_3339_DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSSZ";
     private static final FastDateFormat dateFormatter = FastDateFormat.getInstance(RFC_3339_DATE_FORMAT);
     private static final char separator = ';';
+    private static final int EXPORT_PAGE_SIZE = 500;
 
     @Autowired
     private PlanService planService;
     @Autowired
     private SubscriptionRepository subscriptionRepository;
     @Autowired
+    private ApiKeyRepository apiKeyRepository;
+    @Autowired
     private ApiKeyService apiKeyService;
     @Autowired
     private ApplicationService applicationService;
@@ -92,6 +102,10 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
     private NotifierService notifierService;
     @Autowired
     private GroupService groupService;
+    @Autowired
+    private ApiVisibilityCache apiVisibilityCache;
+    @Autowired
+    private MembershipRepository membershipRepository;
 
     @Override
     public SubscriptionEntity findById(String subscription) {
@@ -267,6 +281,8 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
             String apiId = planEntity.getApi();
             subscription.setApi(apiId);
             subscription = subscriptionRepository.create(subscription);
+            // The members of the application can now see the subscribed API
+            invalidateVisibleApis(application, applicationEntity.getGroups());
 
             createAudit(apiId, application, SUBSCRIPTION_CREATED, subscription.getCreatedAt(), null, subscription);
 
@@ -687,6 +703,13 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
 
             // Delete subscription
             subscriptionRepository.delete(subscriptionId);
+            Set<String> applicationGroups;
+            try {
+                applicationGroups = applicationService.findById(subscription.getApplication()).getGroups();
+            } catch (ApplicationNotFoundException anfe) {
+                applicationGroups = null;
+            }
+            invalidateVisibleApis(subscription.getApplication(), applicationGroups);
             createAudit(
                     planService.findById(subscription.getPlan()).getApi(),
                     subscription.getApplication(),
@@ -706,6 +729,10 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
         try {
             logger.debug("Search subscriptions {}", query);
 
+            if (query.getApiKey() != null && !query.getApiKey().isEmpty()) {
+                return searchByApiKey(query);
+            }
+
             SubscriptionCriteria.Builder builder = new SubscriptionCriteria.Builder()
                     .apis(query.getApis())
                     .applications(query.getApplications())
@@ -720,15 +747,7 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
                         .collect(Collectors.toSet()));
             }
 
-            Stream<SubscriptionEntity> subscriptionsStream =
-                    subscriptionRepository.search(builder.build()).stream().map(this::convert);
-            if (query.getApiKey() != null && !query.getApiKey().isEmpty()) {
-                subscriptionsStream = subscriptionsStream.filter(subscriptionEntity -> {
-                    final Set<ApiKeyEntity> apiKeys = apiKeyService.findBySubscription(subscriptionEntity.getId());
-                    return apiKeys.stream().anyMatch(apiKeyEntity -> apiKeyEntity.getKey().equals(query.getApiKey()));
-                });
-            }
-            return subscriptionsStream.collect(toList());
+            return subscriptionRepository.search(builder.build()).stream().map(this::convert).collect(toList());
         } catch (TechnicalException ex) {
             logger.error("An error occurs while trying to search for subscriptions: {}", query, ex);
             throw new TechnicalManagementException(
@@ -741,6 +760,11 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
         try {
             logger.debug("Search pageable subscriptions {}", query);
 
+            if (query.getApiKey() != null && !query.getApiKey().isEmpty()) {
+                final List<SubscriptionEntity> subscriptionEntities = searchByApiKey(query);
+                return new Page<>(subscriptionEntities, 1, subscriptionEntities.size(), subscriptionEntities.size());
+            }
+
             SubscriptionCriteria.Builder builder = new SubscriptionCriteria.Builder()
                     .apis(query.getApis())
                     .applications(query.getApplications())
@@ -762,20 +786,9 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
                                     .pageSize(pageable.getPageSize())
                                     .build());
 
-            Stream<SubscriptionEntity> subscriptionsStream = pageSubscription.getContent().stream().map(this::convert);
-
-            if (query.getApiKey() != null && !query.getApiKey().isEmpty()) {
-                subscriptionsStream = subscriptionsStream.filter(subscriptionEntity -> {
-                    final Set<ApiKeyEntity> apiKeys = apiKeyService.findBySubscription(subscriptionEntity.getId());
-                    return apiKeys.stream().anyMatch(apiKeyEntity -> apiKeyEntity.getKey().equals(query.getApiKey()));
-                });
-                final Optional<SubscriptionEntity> sub = subscriptionsStream.findAny();
-                List<SubscriptionEntity> subscriptionEntities = sub.map(Collections::singletonList).orElse(emptyList());
-                return new Page<>(subscriptionEntities, 1, subscriptionEntities.size(), subscriptionEntities.size());
-            } else {
-                return new Page<>(subscriptionsStream.collect(toList()), pageSubscription.getPageNumber() + 1,
-                        (int) pageSubscription.getPageElements(), pageSubscription.getTotalElements());
-            }
+            return new Page<>(pageSubscription.getContent().stream().map(this::convert).collect(toList()),
+                    pageSubscription.getPageNumber() + 1,
+                    (int) pageSubscription.getPageElements(), pageSubscription.getTotalElements());
         } catch (TechnicalException ex) {
             logger.error("An error occurs while trying to search for pageable subscriptions: {}", query, ex);
             throw new TechnicalManagementException(
@@ -783,6 +796,36 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
         }
     }
 
+    /**
+     * An API key belongs to a single subscription: resolve it from the key, then check it matches the rest of the
+     * query, instead of looking for the key among the keys of every matching subscription.
+     */
+    private List<SubscriptionEntity> searchByApiKey(SubscriptionQuery query) throws TechnicalException {
+        final Optional<ApiKey> apiKey = apiKeyRepository.findById(query.getApiKey());
+        if (!apiKey.isPresent() || apiKey.get().getSubscription() == null) {
+            return emptyList();
+        }
+
+        return subscriptionRepository.findById(apiKey.get().getSubscription())
+                .filter(subscription -> matches(query, subscription))
+                .map(subscription -> Collections.singletonList(convert(subscription)))
+                .orElse(emptyList());
+    }
+
+    private boolean matches(SubscriptionQuery query, Subscription subscription) {
+        return matches(query.getApis(), subscription.getApi())
+                && matches(query.getApplications(), subscription.getApplication())
+                && matches(query.getPlans(), subscription.getPlan())
+                && (query.getStatuses() == null || query.getStatuses().isEmpty()
+                    || query.getStatuses().stream().anyMatch(status -> status.name().equals(subscription.getStatus().name())))
+                && (query.getFrom() <= 0 || (subscription.getUpdatedAt() != null && subscription.getUpdatedAt().getTime() >= query.getFrom()))
+                && (query.getTo() <= 0 || (subscription.getUpdatedAt() != null && subscription.getUpdatedAt().getTime() <= query.getTo()));
+    }
+
+    private boolean matches(Collection<String> values, String value) {
+        return values == null || values.isEmpty() || values.contains(value);
+    }
+
     @Override
     public SubscriptionEntity transfer(final TransferSubscriptionEntity transferSubscription, String userId) {
         try {
@@ -850,6 +893,43 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
     @Override
     public String exportAsCsv(Collection<SubscriptionEntity> subscriptions, Map<String, Map<String, Object>> metadata) {
         final StringBuilder sb = new StringBuilder();
+        appendCsvHeader(sb);
+        appendCsv(sb, subscriptions, metadata);
+        return sb.toString();
+    }
+
+    @Override
+    public void exportAsCsv(SubscriptionQuery query, Writer writer) {
+        try {
+            final StringBuilder header = new StringBuilder();
+            appendCsvHeader(header);
+            writer.write(header.toString());
+
+            // the search by API key returns all the matching subscriptions at once, whatever the page
+            final boolean singlePage = query.getApiKey() != null && !query.getApiKey().isEmpty();
+            int page = 1;
+            Page<SubscriptionEntity> subscriptions;
+            do {
+                subscriptions = search(query, new PageableImpl(page++, EXPORT_PAGE_SIZE));
+                if (subscriptions.getContent() == null || subscriptions.getContent().isEmpty()) {
+                    break;
+                }
+
+                // each page is written and flushed before fetching the next one
+                final StringBuilder sb = new StringBuilder();
+                appendCsv(sb, subscriptions.getContent(), getMetadata(subscriptions.getContent()).getMetadata());
+                writer.write(sb.toString());
+                writer.flush();
+            } while (!singlePage && subscriptions.getContent().size() == EXPORT_PAGE_SIZE);
+            writer.flush();
+        } catch (IOException ioe) {
+            logger.error("An error occurs while trying to export subscriptions: {}", query, ioe);
+            throw new TechnicalManagementException(
+                    String.format("An error occurs while trying to export subscriptions: %s", query), ioe);
+        }
+    }
+
+    private void appendCsvHeader(final StringBuilder sb) {
         sb.append("Plan");
         sb.append(separator);
         sb.append("Application");
@@ -864,9 +944,12 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
         sb.append(separator);
         sb.append("Status");
         sb.append(lineSeparator());
+    }
 
+    private void appendCsv(final StringBuilder sb, final Collection<SubscriptionEntity> subscriptions,
+                           final Map<String, Map<String, Object>> metadata) {
         if (subscriptions == null || subscriptions.isEmpty()) {
-            return sb.toString();
+            return;
         }
         for (final SubscriptionEntity subscription : subscriptions) {
             final Object plan = metadata.get(subscription.getPlan());
@@ -895,7 +978,6 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
 
             sb.append(lineSeparator());
         }
-        return sb.toString();
     }
 
     private String getName(Object map) {
@@ -950,6 +1032,21 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
         return entity;
     }
 
+    /**
+     * The members of an application, directly or through one of its groups, see the APIs it is subscribed to.
+     */
+    private void invalidateVisibleApis(String applicationId, Set<String> applicationGroups) throws TechnicalException {
+        membershipRepository.findByReferenceAndRole(MembershipReferenceType.APPLICATION, applicationId, null, null)
+                .forEach(membership -> apiVisibilityCache.invalidate(membership.getUserId()));
+
+        if (applicationGroups != null && !applicationGroups.isEmpty()) {
+            membershipRepository.findByReferencesAndRole(MembershipReferenceType.GROUP, new ArrayList<>(applicationGroups), null, null)
+                    .stream()
+                    .filter(membership -> membership.getRoles() != null && membership.getRoles().containsKey(RoleScope.APPLICATION.getId()))
+                    .forEach(membership -> apiVisibilityCache.invalidate(membership.getUserId()));
+        }
+    }
+
     private void createAudit(String apiId, String applicationId, Audit.AuditEvent event, Date createdAt,
                              Subscription oldValue, Subscription newValue) {
         auditService.createApiAuditLog(
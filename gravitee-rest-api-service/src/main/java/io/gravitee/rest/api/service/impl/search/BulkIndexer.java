@@ -0,0 +1,200 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service.impl.search;
+
+import io.gravitee.rest.api.model.search.Indexable;
+import io.gravitee.rest.api.service.common.NodeMetrics;
+import io.gravitee.rest.api.service.search.SearchEngineService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Index a large amount of sources through a bounded queue.
+ *
+ * Sources are added to the queue by the caller, and a dedicated thread drains it by batches which are indexed with
+ * {@link SearchEngineService#index(java.util.Collection)}, so each batch is transformed in parallel and committed
+ * once. Adding a source blocks while the queue is full. When a batch can not be indexed, its sources are indexed again
+ * one by one, so that a single faulty source does not prevent the others from being indexed.
+ *
+ * The progress is published to the metrics of the node: <code>search.bulk.documents</code> counts the indexed and
+ * failed documents, and <code>search.bulk.duration</code> times each bulk indexation.
+ *
+ * @author GraviteeSource Team
+ */
+public class BulkIndexer implements AutoCloseable {
+
+    private final Logger logger = LoggerFactory.getLogger(BulkIndexer.class);
+
+    private static final Indexable END_OF_STREAM = () -> null;
+
+    private final SearchEngineService searchEngineService;
+
+    private final int batchSize;
+
+    private final BlockingQueue<Indexable> queue;
+
+    private final Thread worker;
+
+    private final AtomicLong indexed = new AtomicLong(0);
+
+    private final AtomicLong failed = new AtomicLong(0);
+
+    private final Counter indexedCounter;
+
+    private final Counter failedCounter;
+
+    private final Timer durationTimer;
+
+    private final long startedAt = System.currentTimeMillis();
+
+    public BulkIndexer(SearchEngineService searchEngineService, int batchSize) {
+        this(searchEngineService, batchSize, NodeMetrics.registry());
+    }
+
+    /**
+     * @param searchEngineService the search engine used to index the sources.
+     * @param batchSize the number of sources indexed at once.
+     * @param registry the registry in which the progress is published.
+     */
+    public BulkIndexer(SearchEngineService searchEngineService, int batchSize, MeterRegistry registry) {
+        this.searchEngineService = searchEngineService;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(batchSize * 2);
+        this.indexedCounter = Counter.builder("search.bulk.documents")
+                .tag("result", "indexed")
+                .description("Documents indexed by the bulk indexations of the search engine")
+                .register(registry);
+        this.failedCounter = Counter.builder("search.bulk.documents")
+                .tag("result", "failed")
+                .description("Documents which could not be indexed by the bulk indexations of the search engine")
+                .register(registry);
+        this.durationTimer = Timer.builder("search.bulk.duration")
+                .description("Duration of the bulk indexations of the search engine")
+                .register(registry);
+        this.worker = new Thread(this::drain, "search-bulk-indexer");
+        this.worker.start();
+    }
+
+    public void add(Indexable source) {
+        try {
+            queue.put(source);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to index " + source.getId(), ie);
+        }
+    }
+
+    /**
+     * Wait for all the added sources to be indexed.
+     */
+    @Override
+    public void close() {
+        add(END_OF_STREAM);
+        try {
+            worker.join();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+
+        final long duration = getDuration();
+        durationTimer.record(duration, TimeUnit.MILLISECONDS);
+        if (failed.get() == 0) {
+            logger.info("{} documents indexed in {} ms ({} documents/s)", indexed.get(), duration, getThroughput());
+        } else {
+            logger.warn("{} documents indexed in {} ms ({} documents/s), {} documents could not be indexed",
+                    indexed.get(), duration, getThroughput(), failed.get());
+        }
+    }
+
+    public long getIndexed() {
+        return indexed.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public long getDuration() {
+        return System.currentTimeMillis() - startedAt;
+    }
+
+    public long getThroughput() {
+        final long duration = getDuration();
+        return (duration == 0) ? indexed.get() : indexed.get() * 1000 / duration;
+    }
+
+    private void drain() {
+        final List<Indexable> batch = new ArrayList<>(batchSize);
+        boolean ended = false;
+
+        while (!ended) {
+            try {
+                Indexable source = queue.poll(1, TimeUnit.SECONDS);
+                if (source == END_OF_STREAM) {
+                    ended = true;
+                } else if (source != null) {
+                    batch.add(source);
+                }
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                ended = true;
+            }
+
+            if (batch.size() >= batchSize || (ended && !batch.isEmpty())) {
+                flush(batch);
+            }
+        }
+    }
+
+    private void flush(List<Indexable> batch) {
+        try {
+            indexed(searchEngineService.index(batch), batch.size());
+            logger.debug("{} documents indexed ({} documents/s)", indexed.get(), getThroughput());
+        } catch (Exception ex) {
+            logger.warn("Unexpected error while indexing {} documents, indexing them one by one", batch.size(), ex);
+            batch.forEach(this::flush);
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private void flush(Indexable source) {
+        try {
+            indexed(searchEngineService.index(Collections.singletonList(source)), 1);
+        } catch (Exception ex) {
+            logger.error("Unexpected error while indexing document {}", source.getId(), ex);
+            indexed(0, 1);
+        }
+    }
+
+    private void indexed(int documents, int sources) {
+        indexed.addAndGet(documents);
+        indexedCounter.increment(documents);
+        failed.addAndGet(sources - documents);
+        failedCounter.increment(sources - documents);
+    }
+}
@@ -38,6 +38,7 @@ import io.gravitee.rest.api.service.impl.search.lucene.DocumentTransformer;
 import io.gravitee.rest.api.service.impl.search.lucene.SearchEngineIndexer;
 import io.gravitee.rest.api.service.search.SearchEngineService;
 
+import org.apache.lucene.document.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -46,6 +47,8 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -148,6 +151,106 @@ public class SearchEngineServiceImpl implements SearchEngineService {
         }
     }
 
+    @Override
+    public void process(Collection<CommandSearchIndexerEntity> contents) {
+        // Only keep the last action for each source
+        final Map<String, CommandSearchIndexerEntity> lastContents = new LinkedHashMap<>();
+        contents.forEach(content -> {
+            lastContents.remove(content.getId());
+            lastContents.put(content.getId(), content);
+        });
+
+        final Map<String, Indexable> sources = getSources(lastContents.values());
+        final List<Indexable> sourcesToIndex = new ArrayList<>();
+
+        lastContents.values().forEach(content -> {
+            Indexable source = sources.get(content.getId());
+            if (source == null) {
+                logger.error("Unable to get source from message content [{}]", content);
+            } else if (ACTION_DELETE.equals(content.getAction())) {
+                deleteLocally(source);
+            } else if (ACTION_INDEX.equals(content.getAction())) {
+                sourcesToIndex.add(source);
+            }
+        });
+
+        try {
+            index(sourcesToIndex);
+        } catch (TechnicalManagementException tme) {
+            // already logged, the sources will be indexed again with their next update
+        }
+    }
+
+    @Override
+    public int index(Collection<? extends Indexable> sources) {
+        if (sources.isEmpty()) {
+            return 0;
+        }
+
+        // Transform sources in parallel, then write all the documents at once
+        final List<Document> documents = sources.parallelStream()
+                .map(this::transform)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        try {
+            indexer.index(documents);
+            return documents.size();
+        } catch (TechnicalException te) {
+            logger.error("Unexpected error while indexing {} documents", documents.size(), te);
+            throw new TechnicalManagementException("Unexpected error while indexing " + documents.size() + " documents", te);
+        }
+    }
+
+    private Document transform(Indexable source) {
+        return transformers.stream()
+                .filter(transformer -> transformer.handle(source.getClass()))
+                .findFirst()
+                .map(transformer -> {
+                    try {
+                        return transformer.transform(source);
+                    } catch (Exception ex) {
+                        logger.error("Unexpected error while transforming a document", ex);
+                        return null;
+                    }
+                })
+                .orElse(null);
+    }
+
+    private Map<String, Indexable> getSources(Collection<CommandSearchIndexerEntity> contents) {
+        final Map<String, List<String>> idsByClazz = contents.stream()
+                .collect(Collectors.groupingBy(CommandSearchIndexerEntity::getClazz,
+                        Collectors.mapping(CommandSearchIndexerEntity::getId, Collectors.toList())));
+
+        final Map<String, Indexable> sources = new HashMap<>();
+        idsByClazz.forEach((clazz, ids) -> {
+            try {
+                if (ApiEntity.class.getName().equals(clazz)) {
+                    sources.putAll(apiService.findByIds(ids).stream()
+                            .collect(Collectors.toMap(ApiEntity::getId, Function.identity())));
+                } else if (UserEntity.class.getName().equals(clazz)) {
+                    sources.putAll(userService.findByIds(ids).stream()
+                            .collect(Collectors.toMap(UserEntity::getId, Function.identity())));
+                } else {
+                    ids.forEach(id -> {
+                        try {
+                            Indexable source = getSource(clazz, id);
+                            if (source != null) {
+                                sources.put(id, source);
+                            }
+                        } catch (Exception ex) {
+                            logger.error("Unable to get source {} [{}]", clazz, id, ex);
+                        }
+                    });
+                }
+            } catch (Exception ex) {
+                logger.error("Unable to get sources {} {}", clazz, ids, ex);
+            }
+        });
+
+        return sources;
+    }
+
     private Indexable getSource(String clazz, String id) {
         if (ApiEntity.class.getName().equals(clazz)) {
             return apiService.findById(id);
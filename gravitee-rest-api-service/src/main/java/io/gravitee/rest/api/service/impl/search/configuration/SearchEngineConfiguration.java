@@ -19,6 +19,7 @@ import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.standard.StandardAnalyzer;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.SearcherManager;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
 import org.springframework.beans.factory.annotation.Value;
@@ -64,6 +65,11 @@ public class SearchEngineConfiguration {
         return new IndexWriter(directory, iwc);
     }
 
+    @Bean
+    public SearcherManager searcherManager(IndexWriter indexWriter) throws IOException {
+        return new SearcherManager(indexWriter, null);
+    }
+
     @Bean
     public Analyzer analyzer() {
         return new StandardAnalyzer();
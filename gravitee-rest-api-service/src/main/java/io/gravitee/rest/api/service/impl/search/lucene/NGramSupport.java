@@ -0,0 +1,117 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service.impl.search.lucene;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.WildcardQuery;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Substring matching (<code>*text*</code>) without wildcard queries.
+ *
+ * At indexing time, the n-grams of {@link #MIN_GRAM} to {@link #MAX_GRAM} characters starting at each position of a
+ * value, and its last suffixes shorter than {@link #MIN_GRAM}, are indexed lower-cased in a dedicated field. A
+ * substring search is then a term query on this field, or a prefix query for texts shorter than {@link #MIN_GRAM},
+ * instead of a wildcard query which has to scan the whole term dictionary.
+ *
+ * Texts longer than {@link #MAX_GRAM} or containing wildcards typed by the user fall back to a wildcard query.
+ *
+ * @author GraviteeSource Team
+ */
+public final class NGramSupport {
+
+    public final static String NGRAM_SUFFIX = "_ngram";
+
+    final static int MIN_GRAM = 3;
+    final static int MAX_GRAM = 10;
+
+    private NGramSupport() {
+    }
+
+    /**
+     * Index the n-grams of the value into the n-gram field associated to the given field.
+     */
+    public static void addNGrams(Document document, String field, String value) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+
+        ngrams(value).forEach(ngram -> document.add(new StringField(field + NGRAM_SUFFIX, ngram, Field.Store.NO)));
+    }
+
+    /**
+     * Build a query matching the documents for which the given field contains the text, case-insensitively. The
+     * fallback wildcard query is run on the given field, with the text as is, and is case-sensitive.
+     */
+    public static Query substringQuery(String field, String text) {
+        return substringQuery(field, field, text);
+    }
+
+    /**
+     * Build a query matching the documents for which the given field contains the text, case-insensitively. The
+     * fallback wildcard query is run on the given lower-cased field, with the lower-cased text.
+     */
+    public static Query lowerCaseSubstringQuery(String field, String lowerCaseField, String text) {
+        return substringQuery(field, lowerCaseField, text.toLowerCase());
+    }
+
+    private static Query substringQuery(String field, String fallbackField, String fallbackText) {
+        final String lowerCaseText = fallbackText.toLowerCase();
+
+        if (lowerCaseText.length() > MAX_GRAM || hasWildcard(lowerCaseText)) {
+            return new WildcardQuery(new Term(fallbackField, '*' + fallbackText + '*'));
+        }
+
+        if (lowerCaseText.length() < MIN_GRAM) {
+            return new PrefixQuery(new Term(field + NGRAM_SUFFIX, lowerCaseText));
+        }
+
+        return new TermQuery(new Term(field + NGRAM_SUFFIX, lowerCaseText));
+    }
+
+    static Set<String> ngrams(String value) {
+        final String lowerCaseValue = value.toLowerCase();
+        final Set<String> ngrams = new HashSet<>();
+
+        for (int start = 0; start < lowerCaseValue.length(); start++) {
+            final int remaining = lowerCaseValue.length() - start;
+            if (remaining < MIN_GRAM) {
+                // texts shorter than MIN_GRAM are looked up by prefix, which needs the last suffixes too
+                ngrams.add(lowerCaseValue.substring(start));
+                continue;
+            }
+
+            final int maxEnd = start + Math.min(remaining, MAX_GRAM);
+            for (int end = start + MIN_GRAM; end <= maxEnd; end++) {
+                ngrams.add(lowerCaseValue.substring(start, end));
+            }
+        }
+
+        return ngrams;
+    }
+
+    private static boolean hasWildcard(String text) {
+        return text.indexOf(WildcardQuery.WILDCARD_STRING) >= 0 || text.indexOf(WildcardQuery.WILDCARD_CHAR) >= 0;
+    }
+}
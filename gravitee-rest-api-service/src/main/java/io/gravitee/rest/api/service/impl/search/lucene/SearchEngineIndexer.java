@@ -21,18 +21,33 @@ import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.SearcherManager;
 import org.apache.lucene.search.TermQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
+ * Write documents into the Lucene index.
+ *
+ * Writes are not committed one by one: a background task commits the pending changes periodically. The shared
+ * near-real-time searchers are refreshed right after each write of this node, so that its searches see its own
+ * writes, and periodically in the background.
+ *
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
-public class SearchEngineIndexer {
+public class SearchEngineIndexer implements InitializingBean, DisposableBean {
 
     /**
      * Logger.
@@ -45,12 +60,51 @@ public class SearchEngineIndexer {
     @Autowired
     private IndexWriter writer;
 
+    @Autowired
+    private SearcherManager searcherManager;
+
+    @Value("${search.refresh.interval:1000}")
+    private long refreshInterval;
+
+    @Value("${search.commit.interval:5000}")
+    private long commitInterval;
+
+    private final AtomicBoolean pendingChanges = new AtomicBoolean(false);
+
+    private ScheduledExecutorService executor;
+
+    @Override
+    public void afterPropertiesSet() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-indexer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        executor.scheduleWithFixedDelay(this::refresh, refreshInterval, refreshInterval, TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                commit();
+            } catch (TechnicalException te) {
+                logger.error("Unexpected error while committing the Lucene index", te);
+            }
+        }, commitInterval, commitInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        executor.shutdown();
+        commit();
+        searcherManager.close();
+    }
+
     public long index(Document document) throws TechnicalException {
         logger.debug("Updating a document into the Lucene index");
         String id = document.get(ID_FIELD);
         try {
             long seq = writer.updateDocument(new Term(ID_FIELD, id), document);
-            writer.commit();
+            pendingChanges.set(true);
+            refreshBlocking();
             return seq;
         } catch (IOException ioe) {
             logger.error("Fail to index document with ID: {}", id, ioe);
@@ -58,6 +112,33 @@ public class SearchEngineIndexer {
         }
     }
 
+    /**
+     * Index a batch of documents, then commit the index and refresh the searchers once for the whole batch.
+     *
+     * @param documents the documents to index.
+     * @return the sequence number of the last operation.
+     */
+    public long index(Collection<Document> documents) throws TechnicalException {
+        logger.debug("Updating {} documents into the Lucene index", documents.size());
+        long seq = -1;
+        String id = null;
+        try {
+            for (Document document : documents) {
+                id = document.get(ID_FIELD);
+                seq = writer.updateDocument(new Term(ID_FIELD, id), document);
+            }
+        } catch (IOException ioe) {
+            logger.error("Fail to index document with ID: {}", id, ioe);
+            throw new TechnicalException("Fail to index document with ID: " + id, ioe);
+        } finally {
+            pendingChanges.set(true);
+        }
+
+        commit();
+        refreshBlocking();
+        return seq;
+    }
+
     public void remove(Document document) throws TechnicalException {
         String type = document.get(TYPE_FIELD);
         String id = document.get(ID_FIELD);
@@ -70,9 +151,54 @@ public class SearchEngineIndexer {
 
         try {
             writer.deleteDocuments(bq.build());
+            pendingChanges.set(true);
+            refreshBlocking();
         } catch (IOException ioe) {
             logger.error("Fail to index document with ID: {}", id, ioe);
             throw new TechnicalException("Fail to index document with ID: " + id, ioe);
         }
     }
+
+    /**
+     * Commit the pending changes of the index, if any.
+     */
+    public void commit() throws TechnicalException {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                logger.debug("Committing the Lucene index");
+                writer.commit();
+            }
+        } catch (IOException ioe) {
+            logger.error("Fail to commit the Lucene index", ioe);
+            throw new TechnicalException("Fail to commit the Lucene index", ioe);
+        }
+    }
+
+    /**
+     * Refresh the shared searchers if documents have been written since the last refresh.
+     */
+    public void refresh() {
+        if (pendingChanges.getAndSet(false)) {
+            try {
+                searcherManager.maybeRefresh();
+            } catch (IOException ioe) {
+                pendingChanges.set(true);
+                logger.error("Fail to refresh the Lucene searchers", ioe);
+            }
+        }
+    }
+
+    /**
+     * Refresh the shared searchers, waiting for the refresh if another thread is already doing it, so that the
+     * documents written by the caller are visible once this method returns.
+     */
+    private void refreshBlocking() {
+        pendingChanges.set(false);
+        try {
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException ioe) {
+            pendingChanges.set(true);
+            logger.error("Fail to refresh the Lucene searchers", ioe);
+        }
+    }
 }
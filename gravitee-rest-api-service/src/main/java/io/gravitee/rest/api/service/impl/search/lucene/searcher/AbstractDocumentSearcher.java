@@ -15,6 +15,8 @@
  */
 package io.gravitee.rest.api.service.impl.search.lucene.searcher;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.rest.api.model.common.Pageable;
 import io.gravitee.rest.api.service.impl.search.SearchResult;
@@ -24,7 +26,6 @@ import io.gravitee.rest.api.service.impl.search.lucene.analyzer.CustomWhitespace
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.index.DirectoryReader;
-import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.search.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,10 +33,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
+ * Paged searches keep the last hit of each page they return as a cursor, for a short while. As long as the index has
+ * not changed, the next page of the same query then starts right after this cursor instead of walking again through
+ * all the hits of the previous pages.
+ *
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
@@ -49,10 +57,18 @@ public abstract class AbstractDocumentSearcher implements DocumentSearcher {
     protected final static String FIELD_ID = "id";
     protected final static String FIELD_TYPE = "type";
 
+    private final static int MAX_HITS_PER_SEARCH = 1000;
+
     protected Analyzer analyzer = new CustomWhitespaceAnalyzer();
 
+    private final Cache<String, ScoreDoc> cursors = CacheBuilder
+            .newBuilder()
+            .maximumSize(1000)
+            .expireAfterWrite(1, TimeUnit.MINUTES)
+            .build();
+
     @Autowired
-    protected IndexWriter indexWriter;
+    protected SearcherManager searcherManager;
 
     protected SearchResult search(Query query) throws TechnicalException {
         return search(query, null);
@@ -61,36 +77,46 @@ public abstract class AbstractDocumentSearcher implements DocumentSearcher {
     protected SearchResult search(Query query, Pageable pageable) throws TechnicalException {
         logger.debug("Searching for: {}", query.toString());
 
+        IndexSearcher searcher = null;
         try {
-            IndexSearcher searcher = getIndexSearcher();
-            TopDocs topDocs;
+            searcher = searcherManager.acquire();
 
-            if (pageable != null) {
-                //TODO: How to find the accurate numhits ?
-                TopScoreDocCollector collector = TopScoreDocCollector.create(1000);
-                searcher.search(query, collector);
+            // Count matching documents without scoring nor keeping them
+            TotalHitCountCollector hitCountCollector = new TotalHitCountCollector();
+            searcher.search(query, hitCountCollector);
+            final int totalHits = hitCountCollector.getTotalHits();
 
-                topDocs = collector.topDocs((pageable.getPageNumber() - 1) * pageable.getPageSize(), pageable.getPageSize());
-            } else {
-                topDocs = searcher.search(query, Integer.MAX_VALUE);
-            }
+            logger.debug("Found {} total matching documents", totalHits);
 
-            final ScoreDoc[] hits = topDocs.scoreDocs;
             final List<String> results = new ArrayList<>();
 
-            logger.debug("Found {} total matching documents", topDocs.totalHits);
-
-            if (hits.length > 0) {
-                // Iterate over found results
-                for (ScoreDoc hit : hits) {
-                    results.add(getReference(searcher.doc(hit.doc)));
+            if (pageable != null) {
+                final int offset = (pageable.getPageNumber() - 1) * pageable.getPageSize();
+                if (offset < totalHits) {
+                    final ScoreDoc cursor = offset == 0 ?
+                            null : cursors.getIfPresent(cursorKey(searcher, query, pageable, pageable.getPageNumber() - 1));
+                    final ScoreDoc after = cursor != null ? cursor : skip(searcher, query, offset);
+                    final ScoreDoc last = collect(searcher, searcher.searchAfter(after, query, pageable.getPageSize()), results);
+                    if (last != null) {
+                        cursors.put(cursorKey(searcher, query, pageable, pageable.getPageNumber()), last);
+                    }
                 }
+            } else if (totalHits > 0) {
+                // Walk through all the matching documents, page by page, to keep memory bounded
+                ScoreDoc after = null;
+                TopDocs topDocs;
+                do {
+                    topDocs = searcher.searchAfter(after, query, MAX_HITS_PER_SEARCH);
+                    after = collect(searcher, topDocs, results);
+                } while (topDocs.scoreDocs.length == MAX_HITS_PER_SEARCH);
             }
 
-            return new SearchResult(results.stream().distinct().collect(Collectors.toList()), topDocs.totalHits);
+            return new SearchResult(results.stream().distinct().collect(Collectors.toList()), totalHits);
         } catch (IOException ioe) {
             logger.error("An error occurs while getting documents from search result", ioe);
             throw new TechnicalException("An error occurs while getting documents from search result", ioe);
+        } finally {
+            release(searcher);
         }
     }
 
@@ -98,7 +124,64 @@ public abstract class AbstractDocumentSearcher implements DocumentSearcher {
         return document.get(FIELD_ID);
     }
 
-    private IndexSearcher getIndexSearcher() throws IOException {
-        return new IndexSearcher(DirectoryReader.open(indexWriter));
+    /**
+     * The stored fields which are required by {@link #getReference(Document)}, only these fields are loaded from the
+     * matching documents.
+     */
+    protected Set<String> getReferenceFields() {
+        return Collections.singleton(FIELD_ID);
+    }
+
+    /**
+     * Skip the given number of top documents.
+     *
+     * @return the last skipped document, to search after it, or <code>null</code> if nothing has to be skipped.
+     */
+    private ScoreDoc skip(IndexSearcher searcher, Query query, int count) throws IOException {
+        ScoreDoc after = null;
+        int remaining = count;
+
+        while (remaining > 0) {
+            ScoreDoc[] hits = searcher.searchAfter(after, query, Math.min(remaining, MAX_HITS_PER_SEARCH)).scoreDocs;
+            if (hits.length == 0) {
+                break;
+            }
+
+            after = hits[hits.length - 1];
+            remaining -= hits.length;
+        }
+
+        return after;
+    }
+
+    /**
+     * A cursor is only valid for the version of the index it has been read from, the searchers of the
+     * {@link SearcherManager} always read a {@link DirectoryReader}.
+     */
+    private String cursorKey(IndexSearcher searcher, Query query, Pageable pageable, int pageNumber) {
+        final long version = ((DirectoryReader) searcher.getIndexReader()).getVersion();
+        return version + ":" + pageable.getPageSize() + ":" + pageNumber + ":" + query;
+    }
+
+    private ScoreDoc collect(IndexSearcher searcher, TopDocs topDocs, List<String> results) throws IOException {
+        final Set<String> fields = getReferenceFields();
+        ScoreDoc last = null;
+
+        for (ScoreDoc hit : topDocs.scoreDocs) {
+            results.add(getReference(searcher.doc(hit.doc, fields)));
+            last = hit;
+        }
+
+        return last;
+    }
+
+    private void release(IndexSearcher searcher) {
+        if (searcher != null) {
+            try {
+                searcherManager.release(searcher);
+            } catch (IOException ioe) {
+                logger.error("An error occurs while releasing index searcher", ioe);
+            }
+        }
     }
 }
@@ -18,6 +18,7 @@ package io.gravitee.rest.api.service.impl.search.lucene.searcher;
 import io.gravitee.rest.api.model.api.ApiEntity;
 import io.gravitee.rest.api.model.search.Indexable;
 import io.gravitee.rest.api.service.impl.search.SearchResult;
+import io.gravitee.rest.api.service.impl.search.lucene.NGramSupport;
 import io.gravitee.repository.exceptions.TechnicalException;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.index.Term;
@@ -28,10 +29,13 @@ import org.apache.lucene.queryparser.classic.QueryParserBase;
 import org.apache.lucene.search.*;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.BiConsumer;
 
 /**
@@ -44,6 +48,8 @@ public class ApiDocumentSearcher extends AbstractDocumentSearcher {
     private final static String FIELD_API_TYPE_VALUE = "api";
     private final static String FIELD_PAGE_TYPE_VALUE = "page";
 
+    private final static Set<String> REFERENCE_FIELDS = new HashSet<>(Arrays.asList(FIELD_TYPE, FIELD_ID, FIELD_API_TYPE_VALUE));
+
     private final static Map<String, Float> API_FIELD_BOOST = new HashMap<String, Float>() {
         {
             put("name", 12.0f);
@@ -63,8 +69,10 @@ public class ApiDocumentSearcher extends AbstractDocumentSearcher {
         }
     };
 
-    @Override
-    public SearchResult search(io.gravitee.rest.api.service.search.query.Query query) throws TechnicalException {
+    /**
+     * Query parsers are not thread-safe, so each thread has its own instances.
+     */
+    private final ThreadLocal<QueryParser> apiParser = ThreadLocal.withInitial(() -> {
         MultiFieldQueryParser apiParser = new MultiFieldQueryParser(new String[]{
                 "id",
                 "name",
@@ -83,18 +91,25 @@ public class ApiDocumentSearcher extends AbstractDocumentSearcher {
         }, analyzer, API_FIELD_BOOST);
         apiParser.setFuzzyMinSim(0.6f);
         apiParser.setAllowLeadingWildcard(true);
+        return apiParser;
+    });
 
+    private final ThreadLocal<QueryParser> pageParser = ThreadLocal.withInitial(() -> {
         QueryParser pageParser = new MultiFieldQueryParser(new String[]{
                 "name",
                 "content"
         }, analyzer, PAGE_FIELD_BOOST);
         pageParser.setFuzzyMinSim(0.6f);
         pageParser.setAllowLeadingWildcard(true);
+        return pageParser;
+    });
 
+    @Override
+    public SearchResult search(io.gravitee.rest.api.service.search.query.Query query) throws TechnicalException {
         try {
             String inputQuery = QueryParserBase.escape(query.getQuery());
-            Query parse = apiParser.parse(inputQuery);
-            Query parsePage = pageParser.parse(inputQuery);
+            Query parse = apiParser.get().parse(inputQuery);
+            Query parsePage = pageParser.get().parse(inputQuery);
 
             Query apisFilter = getApisFilter(FIELD_ID, query.getFilters());
 
@@ -103,10 +118,9 @@ public class ApiDocumentSearcher extends AbstractDocumentSearcher {
             BooleanQuery.Builder apiFieldsQuery = new BooleanQuery.Builder();
 
             apiFieldsQuery.add(parse, BooleanClause.Occur.SHOULD);
-            apiFieldsQuery.add(new WildcardQuery(new Term("name", '*' + query.getQuery() + '*')), BooleanClause.Occur.SHOULD);
-            apiFieldsQuery.add(new WildcardQuery(new Term("name_lowercase", '*' + query.getQuery().toLowerCase() + '*')), BooleanClause.Occur.SHOULD);
-            apiFieldsQuery.add(new WildcardQuery(new Term("paths", '*' + query.getQuery() + '*')), BooleanClause.Occur.SHOULD);
-            apiFieldsQuery.add(new WildcardQuery(new Term("hosts", '*' + query.getQuery() + '*')), BooleanClause.Occur.SHOULD);
+            apiFieldsQuery.add(NGramSupport.lowerCaseSubstringQuery("name", "name_lowercase", query.getQuery()), BooleanClause.Occur.SHOULD);
+            apiFieldsQuery.add(NGramSupport.substringQuery("paths", query.getQuery()), BooleanClause.Occur.SHOULD);
+            apiFieldsQuery.add(NGramSupport.substringQuery("hosts", query.getQuery()), BooleanClause.Occur.SHOULD);
 
             apiQuery.add(apiFieldsQuery.build(), BooleanClause.Occur.MUST);
             apiQuery.add(new TermQuery(new Term(FIELD_TYPE, FIELD_API_TYPE_VALUE)), BooleanClause.Occur.MUST);
@@ -189,4 +203,9 @@ public class ApiDocumentSearcher extends AbstractDocumentSearcher {
 
         return null;
     }
+
+    @Override
+    protected Set<String> getReferenceFields() {
+        return REFERENCE_FIELDS;
+    }
 }
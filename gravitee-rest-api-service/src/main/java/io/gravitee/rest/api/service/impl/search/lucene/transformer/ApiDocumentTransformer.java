@@ -19,6 +19,7 @@ import io.gravitee.definition.model.VirtualHost;
 import io.gravitee.rest.api.model.api.ApiEntity;
 import io.gravitee.rest.api.model.search.Indexable;
 import io.gravitee.rest.api.service.impl.search.lucene.DocumentTransformer;
+import io.gravitee.rest.api.service.impl.search.lucene.NGramSupport;
 import org.apache.lucene.document.*;
 import org.springframework.stereotype.Component;
 
@@ -59,6 +60,7 @@ public class ApiDocumentTransformer implements DocumentTransformer<ApiEntity> {
         doc.add(new StringField(FIELD_NAME, api.getName(), Field.Store.NO));
         doc.add(new StringField(FIELD_NAME_LOWERCASE, api.getName().toLowerCase(), Field.Store.NO));
         doc.add(new TextField(FIELD_NAME_SPLIT, api.getName(), Field.Store.NO));
+        NGramSupport.addNGrams(doc, FIELD_NAME, api.getName());
         doc.add(new TextField(FIELD_DESCRIPTION, api.getDescription(), Field.Store.NO));
         doc.add(new TextField(FIELD_OWNER, api.getPrimaryOwner().getDisplayName(), Field.Store.NO));
         if (api.getPrimaryOwner().getEmail() != null) {
@@ -70,10 +72,12 @@ public class ApiDocumentTransformer implements DocumentTransformer<ApiEntity> {
             public void accept(VirtualHost virtualHost) {
                 doc.add(new StringField(FIELD_PATHS, virtualHost.getPath(), Field.Store.NO));
                 doc.add(new TextField(FIELD_PATHS_SPLIT, virtualHost.getPath(), Field.Store.NO));
+                NGramSupport.addNGrams(doc, FIELD_PATHS, virtualHost.getPath());
 
                 if (virtualHost.getHost() != null && !virtualHost.getHost().isEmpty()) {
                     doc.add(new StringField(FIELD_HOSTS, virtualHost.getHost(), Field.Store.NO));
                     doc.add(new TextField(FIELD_HOSTS_SPLIT, virtualHost.getHost(), Field.Store.NO));
+                    NGramSupport.addNGrams(doc, FIELD_HOSTS, virtualHost.getHost());
                 }
             }
         });
@@ -28,9 +28,13 @@ import io.gravitee.rest.api.service.ApiService;
 import io.gravitee.rest.api.service.PageService;
 import io.gravitee.rest.api.service.Upgrader;
 import io.gravitee.rest.api.service.UserService;
+import io.gravitee.rest.api.service.impl.search.BulkIndexer;
 import io.gravitee.rest.api.service.search.SearchEngineService;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.Ordered;
 import org.springframework.stereotype.Component;
 
@@ -45,6 +49,11 @@ import java.util.Set;
 @Component
 public class SearchIndexUpgrader implements Upgrader, Ordered {
 
+    /**
+     * Logger.
+     */
+    private final Logger logger = LoggerFactory.getLogger(SearchIndexUpgrader.class);
+
     @Autowired
     private ApiService apiService;
 
@@ -57,13 +66,26 @@ public class SearchIndexUpgrader implements Upgrader, Ordered {
     @Autowired
     private SearchEngineService searchEngineService;
 
+    @Value("${search.bulk.size:500}")
+    private int bulkSize;
+
     @Override
     public boolean upgrade() {
+        logger.info("Indexing APIs, pages and users");
+
+        try (BulkIndexer bulkIndexer = new BulkIndexer(searchEngineService, bulkSize)) {
+            index(bulkIndexer);
+        }
+
+        return true;
+    }
+
+    private void index(BulkIndexer bulkIndexer) {
         // Index APIs
         Set<ApiEntity> apis = apiService.findAll();
         apis.forEach(apiEntity -> {
             // API
-            searchEngineService.index(apiEntity, true);
+            bulkIndexer.add(apiEntity);
 
             // Pages
             List<PageEntity> apiPages = pageService.search(new PageQuery.Builder().api(apiEntity.getId()).published(true).build(), true);
@@ -74,7 +96,7 @@ public class SearchIndexUpgrader implements Upgrader, Ordered {
                             && !PageType.SYSTEM_FOLDER.name().equals(page.getType())
                             && !PageType.LINK.name().equals(page.getType())) {
                         pageService.transformSwagger(page, apiEntity.getId());
-                        searchEngineService.index(page, true);
+                        bulkIndexer.add(page);
                     }
                 } catch (Exception ignored) {}
             });
@@ -84,11 +106,7 @@ public class SearchIndexUpgrader implements Upgrader, Ordered {
         Page<UserEntity> users = userService.search(
                 new UserCriteria.Builder().statuses(UserStatus.ACTIVE).build(),
                 new PageableImpl(1, Integer.MAX_VALUE));
-        users.getContent().forEach(userEntity ->
-                searchEngineService.index(userEntity, true)
-        );
-
-        return true;
+        users.getContent().forEach(bulkIndexer::add);
     }
 
     @Override
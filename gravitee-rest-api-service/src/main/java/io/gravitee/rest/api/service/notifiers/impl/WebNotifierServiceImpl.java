@@ -28,15 +28,12 @@ import io.gravitee.rest.api.service.exceptions.TechnicalManagementException;
 import io.gravitee.rest.api.service.notification.Hook;
 import io.gravitee.rest.api.service.notifiers.WebNotifierService;
 import io.gravitee.rest.api.service.notifiers.WebhookNotifierService;
+import io.gravitee.rest.api.service.vertx.HttpClientRegistry;
 import io.gravitee.rest.api.service.vertx.VertxCompletableFuture;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
-import io.vertx.core.http.HttpClient;
-import io.vertx.core.http.HttpClientOptions;
 import io.vertx.core.http.HttpClientRequest;
 import io.vertx.core.json.JsonObject;
-import io.vertx.core.net.ProxyOptions;
-import io.vertx.core.net.ProxyType;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,34 +57,15 @@ public class WebNotifierServiceImpl implements WebNotifierService {
 
     private final Logger LOGGER = LoggerFactory.getLogger(WebNotifierServiceImpl.class);
 
-    private static final String HTTPS_SCHEME = "https";
-
     @Value("${httpClient.timeout:10000}")
     private int httpClientTimeout;
-    @Value("${httpClient.proxy.type:HTTP}")
-    private String httpClientProxyType;
-
-    @Value("${httpClient.proxy.http.host:#{systemProperties['http.proxyHost'] ?: 'localhost'}}")
-    private String httpClientProxyHttpHost;
-    @Value("${httpClient.proxy.http.port:#{systemProperties['http.proxyPort'] ?: 3128}}")
-    private int httpClientProxyHttpPort;
-    @Value("${httpClient.proxy.http.username:#{null}}")
-    private String httpClientProxyHttpUsername;
-    @Value("${httpClient.proxy.http.password:#{null}}")
-    private String httpClientProxyHttpPassword;
-
-    @Value("${httpClient.proxy.https.host:#{systemProperties['https.proxyHost'] ?: 'localhost'}}")
-    private String httpClientProxyHttpsHost;
-    @Value("${httpClient.proxy.https.port:#{systemProperties['https.proxyPort'] ?: 3128}}")
-    private int httpClientProxyHttpsPort;
-    @Value("${httpClient.proxy.https.username:#{null}}")
-    private String httpClientProxyHttpsUsername;
-    @Value("${httpClient.proxy.https.password:#{null}}")
-    private String httpClientProxyHttpsPassword;
 
     @Autowired
     private Vertx vertx;
 
+    @Autowired
+    private HttpClientRegistry httpClientRegistry;
+
     public void request(HttpMethod method, final String uri, final Map<String, String> headers, String body, boolean useSystemProxy) {
         if (uri == null || uri.isEmpty()) {
             LOGGER.error("Webhook Notifier configuration is empty");
@@ -96,45 +74,11 @@ public class WebNotifierServiceImpl implements WebNotifierService {
 
         CompletableFuture<Buffer> future = new VertxCompletableFuture<>(vertx);
         URI requestUri = URI.create(uri);
-        boolean ssl = HTTPS_SCHEME.equalsIgnoreCase(requestUri.getScheme());
-
-        final HttpClientOptions options = new HttpClientOptions()
-                .setSsl(ssl)
-                .setTrustAll(true)
-                .setMaxPoolSize(1)
-                .setKeepAlive(false)
-                .setTcpKeepAlive(false)
-                .setConnectTimeout(httpClientTimeout);
-
-        if (useSystemProxy) {
-            ProxyOptions proxyOptions = new ProxyOptions();
-            proxyOptions.setType(ProxyType.valueOf(httpClientProxyType));
-            if (HTTPS_SCHEME.equals(requestUri.getScheme())) {
-                proxyOptions.setHost(httpClientProxyHttpsHost);
-                proxyOptions.setPort(httpClientProxyHttpsPort);
-                proxyOptions.setUsername(httpClientProxyHttpsUsername);
-                proxyOptions.setPassword(httpClientProxyHttpsPassword);
-            } else {
-                proxyOptions.setHost(httpClientProxyHttpHost);
-                proxyOptions.setPort(httpClientProxyHttpPort);
-                proxyOptions.setUsername(httpClientProxyHttpUsername);
-                proxyOptions.setPassword(httpClientProxyHttpPassword);
-            }
-            options.setProxyOptions(proxyOptions);
-        }
-
-        final HttpClient httpClient = vertx.createHttpClient(options);
 
-        final int port = requestUri.getPort() != -1 ? requestUri.getPort() :
-                (HTTPS_SCHEME.equals(requestUri.getScheme()) ? 443 : 80);
+        final HttpClientRegistry.Target target = httpClientRegistry.getTarget(requestUri, useSystemProxy);
 
-        HttpClientRequest request = httpClient.request(
-                io.vertx.core.http.HttpMethod.valueOf(method.name()),
-                port,
-                requestUri.getHost(),
-                requestUri.toString(),
-                response -> LOGGER.debug("Web response status code : {}", response.statusCode())
-        );
+        final long start = System.nanoTime();
+        HttpClientRequest request = target.request(io.vertx.core.http.HttpMethod.valueOf(method.name()), requestUri);
         request.setTimeout(httpClientTimeout);
 
         //headers
@@ -145,26 +89,20 @@ public class WebNotifierServiceImpl implements WebNotifierService {
         request.write(body);
 
         request.handler(response -> {
+            LOGGER.debug("Web response status code : {}", response.statusCode());
             if (response.statusCode() == HttpStatusCode.OK_200) {
                 response.bodyHandler(buffer -> {
+                    target.record(start, true);
                     future.complete(buffer);
-
-                    // Close client
-                    httpClient.close();
                 });
             } else {
+                target.record(start, false);
                 future.completeExceptionally(new TechnicalManagementException(" Error on url '" + uri + "'. Status code: " + response.statusCode() + ". Message: " + response.statusMessage(), null));
             }
         });
         request.exceptionHandler(event -> {
-            try {
-                future.completeExceptionally(event);
-
-                // Close client
-                httpClient.close();
-            } catch (IllegalStateException ise) {
-                // Do not take care about exception when closing client
-            }
+            target.record(start, false);
+            future.completeExceptionally(event);
         });
 
         request.end();
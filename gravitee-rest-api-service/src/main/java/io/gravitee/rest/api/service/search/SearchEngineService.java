@@ -30,9 +30,22 @@ public interface SearchEngineService {
 
     void index(Indexable source, boolean locally);
 
+    /**
+     * Index a batch of sources locally. Documents are written in bulk and the index is committed once for the whole
+     * batch.
+     *
+     * @param sources the sources to index.
+     * @return the number of documents indexed, sources which can not be transformed into a document are skipped.
+     * @throws io.gravitee.rest.api.service.exceptions.TechnicalManagementException if the documents can not be
+     * written into the index.
+     */
+    int index(Collection<? extends Indexable> sources);
+
     void delete(Indexable source, boolean locally);
 
     SearchResult search(Query<? extends Indexable> query);
 
     void process(CommandSearchIndexerEntity content);
+
+    void process(Collection<CommandSearchIndexerEntity> contents);
 }
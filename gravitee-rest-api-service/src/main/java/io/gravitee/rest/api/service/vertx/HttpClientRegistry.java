@@ -0,0 +1,361 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service.vertx;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import io.gravitee.rest.api.service.common.NodeMetrics;
+import io.gravitee.rest.api.service.exceptions.TechnicalManagementException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.net.ProxyOptions;
+import io.vertx.core.net.ProxyType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared HTTP clients for the outbound calls (webhooks, HTTP client service, dynamic properties and dictionaries).
+ *
+ * There is one client by target, that is by scheme, host, port and proxy. Each client keeps a pool of keep-alive
+ * connections, which are closed once they have been idle for the configured time, so that a burst of calls to the same
+ * target reuses a few connections instead of opening one each.
+ *
+ * As the targets come from user-supplied URLs, they are kept in a bounded cache: the clients of the targets which have
+ * not been used for a while, or which are evicted to make room for new ones, are closed once their pending requests
+ * have completed, or after the configured close timeout at the latest.
+ *
+ * The connection and latency metrics of each target are published as metrics of the node, tagged with the target.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class HttpClientRegistry implements InitializingBean, DisposableBean {
+
+    private final Logger LOGGER = LoggerFactory.getLogger(HttpClientRegistry.class);
+
+    private static final String HTTPS_SCHEME = "https";
+
+    @Value("${httpClient.timeout:10000}")
+    private int httpClientTimeout = 10000;
+    @Value("${httpClient.pool.maxSize:10}")
+    private int maxPoolSize = 10;
+    @Value("${httpClient.pool.maxWaitQueueSize:-1}")
+    private int maxWaitQueueSize = -1;
+    @Value("${httpClient.pool.idleTimeout:60}")
+    private int idleTimeout = 60;
+    @Value("${httpClient.targets.maxSize:1000}")
+    private int maxTargets = 1000;
+    @Value("${httpClient.targets.expireAfterAccess:600}")
+    private int targetExpireAfterAccess = 600;
+    @Value("${httpClient.targets.closeTimeout:60}")
+    private int targetCloseTimeout = 60;
+
+    @Value("${httpClient.proxy.type:HTTP}")
+    private String httpClientProxyType = "HTTP";
+
+    @Value("${httpClient.proxy.http.host:#{systemProperties['http.proxyHost'] ?: 'localhost'}}")
+    private String httpClientProxyHttpHost;
+    @Value("${httpClient.proxy.http.port:#{systemProperties['http.proxyPort'] ?: 3128}}")
+    private int httpClientProxyHttpPort;
+    @Value("${httpClient.proxy.http.username:#{null}}")
+    private String httpClientProxyHttpUsername;
+    @Value("${httpClient.proxy.http.password:#{null}}")
+    private String httpClientProxyHttpPassword;
+
+    @Value("${httpClient.proxy.https.host:#{systemProperties['https.proxyHost'] ?: 'localhost'}}")
+    private String httpClientProxyHttpsHost;
+    @Value("${httpClient.proxy.https.port:#{systemProperties['https.proxyPort'] ?: 3128}}")
+    private int httpClientProxyHttpsPort;
+    @Value("${httpClient.proxy.https.username:#{null}}")
+    private String httpClientProxyHttpsUsername;
+    @Value("${httpClient.proxy.https.password:#{null}}")
+    private String httpClientProxyHttpsPassword;
+
+    private Vertx vertx;
+
+    private Cache<String, Target> targets;
+
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    public void setVertx(Vertx vertx) {
+        this.vertx = vertx;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (meterRegistry == null) {
+            meterRegistry = NodeMetrics.registry();
+        }
+        targets = CacheBuilder
+                .newBuilder()
+                .maximumSize(maxTargets)
+                .expireAfterAccess(targetExpireAfterAccess, TimeUnit.SECONDS)
+                .removalListener((RemovalListener<String, Target>) notification -> {
+                    final Target target = notification.getValue();
+                    if (notification.wasEvicted()) {
+                        LOGGER.debug("Retire HTTP client for {} ({})", notification.getKey(), notification.getCause());
+                        target.retire();
+                        // do not wait forever for a request whose outcome is never recorded
+                        vertx.setTimer(TimeUnit.SECONDS.toMillis(targetCloseTimeout), id -> target.close());
+                    } else {
+                        LOGGER.debug("Close HTTP client for {} ({})", notification.getKey(), notification.getCause());
+                        target.close();
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Get the target of the URI, creating its client on first use.
+     *
+     * @param useSystemProxy <code>true</code> to go through the configured proxy
+     */
+    public Target getTarget(URI uri, boolean useSystemProxy) {
+        final boolean ssl = HTTPS_SCHEME.equalsIgnoreCase(uri.getScheme());
+        final int port = uri.getPort() != -1 ? uri.getPort() : (ssl ? 443 : 80);
+        final ProxyOptions proxyOptions = useSystemProxy ? getProxyOptions(ssl) : null;
+
+        final StringBuilder key = new StringBuilder(ssl ? HTTPS_SCHEME : "http")
+                .append("://").append(uri.getHost()).append(':').append(port);
+        if (proxyOptions != null) {
+            key.append(" via ").append(proxyOptions.getType()).append("://")
+                    .append(proxyOptions.getUsername() == null ? "" : proxyOptions.getUsername() + '@')
+                    .append(proxyOptions.getHost()).append(':').append(proxyOptions.getPort());
+        }
+
+        final String name = key.toString();
+        try {
+            return targets.get(name, () -> {
+                LOGGER.debug("Create HTTP client for {}", name);
+                final HttpClientOptions options = new HttpClientOptions()
+                        .setSsl(ssl)
+                        .setTrustAll(true)
+                        .setKeepAlive(true)
+                        .setKeepAliveTimeout(idleTimeout)
+                        .setMaxPoolSize(maxPoolSize)
+                        .setMaxWaitQueueSize(maxWaitQueueSize)
+                        .setConnectTimeout(httpClientTimeout)
+                        .setProxyOptions(proxyOptions);
+                return new Target(name, uri.getHost(), port, vertx.createHttpClient(options), meterRegistry);
+            });
+        } catch (ExecutionException ex) {
+            LOGGER.error("An error occurs while trying to create HTTP client for {}", name, ex);
+            throw new TechnicalManagementException("An error occurs while trying to create HTTP client for " + name, ex.getCause());
+        }
+    }
+
+    public Collection<Target> getTargets() {
+        return Collections.unmodifiableCollection(targets.asMap().values());
+    }
+
+    private ProxyOptions getProxyOptions(boolean ssl) {
+        final ProxyOptions proxyOptions = new ProxyOptions();
+        proxyOptions.setType(ProxyType.valueOf(httpClientProxyType));
+        if (ssl) {
+            proxyOptions.setHost(httpClientProxyHttpsHost);
+            proxyOptions.setPort(httpClientProxyHttpsPort);
+            proxyOptions.setUsername(httpClientProxyHttpsUsername);
+            proxyOptions.setPassword(httpClientProxyHttpsPassword);
+        } else {
+            proxyOptions.setHost(httpClientProxyHttpHost);
+            proxyOptions.setPort(httpClientProxyHttpPort);
+            proxyOptions.setUsername(httpClientProxyHttpUsername);
+            proxyOptions.setPassword(httpClientProxyHttpPassword);
+        }
+        return proxyOptions;
+    }
+
+    @Override
+    public void destroy() {
+        // the removal listener closes the clients
+        targets.invalidateAll();
+    }
+
+    /**
+     * A target of outbound calls, with its shared client and its connection and latency metrics.
+     *
+     * Each request counts as a reference to the client until its outcome is recorded, so that the client of an evicted
+     * target is not closed under a pending request.
+     */
+    public static class Target {
+
+        private final String name;
+        private final String host;
+        private final int port;
+        private final HttpClient client;
+
+        private final AtomicLong openConnections = new AtomicLong();
+        private final AtomicLong connections = new AtomicLong();
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong latency = new AtomicLong();
+
+        private final AtomicInteger pendingRequests = new AtomicInteger();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean retired;
+
+        private final MeterRegistry meterRegistry;
+        private final List<Meter> meters = new ArrayList<>();
+
+        private Target(String name, String host, int port, HttpClient client, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.host = host;
+            this.port = port;
+            this.client = client;
+            this.meterRegistry = meterRegistry;
+            client.connectionHandler(connection -> {
+                connections.incrementAndGet();
+                openConnections.incrementAndGet();
+                connection.closeHandler(v -> openConnections.decrementAndGet());
+            });
+
+            meters.add(Gauge.builder("http.client.connections.open", this, Target::getOpenConnections)
+                    .tag("target", name)
+                    .description("Connections currently open to the target of outbound calls")
+                    .register(meterRegistry));
+            meters.add(FunctionCounter.builder("http.client.connections", this, Target::getConnections)
+                    .tag("target", name)
+                    .description("Connections opened to the target of outbound calls")
+                    .register(meterRegistry));
+            meters.add(FunctionCounter.builder("http.client.requests", this, Target::getRequests)
+                    .tag("target", name)
+                    .description("Requests sent to the target of outbound calls")
+                    .register(meterRegistry));
+            meters.add(FunctionCounter.builder("http.client.failures", this, Target::getFailures)
+                    .tag("target", name)
+                    .description("Requests to the target of outbound calls which have failed")
+                    .register(meterRegistry));
+            meters.add(Gauge.builder("http.client.latency", this, Target::getAverageLatency)
+                    .tag("target", name)
+                    .baseUnit("milliseconds")
+                    .description("Average latency of the requests to the target of outbound calls")
+                    .register(meterRegistry));
+        }
+
+        /**
+         * Create a request to the URI, which must be on this target. The request must be ended by the caller, and
+         * its outcome recorded once with {@link #record(long, boolean)}, which releases it.
+         */
+        public HttpClientRequest request(HttpMethod method, URI uri) {
+            pendingRequests.incrementAndGet();
+            try {
+                return client.request(method, port, host, uri.toString());
+            } catch (RuntimeException ex) {
+                release();
+                throw ex;
+            }
+        }
+
+        /**
+         * Close the client once the pending requests have completed.
+         */
+        private void retire() {
+            retired = true;
+            if (pendingRequests.get() <= 0) {
+                close();
+            }
+        }
+
+        private void release() {
+            if (pendingRequests.decrementAndGet() <= 0 && retired) {
+                close();
+            }
+        }
+
+        private void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            meters.forEach(meterRegistry::remove);
+            try {
+                client.close();
+            } catch (IllegalStateException ise) {
+                // Do not take care about exception when closing client
+            }
+        }
+
+        public boolean isClosed() {
+            return closed.get();
+        }
+
+        /**
+         * Record the outcome of a request.
+         *
+         * @param start the {@link System#nanoTime()} when the request was sent
+         */
+        public void record(long start, boolean success) {
+            requests.incrementAndGet();
+            if (!success) {
+                failures.incrementAndGet();
+            }
+            latency.addAndGet(System.nanoTime() - start);
+            release();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getOpenConnections() {
+            return openConnections.get();
+        }
+
+        public long getConnections() {
+            return connections.get();
+        }
+
+        public long getRequests() {
+            return requests.get();
+        }
+
+        public long getFailures() {
+            return failures.get();
+        }
+
+        /**
+         * @return the average latency of the requests, in milliseconds.
+         */
+        public long getAverageLatency() {
+            final long count = requests.get();
+            return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(latency.get() / count);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.rest.api.model.common.Pageable;
+import io.gravitee.rest.api.model.common.PageableImpl;
+import io.gravitee.rest.api.model.search.Indexable;
+import io.gravitee.rest.api.service.impl.search.SearchResult;
+import io.gravitee.rest.api.service.impl.search.lucene.searcher.AbstractDocumentSearcher;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.store.RAMDirectory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class AbstractDocumentSearcherTest {
+
+    private static final int DOCUMENTS = 2500;
+
+    private final Query query = new MatchAllDocsQuery();
+
+    private IndexWriter writer;
+
+    private SearcherManager searcherManager;
+
+    private PagedSearcher searcher;
+
+    @Before
+    public void init() throws Exception {
+        writer = new IndexWriter(new RAMDirectory(), new IndexWriterConfig(new StandardAnalyzer()));
+        for (int i = 0; i < DOCUMENTS; i++) {
+            writer.addDocument(document("document-" + i));
+        }
+        writer.commit();
+
+        searcherManager = new SearcherManager(writer, null);
+        searcher = new PagedSearcher(searcherManager);
+    }
+
+    @After
+    public void close() throws Exception {
+        searcherManager.close();
+        writer.close();
+    }
+
+    @Test
+    public void shouldReturnAllHitsWithoutPageable() throws Exception {
+        final SearchResult result = searcher.page(query, null);
+
+        assertEquals(DOCUMENTS, result.getHits());
+        assertEquals(DOCUMENTS, result.getDocuments().size());
+        assertEquals(DOCUMENTS, new HashSet<>(result.getDocuments()).size());
+    }
+
+    @Test
+    public void shouldReadPagesBeyondMaxHitsPerSearch() throws Exception {
+        final List<String> all = searcher.page(query, null).getDocuments();
+
+        final List<String> paged = new ArrayList<>();
+        for (int page = 1; page <= 4; page++) {
+            final SearchResult result = searcher.page(query, new PageableImpl(page, 700));
+            assertEquals(DOCUMENTS, result.getHits());
+            paged.addAll(result.getDocuments());
+        }
+
+        assertEquals(all, paged);
+    }
+
+    @Test
+    public void shouldReadDeepPageDirectly() throws Exception {
+        final List<String> all = searcher.page(query, null).getDocuments();
+
+        final SearchResult result = searcher.page(query, new PageableImpl(3, 1000));
+
+        assertEquals(all.subList(2000, DOCUMENTS), result.getDocuments());
+    }
+
+    @Test
+    public void shouldNotReuseCursorOnceIndexChanged() throws Exception {
+        searcher.page(query, new PageableImpl(1, 1000));
+
+        for (int i = 0; i < 500; i++) {
+            writer.deleteDocuments(new Term("id", "document-" + i));
+        }
+        searcherManager.maybeRefreshBlocking();
+        final List<String> all = searcher.page(query, null).getDocuments();
+
+        assertEquals(DOCUMENTS - 500, all.size());
+        assertEquals(all.subList(1000, 2000), searcher.page(query, new PageableImpl(2, 1000)).getDocuments());
+    }
+
+    private Document document(String id) {
+        final Document document = new Document();
+        document.add(new StringField("id", id, Field.Store.YES));
+        return document;
+    }
+
+    private static class PagedSearcher extends AbstractDocumentSearcher {
+
+        private PagedSearcher(SearcherManager searcherManager) {
+            this.searcherManager = searcherManager;
+        }
+
+        private SearchResult page(Query query, Pageable pageable) throws TechnicalException {
+            return pageable == null ? search(query) : search(query, pageable);
+        }
+
+        @Override
+        public SearchResult search(io.gravitee.rest.api.service.search.query.Query query) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean handle(Class<? extends Indexable> source) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.definition.model.Proxy;
+import io.gravitee.definition.model.VirtualHost;
+import io.gravitee.rest.api.model.PrimaryOwnerEntity;
+import io.gravitee.rest.api.model.UserEntity;
+import io.gravitee.rest.api.model.api.ApiEntity;
+import io.gravitee.rest.api.service.impl.search.SearchResult;
+import io.gravitee.rest.api.service.impl.search.lucene.searcher.ApiDocumentSearcher;
+import io.gravitee.rest.api.service.impl.search.lucene.transformer.ApiDocumentTransformer;
+import io.gravitee.rest.api.service.search.query.QueryBuilder;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.store.RAMDirectory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class ApiDocumentSearcherTest {
+
+    private final ApiDocumentSearcher searcher = new ApiDocumentSearcher();
+
+    private final ApiDocumentTransformer transformer = new ApiDocumentTransformer();
+
+    private IndexWriter writer;
+
+    private SearcherManager searcherManager;
+
+    @Before
+    public void init() throws Exception {
+        writer = new IndexWriter(new RAMDirectory(), new IndexWriterConfig(new StandardAnalyzer()));
+        writer.addDocument(transformer.transform(api("api-1", "PetStore", "/petstore")));
+        writer.addDocument(transformer.transform(api("api-2", "PaymentGatewayService", "/payments")));
+        writer.addDocument(transformer.transform(api("api-3", "Weather", "/forecast")));
+        writer.commit();
+
+        searcherManager = new SearcherManager(writer, null);
+        ReflectionTestUtils.setField(searcher, "searcherManager", searcherManager);
+    }
+
+    @After
+    public void close() throws Exception {
+        searcherManager.close();
+        writer.close();
+    }
+
+    @Test
+    public void shouldFindByShortSubstring() throws Exception {
+        assertEquals(Collections.singletonList("api-1"), search("pE"));
+        assertEquals(Collections.singletonList("api-3"), search("tH"));
+    }
+
+    @Test
+    public void shouldFindBySubstringIgnoringCase() throws Exception {
+        assertEquals(Collections.singletonList("api-1"), search("eTsTo"));
+        assertEquals(Collections.singletonList("api-2"), search("GATEWAY"));
+    }
+
+    @Test
+    public void shouldFindByLongSubstringIgnoringCase() throws Exception {
+        assertEquals(Collections.singletonList("api-2"), search("mentgatewayserv"));
+        assertEquals(Collections.singletonList("api-2"), search("MENTGATEWAYSERV"));
+    }
+
+    @Test
+    public void shouldFindByWildcard() throws Exception {
+        assertEquals(Collections.singletonList("api-1"), search("pet?tore"));
+        assertEquals(Collections.singletonList("api-2"), search("PAY*SERVICE"));
+    }
+
+    @Test
+    public void shouldFindByPathSubstring() throws Exception {
+        assertEquals(Collections.singletonList("api-3"), search("cast"));
+    }
+
+    private List<String> search(String query) throws Exception {
+        final SearchResult result = searcher.search(QueryBuilder.create(ApiEntity.class).setQuery(query).build());
+        return result.getDocuments();
+    }
+
+    private ApiEntity api(String id, String name, String path) {
+        final UserEntity owner = new UserEntity();
+        owner.setId("owner");
+        owner.setFirstname("John");
+        owner.setLastname("Doe");
+
+        final Proxy proxy = new Proxy();
+        proxy.setVirtualHosts(Collections.singletonList(new VirtualHost(path)));
+
+        final ApiEntity api = new ApiEntity();
+        api.setId(id);
+        api.setName(name);
+        api.setDescription("Description of " + id);
+        api.setPrimaryOwner(new PrimaryOwnerEntity(owner));
+        api.setProxy(proxy);
+        api.setCreatedAt(new Date());
+        api.setUpdatedAt(new Date());
+        return api;
+    }
+}
@@ -23,6 +23,7 @@ import io.gravitee.rest.api.model.api.NewApiEntity;
 import io.gravitee.rest.api.service.exceptions.ApiAlreadyExistsException;
 import io.gravitee.rest.api.service.exceptions.TechnicalManagementException;
 import io.gravitee.rest.api.service.impl.ApiServiceImpl;
+import io.gravitee.rest.api.service.impl.ApiVisibilityCache;
 import io.gravitee.rest.api.service.search.SearchEngineService;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.ApiRepository;
@@ -64,6 +65,8 @@ public class ApiService_CreateTest {
     @InjectMocks
     private ApiServiceImpl apiService = new ApiServiceImpl();
 
+    @Mock
+    private ApiVisibilityCache apiVisibilityCache;
     @Mock
     private ApiRepository apiRepository;
     @Mock
@@ -26,7 +26,9 @@ import io.gravitee.rest.api.model.NewPlanEntity;
 import io.gravitee.rest.api.model.UserEntity;
 import io.gravitee.rest.api.model.api.ApiEntity;
 import io.gravitee.rest.api.model.permissions.SystemRole;
+import io.gravitee.rest.api.service.common.EntityCache;
 import io.gravitee.rest.api.service.impl.ApiServiceImpl;
+import io.gravitee.rest.api.service.impl.ApiVisibilityCache;
 import io.gravitee.rest.api.service.search.SearchEngineService;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.ApiRepository;
@@ -69,6 +71,8 @@ public class ApiService_CreateWithDefinitionTest {
     @InjectMocks
     private ApiServiceImpl apiService = new ApiServiceImpl();
 
+    @Mock
+    private ApiVisibilityCache apiVisibilityCache;
     @Mock
     private ApiRepository apiRepository;
     @Mock
@@ -101,6 +105,9 @@ public class ApiService_CreateWithDefinitionTest {
     @Mock
     private  GenericNotificationConfigService  genericNotificationConfigService;
 
+    @Mock
+    private EntityCache entityCache;
+
     @Before
     public void init() {
         final SecurityContext securityContext = mock(SecurityContext.class);
@@ -31,6 +31,7 @@ import io.gravitee.rest.api.service.EventService;
 import io.gravitee.rest.api.service.PlanService;
 import io.gravitee.rest.api.service.SubscriptionService;
 import io.gravitee.rest.api.service.TopApiService;
+import io.gravitee.rest.api.service.common.EntityCache;
 import io.gravitee.rest.api.service.exceptions.ApiNotDeletableException;
 import io.gravitee.rest.api.service.exceptions.ApiRunningStateException;
 import io.gravitee.rest.api.service.impl.ApiServiceImpl;
@@ -85,6 +86,9 @@ public class ApiService_DeleteTest {
     @Mock
     private ApiQualityRuleRepository apiQualityRuleRepository;
 
+    @Mock
+    private EntityCache entityCache;
+
     @Before
     public void setUp() {
         PropertyFilter apiMembershipTypeFilter = new ApiPermissionFilter();
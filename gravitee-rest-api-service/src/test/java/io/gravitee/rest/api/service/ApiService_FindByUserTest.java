@@ -29,6 +29,7 @@ import io.gravitee.rest.api.model.api.ApiEntity;
 import io.gravitee.rest.api.model.application.ApplicationListItem;
 import io.gravitee.rest.api.model.permissions.SystemRole;
 import io.gravitee.rest.api.service.impl.ApiServiceImpl;
+import io.gravitee.rest.api.service.impl.ApiVisibilityCache;
 import io.gravitee.rest.api.service.jackson.filter.ApiPermissionFilter;
 import org.junit.Before;
 import org.junit.Test;
@@ -39,14 +40,16 @@ import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Set;
 
 import static io.gravitee.repository.management.model.Visibility.PUBLIC;
+import static java.util.Arrays.asList;
 import static java.util.Collections.*;
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 /**
  * @author Azize Elamrani (azize dot elamrani at gmail dot com)
@@ -60,6 +63,8 @@ public class ApiService_FindByUserTest {
     @InjectMocks
     private ApiServiceImpl apiService = new ApiServiceImpl();
 
+    @Spy
+    private ApiVisibilityCache apiVisibilityCache = new ApiVisibilityCache();
     @Mock
     private ApiRepository apiRepository;
     @Mock
@@ -89,9 +94,9 @@ public class ApiService_FindByUserTest {
 
     @Test
     public void shouldFindByUser() throws TechnicalException {
+        when(api.getId()).thenReturn(API_ID);
         when(privateApi.getId()).thenReturn("private-api");
         when(apiRepository.search(new ApiCriteria.Builder().environment("DEFAULT").visibility(PUBLIC).build())).thenReturn(singletonList(api));
-        when(apiRepository.search(new ApiCriteria.Builder().environment("DEFAULT").ids(api.getId()).build())).thenReturn(singletonList(api));
         when(apiRepository.search(new ApiCriteria.Builder().environment("DEFAULT").ids(privateApi.getId()).build())).thenReturn(singletonList(privateApi));
 
         Membership membership = new Membership(USER_NAME, api.getId(), MembershipReferenceType.API);
@@ -101,8 +106,10 @@ public class ApiService_FindByUserTest {
                 .thenReturn(memberships);
         Membership po = new Membership(USER_NAME, API_ID, MembershipReferenceType.API);
         po.setRoles(Collections.singletonMap(RoleScope.API.getId(), SystemRole.PRIMARY_OWNER.name()));
+        Membership privatePo = new Membership(USER_NAME, "private-api", MembershipReferenceType.API);
+        privatePo.setRoles(Collections.singletonMap(RoleScope.API.getId(), SystemRole.PRIMARY_OWNER.name()));
         when(membershipRepository.findByReferencesAndRole(any(), any(), any(), any()))
-                .thenReturn(Collections.singleton(po));
+                .thenReturn(new HashSet<>(asList(po, privatePo)));
 
         when(subscription.getApi()).thenReturn("private-api");
         when(subscriptionService.search(any())).thenReturn(singletonList(subscription));
@@ -127,4 +134,21 @@ public class ApiService_FindByUserTest {
         assertNotNull(apiEntities);
         assertTrue(apiEntities.isEmpty());
     }
+
+    @Test
+    public void shouldReuseVisibleApisUntilMembershipChanges() throws TechnicalException {
+        when(apiRepository.search(new ApiCriteria.Builder().environment("DEFAULT").visibility(PUBLIC).build())).thenReturn(emptyList());
+        when(membershipRepository.findByUserAndReferenceType(anyString(), any(MembershipReferenceType.class)))
+                .thenReturn(Collections.emptySet());
+
+        apiService.findByUser(USER_NAME, null);
+        apiService.findByUser(USER_NAME, null);
+
+        verify(membershipRepository, times(1)).findByUserAndReferenceType(USER_NAME, MembershipReferenceType.API);
+
+        apiVisibilityCache.invalidate(USER_NAME);
+        apiService.findByUser(USER_NAME, null);
+
+        verify(membershipRepository, times(2)).findByUserAndReferenceType(USER_NAME, MembershipReferenceType.API);
+    }
 }
@@ -37,6 +37,7 @@ import io.gravitee.rest.api.service.EventService;
 import io.gravitee.rest.api.service.NotifierService;
 import io.gravitee.rest.api.service.ParameterService;
 import io.gravitee.rest.api.service.UserService;
+import io.gravitee.rest.api.service.common.EntityCache;
 import io.gravitee.rest.api.service.exceptions.ApiNotFoundException;
 import io.gravitee.rest.api.service.exceptions.TechnicalManagementException;
 import io.gravitee.rest.api.service.impl.ApiServiceImpl;
@@ -89,6 +90,9 @@ public class ApiService_StartTest {
     @Mock
     private ParameterService parameterService;
 
+    @Mock
+    private EntityCache entityCache;
+
     @Before
     public void setUp() {
         PropertyFilter apiMembershipTypeFilter = new ApiPermissionFilter();
@@ -22,6 +22,7 @@ import io.gravitee.definition.jackson.datatype.GraviteeMapper;
 import io.gravitee.rest.api.model.*;
 import io.gravitee.rest.api.model.api.ApiEntity;
 import io.gravitee.rest.api.model.permissions.SystemRole;
+import io.gravitee.rest.api.service.common.EntityCache;
 import io.gravitee.rest.api.service.impl.ApiServiceImpl;
 import io.gravitee.rest.api.service.search.SearchEngineService;
 import io.gravitee.repository.exceptions.TechnicalException;
@@ -91,6 +92,9 @@ public class ApiService_UpdateWithDefinitionTest {
     @Mock
     private VirtualHostService virtualHostService;
 
+    @Mock
+    private EntityCache entityCache;
+
     @Before
     public void init() {
         final SecurityContext securityContext = mock(SecurityContext.class);
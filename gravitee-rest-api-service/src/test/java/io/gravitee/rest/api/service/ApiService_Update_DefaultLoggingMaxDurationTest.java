@@ -27,6 +27,7 @@ import io.gravitee.definition.model.VirtualHost;
 import io.gravitee.rest.api.model.api.UpdateApiEntity;
 import io.gravitee.rest.api.model.parameters.Key;
 import io.gravitee.rest.api.model.permissions.SystemRole;
+import io.gravitee.rest.api.service.common.EntityCache;
 import io.gravitee.rest.api.service.impl.ApiServiceImpl;
 import io.gravitee.rest.api.service.jackson.filter.ApiPermissionFilter;
 import io.gravitee.rest.api.service.search.SearchEngineService;
@@ -100,6 +101,9 @@ public class ApiService_Update_DefaultLoggingMaxDurationTest {
     @Mock
     private VirtualHostService virtualHostService;
 
+    @Mock
+    private EntityCache entityCache;
+
     @Before
     public void setUp()  throws TechnicalException {
         existingApi = new UpdateApiEntity();
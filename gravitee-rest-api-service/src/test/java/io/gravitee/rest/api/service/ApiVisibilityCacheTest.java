@@ -0,0 +1,70 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.rest.api.service.impl.ApiVisibilityCache;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class ApiVisibilityCacheTest {
+
+    private final ApiVisibilityCache apiVisibilityCache = new ApiVisibilityCache();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final Function<String, ApiVisibilityCache.VisibleApis> loader = userId -> {
+        loads.incrementAndGet();
+        return new ApiVisibilityCache.VisibleApis(Collections.singleton("api-of-" + userId), Collections.emptySet());
+    };
+
+    @Test
+    public void shouldComputeVisibleApisOnce() {
+        final ApiVisibilityCache.VisibleApis visibleApis = apiVisibilityCache.get("user", loader);
+
+        assertSame(visibleApis, apiVisibilityCache.get("user", loader));
+        assertEquals(Collections.singleton("api-of-user"), visibleApis.getApiIds());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void shouldOnlyComputeAgainVisibleApisOfInvalidatedUser() {
+        final ApiVisibilityCache.VisibleApis visibleApis = apiVisibilityCache.get("user", loader);
+        final ApiVisibilityCache.VisibleApis otherVisibleApis = apiVisibilityCache.get("other-user", loader);
+
+        apiVisibilityCache.invalidate("user");
+
+        assertNotSame(visibleApis, apiVisibilityCache.get("user", loader));
+        assertSame(otherVisibleApis, apiVisibilityCache.get("other-user", loader));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void shouldIgnoreInvalidationWithoutUser() {
+        final ApiVisibilityCache.VisibleApis visibleApis = apiVisibilityCache.get("user", loader);
+
+        apiVisibilityCache.invalidate(null);
+
+        assertSame(visibleApis, apiVisibilityCache.get("user", loader));
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.common.data.domain.MetadataPage;
+import io.gravitee.common.data.domain.Page;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.AuditRepository;
+import io.gravitee.repository.management.api.search.AuditCriteria;
+import io.gravitee.repository.management.api.search.Pageable;
+import io.gravitee.repository.management.model.Audit;
+import io.gravitee.rest.api.model.audit.AuditEntity;
+import io.gravitee.rest.api.model.audit.AuditQuery;
+import io.gravitee.rest.api.service.impl.AuditServiceImpl;
+import io.gravitee.rest.api.service.impl.ReferenceMetadataResolver;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.*;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AuditServiceTest {
+
+    @InjectMocks
+    private AuditService auditService = new AuditServiceImpl();
+
+    @Mock
+    private AuditRepository auditRepository;
+
+    @Mock
+    private ReferenceMetadataResolver referenceMetadataResolver;
+
+    @Test
+    public void shouldResolveMetadataOnceByReferenceType() throws TechnicalException {
+        final Map<String, String> apiAuditProperties = new HashMap<>();
+        apiAuditProperties.put(Audit.AuditProperties.APPLICATION.name(), "app1");
+        apiAuditProperties.put(Audit.AuditProperties.PLAN.name(), "plan1");
+        final Audit apiAudit = audit("audit1", Audit.AuditReferenceType.API, "api1", "user1", apiAuditProperties);
+        final Audit deletedApiAudit = audit("audit2", Audit.AuditReferenceType.API, "api2", "user2",
+                singletonMap(Audit.AuditProperties.APPLICATION.name(), "app2"));
+        final Audit applicationAudit = audit("audit3", Audit.AuditReferenceType.APPLICATION, "app1", "user1", null);
+        when(auditRepository.search(any(AuditCriteria.class), any(Pageable.class)))
+                .thenReturn(new Page<>(asList(apiAudit, deletedApiAudit, applicationAudit), 0, 3, 3));
+
+        when(referenceMetadataResolver.resolveUsers(new HashSet<>(asList("user1", "user2"))))
+                .thenReturn(metadata("user1", "John Doe", "user2", null));
+        when(referenceMetadataResolver.resolveApis(new HashSet<>(asList("api1", "api2"))))
+                .thenReturn(metadata("api1", "API 1", "api2", "Deleted API"));
+        when(referenceMetadataResolver.resolveApplications(new HashSet<>(asList("app1", "app2"))))
+                .thenReturn(metadata("app1", "App 1", "app2", "Archived app"));
+        when(referenceMetadataResolver.resolvePlans(Collections.singleton("plan1")))
+                .thenReturn(metadata("plan1", "Plan 1", null, null));
+
+        final AuditQuery query = new AuditQuery();
+        query.setPage(1);
+        query.setSize(10);
+        final MetadataPage<AuditEntity> audits = auditService.search(query);
+
+        final Map<String, String> metadata = audits.getMetadata();
+        assertEquals("John Doe", metadata.get("USER:user1:name"));
+        assertEquals("user2", metadata.get("USER:user2:name"));
+        assertEquals("API 1", metadata.get("API:api1:name"));
+        assertEquals("Deleted API", metadata.get("API:api2:name"));
+        assertEquals("App 1", metadata.get("APPLICATION:app1:name"));
+        assertEquals("Archived app", metadata.get("APPLICATION:app2:name"));
+        assertEquals("Plan 1", metadata.get("PLAN:plan1:name"));
+
+        verify(referenceMetadataResolver, times(1)).resolveUsers(any());
+        verify(referenceMetadataResolver, times(1)).resolveApis(any());
+        verify(referenceMetadataResolver, times(1)).resolveApplications(any());
+        verify(referenceMetadataResolver, times(1)).resolvePlans(any());
+        verify(referenceMetadataResolver, times(1)).resolveGroups(Collections.emptySet());
+    }
+
+    private Audit audit(String id, Audit.AuditReferenceType referenceType, String referenceId, String user,
+                        Map<String, String> properties) {
+        final Audit audit = new Audit();
+        audit.setId(id);
+        audit.setReferenceType(referenceType);
+        audit.setReferenceId(referenceId);
+        audit.setUser(user);
+        audit.setEvent("EVENT");
+        audit.setProperties(properties);
+        audit.setCreatedAt(new Date());
+        return audit;
+    }
+
+    private Map<String, Map<String, String>> metadata(String id, String name, String deletedId, String deletedName) {
+        final Map<String, Map<String, String>> metadata = new HashMap<>();
+        metadata.put(id, singletonMap("name", name));
+        if (deletedId != null) {
+            final Map<String, String> deletedMetadata = new HashMap<>();
+            if (deletedName != null) {
+                deletedMetadata.put("name", deletedName);
+            }
+            deletedMetadata.put("deleted", "true");
+            metadata.put(deletedId, deletedMetadata);
+        }
+        return metadata;
+    }
+}
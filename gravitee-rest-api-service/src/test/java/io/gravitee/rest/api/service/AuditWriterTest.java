@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.AuditRepository;
+import io.gravitee.repository.management.model.Audit;
+import io.gravitee.rest.api.service.impl.AuditWriter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AuditWriterTest {
+
+    @InjectMocks
+    private AuditWriter auditWriter = new AuditWriter();
+
+    @Mock
+    private AuditRepository auditRepository;
+
+    @Spy
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @Before
+    public void init() {
+        ReflectionTestUtils.setField(auditWriter, "queueSize", 10);
+        ReflectionTestUtils.setField(auditWriter, "batchSize", 5);
+        ReflectionTestUtils.setField(auditWriter, "threads", 1);
+    }
+
+    @After
+    public void stop() throws Exception {
+        auditWriter.destroy();
+    }
+
+    @Test
+    public void shouldWriteAuditWithPatchInBackground() throws TechnicalException {
+        auditWriter.afterPropertiesSet();
+
+        final Audit audit = new Audit();
+        audit.setId("audit");
+        auditWriter.write(audit, Collections.singletonMap("name", "old"), Collections.singletonMap("name", "new"));
+
+        final ArgumentCaptor<Audit> auditCaptor = ArgumentCaptor.forClass(Audit.class);
+        verify(auditRepository, timeout(5000)).create(auditCaptor.capture());
+        assertEquals("[{\"op\":\"replace\",\"path\":\"/name\",\"value\":\"new\"}]", auditCaptor.getValue().getPatch());
+        assertEquals(1, auditWriter.getQueued());
+        assertEquals(0, auditWriter.getOverflowed());
+    }
+
+    @Test
+    public void shouldWriteInCallerThreadWhenQueueIsFull() throws Exception {
+        ReflectionTestUtils.setField(auditWriter, "queueSize", 1);
+        auditWriter.afterPropertiesSet();
+
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            if (Thread.currentThread().getName().startsWith("audit-writer")) {
+                writing.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            return null;
+        }).when(auditRepository).create(any());
+
+        // the writer thread is busy with the first audit, the second one waits in the queue
+        auditWriter.write(new Audit(), null, null);
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        auditWriter.write(new Audit(), null, null);
+
+        // and the third one is written right away by the caller
+        auditWriter.write(new Audit(), null, null);
+        assertEquals(1, auditWriter.getOverflowed());
+        assertEquals(1, auditWriter.getQueueSize());
+
+        release.countDown();
+        verify(auditRepository, timeout(5000).times(3)).create(any());
+    }
+}
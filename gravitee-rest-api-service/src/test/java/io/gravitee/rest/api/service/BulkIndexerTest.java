@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.rest.api.model.search.Indexable;
+import io.gravitee.rest.api.service.exceptions.TechnicalManagementException;
+import io.gravitee.rest.api.service.impl.search.BulkIndexer;
+import io.gravitee.rest.api.service.search.SearchEngineService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class BulkIndexerTest {
+
+    private static final String FAULTY_SOURCE = "faulty";
+
+    @Mock
+    private SearchEngineService searchEngineService;
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    public void shouldIndexSourcesByBatches() {
+        when(searchEngineService.index(anyCollection())).thenAnswer(invocation -> ((Collection<?>) invocation.getArgument(0)).size());
+
+        final BulkIndexer bulkIndexer = new BulkIndexer(searchEngineService, 2, registry);
+        bulkIndexer.add(source("source-1"));
+        bulkIndexer.add(source("source-2"));
+        bulkIndexer.add(source("source-3"));
+        bulkIndexer.close();
+
+        verify(searchEngineService, times(2)).index(anyCollection());
+        assertEquals(3, bulkIndexer.getIndexed());
+        assertEquals(0, bulkIndexer.getFailed());
+        assertEquals(3, registry.get("search.bulk.documents").tag("result", "indexed").counter().count(), 0);
+        assertEquals(0, registry.get("search.bulk.documents").tag("result", "failed").counter().count(), 0);
+    }
+
+    @Test
+    public void shouldIndexSourcesOneByOneWhenBatchFails() {
+        when(searchEngineService.index(anyCollection())).thenAnswer(invocation -> {
+            final Collection<?> sources = invocation.getArgument(0);
+            if (sources.size() > 1 || FAULTY_SOURCE.equals(((Indexable) sources.iterator().next()).getId())) {
+                throw new TechnicalManagementException("Unable to write documents");
+            }
+            return 1;
+        });
+
+        final BulkIndexer bulkIndexer = new BulkIndexer(searchEngineService, 3, registry);
+        bulkIndexer.add(source("source-1"));
+        bulkIndexer.add(source(FAULTY_SOURCE));
+        bulkIndexer.add(source("source-2"));
+        bulkIndexer.close();
+
+        verify(searchEngineService, times(4)).index(anyCollection());
+        assertEquals(2, bulkIndexer.getIndexed());
+        assertEquals(1, bulkIndexer.getFailed());
+        assertEquals(2, registry.get("search.bulk.documents").tag("result", "indexed").counter().count(), 0);
+        assertEquals(1, registry.get("search.bulk.documents").tag("result", "failed").counter().count(), 0);
+        assertEquals(1, registry.get("search.bulk.duration").timer().count());
+    }
+
+    @Test
+    public void shouldCountSourcesWhichCanNotBeTransformed() {
+        when(searchEngineService.index(anyCollection())).thenReturn(1);
+
+        final BulkIndexer bulkIndexer = new BulkIndexer(searchEngineService, 2, registry);
+        bulkIndexer.add(source("source-1"));
+        bulkIndexer.add(source("source-2"));
+        bulkIndexer.close();
+
+        assertEquals(1, bulkIndexer.getIndexed());
+        assertEquals(1, bulkIndexer.getFailed());
+    }
+
+    private Indexable source(String id) {
+        return () -> id;
+    }
+}
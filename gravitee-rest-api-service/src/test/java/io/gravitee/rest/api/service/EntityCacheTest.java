@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.rest.api.model.api.ApiEntity;
+import io.gravitee.rest.api.service.common.EntityCache;
+import io.gravitee.rest.api.service.common.RequestEntityCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class EntityCacheTest {
+
+    private static final String API_ID = "id-api";
+
+    private final EntityCache entityCache = new EntityCache();
+
+    @Before
+    public void setUp() {
+        RequestEntityCache.start();
+    }
+
+    @After
+    public void tearDown() {
+        RequestEntityCache.stop();
+    }
+
+    @Test
+    public void shouldNotShareCachedApiWithRequest() {
+        final ApiEntity cachedApi = entityCache.getApi(API_ID, this::findById);
+
+        assertSame(cachedApi, entityCache.getApi(API_ID, this::findById));
+        assertNotSame(cachedApi, findById(API_ID));
+    }
+
+    @Test
+    public void shouldLoadApiAgainOnceInvalidated() {
+        final ApiEntity cachedApi = entityCache.getApi(API_ID, this::findById);
+
+        entityCache.invalidateApi(API_ID);
+
+        assertNotSame(cachedApi, entityCache.getApi(API_ID, this::findById));
+    }
+
+    @Test
+    public void shouldHandOwnCopyOfRequestEntity() {
+        final AtomicInteger loads = new AtomicInteger();
+        final ApiEntity api = RequestEntityCache.get(ApiEntity.class, API_ID, () -> {
+            loads.incrementAndGet();
+            ApiEntity loaded = new ApiEntity();
+            loaded.setId(API_ID);
+            loaded.setPicture("data:image/png;base64,");
+            return loaded;
+        });
+        api.setPicture(null);
+
+        final ApiEntity again = RequestEntityCache.get(ApiEntity.class, API_ID, () -> {
+            loads.incrementAndGet();
+            return new ApiEntity();
+        });
+
+        assertEquals(1, loads.get());
+        assertNotSame(api, again);
+        assertEquals(API_ID, again.getId());
+        assertEquals("data:image/png;base64,", again.getPicture());
+    }
+
+    @Test
+    public void shouldPublishCacheMetrics() {
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        entityCache.bindTo(registry);
+        final double requestHits = registry.get("entities.request.gets").tag("result", "hit").functionCounter().count();
+
+        entityCache.getApi(API_ID, this::findById);
+        entityCache.getApi(API_ID, this::findById);
+        findById(API_ID);
+        findById(API_ID);
+
+        assertEquals(1, registry.get("cache.gets").tag("cache", "entities.apis").tag("result", "hit").functionCounter().count(), 0);
+        assertEquals(1, registry.get("cache.gets").tag("cache", "entities.apis").tag("result", "miss").functionCounter().count(), 0);
+        assertEquals(requestHits + 1, registry.get("entities.request.gets").tag("result", "hit").functionCounter().count(), 0);
+    }
+
+    private ApiEntity findById(String apiId) {
+        return RequestEntityCache.get(ApiEntity.class, apiId, () -> {
+            ApiEntity api = new ApiEntity();
+            api.setId(apiId);
+            return api;
+        });
+    }
+}
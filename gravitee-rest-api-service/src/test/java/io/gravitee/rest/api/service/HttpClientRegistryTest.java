@@ -0,0 +1,129 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.rest.api.service.vertx.HttpClientRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.URI;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class HttpClientRegistryTest {
+
+    private Vertx vertx;
+
+    private HttpClientRegistry httpClientRegistry;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Before
+    public void setUp() {
+        vertx = Vertx.vertx();
+        httpClientRegistry = new HttpClientRegistry();
+        httpClientRegistry.setVertx(vertx);
+        ReflectionTestUtils.setField(httpClientRegistry, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(httpClientRegistry, "httpClientProxyHttpsHost", "localhost");
+        ReflectionTestUtils.setField(httpClientRegistry, "httpClientProxyHttpsPort", 3128);
+        httpClientRegistry.afterPropertiesSet();
+    }
+
+    @After
+    public void tearDown() {
+        httpClientRegistry.destroy();
+        vertx.close();
+    }
+
+    @Test
+    public void shouldShareTargetByHostAndPort() {
+        HttpClientRegistry.Target target = httpClientRegistry.getTarget(URI.create("https://webhook.gravitee.io/hooks/1"), false);
+
+        assertSame(target, httpClientRegistry.getTarget(URI.create("https://webhook.gravitee.io:443/hooks/2"), false));
+        assertNotSame(target, httpClientRegistry.getTarget(URI.create("http://webhook.gravitee.io/hooks/1"), false));
+        assertNotSame(target, httpClientRegistry.getTarget(URI.create("https://webhook.gravitee.io/hooks/1"), true));
+        assertEquals(3, httpClientRegistry.getTargets().size());
+        assertEquals("https://webhook.gravitee.io:443", target.getName());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedTarget() {
+        httpClientRegistry.destroy();
+        ReflectionTestUtils.setField(httpClientRegistry, "maxTargets", 2);
+        httpClientRegistry.afterPropertiesSet();
+
+        HttpClientRegistry.Target target = httpClientRegistry.getTarget(URI.create("https://webhook.gravitee.io/hooks/1"), false);
+        httpClientRegistry.getTarget(URI.create("https://hooks.gravitee.io/1"), false);
+        httpClientRegistry.getTarget(URI.create("https://other-hooks.gravitee.io/1"), false);
+
+        assertEquals(2, httpClientRegistry.getTargets().size());
+        assertNotSame(target, httpClientRegistry.getTarget(URI.create("https://webhook.gravitee.io/hooks/1"), false));
+    }
+
+    @Test
+    public void shouldNotCloseEvictedTargetWithPendingRequest() {
+        httpClientRegistry.destroy();
+        ReflectionTestUtils.setField(httpClientRegistry, "maxTargets", 1);
+        httpClientRegistry.afterPropertiesSet();
+
+        final URI uri = URI.create("http://localhost:8080/hooks/1");
+        HttpClientRegistry.Target target = httpClientRegistry.getTarget(uri, false);
+        target.request(HttpMethod.GET, uri);
+        httpClientRegistry.getTarget(URI.create("http://localhost:8081/hooks/1"), false);
+
+        assertFalse(target.isClosed());
+
+        target.record(System.nanoTime(), false);
+
+        assertTrue(target.isClosed());
+    }
+
+    @Test
+    public void shouldRecordRequests() {
+        final URI uri = URI.create("http://localhost:8080");
+        HttpClientRegistry.Target target = httpClientRegistry.getTarget(uri, false);
+
+        target.request(HttpMethod.GET, uri);
+        target.record(System.nanoTime(), true);
+        target.request(HttpMethod.GET, uri);
+        target.record(System.nanoTime(), false);
+
+        assertEquals(2, target.getRequests());
+        assertEquals(1, target.getFailures());
+        assertEquals(0, target.getOpenConnections());
+        assertEquals(2, meterRegistry.get("http.client.requests").tag("target", target.getName()).functionCounter().count(), 0);
+        assertEquals(1, meterRegistry.get("http.client.failures").tag("target", target.getName()).functionCounter().count(), 0);
+    }
+
+    @Test
+    public void shouldRemoveMetricsOfClosedTarget() {
+        HttpClientRegistry.Target target = httpClientRegistry.getTarget(URI.create("http://localhost:8080"), false);
+
+        httpClientRegistry.destroy();
+
+        assertTrue(target.isClosed());
+        assertNull(meterRegistry.find("http.client.requests").tag("target", target.getName()).functionCounter());
+    }
+}
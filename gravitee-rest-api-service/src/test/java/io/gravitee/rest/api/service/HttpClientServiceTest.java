@@ -0,0 +1,108 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.common.http.HttpMethod;
+import io.gravitee.rest.api.service.impl.HttpClientServiceImpl;
+import io.gravitee.rest.api.service.vertx.HttpClientRegistry;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class HttpClientServiceTest {
+
+    private Vertx vertx;
+
+    private HttpServer server;
+
+    private HttpClientRegistry httpClientRegistry;
+
+    private HttpClientService httpClientService;
+
+    @Before
+    public void setUp() throws Exception {
+        vertx = Vertx.vertx();
+
+        // answers /ok right away and never answers anything else
+        final CompletableFuture<HttpServer> listening = new CompletableFuture<>();
+        vertx.createHttpServer()
+                .requestHandler(request -> {
+                    if ("/ok".equals(request.path())) {
+                        request.response().end("ok");
+                    }
+                })
+                .listen(0, result -> listening.complete(result.result()));
+        server = listening.get(5, TimeUnit.SECONDS);
+
+        httpClientRegistry = new HttpClientRegistry();
+        httpClientRegistry.setVertx(vertx);
+        httpClientRegistry.afterPropertiesSet();
+
+        httpClientService = new HttpClientServiceImpl();
+        ReflectionTestUtils.setField(httpClientService, "vertx", vertx);
+        ReflectionTestUtils.setField(httpClientService, "httpClientRegistry", httpClientRegistry);
+        ReflectionTestUtils.setField(httpClientService, "httpClientTimeout", 10000);
+    }
+
+    @After
+    public void tearDown() {
+        httpClientRegistry.destroy();
+        vertx.close();
+    }
+
+    @Test
+    public void shouldGetResponse() throws Exception {
+        Buffer buffer = httpClientService.requestAsync(HttpMethod.GET, url("/ok"), null, null, false, 5000)
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals("ok", buffer.toString());
+    }
+
+    @Test
+    public void shouldFailAfterDeadline() throws Exception {
+        CompletableFuture<Buffer> future = httpClientService.requestAsync(HttpMethod.GET, url("/slow"), null, null, false, 200);
+
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("The request should have timed out");
+        } catch (ExecutionException ee) {
+            assertTrue(ee.getCause() instanceof TimeoutException);
+        }
+    }
+
+    @Test
+    public void shouldCancelRequest() {
+        CompletableFuture<Buffer> future = httpClientService.requestAsync(HttpMethod.GET, url("/slow"), null, null, false, 5000);
+
+        assertTrue(future.cancel(true));
+        assertTrue(future.isCancelled());
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + server.actualPort() + path;
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.common.http.HttpMethod;
+import io.gravitee.repository.analytics.AnalyticsException;
+import io.gravitee.repository.analytics.query.tabular.TabularQuery;
+import io.gravitee.repository.analytics.query.tabular.TabularResponse;
+import io.gravitee.repository.log.api.LogRepository;
+import io.gravitee.repository.log.model.Log;
+import io.gravitee.rest.api.model.analytics.query.LogQuery;
+import io.gravitee.rest.api.service.impl.LogsServiceImpl;
+import io.gravitee.rest.api.service.impl.ReferenceMetadataResolver;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class LogsServiceTest {
+
+    private static final String API_ID = "my-api";
+
+    @InjectMocks
+    private LogsService logsService = new LogsServiceImpl();
+
+    @Mock
+    private LogRepository logRepository;
+
+    @Mock
+    private ReferenceMetadataResolver referenceMetadataResolver;
+
+    @Test
+    public void shouldExportAsCsvPageByPage() throws AnalyticsException {
+        when(logRepository.query(any(TabularQuery.class))).thenReturn(response(1000, 1001), response(1, 1001));
+
+        final StringWriter writer = new StringWriter();
+        logsService.exportByApiAsCsv(API_ID, query(), writer);
+
+        assertEquals(1 + 1001, writer.toString().split(System.lineSeparator()).length);
+        final ArgumentCaptor<TabularQuery> queries = ArgumentCaptor.forClass(TabularQuery.class);
+        verify(logRepository, times(2)).query(queries.capture());
+        assertEquals(1, queries.getAllValues().get(0).page());
+        assertEquals(2, queries.getAllValues().get(1).page());
+    }
+
+    @Test
+    public void shouldExportAsCsvUntilEmptyPage() throws AnalyticsException {
+        when(logRepository.query(any(TabularQuery.class))).thenReturn(response(1000, 1500), response(0, 1500));
+
+        final StringWriter writer = new StringWriter();
+        logsService.exportByApiAsCsv(API_ID, query(), writer);
+
+        assertEquals(1 + 1000, writer.toString().split(System.lineSeparator()).length);
+        verify(logRepository, times(2)).query(any(TabularQuery.class));
+    }
+
+    @Test
+    public void shouldExportAsCsvUntilTotalReached() throws AnalyticsException {
+        when(logRepository.query(any(TabularQuery.class))).thenReturn(response(1000, 1000));
+
+        final StringWriter writer = new StringWriter();
+        logsService.exportByApiAsCsv(API_ID, query(), writer);
+
+        assertEquals(1 + 1000, writer.toString().split(System.lineSeparator()).length);
+        verify(logRepository, times(1)).query(any(TabularQuery.class));
+    }
+
+    @Test
+    public void shouldExportEmptyCsv() throws AnalyticsException {
+        when(logRepository.query(any(TabularQuery.class))).thenReturn(response(0, 0));
+
+        final StringWriter writer = new StringWriter();
+        logsService.exportByApiAsCsv(API_ID, query(), writer);
+
+        assertEquals("", writer.toString());
+        verify(logRepository, times(1)).query(any(TabularQuery.class));
+    }
+
+    private LogQuery query() {
+        final LogQuery query = new LogQuery();
+        query.setFrom(0);
+        query.setTo(1000);
+        query.setInterval(100);
+        return query;
+    }
+
+    private TabularResponse response(int count, long total) {
+        final List<Log> logs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final Log log = new Log();
+            log.setId("log-" + i);
+            log.setTimestamp(System.currentTimeMillis());
+            log.setMethod(HttpMethod.GET);
+            log.setUri("/path");
+            log.setStatus(200);
+            logs.add(log);
+        }
+        final TabularResponse response = new TabularResponse(total);
+        response.setLogs(logs);
+        return response;
+    }
+}
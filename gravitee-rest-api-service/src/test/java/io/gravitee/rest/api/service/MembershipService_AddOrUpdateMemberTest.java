@@ -36,6 +36,7 @@ import io.gravitee.rest.api.service.UserService;
 import io.gravitee.rest.api.service.exceptions.AlreadyPrimaryOwnerException;
 import io.gravitee.rest.api.service.exceptions.NotAuthorizedMembershipException;
 import io.gravitee.rest.api.service.exceptions.RoleNotFoundException;
+import io.gravitee.rest.api.service.impl.ApiVisibilityCache;
 import io.gravitee.rest.api.service.impl.MembershipServiceImpl;
 
 import org.junit.Test;
@@ -64,6 +65,8 @@ public class MembershipService_AddOrUpdateMemberTest {
     @InjectMocks
     private MembershipService membershipService = new MembershipServiceImpl();
 
+    @Mock
+    private ApiVisibilityCache apiVisibilityCache;
     @Mock
     private MembershipRepository membershipRepository;
     @Mock
@@ -0,0 +1,134 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.repository.management.api.MembershipRepository;
+import io.gravitee.repository.management.model.Membership;
+import io.gravitee.repository.management.model.MembershipReferenceType;
+import io.gravitee.repository.management.model.RoleScope;
+import io.gravitee.rest.api.model.RoleEntity;
+import io.gravitee.rest.api.model.permissions.ApiPermission;
+import io.gravitee.rest.api.model.permissions.CompiledPermissions;
+import io.gravitee.rest.api.model.permissions.RolePermission;
+import io.gravitee.rest.api.model.permissions.RolePermissionAction;
+import io.gravitee.rest.api.service.impl.MembershipServiceImpl;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class MembershipService_GetCompiledPermissionsTest {
+
+    private static final String USERNAME = "johndoe";
+    private static final String API_ID1 = "api-id-1";
+    private static final String API_ID2 = "api-id-2";
+    private static final String API_ID3 = "api-id-3";
+    private static final String GROUP_ID1 = "GROUP_ID1";
+    private static final String OWNER_ROLE = "OWNER";
+    private static final String USER_ROLE = "USER";
+
+    @InjectMocks
+    private MembershipService membershipService = new MembershipServiceImpl();
+
+    @Mock
+    private MembershipRepository membershipRepository;
+
+    @Mock
+    private RoleService roleService;
+
+    @Test
+    public void shouldGetPermissionsOfDirectAndGroupMemberships() throws Exception {
+        final Map<String, Set<String>> groupsByApi = new HashMap<>();
+        groupsByApi.put(API_ID1, Collections.singleton(GROUP_ID1));
+        groupsByApi.put(API_ID2, Collections.singleton(GROUP_ID1));
+        groupsByApi.put(API_ID3, null);
+
+        when(membershipRepository.findByIds(USERNAME, MembershipReferenceType.API, new HashSet<>(Arrays.asList(API_ID1, API_ID2, API_ID3))))
+                .thenReturn(Collections.singleton(membership(MembershipReferenceType.API, API_ID1, OWNER_ROLE)));
+        when(membershipRepository.findByIds(USERNAME, MembershipReferenceType.GROUP, Collections.singleton(GROUP_ID1)))
+                .thenReturn(Collections.singleton(membership(MembershipReferenceType.GROUP, GROUP_ID1, USER_ROLE)));
+        when(roleService.findById(RoleScope.API, OWNER_ROLE)).thenReturn(role(RolePermissionAction.UPDATE));
+        when(roleService.findById(RoleScope.API, USER_ROLE)).thenReturn(role(RolePermissionAction.READ));
+
+        Map<String, CompiledPermissions> permissions = membershipService.getCompiledPermissions(MembershipReferenceType.API, groupsByApi, USERNAME, RoleScope.API);
+
+        assertEquals(3, permissions.size());
+        assertTrue(permissions.get(API_ID1).hasPermission(RolePermission.API_DEFINITION, RolePermissionAction.UPDATE));
+        assertFalse(permissions.get(API_ID1).hasPermission(RolePermission.API_DEFINITION, RolePermissionAction.READ));
+        assertTrue(permissions.get(API_ID2).hasPermission(RolePermission.API_DEFINITION, RolePermissionAction.READ));
+        assertEquals(CompiledPermissions.EMPTY, permissions.get(API_ID3));
+        verify(membershipRepository, times(2)).findByIds(any(), any(), any());
+        verify(roleService, times(1)).findById(RoleScope.API, USER_ROLE);
+    }
+
+    @Test
+    public void shouldReuseCompiledPermissions() throws Exception {
+        final Map<String, Set<String>> groupsByApi = Collections.singletonMap(API_ID1, null);
+        when(membershipRepository.findByIds(USERNAME, MembershipReferenceType.API, Collections.singleton(API_ID1)))
+                .thenReturn(Collections.singleton(membership(MembershipReferenceType.API, API_ID1, OWNER_ROLE)));
+        when(roleService.findById(RoleScope.API, OWNER_ROLE)).thenReturn(role(RolePermissionAction.READ));
+
+        membershipService.getCompiledPermissions(MembershipReferenceType.API, groupsByApi, USERNAME, RoleScope.API);
+        CompiledPermissions permissions = membershipService.getCompiledPermissions(MembershipReferenceType.API, API_ID1, null, USERNAME, RoleScope.API);
+
+        assertTrue(permissions.hasPermission(RolePermission.API_DEFINITION, RolePermissionAction.READ));
+        verify(membershipRepository, times(1)).findByIds(any(), any(), any());
+        verify(membershipRepository, never()).findById(any(), any(), any());
+    }
+
+    @Test
+    public void shouldCompilePermissionsAgainOnceGroupsOfReferenceChanged() throws Exception {
+        final Map<String, Set<String>> groupsByApi = Collections.singletonMap(API_ID1, null);
+        when(membershipRepository.findByIds(USERNAME, MembershipReferenceType.API, Collections.singleton(API_ID1)))
+                .thenReturn(Collections.emptySet());
+        when(membershipRepository.findByIds(USERNAME, MembershipReferenceType.GROUP, Collections.singleton(GROUP_ID1)))
+                .thenReturn(Collections.singleton(membership(MembershipReferenceType.GROUP, GROUP_ID1, USER_ROLE)));
+        when(roleService.findById(RoleScope.API, USER_ROLE)).thenReturn(role(RolePermissionAction.READ));
+
+        CompiledPermissions permissions = membershipService.getCompiledPermissions(MembershipReferenceType.API, groupsByApi, USERNAME, RoleScope.API).get(API_ID1);
+        assertEquals(CompiledPermissions.EMPTY, permissions);
+
+        membershipService.invalidateCompiledPermissions(MembershipReferenceType.API, API_ID1);
+        permissions = membershipService.getCompiledPermissions(MembershipReferenceType.API,
+                Collections.singletonMap(API_ID1, Collections.singleton(GROUP_ID1)), USERNAME, RoleScope.API).get(API_ID1);
+
+        assertTrue(permissions.hasPermission(RolePermission.API_DEFINITION, RolePermissionAction.READ));
+    }
+
+    private Membership membership(MembershipReferenceType referenceType, String referenceId, String roleName) {
+        Membership membership = new Membership(USERNAME, referenceId, referenceType);
+        membership.setRoles(Collections.singletonMap(RoleScope.API.getId(), roleName));
+        return membership;
+    }
+
+    private RoleEntity role(RolePermissionAction action) {
+        RoleEntity role = new RoleEntity();
+        role.setScope(io.gravitee.rest.api.model.permissions.RoleScope.API);
+        role.setPermissions(Collections.singletonMap(ApiPermission.DEFINITION.getName(), new char[]{action.getId()}));
+        return role;
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.common.http.HttpMethod;
+import io.gravitee.rest.api.idp.api.authentication.UserDetails;
+import io.gravitee.rest.api.model.MessageChannel;
+import io.gravitee.rest.api.model.MessageEntity;
+import io.gravitee.rest.api.model.MessageRecipientEntity;
+import io.gravitee.rest.api.service.exceptions.TechnicalManagementException;
+import io.gravitee.rest.api.service.impl.MessageServiceImpl;
+import io.vertx.core.buffer.Buffer;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.net.ConnectException;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static io.gravitee.rest.api.service.impl.MessageServiceImpl.MessageEvent.MESSAGE_SENT;
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class MessageService_CreateTest {
+
+    private static final String URL = "http://webhook.gravitee.io/messages";
+    private static final String USER = "user";
+
+    @InjectMocks
+    private MessageServiceImpl messageService = new MessageServiceImpl();
+
+    @Mock
+    private HttpClientService httpClientService;
+
+    @Mock
+    private AuditService auditService;
+
+    @After
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void shouldAuditHttpMessageOnceSent() throws Exception {
+        authenticate();
+        final CompletableFuture<Buffer> response = new CompletableFuture<>();
+        when(httpClientService.requestAsync(eq(HttpMethod.POST), eq(URL), any(), eq("text"), any(), anyLong())).thenReturn(response);
+
+        final CompletableFuture<Integer> sent = messageService.create(httpMessage());
+
+        assertFalse(sent.isDone());
+        verify(auditService, never()).createPortalAuditLog(any(), any(), any(), any(), any(), any());
+
+        // the endpoint answers on another thread, where nobody is authenticated
+        SecurityContextHolder.clearContext();
+        response.complete(Buffer.buffer("ok"));
+
+        assertEquals(Integer.valueOf(1), sent.get());
+        verify(auditService, times(1)).createPortalAuditLog(any(), eq(MESSAGE_SENT), eq(USER), any(Date.class), isNull(), any());
+    }
+
+    @Test
+    public void shouldFailHttpMessageWhenEndpointIsUnreachable() throws InterruptedException {
+        final CompletableFuture<Buffer> response = new CompletableFuture<>();
+        response.completeExceptionally(new ConnectException("Connection refused"));
+        when(httpClientService.requestAsync(eq(HttpMethod.POST), eq(URL), any(), eq("text"), any(), anyLong())).thenReturn(response);
+
+        try {
+            messageService.create(httpMessage()).get();
+            fail("The failure of the endpoint should be reported");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TechnicalManagementException);
+            assertTrue(e.getCause().getCause() instanceof ConnectException);
+        }
+        verify(auditService, never()).createPortalAuditLog(any(), any(), any(), any(), any(), any());
+    }
+
+    private void authenticate() {
+        final Authentication authentication = mock(Authentication.class);
+        when(authentication.getPrincipal()).thenReturn(new UserDetails(USER, "", emptyList()));
+        final SecurityContext securityContext = mock(SecurityContext.class);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+    }
+
+    private MessageEntity httpMessage() {
+        final MessageRecipientEntity recipient = new MessageRecipientEntity();
+        recipient.setUrl(URL);
+        final MessageEntity message = new MessageEntity();
+        message.setTitle("title");
+        message.setText("text");
+        message.setChannel(MessageChannel.HTTP);
+        message.setRecipient(recipient);
+        return message;
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.repository.management.model.NotificationReferenceType;
+import io.gravitee.rest.api.service.impl.NotificationConfigCache;
+import io.gravitee.rest.api.service.notification.ApiHook;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class NotificationConfigCacheTest {
+
+    private static final String API_ID = "id-api";
+
+    private final NotificationConfigCache notificationConfigCache = new NotificationConfigCache();
+
+    @Test
+    public void shouldCacheSubscribers() {
+        final long generation = notificationConfigCache.getGeneration();
+
+        notificationConfigCache.put(ApiHook.API_STARTED, NotificationReferenceType.API, API_ID, subscribers(), generation);
+
+        assertNotNull(notificationConfigCache.get(ApiHook.API_STARTED, NotificationReferenceType.API, API_ID));
+    }
+
+    @Test
+    public void shouldNotCacheSubscribersLoadedBeforeInvalidation() {
+        final long generation = notificationConfigCache.getGeneration();
+        notificationConfigCache.invalidate(NotificationReferenceType.API, API_ID);
+
+        notificationConfigCache.put(ApiHook.API_STARTED, NotificationReferenceType.API, API_ID, subscribers(), generation);
+
+        assertNull(notificationConfigCache.get(ApiHook.API_STARTED, NotificationReferenceType.API, API_ID));
+    }
+
+    @Test
+    public void shouldInvalidateSubscribersOfReference() {
+        notificationConfigCache.put(ApiHook.API_STARTED, NotificationReferenceType.API, API_ID, subscribers(), notificationConfigCache.getGeneration());
+        notificationConfigCache.put(ApiHook.API_STARTED, NotificationReferenceType.API, "other-api", subscribers(), notificationConfigCache.getGeneration());
+
+        notificationConfigCache.invalidate(NotificationReferenceType.API, API_ID);
+
+        assertNull(notificationConfigCache.get(ApiHook.API_STARTED, NotificationReferenceType.API, API_ID));
+        assertNotNull(notificationConfigCache.get(ApiHook.API_STARTED, NotificationReferenceType.API, "other-api"));
+    }
+
+    private NotificationConfigCache.Subscribers subscribers() {
+        return new NotificationConfigCache.Subscribers(Collections.emptyList(), Collections.emptyList());
+    }
+}
@@ -0,0 +1,224 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.repository.management.api.GenericNotificationConfigRepository;
+import io.gravitee.repository.management.api.PortalNotificationConfigRepository;
+import io.gravitee.repository.management.model.GenericNotificationConfig;
+import io.gravitee.repository.management.model.NotificationReferenceType;
+import io.gravitee.repository.management.model.PortalNotificationConfig;
+import io.gravitee.rest.api.service.exceptions.TechnicalManagementException;
+import io.gravitee.rest.api.service.impl.NotificationConfigCache;
+import io.gravitee.rest.api.service.impl.NotificationDispatcher;
+import io.gravitee.rest.api.service.impl.NotifierServiceImpl;
+import io.gravitee.rest.api.service.notification.ApiHook;
+import io.gravitee.rest.api.service.notifiers.EmailNotifierService;
+import io.gravitee.rest.api.service.notifiers.WebhookNotifierService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class NotificationDispatcherTest {
+
+    private static final String API_ID = "api-id";
+
+    @InjectMocks
+    private NotificationDispatcher notificationDispatcher = new NotificationDispatcher();
+
+    @Mock
+    private PortalNotificationConfigRepository portalNotificationConfigRepository;
+
+    @Mock
+    private GenericNotificationConfigRepository genericNotificationConfigRepository;
+
+    @Spy
+    private NotificationConfigCache notificationConfigCache = new NotificationConfigCache();
+
+    @Mock
+    private PortalNotificationService portalNotificationService;
+
+    @Mock
+    private EmailNotifierService emailNotifierService;
+
+    @Mock
+    private WebhookNotifierService webhookNotifierService;
+
+    @Before
+    public void init() {
+        ReflectionTestUtils.setField(notificationDispatcher, "threads", 1);
+        ReflectionTestUtils.setField(notificationDispatcher, "webhookThreads", 1);
+        ReflectionTestUtils.setField(notificationDispatcher, "webhookBackoff", 10L);
+        notificationDispatcher.afterPropertiesSet();
+    }
+
+    @After
+    public void stop() throws Exception {
+        notificationDispatcher.destroy();
+    }
+
+    @Test
+    public void shouldRetryFailedWebhook() throws Exception {
+        final GenericNotificationConfig webhook = new GenericNotificationConfig();
+        webhook.setNotifier(NotifierServiceImpl.DEFAULT_WEBHOOK_NOTIFIER_ID);
+        webhook.setConfig("http://localhost/hook");
+        when(genericNotificationConfigRepository.findByReferenceAndHook(ApiHook.API_STARTED.name(), NotificationReferenceType.API, API_ID))
+                .thenReturn(Collections.singletonList(webhook));
+        doThrow(new TechnicalManagementException("Connection refused"))
+                .doNothing()
+                .when(webhookNotifierService).trigger(any(), any(), any());
+
+        notificationDispatcher.dispatch(ApiHook.API_STARTED, NotificationReferenceType.API, API_ID, Collections.emptyMap());
+
+        verify(webhookNotifierService, timeout(5000).times(2)).trigger(ApiHook.API_STARTED, webhook, Collections.emptyMap());
+        verify(portalNotificationService, never()).create(any(), any(), any());
+        assertEquals(1, notificationDispatcher.getRetried());
+    }
+
+    @Test(timeout = 5000)
+    public void shouldCountPendingRetriesAsFailedOnShutdown() throws Exception {
+        ReflectionTestUtils.setField(notificationDispatcher, "webhookBackoff", 60_000L);
+        ReflectionTestUtils.setField(notificationDispatcher, "shutdownTimeout", 500L);
+        final GenericNotificationConfig webhook = new GenericNotificationConfig();
+        webhook.setNotifier(NotifierServiceImpl.DEFAULT_WEBHOOK_NOTIFIER_ID);
+        webhook.setConfig("http://localhost/hook");
+        when(genericNotificationConfigRepository.findByReferenceAndHook(ApiHook.API_STARTED.name(), NotificationReferenceType.API, API_ID))
+                .thenReturn(Collections.singletonList(webhook));
+        doThrow(new TechnicalManagementException("Connection refused"))
+                .when(webhookNotifierService).trigger(any(), any(), any());
+
+        notificationDispatcher.dispatch(ApiHook.API_STARTED, NotificationReferenceType.API, API_ID, Collections.emptyMap());
+        while (notificationDispatcher.getPendingRetries() == 0) {
+            Thread.sleep(10);
+        }
+
+        notificationDispatcher.destroy();
+
+        verify(webhookNotifierService, times(1)).trigger(ApiHook.API_STARTED, webhook, Collections.emptyMap());
+        assertEquals(0, notificationDispatcher.getPendingRetries());
+        assertEquals(1, notificationDispatcher.getRetried());
+        assertEquals(1, notificationDispatcher.getFailed());
+    }
+
+    @Test(timeout = 5000)
+    public void shouldPublishMetrics() throws Exception {
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        notificationDispatcher.bindTo(registry);
+        final Map<String, Object> params = Collections.singletonMap("api", API_ID);
+        final PortalNotificationConfig portalNotificationConfig = new PortalNotificationConfig();
+        portalNotificationConfig.setUser("user-id");
+        when(portalNotificationConfigRepository.findByReferenceAndHook(any(), eq(NotificationReferenceType.API), eq(API_ID)))
+                .thenReturn(Collections.singletonList(portalNotificationConfig));
+
+        notificationDispatcher.dispatch(ApiHook.API_STARTED, NotificationReferenceType.API, API_ID, params);
+        notificationDispatcher.dispatch(ApiHook.API_STARTED, NotificationReferenceType.API, API_ID, params);
+        while (notificationDispatcher.getDelivered() == 0) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(1, registry.get("notifications.events").tag("result", "queued").functionCounter().count(), 0);
+        assertEquals(1, registry.get("notifications.events").tag("result", "coalesced").functionCounter().count(), 0);
+        assertEquals(1, registry.get("notifications.deliveries").tag("result", "delivered").functionCounter().count(), 0);
+        assertEquals(0, registry.get("notifications.deliveries").tag("result", "failed").functionCounter().count(), 0);
+        assertEquals(0, registry.get("notifications.queue.size").tag("queue", "events").gauge().value(), 0);
+        assertEquals(0, registry.get("notifications.queue.size").tag("queue", "retry").gauge().value(), 0);
+    }
+
+    @Test
+    public void shouldCoalesceIdenticalEvents() throws Exception {
+        final Map<String, Object> params = Collections.singletonMap("api", API_ID);
+        final PortalNotificationConfig portalNotificationConfig = new PortalNotificationConfig();
+        portalNotificationConfig.setUser("user-id");
+        when(portalNotificationConfigRepository.findByReferenceAndHook(any(), eq(NotificationReferenceType.API), eq(API_ID)))
+                .thenReturn(Collections.singletonList(portalNotificationConfig));
+
+        notificationDispatcher.dispatch(ApiHook.API_STARTED, NotificationReferenceType.API, API_ID, params);
+        notificationDispatcher.dispatch(ApiHook.API_STARTED, NotificationReferenceType.API, API_ID, params);
+        notificationDispatcher.dispatch(ApiHook.API_STOPPED, NotificationReferenceType.API, API_ID, params);
+
+        verify(genericNotificationConfigRepository, timeout(5000)).findByReferenceAndHook(ApiHook.API_STARTED.name(), NotificationReferenceType.API, API_ID);
+        verify(genericNotificationConfigRepository, timeout(5000)).findByReferenceAndHook(ApiHook.API_STOPPED.name(), NotificationReferenceType.API, API_ID);
+        assertEquals(1, notificationDispatcher.getCoalesced());
+        assertEquals(2, notificationDispatcher.getQueued());
+    }
+
+    @Test(timeout = 5000)
+    public void shouldNotCoalesceEventsSeparatedByAnotherHook() throws Exception {
+        final Map<String, Object> params = Collections.singletonMap("api", API_ID);
+        final PortalNotificationConfig portalNotificationConfig = new PortalNotificationConfig();
+        portalNotificationConfig.setUser("user-id");
+        when(portalNotificationConfigRepository.findByReferenceAndHook(any(), eq(NotificationReferenceType.API), eq(API_ID)))
+                .thenReturn(Collections.singletonList(portalNotificationConfig));
+
+        notificationDispatcher.dispatch(ApiHook.API_STARTED, NotificationReferenceType.API, API_ID, params);
+        notificationDispatcher.dispatch(ApiHook.API_STOPPED, NotificationReferenceType.API, API_ID, params);
+        notificationDispatcher.dispatch(ApiHook.API_STARTED, NotificationReferenceType.API, API_ID, params);
+
+        verify(genericNotificationConfigRepository, timeout(5000)).findByReferenceAndHook(ApiHook.API_STOPPED.name(), NotificationReferenceType.API, API_ID);
+        assertEquals(0, notificationDispatcher.getCoalesced());
+        assertEquals(3, notificationDispatcher.getQueued());
+    }
+
+    @Test(timeout = 5000)
+    public void shouldSkipHookWithoutSubscriber() throws Exception {
+        notificationDispatcher.dispatch(ApiHook.API_STARTED, NotificationReferenceType.API, API_ID, Collections.singletonMap("api", "1"));
+        awaitSubscribersCached();
+
+        notificationDispatcher.dispatch(ApiHook.API_STARTED, NotificationReferenceType.API, API_ID, Collections.singletonMap("api", "2"));
+
+        verify(portalNotificationConfigRepository, times(1)).findByReferenceAndHook(ApiHook.API_STARTED.name(), NotificationReferenceType.API, API_ID);
+        verify(genericNotificationConfigRepository, times(1)).findByReferenceAndHook(ApiHook.API_STARTED.name(), NotificationReferenceType.API, API_ID);
+        assertEquals(1, notificationDispatcher.getSkipped());
+        assertEquals(1, notificationDispatcher.getQueued());
+    }
+
+    @Test(timeout = 5000)
+    public void shouldReloadSubscribersOnceInvalidated() throws Exception {
+        notificationDispatcher.dispatch(ApiHook.API_STARTED, NotificationReferenceType.API, API_ID, Collections.singletonMap("api", "1"));
+        awaitSubscribersCached();
+
+        notificationConfigCache.invalidate(NotificationReferenceType.API, API_ID);
+        notificationDispatcher.dispatch(ApiHook.API_STARTED, NotificationReferenceType.API, API_ID, Collections.singletonMap("api", "2"));
+
+        verify(genericNotificationConfigRepository, timeout(5000).times(2)).findByReferenceAndHook(ApiHook.API_STARTED.name(), NotificationReferenceType.API, API_ID);
+        assertEquals(0, notificationDispatcher.getSkipped());
+    }
+
+    private void awaitSubscribersCached() throws InterruptedException {
+        while (notificationConfigCache.get(ApiHook.API_STARTED, NotificationReferenceType.API, API_ID) == null) {
+            Thread.sleep(10);
+        }
+    }
+}
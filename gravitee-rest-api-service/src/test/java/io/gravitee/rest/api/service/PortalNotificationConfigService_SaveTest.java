@@ -21,6 +21,8 @@ import io.gravitee.repository.management.model.NotificationReferenceType;
 import io.gravitee.repository.management.model.PortalNotificationConfig;
 import io.gravitee.rest.api.model.notification.PortalNotificationConfigEntity;
 import io.gravitee.rest.api.service.PortalNotificationConfigService;
+import io.gravitee.rest.api.service.exceptions.TechnicalManagementException;
+import io.gravitee.rest.api.service.impl.NotificationConfigCache;
 import io.gravitee.rest.api.service.impl.PortalNotificationConfigServiceImpl;
 
 import org.junit.Test;
@@ -36,6 +38,8 @@ import static java.util.Optional.empty;
 import static java.util.Optional.of;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.*;
 
 /**
@@ -50,6 +54,9 @@ public class PortalNotificationConfigService_SaveTest {
     @Mock
     private PortalNotificationConfigRepository portalNotificationConfigRepository;
 
+    @Mock
+    private NotificationConfigCache notificationConfigCache;
+
     @Test
     public void shouldDelete() throws TechnicalException {
         PortalNotificationConfigEntity cfgEntity = mock(PortalNotificationConfigEntity.class);
@@ -134,4 +141,25 @@ public class PortalNotificationConfigService_SaveTest {
         verify(portalNotificationConfigRepository, never()).update(any());
     }
 
+    @Test
+    public void shouldInvalidateCacheWhenUpdateFails() throws TechnicalException {
+        PortalNotificationConfigEntity cfgEntity = mock(PortalNotificationConfigEntity.class);
+        when(cfgEntity.getReferenceType()).thenReturn(NotificationReferenceType.API.name());
+        when(cfgEntity.getReferenceId()).thenReturn("123");
+        when(cfgEntity.getUser()).thenReturn("user");
+        when(cfgEntity.getHooks()).thenReturn(Arrays.asList("A", "B", "C"));
+
+        when(portalNotificationConfigRepository.findById("user", NotificationReferenceType.API, "123")).
+                thenReturn(of(mock(PortalNotificationConfig.class)));
+        final TechnicalException failure = new TechnicalException("update failed");
+        when(portalNotificationConfigRepository.update(any(PortalNotificationConfig.class))).thenThrow(failure);
+
+        try {
+            portalNotificationConfigService.save(cfgEntity);
+            fail("The update failure should be thrown");
+        } catch (TechnicalManagementException e) {
+            assertSame(failure, e.getCause());
+        }
+        verify(notificationConfigCache, times(1)).invalidate(NotificationReferenceType.API, "123");
+    }
 }
@@ -0,0 +1,100 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import freemarker.cache.StringTemplateLoader;
+import freemarker.template.Configuration;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.PortalNotificationRepository;
+import io.gravitee.repository.management.model.PortalNotification;
+import io.gravitee.rest.api.service.exceptions.PortalNotificationsPartiallyCreatedException;
+import io.gravitee.rest.api.service.impl.PortalNotificationServiceImpl;
+import io.gravitee.rest.api.service.notification.ApiHook;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class PortalNotificationService_CreateTest {
+
+    @InjectMocks
+    private PortalNotificationService portalNotificationService = new PortalNotificationServiceImpl();
+
+    @Mock
+    private PortalNotificationRepository portalNotificationRepository;
+
+    @Before
+    public void init() {
+        final StringTemplateLoader templateLoader = new StringTemplateLoader();
+        templateLoader.putTemplate("notifications/portal/API.API_STARTED.yml", "title: API started\nmessage: ${api} is started");
+        final Configuration freemarkerConfiguration = new Configuration(Configuration.VERSION_2_3_28);
+        freemarkerConfiguration.setTemplateLoader(templateLoader);
+        ReflectionTestUtils.setField(portalNotificationService, "freemarkerConfiguration", freemarkerConfiguration);
+        ReflectionTestUtils.setField(portalNotificationService, "batchSize", 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldCreateByBatches() throws TechnicalException {
+        portalNotificationService.create(ApiHook.API_STARTED, Arrays.asList("user1", "user2", "user3", "user4", "user5"),
+                Collections.singletonMap("api", "my-api"));
+
+        final ArgumentCaptor<List<PortalNotification>> batches = ArgumentCaptor.forClass(List.class);
+        verify(portalNotificationRepository, times(3)).create(batches.capture());
+        assertEquals(2, batches.getAllValues().get(0).size());
+        assertEquals(2, batches.getAllValues().get(1).size());
+        assertEquals(1, batches.getAllValues().get(2).size());
+
+        final PortalNotification last = batches.getAllValues().get(2).get(0);
+        assertEquals("user5", last.getUser());
+        assertEquals("API started", last.getTitle());
+        assertEquals("my-api is started", last.getMessage());
+    }
+
+    @Test
+    public void shouldReportUsersNotifiedBeforeFailedBatch() throws TechnicalException {
+        doNothing().doThrow(new TechnicalException("insert failed")).when(portalNotificationRepository).create(anyList());
+
+        try {
+            portalNotificationService.create(ApiHook.API_STARTED, Arrays.asList("user1", "user2", "user3", "user4", "user5"),
+                    Collections.singletonMap("api", "my-api"));
+            fail("The failed batch should be reported");
+        } catch (PortalNotificationsPartiallyCreatedException e) {
+            assertEquals(2, e.getCreated());
+            assertEquals(5, e.getTotal());
+        }
+        verify(portalNotificationRepository, times(2)).create(anyList());
+    }
+}
@@ -0,0 +1,194 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.ApiRepository;
+import io.gravitee.repository.management.api.ApplicationRepository;
+import io.gravitee.repository.management.api.search.ApiCriteria;
+import io.gravitee.repository.management.api.search.ApiFieldExclusionFilter;
+import io.gravitee.repository.management.model.Api;
+import io.gravitee.repository.management.model.Application;
+import io.gravitee.repository.management.model.ApplicationStatus;
+import io.gravitee.rest.api.model.PlanEntity;
+import io.gravitee.rest.api.model.UserEntity;
+import io.gravitee.rest.api.service.common.GraviteeContext;
+import io.gravitee.rest.api.service.exceptions.PlanNotFoundException;
+import io.gravitee.rest.api.service.exceptions.UserNotFoundException;
+import io.gravitee.rest.api.service.impl.ReferenceMetadataResolver;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.*;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ReferenceMetadataResolverTest {
+
+    @InjectMocks
+    private ReferenceMetadataResolver referenceMetadataResolver = new ReferenceMetadataResolver();
+
+    @Mock
+    private ApiRepository apiRepository;
+
+    @Mock
+    private ApplicationRepository applicationRepository;
+
+    @Mock
+    private PlanService planService;
+
+    @Mock
+    private UserService userService;
+
+    @Test
+    public void shouldResolveApisAtOnceInCurrentEnvironment() throws TechnicalException {
+        Api api = new Api();
+        api.setId("api1");
+        api.setName("API 1");
+        api.setVersion("v1");
+        when(apiRepository.search(any(ApiCriteria.class), any(ApiFieldExclusionFilter.class))).thenReturn(singletonList(api));
+
+        Map<String, Map<String, String>> metadata = referenceMetadataResolver.resolveApis(asList("api1", "api2", "1"));
+
+        assertEquals("API 1", metadata.get("api1").get("name"));
+        assertEquals("v1", metadata.get("api1").get("version"));
+        assertNull(metadata.get("api1").get("deleted"));
+        assertEquals("Deleted API", metadata.get("api2").get("name"));
+        assertEquals("true", metadata.get("api2").get("deleted"));
+        assertEquals("Unknown API (not found)", metadata.get("1").get("name"));
+        assertEquals("true", metadata.get("1").get("deleted"));
+
+        ArgumentCaptor<ApiCriteria> criteria = ArgumentCaptor.forClass(ApiCriteria.class);
+        verify(apiRepository, times(1)).search(criteria.capture(), any(ApiFieldExclusionFilter.class));
+        assertEquals(GraviteeContext.getCurrentEnvironment(), criteria.getValue().getEnvironmentId());
+        assertEquals(new HashSet<>(asList("api1", "api2", "1")), new HashSet<>(criteria.getValue().getIds()));
+    }
+
+    @Test
+    public void shouldOnlyLoadApisMissingFromCache() throws TechnicalException {
+        Api api = new Api();
+        api.setId("api1");
+        api.setName("API 1");
+        when(apiRepository.search(any(ApiCriteria.class), any(ApiFieldExclusionFilter.class))).thenReturn(singletonList(api));
+
+        referenceMetadataResolver.resolveApis(singletonList("api1"));
+        Map<String, Map<String, String>> metadata = referenceMetadataResolver.resolveApis(asList("api1", "api2"));
+
+        assertEquals("API 1", metadata.get("api1").get("name"));
+        assertEquals("true", metadata.get("api2").get("deleted"));
+
+        ArgumentCaptor<ApiCriteria> criteria = ArgumentCaptor.forClass(ApiCriteria.class);
+        verify(apiRepository, times(2)).search(criteria.capture(), any(ApiFieldExclusionFilter.class));
+        assertEquals(singletonList("api2"), criteria.getAllValues().get(1).getIds());
+
+        // the cached metadata are not affected by the caller
+        metadata.get("api1").put("name", "modified");
+        assertEquals("API 1", referenceMetadataResolver.resolveApis(singletonList("api1")).get("api1").get("name"));
+        verifyNoMoreInteractions(apiRepository);
+    }
+
+    @Test
+    public void shouldResolveApplicationsOfCurrentEnvironment() throws TechnicalException {
+        Application application = new Application();
+        application.setId("app1");
+        application.setName("App 1");
+        application.setEnvironmentId(GraviteeContext.getCurrentEnvironment());
+        Application archivedApplication = new Application();
+        archivedApplication.setId("app2");
+        archivedApplication.setName("App 2");
+        archivedApplication.setStatus(ApplicationStatus.ARCHIVED);
+        archivedApplication.setEnvironmentId(GraviteeContext.getCurrentEnvironment());
+        Application otherApplication = new Application();
+        otherApplication.setId("app3");
+        otherApplication.setName("App 3");
+        otherApplication.setEnvironmentId("OTHER");
+        when(applicationRepository.findByIds(anyList()))
+                .thenReturn(new HashSet<>(asList(application, archivedApplication, otherApplication)));
+
+        Map<String, Map<String, String>> metadata =
+                referenceMetadataResolver.resolveApplications(asList("app1", "app2", "app3", "1"));
+
+        assertEquals("App 1", metadata.get("app1").get("name"));
+        assertNull(metadata.get("app1").get("deleted"));
+        assertEquals("App 2", metadata.get("app2").get("name"));
+        assertEquals("true", metadata.get("app2").get("deleted"));
+        assertEquals("Deleted application", metadata.get("app3").get("name"));
+        assertEquals("true", metadata.get("app3").get("deleted"));
+        assertEquals("Unknown application (keyless)", metadata.get("1").get("name"));
+        verify(applicationRepository, times(1)).findByIds(anyList());
+    }
+
+    @Test
+    public void shouldResolveDeletedPlans() {
+        PlanEntity plan = new PlanEntity();
+        plan.setName("Plan 1");
+        when(planService.findById("plan1")).thenReturn(plan);
+        when(planService.findById("plan2")).thenThrow(new PlanNotFoundException("plan2"));
+
+        Map<String, Map<String, String>> metadata = referenceMetadataResolver.resolvePlans(asList("plan1", "plan2"));
+        referenceMetadataResolver.resolvePlans(asList("plan1", "plan2"));
+
+        assertEquals("Plan 1", metadata.get("plan1").get("name"));
+        assertEquals("Deleted plan", metadata.get("plan2").get("name"));
+        assertEquals("true", metadata.get("plan2").get("deleted"));
+        verify(planService, times(1)).findById("plan1");
+        verify(planService, times(1)).findById("plan2");
+    }
+
+    @Test
+    public void shouldResolveUsersAtOnce() {
+        UserEntity user = new UserEntity();
+        user.setId("user1");
+        user.setFirstname("John");
+        user.setLastname("Doe");
+        when(userService.findByIds(anyList())).thenReturn(Collections.singleton(user));
+
+        Map<String, Map<String, String>> metadata = referenceMetadataResolver.resolveUsers(asList("user1", "user2"));
+
+        assertEquals(user.getDisplayName(), metadata.get("user1").get("name"));
+        assertEquals("true", metadata.get("user2").get("deleted"));
+        verify(userService, times(1)).findByIds(anyList());
+    }
+
+    @Test
+    public void shouldResolveUsersWhenNoneExists() {
+        when(userService.findByIds(anyList())).thenThrow(new UserNotFoundException("user1"));
+
+        Map<String, Map<String, String>> metadata = referenceMetadataResolver.resolveUsers(singletonList("user1"));
+
+        assertEquals("true", metadata.get("user1").get("deleted"));
+    }
+
+    @Test
+    public void shouldNotResolveEmptyReferences() {
+        assertTrue(referenceMetadataResolver.resolveApis(Collections.emptyList()).isEmpty());
+        assertTrue(referenceMetadataResolver.resolveApplications(null).isEmpty());
+        verifyZeroInteractions(apiRepository, applicationRepository);
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.repository.management.model.MessageRecipient;
+import io.gravitee.rest.api.model.command.CommandEntity;
+import io.gravitee.rest.api.model.command.CommandQuery;
+import io.gravitee.rest.api.model.command.CommandTags;
+import io.gravitee.rest.api.model.command.NewCommandEntity;
+import io.gravitee.rest.api.service.impl.RoleCache;
+import io.gravitee.rest.api.service.impl.RoleCacheSynchronizer;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class RoleCacheSynchronizerTest {
+
+    @InjectMocks
+    private RoleCacheSynchronizer roleCacheSynchronizer = new RoleCacheSynchronizer();
+
+    @Mock
+    private CommandService commandService;
+
+    @Mock
+    private RoleCache roleCache;
+
+    @Test
+    public void shouldPropagateChangeToAllNodes() {
+        roleCacheSynchronizer.propagate("DEFAULT");
+
+        ArgumentCaptor<NewCommandEntity> command = ArgumentCaptor.forClass(NewCommandEntity.class);
+        verify(commandService).send(command.capture());
+        assertEquals(MessageRecipient.MANAGEMENT_APIS.name(), command.getValue().getTo());
+        assertEquals(Collections.singletonList(CommandTags.ROLES_TO_RELOAD), command.getValue().getTags());
+        assertEquals("DEFAULT", command.getValue().getContent());
+    }
+
+    @Test
+    public void shouldReloadRolesOfReceivedCommands() {
+        CommandEntity command = new CommandEntity();
+        command.setId("command-id");
+        command.setContent("DEFAULT");
+        when(commandService.search(any(CommandQuery.class))).thenReturn(Collections.singletonList(command));
+
+        roleCacheSynchronizer.synchronize();
+
+        verify(commandService).ack("command-id");
+        verify(roleCache).invalidate("DEFAULT");
+    }
+
+    @Test
+    public void shouldNotFailWhenCommandsCannotBeRead() {
+        when(commandService.search(any(CommandQuery.class))).thenThrow(new RuntimeException("unavailable"));
+
+        roleCacheSynchronizer.synchronize();
+
+        verify(roleCache, never()).invalidate(any());
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.repository.management.model.Role;
+import io.gravitee.repository.management.model.RoleScope;
+import io.gravitee.rest.api.service.impl.RoleCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class RoleCacheTest {
+
+    private final RoleCache roleCache = new RoleCache();
+
+    @Test
+    public void shouldLoadOnceAndServeTable() {
+        final AtomicInteger loads = new AtomicInteger();
+        final Function<String, Collection<Role>> loader = id -> {
+            loads.incrementAndGet();
+            return Arrays.asList(role(RoleScope.API, "USER"), role(RoleScope.PORTAL, "ADMIN"));
+        };
+
+        RoleCache.RoleTable table = roleCache.get("DEFAULT", loader);
+        RoleCache.RoleTable again = roleCache.get("DEFAULT", loader);
+
+        assertSame(table, again);
+        assertEquals(1, loads.get());
+        assertEquals(2, roleCache.getSize("DEFAULT"));
+        assertTrue(table.find(RoleScope.API, "USER").isPresent());
+        assertFalse(table.find(RoleScope.PORTAL, "USER").isPresent());
+    }
+
+    @Test
+    public void shouldReloadNewVersionAfterInvalidation() {
+        final Function<String, Collection<Role>> loader = id -> Collections.singletonList(role(RoleScope.API, "USER"));
+
+        RoleCache.RoleTable table = roleCache.get("DEFAULT", loader);
+        roleCache.invalidate("DEFAULT");
+
+        assertEquals(0, roleCache.getVersion("DEFAULT"));
+
+        RoleCache.RoleTable reloaded = roleCache.get("DEFAULT", loader);
+
+        assertNotSame(table, reloaded);
+        assertTrue(reloaded.getVersion() > table.getVersion());
+        assertEquals(reloaded.getVersion(), roleCache.getVersion("DEFAULT"));
+    }
+
+    @Test
+    public void shouldPublishTableOfEachOrganization() {
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        roleCache.bindTo(registry);
+
+        roleCache.get("DEFAULT", id -> Arrays.asList(role(RoleScope.API, "USER"), role(RoleScope.PORTAL, "ADMIN")));
+        roleCache.get("OTHER", id -> Collections.singletonList(role(RoleScope.API, "USER")));
+
+        assertEquals(2, registry.get("roles.cache.size").tag("organization", "DEFAULT").gauge().value(), 0);
+        assertEquals(1, registry.get("roles.cache.size").tag("organization", "OTHER").gauge().value(), 0);
+        assertEquals(roleCache.getVersion("OTHER"), registry.get("roles.cache.version").tag("organization", "OTHER").gauge().value(), 0);
+        assertEquals(2, registry.get("roles.cache.loads").functionCounter().count(), 0);
+
+        roleCache.invalidate("DEFAULT");
+
+        assertEquals(0, registry.get("roles.cache.size").tag("organization", "DEFAULT").gauge().value(), 0);
+    }
+
+    private Role role(RoleScope scope, String name) {
+        Role role = new Role();
+        role.setScope(scope);
+        role.setName(name);
+        return role;
+    }
+}
@@ -21,12 +21,15 @@ import io.gravitee.repository.management.model.Role;
 import io.gravitee.repository.management.model.RoleReferenceType;
 import io.gravitee.repository.management.model.RoleScope;
 import io.gravitee.rest.api.service.AuditService;
+import io.gravitee.rest.api.service.impl.RoleCache;
+import io.gravitee.rest.api.service.impl.RoleCacheSynchronizer;
 import io.gravitee.rest.api.service.impl.RoleServiceImpl;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import java.util.Arrays;
@@ -49,6 +52,12 @@ public class RoleService_CreateOrUpdateSystemRolesTest {
     @InjectMocks
     private RoleServiceImpl roleService = new RoleServiceImpl();
 
+    @Spy
+    private RoleCache roleCache = new RoleCache();
+
+    @Mock
+    private RoleCacheSynchronizer roleCacheSynchronizer;
+
     @Mock
     private RoleRepository mockRoleRepository;
     @Mock
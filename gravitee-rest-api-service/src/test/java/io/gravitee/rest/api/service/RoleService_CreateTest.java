@@ -23,13 +23,17 @@ import io.gravitee.rest.api.model.NewRoleEntity;
 import io.gravitee.rest.api.model.RoleEntity;
 import io.gravitee.rest.api.model.permissions.RolePermissionAction;
 import io.gravitee.rest.api.service.AuditService;
+import io.gravitee.rest.api.service.common.GraviteeContext;
 import io.gravitee.rest.api.service.exceptions.RoleReservedNameException;
+import io.gravitee.rest.api.service.impl.RoleCache;
+import io.gravitee.rest.api.service.impl.RoleCacheSynchronizer;
 import io.gravitee.rest.api.service.impl.RoleServiceImpl;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import java.util.Collections;
@@ -39,6 +43,7 @@ import static io.gravitee.rest.api.model.permissions.PortalPermission.DOCUMENTAT
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -51,6 +56,12 @@ public class RoleService_CreateTest {
     @InjectMocks
     private RoleServiceImpl roleService = new RoleServiceImpl();
 
+    @Spy
+    private RoleCache roleCache = new RoleCache();
+
+    @Mock
+    private RoleCacheSynchronizer roleCacheSynchronizer;
+
     @Mock
     private RoleRepository mockRoleRepository;
 
@@ -83,6 +94,7 @@ public class RoleService_CreateTest {
         char[] perms = entity.getPermissions().get(DOCUMENTATION.getName());
         assertEquals("not enough permissions", 1, perms.length);
         assertEquals("not the good permission", RolePermissionAction.CREATE.getId(), perms[0]);
+        verify(roleCacheSynchronizer).propagate(GraviteeContext.getCurrentOrganization());
     }
 
     @Test(expected = IllegalArgumentException.class)
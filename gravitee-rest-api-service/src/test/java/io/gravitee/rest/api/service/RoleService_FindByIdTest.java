@@ -22,6 +22,7 @@ import io.gravitee.repository.management.model.RoleReferenceType;
 import io.gravitee.repository.management.model.RoleScope;
 import io.gravitee.rest.api.model.RoleEntity;
 import io.gravitee.rest.api.model.permissions.RolePermissionAction;
+import io.gravitee.rest.api.service.impl.RoleCache;
 import io.gravitee.rest.api.service.impl.RoleServiceImpl;
 
 import org.apache.commons.lang3.ArrayUtils;
@@ -29,10 +30,11 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import java.util.Arrays;
-import java.util.Optional;
+import java.util.Collections;
 
 import static io.gravitee.rest.api.model.permissions.PortalPermission.DOCUMENTATION;
 import static org.junit.Assert.*;
@@ -49,6 +51,9 @@ public class RoleService_FindByIdTest {
     @InjectMocks
     private RoleServiceImpl roleService = new RoleServiceImpl();
 
+    @Spy
+    private RoleCache roleCache = new RoleCache();
+
     @Mock
     private RoleRepository mockRoleRepository;
 
@@ -82,7 +87,7 @@ public class RoleService_FindByIdTest {
         when(roleMock.getScope()).thenReturn(RoleScope.PORTAL);
         when(roleMock.getName()).thenReturn("name");
         when(roleMock.getPermissions()).thenReturn(new int[]{perm});
-        when(mockRoleRepository.findById(RoleScope.PORTAL, "name", "DEFAULT", RoleReferenceType.ORGANIZATION)).thenReturn(Optional.of(roleMock));
+        when(mockRoleRepository.findAllByReferenceIdAndReferenceType("DEFAULT", RoleReferenceType.ORGANIZATION)).thenReturn(Collections.singletonList(roleMock));
 
         RoleEntity entity = roleService.findById(RoleScope.PORTAL, "name");
 
@@ -25,12 +25,15 @@ import io.gravitee.rest.api.model.UpdateRoleEntity;
 import io.gravitee.rest.api.model.permissions.RolePermissionAction;
 import io.gravitee.rest.api.service.AuditService;
 import io.gravitee.rest.api.service.exceptions.RoleNotFoundException;
+import io.gravitee.rest.api.service.impl.RoleCache;
+import io.gravitee.rest.api.service.impl.RoleCacheSynchronizer;
 import io.gravitee.rest.api.service.impl.RoleServiceImpl;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import java.util.Collections;
@@ -52,12 +55,21 @@ public class RoleService_UpdateTest {
     @InjectMocks
     private RoleServiceImpl roleService = new RoleServiceImpl();
 
+    @Spy
+    private RoleCache roleCache = new RoleCache();
+
+    @Mock
+    private RoleCacheSynchronizer roleCacheSynchronizer;
+
     @Mock
     private RoleRepository mockRoleRepository;
 
     @Mock
     private AuditService auditService;
 
+    @Mock
+    private MembershipService membershipService;
+
 
     @Test
     public void shouldUpdate() throws TechnicalException {
@@ -0,0 +1,157 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.rest.api.service.impl.search.lucene.SearchEngineIndexer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.RAMDirectory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class SearchEngineIndexerTest {
+
+    private final SearchEngineIndexer indexer = new SearchEngineIndexer();
+
+    private Directory directory;
+
+    private IndexWriter writer;
+
+    private SearcherManager searcherManager;
+
+    @Before
+    public void init() throws Exception {
+        directory = new RAMDirectory();
+        writer = new IndexWriter(directory, new IndexWriterConfig(new StandardAnalyzer()));
+        writer.commit();
+        searcherManager = new SearcherManager(writer, null);
+
+        ReflectionTestUtils.setField(indexer, "writer", writer);
+        ReflectionTestUtils.setField(indexer, "searcherManager", searcherManager);
+        ReflectionTestUtils.setField(indexer, "refreshInterval", 60_000L);
+    }
+
+    @After
+    public void close() throws Exception {
+        indexer.destroy();
+        writer.close();
+    }
+
+    @Test
+    public void shouldSearchIndexedDocumentBeforeCommit() throws Exception {
+        start(60_000L);
+
+        indexer.index(document("api-1"));
+
+        assertEquals(1, searchable());
+        assertEquals(0, committed());
+
+        indexer.commit();
+
+        assertEquals(1, committed());
+    }
+
+    @Test(timeout = 5000)
+    public void shouldCommitPendingChangesInBackground() throws Exception {
+        start(50L);
+
+        indexer.index(document("api-1"));
+
+        while (committed() == 0) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, searchable());
+    }
+
+    @Test
+    public void shouldCommitBatchOnce() throws Exception {
+        start(60_000L);
+
+        indexer.index(Arrays.asList(document("api-1"), document("api-2"), document("api-3")));
+
+        assertEquals(3, searchable());
+        assertEquals(3, committed());
+    }
+
+    @Test
+    public void shouldSearchWithoutRemovedDocument() throws Exception {
+        start(60_000L);
+        indexer.index(Arrays.asList(document("api-1"), document("api-2")));
+
+        indexer.remove(document("api-1"));
+
+        assertEquals(1, searchable());
+        assertEquals(2, committed());
+    }
+
+    @Test(expected = AlreadyClosedException.class)
+    public void shouldCommitAndCloseSearchersOnDestroy() throws Exception {
+        start(60_000L);
+        indexer.index(document("api-1"));
+
+        indexer.destroy();
+
+        assertEquals(1, committed());
+        searcherManager.acquire();
+    }
+
+    private void start(long commitInterval) {
+        ReflectionTestUtils.setField(indexer, "commitInterval", commitInterval);
+        indexer.afterPropertiesSet();
+    }
+
+    private int searchable() throws IOException {
+        final IndexSearcher searcher = searcherManager.acquire();
+        try {
+            return searcher.count(new MatchAllDocsQuery());
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    private int committed() throws IOException {
+        try (DirectoryReader reader = DirectoryReader.open(directory)) {
+            return reader.numDocs();
+        }
+    }
+
+    private Document document(String id) {
+        final Document document = new Document();
+        document.add(new StringField("id", id, Field.Store.YES));
+        document.add(new StringField("type", "api", Field.Store.YES));
+        return document;
+    }
+}
@@ -15,18 +15,28 @@
  */
 package io.gravitee.rest.api.service;
 
+import io.gravitee.common.data.domain.Page;
 import io.gravitee.rest.api.idp.api.authentication.UserDetails;
 import io.gravitee.rest.api.model.*;
 import io.gravitee.rest.api.model.api.ApiEntity;
 import io.gravitee.rest.api.model.application.ApplicationSettings;
 import io.gravitee.rest.api.model.application.OAuthClientSettings;
+import io.gravitee.rest.api.model.common.PageableImpl;
+import io.gravitee.rest.api.model.subscription.SubscriptionQuery;
 import io.gravitee.rest.api.service.exceptions.*;
+import io.gravitee.rest.api.service.impl.ApiVisibilityCache;
 import io.gravitee.rest.api.service.impl.SubscriptionServiceImpl;
 import io.gravitee.rest.api.service.notification.ApiHook;
 import io.gravitee.rest.api.service.notification.ApplicationHook;
 import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.ApiKeyRepository;
+import io.gravitee.repository.management.api.MembershipRepository;
 import io.gravitee.repository.management.api.SubscriptionRepository;
+import io.gravitee.repository.management.api.search.Pageable;
 import io.gravitee.repository.management.api.search.SubscriptionCriteria;
+import io.gravitee.repository.management.model.ApiKey;
+import io.gravitee.repository.management.model.Membership;
+import io.gravitee.repository.management.model.MembershipReferenceType;
 import io.gravitee.repository.management.model.Subscription;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -41,12 +51,14 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.io.StringWriter;
 import java.util.*;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.singleton;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -67,6 +79,8 @@ public class SubscriptionServiceTest {
     @InjectMocks
     private SubscriptionService subscriptionService = new SubscriptionServiceImpl();
 
+    @Mock
+    private ApiVisibilityCache apiVisibilityCache;
     @Mock
     private PlanService planService;
     @Mock
@@ -78,6 +92,8 @@ public class SubscriptionServiceTest {
     @Mock
     private SubscriptionRepository subscriptionRepository;
     @Mock
+    private ApiKeyRepository apiKeyRepository;
+    @Mock
     private Subscription subscription;
     @Mock
     private PlanEntity plan;
@@ -97,6 +113,8 @@ public class SubscriptionServiceTest {
     private NotifierService notifierService;
     @Mock
     private GroupService groupService;
+    @Mock
+    private MembershipRepository membershipRepository;
 
     @Test
     public void shouldFindById() throws TechnicalException {
@@ -249,6 +267,10 @@ public class SubscriptionServiceTest {
         when(applicationService.findById(APPLICATION_ID)).thenReturn(application);
         when(apiService.findByIdForTemplates(API_ID)).thenReturn(apiModelEntity);
         when(subscriptionRepository.create(any())).thenAnswer(returnsFirstArg());
+        final Membership applicationMember = new Membership();
+        applicationMember.setUserId("member");
+        when(membershipRepository.findByReferenceAndRole(MembershipReferenceType.APPLICATION, APPLICATION_ID, null, null))
+                .thenReturn(Collections.singleton(applicationMember));
 
         SecurityContextHolder.setContext(new SecurityContext() {
             @Override
@@ -304,6 +326,7 @@ public class SubscriptionServiceTest {
         verify(subscriptionRepository, times(1)).create(any(Subscription.class));
         verify(subscriptionRepository, never()).update(any(Subscription.class));
         verify(apiKeyService, never()).generate(any());
+        verify(apiVisibilityCache).invalidate("member");
         assertNotNull(subscriptionEntity.getId());
         assertNotNull(subscriptionEntity.getApplication());
         assertNotNull(subscriptionEntity.getCreatedAt());
@@ -930,4 +953,138 @@ public class SubscriptionServiceTest {
         // Run
         subscriptionService.create(new NewSubscriptionEntity(PLAN_ID, APPLICATION_ID));
     }
+
+    @Test
+    public void shouldSearchByApiKey() throws TechnicalException {
+        final ApiKey apiKey = new ApiKey();
+        apiKey.setKey("my-api-key");
+        apiKey.setSubscription(SUBSCRIPTION_ID);
+        when(apiKeyRepository.findById("my-api-key")).thenReturn(Optional.of(apiKey));
+
+        final Subscription sub = new Subscription();
+        sub.setId(SUBSCRIPTION_ID);
+        sub.setApi(API_ID);
+        sub.setStatus(Subscription.Status.ACCEPTED);
+        when(subscriptionRepository.findById(SUBSCRIPTION_ID)).thenReturn(Optional.of(sub));
+
+        final SubscriptionQuery query = new SubscriptionQuery();
+        query.setApi(API_ID);
+        query.setStatuses(singleton(SubscriptionStatus.ACCEPTED));
+        query.setApiKey("my-api-key");
+
+        final Collection<SubscriptionEntity> subscriptions = subscriptionService.search(query);
+        assertEquals(1, subscriptions.size());
+        assertEquals(SUBSCRIPTION_ID, subscriptions.iterator().next().getId());
+
+        final Page<SubscriptionEntity> page = subscriptionService.search(query, new PageableImpl(1, 10));
+        assertEquals(1, page.getTotalElements());
+        assertEquals(SUBSCRIPTION_ID, page.getContent().get(0).getId());
+
+        verify(subscriptionRepository, never()).search(any(SubscriptionCriteria.class));
+        verify(apiKeyService, never()).findBySubscription(any());
+    }
+
+    @Test
+    public void shouldNotSearchByApiKeyOfAnotherApi() throws TechnicalException {
+        final ApiKey apiKey = new ApiKey();
+        apiKey.setKey("my-api-key");
+        apiKey.setSubscription(SUBSCRIPTION_ID);
+        when(apiKeyRepository.findById("my-api-key")).thenReturn(Optional.of(apiKey));
+
+        final Subscription sub = new Subscription();
+        sub.setId(SUBSCRIPTION_ID);
+        sub.setApi("another-api");
+        sub.setStatus(Subscription.Status.ACCEPTED);
+        when(subscriptionRepository.findById(SUBSCRIPTION_ID)).thenReturn(Optional.of(sub));
+
+        final SubscriptionQuery query = new SubscriptionQuery();
+        query.setApi(API_ID);
+        query.setApiKey("my-api-key");
+
+        assertTrue(subscriptionService.search(query).isEmpty());
+    }
+
+    @Test
+    public void shouldNotSearchByUnknownApiKey() throws TechnicalException {
+        when(apiKeyRepository.findById("unknown")).thenReturn(Optional.empty());
+
+        final SubscriptionQuery query = new SubscriptionQuery();
+        query.setApi(API_ID);
+        query.setApiKey("unknown");
+
+        assertTrue(subscriptionService.search(query).isEmpty());
+        verify(subscriptionRepository, never()).findById(any());
+    }
+
+    @Test
+    public void shouldExportAsCsvPageByPage() throws TechnicalException {
+        mockExportMetadata();
+        when(subscriptionRepository.search(any(SubscriptionCriteria.class), any(Pageable.class)))
+                .thenReturn(new Page<>(subscriptions(500), 0, 500, 501), new Page<>(subscriptions(1), 1, 1, 501));
+
+        final StringWriter writer = new StringWriter();
+        subscriptionService.exportAsCsv(new SubscriptionQuery(), writer);
+
+        assertEquals(1 + 501, writer.toString().split(System.lineSeparator()).length);
+        verify(subscriptionRepository, times(2)).search(any(SubscriptionCriteria.class), any(Pageable.class));
+    }
+
+    @Test
+    public void shouldExportAsCsvUntilEmptyPage() throws TechnicalException {
+        mockExportMetadata();
+        when(subscriptionRepository.search(any(SubscriptionCriteria.class), any(Pageable.class)))
+                .thenReturn(new Page<>(subscriptions(500), 0, 500, 500), new Page<>(Collections.<Subscription>emptyList(), 1, 0, 500));
+
+        final StringWriter writer = new StringWriter();
+        subscriptionService.exportAsCsv(new SubscriptionQuery(), writer);
+
+        assertEquals(1 + 500, writer.toString().split(System.lineSeparator()).length);
+        verify(subscriptionRepository, times(2)).search(any(SubscriptionCriteria.class), any(Pageable.class));
+    }
+
+    @Test
+    public void shouldExportAsCsvSearchedByApiKeyInOnePage() throws TechnicalException {
+        mockExportMetadata();
+        final ApiKey apiKey = new ApiKey();
+        apiKey.setKey("my-api-key");
+        apiKey.setSubscription(SUBSCRIPTION_ID);
+        when(apiKeyRepository.findById("my-api-key")).thenReturn(Optional.of(apiKey));
+        when(subscriptionRepository.findById(SUBSCRIPTION_ID)).thenReturn(Optional.of(subscriptions(1).get(0)));
+
+        final SubscriptionQuery query = new SubscriptionQuery();
+        query.setApiKey("my-api-key");
+        final StringWriter writer = new StringWriter();
+        subscriptionService.exportAsCsv(query, writer);
+
+        assertEquals(1 + 1, writer.toString().split(System.lineSeparator()).length);
+        verify(apiKeyRepository, times(1)).findById("my-api-key");
+        verify(subscriptionRepository, never()).search(any(SubscriptionCriteria.class), any(Pageable.class));
+    }
+
+    private void mockExportMetadata() {
+        when(applicationService.findById(APPLICATION_ID)).thenReturn(application);
+        when(application.getName()).thenReturn("My application");
+        when(planService.findById(PLAN_ID)).thenReturn(plan);
+        when(plan.getName()).thenReturn("My plan");
+        when(apiService.findById(API_ID)).thenReturn(apiEntity);
+        when(apiEntity.getName()).thenReturn("My API");
+    }
+
+    private List<Subscription> subscriptions(int count) {
+        final List<Subscription> subscriptions = new ArrayList<>(count);
+        final Date now = new Date();
+        for (int i = 0; i < count; i++) {
+            final Subscription sub = new Subscription();
+            sub.setId(SUBSCRIPTION_ID + '-' + i);
+            sub.setApi(API_ID);
+            sub.setApplication(APPLICATION_ID);
+            sub.setPlan(PLAN_ID);
+            sub.setStatus(Subscription.Status.ACCEPTED);
+            sub.setCreatedAt(now);
+            sub.setProcessedAt(now);
+            sub.setStartingAt(now);
+            subscriptions.add(sub);
+        }
+        return subscriptions;
+    }
 }
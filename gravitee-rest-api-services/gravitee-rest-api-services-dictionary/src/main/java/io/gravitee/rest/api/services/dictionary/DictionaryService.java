@@ -27,6 +27,7 @@ import io.gravitee.rest.api.model.configuration.dictionary.DictionaryTriggerEnti
 import io.gravitee.rest.api.service.event.DictionaryEvent;
 import io.gravitee.rest.api.services.dictionary.provider.http.HttpProvider;
 import io.gravitee.rest.api.services.dictionary.provider.http.configuration.HttpProviderConfiguration;
+import io.gravitee.rest.api.service.vertx.HttpClientRegistry;
 import io.vertx.core.Vertx;
 
 import org.slf4j.Logger;
@@ -61,6 +62,9 @@ public class DictionaryService extends AbstractService implements EventListener<
     @Autowired
     private Vertx vertx;
 
+    @Autowired
+    private HttpClientRegistry httpClientRegistry;
+
     private final Map<String, Long> timers = new HashMap<>();
 
     @Override
@@ -105,6 +109,7 @@ public class DictionaryService extends AbstractService implements EventListener<
 
                     HttpProvider provider = new HttpProvider(configuration);
                     provider.setVertx(vertx);
+                    provider.setHttpClientRegistry(httpClientRegistry);
 
                     refresher.setProvider(provider);
                     refresher.setDictionaryService(dictionaryService);
@@ -16,6 +16,7 @@
 package io.gravitee.rest.api.services.dictionary.provider.http;
 
 import io.gravitee.common.http.HttpStatusCode;
+import io.gravitee.rest.api.service.vertx.HttpClientRegistry;
 import io.gravitee.rest.api.services.dictionary.model.DynamicProperty;
 import io.gravitee.rest.api.services.dictionary.provider.Provider;
 import io.gravitee.rest.api.services.dictionary.provider.http.configuration.HttpProviderConfiguration;
@@ -23,8 +24,6 @@ import io.gravitee.rest.api.services.dictionary.provider.http.mapper.JoltMapper;
 import io.gravitee.rest.api.services.dictionary.provider.http.vertx.VertxCompletableFuture;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
-import io.vertx.core.http.HttpClient;
-import io.vertx.core.http.HttpClientOptions;
 import io.vertx.core.http.HttpClientRequest;
 import io.vertx.core.http.HttpMethod;
 import org.slf4j.Logger;
@@ -43,14 +42,14 @@ public class HttpProvider implements Provider {
 
     private final Logger logger = LoggerFactory.getLogger(HttpProvider.class);
 
-    private static final String HTTPS_SCHEME = "https";
-
     private final HttpProviderConfiguration configuration;
 
     private JoltMapper mapper;
 
     private Vertx vertx;
 
+    private HttpClientRegistry httpClientRegistry;
+
     public HttpProvider(final HttpProviderConfiguration configuration) {
         Objects.requireNonNull(configuration, "Configuration must not be null");
         this.configuration = configuration;
@@ -62,51 +61,27 @@ public class HttpProvider implements Provider {
         CompletableFuture<Buffer> future = new VertxCompletableFuture<>(vertx);
 
         URI requestUri = URI.create(configuration.getUrl());
-        boolean ssl = HTTPS_SCHEME.equalsIgnoreCase(requestUri.getScheme());
-
-        final HttpClientOptions options = new HttpClientOptions()
-                .setSsl(ssl)
-                .setTrustAll(true)
-                .setMaxPoolSize(1)
-                .setKeepAlive(false)
-                .setTcpKeepAlive(false)
-                .setConnectTimeout(2000);
-
-        final HttpClient httpClient = vertx.createHttpClient(options);
-
-        final int port = requestUri.getPort() != -1 ? requestUri.getPort() :
-                (HTTPS_SCHEME.equals(requestUri.getScheme()) ? 443 : 80);
+        final HttpClientRegistry.Target target = httpClientRegistry.getTarget(requestUri, false);
+        final long start = System.nanoTime();
 
         try {
-            HttpClientRequest request = httpClient.request(
-                    HttpMethod.GET,
-                    port,
-                    requestUri.getHost(),
-                    requestUri.toString()
-            );
+            HttpClientRequest request = target.request(HttpMethod.GET, requestUri);
 
             request.handler(response -> {
                 if (response.statusCode() == HttpStatusCode.OK_200) {
                     response.bodyHandler(buffer -> {
+                        target.record(start, true);
                         future.complete(buffer);
-
-                        // Close client
-                        httpClient.close();
                     });
                 } else {
+                    target.record(start, false);
                     future.complete(null);
                 }
             });
 
             request.exceptionHandler(event -> {
-                try {
-                    future.completeExceptionally(event);
-
-                    // Close client
-                    httpClient.close();
-                } catch (IllegalStateException ise) {
-                    // Do not take care about exception when closing client
-                }
+                target.record(start, false);
+                future.completeExceptionally(event);
             });
 
             request.end();
@@ -136,4 +111,8 @@ public class HttpProvider implements Provider {
     public void setVertx(Vertx vertx) {
         this.vertx = vertx;
     }
+
+    public void setHttpClientRegistry(HttpClientRegistry httpClientRegistry) {
+        this.httpClientRegistry = httpClientRegistry;
+    }
 }
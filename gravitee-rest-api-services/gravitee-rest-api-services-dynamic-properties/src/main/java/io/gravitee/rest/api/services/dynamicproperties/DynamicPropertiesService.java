@@ -27,6 +27,7 @@ import io.gravitee.rest.api.model.api.ApiEntity;
 import io.gravitee.rest.api.service.ApiService;
 import io.gravitee.rest.api.service.event.ApiEvent;
 import io.gravitee.rest.api.services.dynamicproperties.provider.http.HttpProvider;
+import io.gravitee.rest.api.service.vertx.HttpClientRegistry;
 import io.vertx.core.Vertx;
 
 import org.slf4j.Logger;
@@ -55,6 +56,9 @@ public class DynamicPropertiesService extends AbstractService implements EventLi
     @Autowired
     private Vertx vertx;
 
+    @Autowired
+    private HttpClientRegistry httpClientRegistry;
+
     private final Map<ApiEntity, Long> timers = new HashMap<>();
 
     @Override
@@ -101,6 +105,7 @@ public class DynamicPropertiesService extends AbstractService implements EventLi
                 if (dynamicPropertyService.getProvider() == DynamicPropertyProvider.HTTP) {
                     HttpProvider provider = new HttpProvider(dynamicPropertyService);
                     provider.setVertx(vertx);
+                    provider.setHttpClientRegistry(httpClientRegistry);
 
                     updater.setProvider(provider);
                     updater.setApiService(apiService);
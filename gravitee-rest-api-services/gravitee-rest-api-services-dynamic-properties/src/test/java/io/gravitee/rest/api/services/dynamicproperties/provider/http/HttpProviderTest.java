@@ -18,11 +18,13 @@ package io.gravitee.rest.api.services.dynamicproperties.provider.http;
 import com.github.tomakehurst.wiremock.junit.WireMockRule;
 import io.gravitee.definition.model.services.dynamicproperty.DynamicPropertyService;
 import io.gravitee.definition.model.services.dynamicproperty.http.HttpDynamicPropertyProviderConfiguration;
+import io.gravitee.rest.api.service.vertx.HttpClientRegistry;
 import io.gravitee.rest.api.services.dynamicproperties.model.DynamicProperty;
 import io.gravitee.rest.api.services.dynamicproperties.provider.http.HttpProvider;
 import io.gravitee.rest.api.services.dynamicproperties.provider.http.mapper.JoltMapper;
 import io.vertx.core.Vertx;
 import org.apache.commons.io.IOUtils;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -60,9 +62,23 @@ public class HttpProviderTest {
     @Mock
     private JoltMapper mapper;
 
+    private Vertx vertx;
+
+    private HttpClientRegistry httpClientRegistry;
+
     @Before
     public void setUp() {
         MockitoAnnotations.initMocks(this);
+
+        vertx = Vertx.vertx();
+        httpClientRegistry = new HttpClientRegistry();
+        httpClientRegistry.setVertx(vertx);
+    }
+
+    @After
+    public void tearDown() {
+        httpClientRegistry.destroy();
+        vertx.close();
     }
 
     @Test
@@ -73,7 +89,8 @@ public class HttpProviderTest {
 
         HttpProvider provider = new HttpProvider(dynamicPropertyService);
         provider.setMapper(mapper);
-        provider.setVertx(Vertx.vertx());
+        provider.setVertx(vertx);
+        provider.setHttpClientRegistry(httpClientRegistry);
 
         CompletableFuture<Collection<DynamicProperty>> future = provider.get();
         Collection<DynamicProperty> dynamicProperties = future.join();
@@ -91,7 +108,8 @@ public class HttpProviderTest {
 
         HttpProvider provider = new HttpProvider(dynamicPropertyService);
         provider.setMapper(mapper);
-        provider.setVertx(Vertx.vertx());
+        provider.setVertx(vertx);
+        provider.setHttpClientRegistry(httpClientRegistry);
 
         CompletableFuture<Collection<DynamicProperty>> future = provider.get();
         Collection<DynamicProperty> dynamicProperties = future.join();
@@ -109,7 +127,8 @@ public class HttpProviderTest {
 
         HttpProvider provider = new HttpProvider(dynamicPropertyService);
         provider.setMapper(mapper);
-        provider.setVertx(Vertx.vertx());
+        provider.setVertx(vertx);
+        provider.setHttpClientRegistry(httpClientRegistry);
 
         CompletableFuture<Collection<DynamicProperty>> future = provider.get();
         future.join();
@@ -34,6 +34,7 @@ import org.springframework.scheduling.support.CronTrigger;
 
 import java.io.IOException;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
@@ -91,16 +92,20 @@ public class ScheduledSearchIndexerService extends AbstractService implements Ru
         query.setTo(MessageRecipient.MANAGEMENT_APIS.name());
         query.setTags(Collections.singletonList(CommandTags.DATA_TO_INDEX));
         List<CommandEntity> messageEntities = commandService.search(query);
+        List<CommandSearchIndexerEntity> contents = new ArrayList<>(messageEntities.size());
         messageEntities.forEach(commandEntity -> {
             commandService.ack(commandEntity.getId());
             try {
-                searchEngineService.process(
-                        mapper.readValue(commandEntity.getContent(), CommandSearchIndexerEntity.class));
+                contents.add(mapper.readValue(commandEntity.getContent(), CommandSearchIndexerEntity.class));
             } catch (IOException e) {
                 logger.error("Search Indexer has received a bad message.", e);
             }
         });
 
+        if (!contents.isEmpty()) {
+            searchEngineService.process(contents);
+        }
+
         logger.debug("Search Indexer #{} ended at {}", counter.get(), Instant.now());
     }
 }
@@ -16,6 +16,7 @@
 package io.gravitee.rest.api.services.search;
 
 import io.gravitee.rest.api.model.command.CommandEntity;
+import io.gravitee.rest.api.model.command.CommandSearchIndexerEntity;
 import io.gravitee.rest.api.model.command.CommandTags;
 import io.gravitee.rest.api.service.CommandService;
 import io.gravitee.rest.api.service.search.SearchEngineService;
@@ -28,6 +29,7 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 
 import static org.mockito.Mockito.*;
@@ -55,7 +57,8 @@ public class ScheduledSearchIndexerServiceTest {
         service.run();
 
         verify(commandService, never()).ack(anyString());
-        verify(searchEngineService, never()).process(any());
+        verify(searchEngineService, never()).process(anyCollection());
+        verify(searchEngineService, never()).process(any(CommandSearchIndexerEntity.class));
     }
 
 
@@ -74,6 +77,7 @@ public class ScheduledSearchIndexerServiceTest {
         service.run();
 
         verify(commandService, times(2)).ack(anyString());
-        verify(searchEngineService, times(2)).process(any());
+        verify(searchEngineService, times(1)).process(argThat((Collection<CommandSearchIndexerEntity> contents) ->
+                contents.size() == 2));
     }
 }
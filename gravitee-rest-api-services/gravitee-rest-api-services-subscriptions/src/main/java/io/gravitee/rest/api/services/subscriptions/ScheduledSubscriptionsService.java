@@ -15,14 +15,25 @@
  */
 package io.gravitee.rest.api.services.subscriptions;
 
+import io.gravitee.common.data.domain.Page;
 import io.gravitee.common.service.AbstractService;
-import io.gravitee.rest.api.model.SubscriptionEntity;
-import io.gravitee.rest.api.model.SubscriptionStatus;
-import io.gravitee.rest.api.model.api.ApiEntity;
-import io.gravitee.rest.api.model.subscription.SubscriptionQuery;
-import io.gravitee.rest.api.service.ApiService;
+import io.gravitee.common.utils.UUID;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.CommandRepository;
+import io.gravitee.repository.management.api.SubscriptionRepository;
+import io.gravitee.repository.management.api.search.CommandCriteria;
+import io.gravitee.repository.management.api.search.SubscriptionCriteria;
+import io.gravitee.repository.management.api.search.builder.PageableBuilder;
+import io.gravitee.repository.management.model.Command;
+import io.gravitee.repository.management.model.Subscription;
 import io.gravitee.rest.api.service.SubscriptionService;
+import io.gravitee.rest.api.service.common.GraviteeContext;
+import io.gravitee.rest.api.service.common.NodeMetrics;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,25 +42,35 @@ import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.support.CronTrigger;
 
 import java.time.Instant;
-import java.util.Collection;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
-import java.util.Set;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
-import static java.util.stream.Collectors.toSet;
-
 /**
+ * Close the accepted subscriptions whose end date is over.
+ *
+ * Only one node of the cluster runs the sweep: the node holding the lease of the current period, stored as a command
+ * of the management repository addressed to no other service, while the other nodes skip their runs. As the
+ * repository can not search subscriptions by end date, all the accepted subscriptions are scanned, so the sweep runs
+ * only once per lease period.
+ *
+ * The outcome of the last sweep is published to the metrics of the node.
+ *
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
-public class ScheduledSubscriptionsService extends AbstractService implements Runnable {
+public class ScheduledSubscriptionsService extends AbstractService implements Runnable, MeterBinder {
 
     /**
      * Logger.
      */
     private final Logger logger = LoggerFactory.getLogger(ScheduledSubscriptionsService.class);
 
+    static final String LEASE_RECIPIENT = "SUBSCRIPTIONS_REFRESHER";
+    static final String LEASE_ID_PREFIX = "subscriptions-refresher-lease-";
+
     @Autowired
     private TaskScheduler scheduler;
 
@@ -59,14 +80,32 @@ public class ScheduledSubscriptionsService extends AbstractService implements Ru
     @Value("${services.subscriptions.enabled:true}")
     private boolean enabled;
 
+    @Value("${services.subscriptions.pageSize:500}")
+    private int pageSize = 500;
+
+    @Value("${services.subscriptions.leaseDuration:60000}")
+    private long leaseDuration = 60000;
+
     private final AtomicLong counter = new AtomicLong(0);
 
-    @Autowired
-    private ApiService apiService;
+    private final String nodeId = UUID.toString(UUID.random());
+
+    private final AtomicLong lastRunDuration = new AtomicLong(0);
+    private final AtomicLong lastRunScanned = new AtomicLong(0);
+    private final AtomicLong lastRunClosed = new AtomicLong(0);
+    private final AtomicLong totalClosed = new AtomicLong(0);
+
+    private long lastSweptPeriod = -1;
 
     @Autowired
     private SubscriptionService subscriptionService;
 
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private CommandRepository commandRepository;
+
     @Override
     protected String name() {
         return "Subscriptions Refresher Service";
@@ -78,6 +117,7 @@ public class ScheduledSubscriptionsService extends AbstractService implements Ru
             super.doStart();
             logger.info("Subscriptions Refresher service has been initialized with cron [{}]", cronTrigger);
             scheduler.schedule(this, new CronTrigger(cronTrigger));
+            NodeMetrics.bind(this);
         } else {
             logger.warn("Subscriptions Refresher service has been disabled");
         }
@@ -85,23 +125,163 @@ public class ScheduledSubscriptionsService extends AbstractService implements Ru
 
     @Override
     public void run() {
+        final long startedAt = System.currentTimeMillis();
+        final long period = startedAt / leaseDuration;
+        if (period == lastSweptPeriod) {
+            logger.debug("Refresh subscriptions skipped, already done for the current period");
+            return;
+        }
+        if (!acquireLease(startedAt)) {
+            logger.debug("Refresh subscriptions skipped, another node holds the lease");
+            return;
+        }
+
         logger.debug("Refresh subscriptions #{} started at {}", counter.incrementAndGet(), Instant.now().toString());
-        final Set<String> apiIds = apiService.findAllLight().stream()
-                .map(ApiEntity::getId)
-                .collect(toSet());
-
-        final SubscriptionQuery query = new SubscriptionQuery();
-        query.setApis(apiIds);
-        query.setStatuses(Collections.singleton(SubscriptionStatus.ACCEPTED));
-        final Collection<SubscriptionEntity> subscriptions = subscriptionService.search(query);
-        final Date now = new Date();
-        subscriptions
-                .forEach(subscription -> {
+
+        // closing a subscription takes it out of the accepted ones, so the expired ones are all collected before
+        // closing any of them to not skip a page
+        final SubscriptionCriteria criteria = new SubscriptionCriteria.Builder()
+                .status(Subscription.Status.ACCEPTED)
+                .build();
+        final Date now = new Date(startedAt);
+        final List<String> expiredIds = new ArrayList<>();
+        long scanned = 0;
+        int page = 0;
+        Page<Subscription> subscriptions;
+        try {
+            do {
+                subscriptions = subscriptionRepository.search(criteria,
+                        new PageableBuilder().pageNumber(page++).pageSize(pageSize).build());
+                if (subscriptions == null || subscriptions.getContent() == null) {
+                    break;
+                }
+                for (Subscription subscription : subscriptions.getContent()) {
                     if (subscription.getEndingAt() != null && subscription.getEndingAt().before(now)) {
-                        subscriptionService.close(subscription.getId());
+                        expiredIds.add(subscription.getId());
                     }
-                });
+                }
+                scanned += subscriptions.getContent().size();
+            } while (subscriptions.getContent().size() == pageSize);
+        } catch (TechnicalException te) {
+            logger.error("Unable to search the accepted subscriptions, the expired ones will be closed on the next period", te);
+            return;
+        }
+        lastSweptPeriod = period;
+
+        long closed = 0;
+        for (String subscriptionId : expiredIds) {
+            try {
+                subscriptionService.close(subscriptionId);
+                closed++;
+            } catch (Exception ex) {
+                logger.error("Unable to close the expired subscription {}", subscriptionId, ex);
+            }
+        }
 
-        logger.debug("Refresh subscriptions #{} ended at {}", counter.get(), Instant.now().toString());
+        final long duration = System.currentTimeMillis() - startedAt;
+        lastRunDuration.set(duration);
+        lastRunScanned.set(scanned);
+        lastRunClosed.set(closed);
+        totalClosed.addAndGet(closed);
+
+        if (closed > 0) {
+            logger.info("Refresh subscriptions #{}: {} expired subscriptions closed out of {} accepted in {} ms",
+                    counter.get(), closed, scanned, duration);
+        }
+        logger.debug("Refresh subscriptions #{} ended at {}: {} accepted subscriptions scanned, {} closed in {} ms",
+                counter.get(), Instant.now().toString(), scanned, closed, duration);
+    }
+
+    public long getLastRunDuration() {
+        return lastRunDuration.get();
+    }
+
+    public long getLastRunScanned() {
+        return lastRunScanned.get();
+    }
+
+    public long getLastRunClosed() {
+        return lastRunClosed.get();
+    }
+
+    public long getTotalClosed() {
+        return totalClosed.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("subscriptions.sweep.duration", this, ScheduledSubscriptionsService::getLastRunDuration)
+                .description("Duration in ms of the last sweep of the expired subscriptions")
+                .register(registry);
+        Gauge.builder("subscriptions.sweep.scanned", this, ScheduledSubscriptionsService::getLastRunScanned)
+                .description("Accepted subscriptions scanned by the last sweep of the expired subscriptions")
+                .register(registry);
+        Gauge.builder("subscriptions.sweep.closed", this, ScheduledSubscriptionsService::getLastRunClosed)
+                .description("Expired subscriptions closed by the last sweep")
+                .register(registry);
+        FunctionCounter.builder("subscriptions.closed", this, ScheduledSubscriptionsService::getTotalClosed)
+                .description("Expired subscriptions closed since the start of the node")
+                .register(registry);
+    }
+
+    /**
+     * Take or keep the lease of the sweep for the current period.
+     *
+     * Time is split in periods of the lease duration, and the lease of a period is held by the node which created its
+     * command first: creating an existing command fails, so a single node gets each period without any read-then-write
+     * race. As the periods are computed from the clock of each node, a node whose clock is ahead may create the next
+     * period early: a node only runs while no later period is held by another node.
+     */
+    private boolean acquireLease(long now) {
+        final long period = now / leaseDuration;
+        try {
+            final List<Command> leases = commandRepository.search(new CommandCriteria.Builder().to(LEASE_RECIPIENT).build());
+
+            Command latestLease = null;
+            long latestPeriod = -1;
+            for (Command lease : leases) {
+                final long leasePeriod = getPeriod(lease);
+                if (leasePeriod > latestPeriod) {
+                    latestLease = lease;
+                    latestPeriod = leasePeriod;
+                }
+            }
+            if (latestLease != null && latestPeriod >= period) {
+                return nodeId.equals(latestLease.getFrom());
+            }
+
+            final Command lease = new Command();
+            lease.setId(LEASE_ID_PREFIX + period);
+            lease.setEnvironment(GraviteeContext.getCurrentEnvironment());
+            lease.setFrom(nodeId);
+            lease.setTo(LEASE_RECIPIENT);
+            lease.setTags(Collections.emptyList());
+            lease.setCreatedAt(new Date(now));
+            lease.setUpdatedAt(lease.getCreatedAt());
+            lease.setExpiredAt(new Date((period + 1) * leaseDuration));
+            commandRepository.create(lease);
+
+            // the leases of the previous periods are not needed anymore
+            for (Command previousLease : leases) {
+                try {
+                    commandRepository.delete(previousLease.getId());
+                } catch (Exception ex) {
+                    logger.debug("Unable to delete the previous lease {} of the subscriptions refresher", previousLease.getId(), ex);
+                }
+            }
+            return true;
+        } catch (Exception ex) {
+            // including the failure of a concurrent creation of the lease by another node
+            logger.debug("Unable to acquire the lease of the subscriptions refresher, skipping this run", ex);
+            return false;
+        }
+    }
+
+    private long getPeriod(Command lease) {
+        try {
+            return Long.parseLong(lease.getId().substring(LEASE_ID_PREFIX.length()));
+        } catch (RuntimeException re) {
+            return -1;
+        }
     }
 }
@@ -15,25 +15,33 @@
  */
 package io.gravitee.rest.api.services.subscriptions;
 
-import io.gravitee.rest.api.model.SubscriptionEntity;
-import io.gravitee.rest.api.model.SubscriptionStatus;
-import io.gravitee.rest.api.model.api.ApiEntity;
-import io.gravitee.rest.api.model.subscription.SubscriptionQuery;
-import io.gravitee.rest.api.service.ApiService;
+import io.gravitee.common.data.domain.Page;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.CommandRepository;
+import io.gravitee.repository.management.api.SubscriptionRepository;
+import io.gravitee.repository.management.api.search.CommandCriteria;
+import io.gravitee.repository.management.api.search.Pageable;
+import io.gravitee.repository.management.api.search.SubscriptionCriteria;
+import io.gravitee.repository.management.model.Command;
+import io.gravitee.repository.management.model.Subscription;
 import io.gravitee.rest.api.service.SubscriptionService;
 import io.gravitee.rest.api.services.subscriptions.ScheduledSubscriptionsService;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
-import java.util.HashSet;
+import java.util.List;
 
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 /**
@@ -43,56 +51,139 @@ import static org.mockito.Mockito.*;
 @RunWith(MockitoJUnitRunner.class)
 public class ScheduledSubscriptionsServiceTest {
 
+    private static final long LEASE_DURATION = 60000;
+
     @InjectMocks
     ScheduledSubscriptionsService service = new ScheduledSubscriptionsService();
 
     @Mock
-    ApiService apiService;
+    SubscriptionService subscriptionService;
 
     @Mock
-    SubscriptionService subscriptionService;
+    SubscriptionRepository subscriptionRepository;
+
+    @Mock
+    CommandRepository commandRepository;
 
     @Test
-    public void shouldCloseOutdatedSubscriptions() {
-        ApiEntity apiEntity = mock(ApiEntity.class);
-        when(apiEntity.getId()).thenReturn("API_ID");
-        SubscriptionEntity endDateInThePast = createSubscription(
+    public void shouldCloseOutdatedSubscriptions() throws TechnicalException {
+        when(commandRepository.search(any(CommandCriteria.class))).thenReturn(Collections.emptyList());
+
+        Subscription endDateInThePast = createSubscription(
                 "end_date_in_the_past",
-                SubscriptionStatus.ACCEPTED,
                 new Date(0));
-        SubscriptionEntity noEndDate = createSubscription(
+        Subscription noEndDate = createSubscription(
                 "no_end_date",
-                SubscriptionStatus.ACCEPTED,
                 null);
-        SubscriptionEntity endDateInTheFuture = createSubscription(
+        Subscription endDateInTheFuture = createSubscription(
                 "end_date_in_the_future",
-                SubscriptionStatus.ACCEPTED,
                 new Date(Long.MAX_VALUE));
-        when(apiService.findAllLight()).thenReturn(Collections.singleton(apiEntity));
 
-        SubscriptionQuery query = new SubscriptionQuery();
-        query.setApi(apiEntity.getId());
-        query.setStatuses(Collections.singleton(SubscriptionStatus.ACCEPTED));
-
-        when(subscriptionService.search(query)).
-                thenReturn(new HashSet<>(Arrays.asList(
-                        endDateInThePast,
-                        noEndDate,
-                        endDateInTheFuture)));
+        List<Subscription> subscriptions = Arrays.asList(endDateInThePast, noEndDate, endDateInTheFuture);
+        when(subscriptionRepository.search(any(SubscriptionCriteria.class), any(Pageable.class)))
+                .thenReturn(new Page<>(subscriptions, 0, subscriptions.size(), subscriptions.size()));
 
         service.run();
 
-        verify(apiService, times(1)).findAllLight();
-        verify(subscriptionService, times(1)).search(query);
+        ArgumentCaptor<SubscriptionCriteria> criteriaCaptor = ArgumentCaptor.forClass(SubscriptionCriteria.class);
+        verify(subscriptionRepository, times(1)).search(criteriaCaptor.capture(), any(Pageable.class));
+        assertEquals(Collections.singletonList(Subscription.Status.ACCEPTED), new ArrayList<>(criteriaCaptor.getValue().getStatuses()));
+        verify(commandRepository, times(1)).create(any(Command.class));
         verify(subscriptionService, times(1)).close("end_date_in_the_past");
         verify(subscriptionService, never()).close("no_end_date");
         verify(subscriptionService, never()).close("end_date_in_the_future");
+        assertEquals(3, service.getLastRunScanned());
+        assertEquals(1, service.getLastRunClosed());
+    }
+
+    @Test
+    public void shouldSweepOncePerLeasePeriod() throws TechnicalException {
+        when(commandRepository.search(any(CommandCriteria.class))).thenReturn(Collections.emptyList());
+        when(subscriptionRepository.search(any(SubscriptionCriteria.class), any(Pageable.class)))
+                .thenReturn(new Page<>(Collections.emptyList(), 0, 0, 0));
+
+        service.run();
+        service.run();
+
+        verify(commandRepository, times(1)).search(any(CommandCriteria.class));
+        verify(subscriptionRepository, times(1)).search(any(SubscriptionCriteria.class), any(Pageable.class));
+    }
+
+    @Test
+    public void shouldSweepAgainWhenSearchFails() throws TechnicalException {
+        when(commandRepository.search(any(CommandCriteria.class))).thenReturn(Collections.emptyList());
+        when(subscriptionRepository.search(any(SubscriptionCriteria.class), any(Pageable.class)))
+                .thenThrow(new TechnicalException("Unable to search"))
+                .thenReturn(new Page<>(Collections.emptyList(), 0, 0, 0));
+
+        service.run();
+        service.run();
+
+        verify(subscriptionRepository, times(2)).search(any(SubscriptionCriteria.class), any(Pageable.class));
+    }
+
+    @Test
+    public void shouldNotRunWhenAnotherNodeHoldsTheLease() throws TechnicalException {
+        Command lease = createLease("another-node", System.currentTimeMillis());
+        when(commandRepository.search(any(CommandCriteria.class))).thenReturn(Collections.singletonList(lease));
+
+        service.run();
+
+        verify(commandRepository, never()).create(any(Command.class));
+        verifyZeroInteractions(subscriptionService, subscriptionRepository);
+    }
+
+    @Test
+    public void shouldNotRunWhenAnotherNodeHoldsTheNextLease() throws TechnicalException {
+        // the clock of the other node is ahead
+        Command lease = createLease("another-node", System.currentTimeMillis() + LEASE_DURATION);
+        when(commandRepository.search(any(CommandCriteria.class))).thenReturn(Collections.singletonList(lease));
+
+        service.run();
+
+        verify(commandRepository, never()).create(any(Command.class));
+        verifyZeroInteractions(subscriptionService, subscriptionRepository);
+    }
+
+    @Test
+    public void shouldTakeTheLeaseOfTheNextPeriod() throws TechnicalException {
+        Command lease = createLease("another-node", 0);
+        when(commandRepository.search(any(CommandCriteria.class))).thenReturn(Collections.singletonList(lease));
+        when(subscriptionRepository.search(any(SubscriptionCriteria.class), any(Pageable.class)))
+                .thenReturn(new Page<>(Collections.emptyList(), 0, 0, 0));
+
+        service.run();
+
+        ArgumentCaptor<Command> leaseCaptor = ArgumentCaptor.forClass(Command.class);
+        verify(commandRepository, times(1)).create(leaseCaptor.capture());
+        assertEquals(ScheduledSubscriptionsService.LEASE_RECIPIENT, leaseCaptor.getValue().getTo());
+        verify(commandRepository, times(1)).delete(lease.getId());
+        verify(subscriptionRepository, times(1)).search(any(SubscriptionCriteria.class), any(Pageable.class));
+    }
+
+    @Test
+    public void shouldNotRunWhenAnotherNodeTookTheLeaseFirst() throws TechnicalException {
+        when(commandRepository.search(any(CommandCriteria.class))).thenReturn(Collections.emptyList());
+        when(commandRepository.create(any(Command.class))).thenThrow(new TechnicalException("duplicate key"));
+
+        service.run();
+
+        verifyZeroInteractions(subscriptionService, subscriptionRepository);
+    }
+
+    private Command createLease(String nodeId, long time) {
+        Command lease = new Command();
+        lease.setId(ScheduledSubscriptionsService.LEASE_ID_PREFIX + (time / LEASE_DURATION));
+        lease.setFrom(nodeId);
+        lease.setTo(ScheduledSubscriptionsService.LEASE_RECIPIENT);
+        return lease;
     }
 
-    private SubscriptionEntity createSubscription(String id, SubscriptionStatus status, Date endingDate) {
-        SubscriptionEntity subscriptionEntity = mock(SubscriptionEntity.class);
-        when(subscriptionEntity.getId()).thenReturn(id);
-        when(subscriptionEntity.getEndingAt()).thenReturn(endingDate);
-        return subscriptionEntity;
+    private Subscription createSubscription(String id, Date endingDate) {
+        Subscription subscription = new Subscription();
+        subscription.setId(id);
+        subscription.setStatus(Subscription.Status.ACCEPTED);
+        subscription.setEndingAt(endingDate);
+        return subscription;
     }
 }
@@ -19,49 +19,102 @@ import io.gravitee.common.component.Lifecycle;
 import io.gravitee.common.event.EventManager;
 import io.gravitee.rest.api.model.api.ApiEntity;
 import io.gravitee.rest.api.service.event.ApiEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
+ * Registry of the deployed APIs, keyed by API id.
+ *
+ * Reads are lock-free and can safely be done while the sync service is deploying APIs. Each registration is an
+ * atomic compare-and-set based on the API deployment date, so an API is never replaced by an older version.
+ *
+ * The number of registered APIs and the deployments, updates and undeployments are published as metrics of the node.
+ *
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
-public class ApiManager {
+public class ApiManager implements MeterBinder {
 
     private final Logger logger = LoggerFactory.getLogger(ApiManager.class);
 
     @Autowired
     private EventManager eventManager;
 
-    private final Map<String, ApiEntity> apis = new HashMap<>();
-
-    public void deploy(ApiEntity api) {
-        logger.info("Deployment of {}", api);
+    private final ConcurrentMap<String, ApiEntity> apis = new ConcurrentHashMap<>();
 
-            apis.put(api.getId(), api);
+    private final AtomicLong deployedCounter = new AtomicLong(0);
+    private final AtomicLong updatedCounter = new AtomicLong(0);
+    private final AtomicLong undeployedCounter = new AtomicLong(0);
 
-            if (api.getState() == Lifecycle.State.STARTED) {
-                eventManager.publishEvent(ApiEvent.DEPLOY, api);
-            } else {
-                logger.debug("{} is not enabled. Skip deployment.", api);
-            }
+    public void deploy(ApiEntity api) {
+        final ApiEntity previousApi = apis.put(api.getId(), api);
+        if (previousApi == null) {
+            onDeploy(api);
+        } else {
+            onUpdate(api);
+        }
     }
 
     public void update(ApiEntity api) {
         apis.put(api.getId(), api);
-            eventManager.publishEvent(ApiEvent.UPDATE, api);
+        onUpdate(api);
+    }
+
+    /**
+     * Deploy or update a batch of APIs. An API is registered only if it is not yet deployed or if it has been
+     * deployed after the registered one, otherwise it is ignored. An API whose deployment fails is unregistered, so
+     * that its deployment can be retried.
+     *
+     * @param apisToDeploy the APIs to deploy.
+     * @return the ids of the APIs whose deployment failed.
+     */
+    public Set<String> deploy(Collection<ApiEntity> apisToDeploy) {
+        final Set<String> failedApis = new HashSet<>();
+        apisToDeploy.forEach(api -> {
+            final AtomicReference<ApiEntity> previousApi = new AtomicReference<>();
+            final ApiEntity registeredApi = apis.compute(api.getId(), (apiId, currentApi) -> {
+                previousApi.set(currentApi);
+                return (currentApi == null || isNewer(api, currentApi)) ? api : currentApi;
+            });
+
+            if (registeredApi == api) {
+                try {
+                    if (previousApi.get() == null) {
+                        onDeploy(api);
+                    } else {
+                        onUpdate(api);
+                    }
+                } catch (Exception ex) {
+                    logger.error("An error occurs while deploying {}", api, ex);
+                    apis.computeIfPresent(api.getId(), (apiId, currentApi) -> currentApi == api ? previousApi.get() : currentApi);
+                    failedApis.add(api.getId());
+                }
+            }
+        });
+        return failedApis;
     }
 
     public void undeploy(String apiId) {
         ApiEntity currentApi = apis.remove(apiId);
         if (currentApi != null) {
             logger.info("Undeployment of {}", currentApi);
+            undeployedCounter.incrementAndGet();
 
             eventManager.publishEvent(ApiEvent.UNDEPLOY, currentApi);
             logger.info("{} has been undeployed", apiId);
@@ -69,14 +122,79 @@ public class ApiManager {
     }
 
     public Collection<ApiEntity> apis() {
-        return apis.values();
+        return Collections.unmodifiableCollection(apis.values());
     }
 
     public ApiEntity get(String name) {
         return apis.get(name);
     }
 
+    /**
+     * Get the deployment date of a deployed API, used as its version.
+     *
+     * @param apiId the API id.
+     * @return the deployment date of the API, or <code>null</code> if the API is not deployed.
+     */
+    public Date getDeployedAt(String apiId) {
+        final ApiEntity api = apis.get(apiId);
+        return (api == null) ? null : api.getDeployedAt();
+    }
+
+    public long getDeployedCount() {
+        return deployedCounter.get();
+    }
+
+    public long getUpdatedCount() {
+        return updatedCounter.get();
+    }
+
+    public long getUndeployedCount() {
+        return undeployedCounter.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("sync.apis", apis, ConcurrentMap::size)
+                .description("APIs registered by the sync service")
+                .register(registry);
+        FunctionCounter.builder("sync.apis.changes", this, ApiManager::getDeployedCount)
+                .tag("action", "deployed")
+                .description("APIs deployed by the sync service")
+                .register(registry);
+        FunctionCounter.builder("sync.apis.changes", this, ApiManager::getUpdatedCount)
+                .tag("action", "updated")
+                .description("APIs updated by the sync service")
+                .register(registry);
+        FunctionCounter.builder("sync.apis.changes", this, ApiManager::getUndeployedCount)
+                .tag("action", "undeployed")
+                .description("APIs undeployed by the sync service")
+                .register(registry);
+    }
+
     public void setEventManager(EventManager eventManager) {
         this.eventManager = eventManager;
     }
+
+    private void onDeploy(ApiEntity api) {
+        logger.info("Deployment of {}", api);
+        deployedCounter.incrementAndGet();
+
+        if (api.getState() == Lifecycle.State.STARTED) {
+            eventManager.publishEvent(ApiEvent.DEPLOY, api);
+        } else {
+            logger.debug("{} is not enabled. Skip deployment.", api);
+        }
+    }
+
+    private void onUpdate(ApiEntity api) {
+        updatedCounter.incrementAndGet();
+        eventManager.publishEvent(ApiEvent.UPDATE, api);
+    }
+
+    private boolean isNewer(ApiEntity api, ApiEntity deployedApi) {
+        if (api.getDeployedAt() == null) {
+            return false;
+        }
+        return deployedApi.getDeployedAt() == null || deployedApi.getDeployedAt().before(api.getDeployedAt());
+    }
 }
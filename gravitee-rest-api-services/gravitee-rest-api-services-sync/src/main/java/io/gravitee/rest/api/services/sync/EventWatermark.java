@@ -0,0 +1,81 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.services.sync;
+
+import io.gravitee.repository.management.model.Event;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keep track of the last event processed by the synchronization of this node, so that only newer events are fetched
+ * from the repository on the next synchronization.
+ *
+ * Events which are in the clock skew tolerance window are fetched again on each synchronization, so already processed
+ * events are remembered until they leave this window to avoid processing them twice.
+ *
+ * @author GraviteeSource Team
+ */
+class EventWatermark {
+
+    private long timestamp = -1;
+
+    private String lastEventId;
+
+    private final Map<String, Long> processedEvents = new HashMap<>();
+
+    long getTimestamp() {
+        return timestamp;
+    }
+
+    String getLastEventId() {
+        return lastEventId;
+    }
+
+    void initialize(long timestamp) {
+        this.timestamp = timestamp;
+        this.lastEventId = null;
+        this.processedEvents.clear();
+    }
+
+    boolean isProcessed(Event event) {
+        return processedEvents.containsKey(event.getId());
+    }
+
+    void processed(Collection<Event> events, long clockSkewTolerance) {
+        events.forEach(event -> {
+            final long eventTimestamp = timestamp(event);
+            processedEvents.put(event.getId(), eventTimestamp);
+
+            if (eventTimestamp >= timestamp) {
+                timestamp = eventTimestamp;
+                lastEventId = event.getId();
+            }
+        });
+
+        // Forget events which will not be fetched anymore
+        final long from = timestamp - clockSkewTolerance;
+        processedEvents.values().removeIf(eventTimestamp -> eventTimestamp < from);
+    }
+
+    static long timestamp(Event event) {
+        if (event.getUpdatedAt() != null) {
+            return event.getUpdatedAt().getTime();
+        }
+        return (event.getCreatedAt() != null) ? event.getCreatedAt().getTime() : -1;
+    }
+}
@@ -16,6 +16,7 @@
 package io.gravitee.rest.api.services.sync;
 
 import io.gravitee.common.service.AbstractService;
+import io.gravitee.rest.api.service.common.NodeMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -52,6 +53,9 @@ public class ScheduledSyncService extends AbstractService implements Runnable {
     @Autowired
     private SyncManager syncStateManager;
 
+    @Autowired
+    private ApiManager apiManager;
+
     private final AtomicLong counter = new AtomicLong(0);
 
     @Override
@@ -63,6 +67,8 @@ public class ScheduledSyncService extends AbstractService implements Runnable {
                 // Sync must start only when doStart() is invoked, that's the reason why we are not
                 // using @Scheduled annotation on doSync() method.
                 scheduler.schedule(this, new CronTrigger(cronTrigger));
+                NodeMetrics.bind(syncStateManager);
+                NodeMetrics.bind(apiManager);
             } else {
                 logger.warn("Sync service has been disabled");
             }
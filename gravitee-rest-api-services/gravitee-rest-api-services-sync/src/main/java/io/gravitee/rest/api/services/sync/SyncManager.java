@@ -17,6 +17,7 @@ package io.gravitee.rest.api.services.sync;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.gravitee.common.component.Lifecycle;
+import io.gravitee.common.data.domain.Page;
 import io.gravitee.common.event.EventManager;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.ApiRepository;
@@ -36,9 +37,13 @@ import io.gravitee.rest.api.service.UserService;
 import io.gravitee.rest.api.service.configuration.dictionary.DictionaryService;
 import io.gravitee.rest.api.service.event.DictionaryEvent;
 import io.gravitee.repository.management.model.*;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
 import java.io.IOException;
 import java.time.Instant;
@@ -54,13 +59,18 @@ import static java.util.stream.Collectors.toMap;
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
-public class SyncManager {
+public class SyncManager implements MeterBinder {
 
     private final Logger logger = LoggerFactory.getLogger(SyncManager.class);
 
     private static final int TIMEFRAME_BEFORE_DELAY = 10 * 60 * 1000;
     private static final int TIMEFRAME_AFTER_DELAY = 1 * 60 * 1000;
 
+    private static final EventType[] API_EVENT_TYPES = {
+            EventType.PUBLISH_API, EventType.UNPUBLISH_API, EventType.START_API, EventType.STOP_API};
+    private static final EventType[] DICTIONARY_EVENT_TYPES = {
+            EventType.START_DICTIONARY, EventType.STOP_DICTIONARY};
+
     @Autowired
     private ApiRepository apiRepository;
     @Autowired
@@ -80,37 +90,92 @@ public class SyncManager {
     @Autowired
     private UserService userService;
 
+    @Value("${services.sync.bulk.pageSize:500}")
+    private int bulkPageSize;
+
+    @Value("${services.sync.bulk.maxPages:10}")
+    private int bulkMaxPages;
+
+    @Value("${services.sync.incremental.enabled:true}")
+    private boolean incrementalEnabled;
+
+    @Value("${services.sync.incremental.clockSkew:5000}")
+    private long clockSkewTolerance;
+
+    @Value("${services.sync.incremental.catchUpInterval:600000}")
+    private long catchUpInterval;
+
+    private final EventWatermark apiWatermark = new EventWatermark();
+
+    private final EventWatermark dictionaryWatermark = new EventWatermark();
+
+    private final Map<String, String> deployedApiEvents = new HashMap<>();
+
+    private final Map<String, Event> failedApiEvents = new HashMap<>();
+
+    private final Map<String, String> processedDictionaryEvents = new HashMap<>();
+
     private final AtomicLong counter = new AtomicLong(0);
 
     private long lastRefreshAt = -1;
 
+    private long lastCatchUpAt = -1;
+
+    private long initialSyncDuration = -1;
+
+    private long lastDeployedCount, lastUpdatedCount, lastUndeployedCount;
+
     public void refresh() {
         logger.debug("Synchronization #{} started at {}", counter.incrementAndGet(), Instant.now().toString());
         logger.debug("Refreshing state...");
 
         long nextLastRefreshAt = System.currentTimeMillis();
+        boolean initialSync = lastRefreshAt == -1;
+
+        // Events written by a node whose clock lags behind more than the clock skew tolerance are missed by the
+        // incremental synchronization, the events of the last catch-up period are read again periodically to catch
+        // up with them
+        boolean catchUp = !initialSync && incrementalEnabled && nextLastRefreshAt - lastCatchUpAt >= catchUpInterval;
+
+        long deployedCount = apiManager.getDeployedCount();
+        long updatedCount = apiManager.getUpdatedCount();
+        long undeployedCount = apiManager.getUndeployedCount();
 
         try {
-            synchronizeApis(nextLastRefreshAt);
+            synchronizeApis(nextLastRefreshAt, initialSync, catchUp);
         } catch (Exception ex) {
             logger.error("An error occurs while synchronizing APIs", ex);
         }
 
         try {
-            synchronizeDictionaries(nextLastRefreshAt);
+            synchronizeDictionaries(nextLastRefreshAt, initialSync, catchUp);
         } catch (Exception ex) {
             logger.error("An error occurs while synchronizing dictionaries", ex);
         }
 
+        if (initialSync) {
+            initialSyncDuration = System.currentTimeMillis() - nextLastRefreshAt;
+            logger.info("Initial synchronization done in {} ms", initialSyncDuration);
+        }
+
+        lastDeployedCount = apiManager.getDeployedCount() - deployedCount;
+        lastUpdatedCount = apiManager.getUpdatedCount() - updatedCount;
+        lastUndeployedCount = apiManager.getUndeployedCount() - undeployedCount;
+        logger.debug("Synchronization #{}: {} APIs deployed, {} updated, {} undeployed",
+                counter.get(), lastDeployedCount, lastUpdatedCount, lastUndeployedCount);
+
+        if (initialSync || catchUp) {
+            lastCatchUpAt = nextLastRefreshAt;
+        }
         lastRefreshAt = nextLastRefreshAt;
         logger.debug("Synchronization #{} ended at {}", counter.get(), Instant.now().toString());
     }
 
-    private void synchronizeApis(long nextLastRefreshAt) throws Exception {
+    private void synchronizeApis(long nextLastRefreshAt, boolean initialSync, boolean catchUp) throws Exception {
         Map<String, Event> apiEvents;
 
         // Initial synchronization
-        if (lastRefreshAt == -1) {
+        if (initialSync) {
             // Extract all registered APIs
             List<io.gravitee.repository.management.model.Api> apis =
                     apiRepository.search(null, new ApiFieldExclusionFilter.Builder()
@@ -118,19 +183,16 @@ public class SyncManager {
                             .excludePicture().build());
 
             // Get last event by API
-            apiEvents = apis
+            apiEvents = getLastApiEvents(apis
                     .stream()
-                    .map(api -> getLastApiEvent(api.getId()))
-                    .filter(Objects::nonNull)
-                    .collect(
-                            toMap(
-                                    event -> event.getProperties().get(Event.EventProperties.API_ID.getValue()),
-                                    event -> event
-                            )
-                    );
+                    .map(io.gravitee.repository.management.model.Api::getId)
+                    .collect(Collectors.toSet()));
+
+            apiWatermark.initialize(nextLastRefreshAt);
+            computeApiEvents(apiEvents);
         } else {
             // Get latest API events
-            List<Event> events = getLatestApiEvents(nextLastRefreshAt);
+            List<Event> events = getEvents(apiWatermark, nextLastRefreshAt, catchUp, API_EVENT_TYPES);
 
             // Extract only the latest event by API
             apiEvents = events
@@ -140,36 +202,40 @@ public class SyncManager {
                                     event -> event.getProperties().get(Event.EventProperties.API_ID.getValue()),
                                     event -> event,
                                     BinaryOperator.maxBy(comparing(Event::getCreatedAt))));
-        }
 
-        // Then, compute events
-        computeApiEvents(apiEvents);
+            // Retry the deployments which failed, unless a newer event has been received since
+            failedApiEvents.forEach(apiEvents::putIfAbsent);
+
+            // Then, compute events
+            computeApiEvents(apiEvents);
+
+            if (incrementalEnabled) {
+                apiWatermark.processed(events, clockSkewTolerance);
+            }
+        }
     }
 
-    private void synchronizeDictionaries(long nextLastRefreshAt) throws Exception {
+    private void synchronizeDictionaries(long nextLastRefreshAt, boolean initialSync, boolean catchUp) throws Exception {
         Map<String, Event> dictionaryEvents;
 
         // Initial synchronization
-        if (lastRefreshAt == -1) {
+        if (initialSync) {
             List<Dictionary> dictionaries = dictionaryRepository.findAll()
                     .stream()
                     .filter(dictionary -> dictionary.getType() == DictionaryType.DYNAMIC)
                     .collect(Collectors.toList());
 
             // Get last event by dictionary
-            dictionaryEvents = dictionaries
+            dictionaryEvents = getLastDictionaryEvents(dictionaries
                     .stream()
-                    .map(api -> getLastDictionaryEvent(api.getId()))
-                    .filter(Objects::nonNull)
-                    .collect(
-                            toMap(
-                                    event -> event.getProperties().get(Event.EventProperties.DICTIONARY_ID.getValue()),
-                                    event -> event
-                            )
-                    );
+                    .map(Dictionary::getId)
+                    .collect(Collectors.toSet()));
+
+            dictionaryWatermark.initialize(nextLastRefreshAt);
+            computeDictionaryEvents(dictionaryEvents);
         } else {
             // Get latest dictionary events
-            List<Event> events = getLatestDictionaryEvents(nextLastRefreshAt);
+            List<Event> events = getEvents(dictionaryWatermark, nextLastRefreshAt, catchUp, DICTIONARY_EVENT_TYPES);
 
             // Extract only the latest event by API
             dictionaryEvents = events
@@ -179,14 +245,21 @@ public class SyncManager {
                                     event -> event.getProperties().get(Event.EventProperties.DICTIONARY_ID.getValue()),
                                     event -> event,
                                     BinaryOperator.maxBy(comparing(Event::getCreatedAt))));
-        }
 
+            computeDictionaryEvents(dictionaryEvents);
 
-        computeDictionaryEvents(dictionaryEvents);
+            if (incrementalEnabled) {
+                dictionaryWatermark.processed(events, clockSkewTolerance);
+            }
+        }
     }
 
     private void computeDictionaryEvents(Map<String, Event> dictionaryEvents) {
         dictionaryEvents.forEach((id, event) -> {
+            // This event has already been processed, by a previous full synchronization for instance
+            if (event.getId() != null && event.getId().equals(processedDictionaryEvents.put(id, event.getId()))) {
+                return;
+            }
 
             switch (event.getType()) {
                 case START_DICTIONARY:
@@ -206,34 +279,45 @@ public class SyncManager {
     }
 
     private void computeApiEvents(Map<String, Event> apiEvents) {
+        final List<io.gravitee.repository.management.model.Api> apisToDeploy = new ArrayList<>();
+        final Map<String, String> eventsToDeploy = new HashMap<>();
+        failedApiEvents.keySet().removeAll(apiEvents.keySet());
+
         apiEvents.forEach((apiId, apiEvent) -> {
             switch (apiEvent.getType()) {
                 case UNPUBLISH_API:
                 case STOP_API:
+                    deployedApiEvents.remove(apiId);
                     apiManager.undeploy(apiId);
                     break;
                 case START_API:
                 case PUBLISH_API:
+                    // The payload of this event has already been read, no need to deserialize it again
+                    if (apiEvent.getId() != null && apiEvent.getId().equals(deployedApiEvents.get(apiId))) {
+                        break;
+                    }
+
+                    // The payload of an event created before the deployment of the registered API can only hold an
+                    // older version of this API, no need to deserialize it
+                    final Date registeredDeployedAt = apiManager.getDeployedAt(apiId);
+                    final long eventTimestamp = EventWatermark.timestamp(apiEvent);
+                    if (registeredDeployedAt != null && eventTimestamp != -1 &&
+                            eventTimestamp <= registeredDeployedAt.getTime()) {
+                        deployedApiEvents.put(apiId, apiEvent.getId());
+                        break;
+                    }
+
                     try {
                         // Read API definition from event
                         io.gravitee.repository.management.model.Api payloadApi =
                                 objectMapper.readValue(apiEvent.getPayload(), io.gravitee.repository.management.model.Api.class);
 
-                        // API to deploy
-                        ApiEntity apiToDeploy = convert(payloadApi);
-
-                        if (apiToDeploy != null) {
-                            // Get deployed API
-                            ApiEntity deployedApi = apiManager.get(apiToDeploy.getId());
-
-                            // API is not yet deployed, so let's do it !
-                            if (deployedApi == null) {
-                                apiManager.deploy(apiToDeploy);
-                            } else {
-                                if (deployedApi.getDeployedAt().before(apiToDeploy.getDeployedAt())) {
-                                    apiManager.update(apiToDeploy);
-                                }
-                            }
+                        // Only convert APIs which are not yet deployed or which have been deployed since
+                        if (registeredDeployedAt == null || registeredDeployedAt.before(payloadApi.getDeployedAt())) {
+                            apisToDeploy.add(payloadApi);
+                            eventsToDeploy.put(apiId, apiEvent.getId());
+                        } else {
+                            deployedApiEvents.put(apiId, apiEvent.getId());
                         }
                     } catch (Exception e) {
                         logger.error("Error while determining deployed APIs store into events payload", e);
@@ -241,51 +325,159 @@ public class SyncManager {
                     break;
             }
         });
-    }
 
-    private Event getLastDictionaryEvent(final String dictionary) {
-        final EventCriteria.Builder eventCriteriaBuilder =
-                new EventCriteria.Builder()
-                        .property(Event.EventProperties.DICTIONARY_ID.getValue(), dictionary);
+        // Deploy or update APIs, the registry only keeps the most recently deployed version of each API
+        final Set<String> failedApis = apiManager.deploy(convert(apisToDeploy));
+
+        // Events of the APIs which failed to deploy are processed again on the next synchronization
+        eventsToDeploy.forEach((apiId, eventId) -> {
+            if (failedApis.contains(apiId)) {
+                failedApiEvents.put(apiId, apiEvents.get(apiId));
+            } else {
+                deployedApiEvents.put(apiId, eventId);
+            }
+        });
+    }
 
-        List<Event> events = eventRepository.search(eventCriteriaBuilder
-                        .types(EventType.START_DICTIONARY, EventType.STOP_DICTIONARY).build(),
-                new PageableBuilder().pageNumber(0).pageSize(1).build()).getContent();
+    private Map<String, Event> getLastDictionaryEvents(final Set<String> dictionaries) {
+        return getLastEvents(DICTIONARY_EVENT_TYPES, Event.EventProperties.DICTIONARY_ID, dictionaries);
+    }
 
-        return (!events.isEmpty()) ? events.get(0) : null;
+    private List<Event> getEvents(EventWatermark watermark, long nextLastRefreshAt, boolean catchUp, EventType... types) {
+        if (!incrementalEnabled) {
+            return getLatestEvents(lastRefreshAt, nextLastRefreshAt, types);
+        }
+        return catchUp ?
+                getLatestEvents(lastCatchUpAt, nextLastRefreshAt, types) :
+                getNewEvents(watermark, nextLastRefreshAt, types);
     }
 
-    private List<Event> getLatestDictionaryEvents(long nextLastRefreshAt) {
+    /**
+     * Get all the events created since the given date, whether they have already been processed or not. Only the
+     * last event of each reference is then processed, so the events processed again are ignored unless an older event
+     * has been missed in the meantime.
+     */
+    private List<Event> getLatestEvents(long since, long nextLastRefreshAt, EventType... types) {
         final EventCriteria.Builder builder = new EventCriteria.Builder()
-                .types(EventType.START_DICTIONARY, EventType.STOP_DICTIONARY)
-                .from(lastRefreshAt - TIMEFRAME_BEFORE_DELAY)
+                .types(types)
+                .from(since - TIMEFRAME_BEFORE_DELAY)
                 .to(nextLastRefreshAt + TIMEFRAME_AFTER_DELAY);
 
         return eventRepository.search(builder.build());
     }
 
-    private List<Event> getLatestApiEvents(long nextLastRefreshAt) {
+    /**
+     * Get the events which have not been processed yet, starting from the watermark of the previous synchronization.
+     */
+    private List<Event> getNewEvents(EventWatermark watermark, long nextLastRefreshAt, EventType... types) {
         final EventCriteria.Builder builder = new EventCriteria.Builder()
-                .types(EventType.PUBLISH_API, EventType.UNPUBLISH_API, EventType.START_API, EventType.STOP_API)
-                .from(lastRefreshAt - TIMEFRAME_BEFORE_DELAY)
+                .types(types)
+                .from(watermark.getTimestamp() - clockSkewTolerance)
                 .to(nextLastRefreshAt + TIMEFRAME_AFTER_DELAY);
 
-        return eventRepository.search(builder.build());
+        return eventRepository.search(builder.build())
+                .stream()
+                .filter(event -> !watermark.isProcessed(event))
+                .collect(Collectors.toList());
+    }
+
+    private Map<String, Event> getLastApiEvents(final Set<String> apis) {
+        return getLastEvents(API_EVENT_TYPES, Event.EventProperties.API_ID, apis);
     }
 
-    private Event getLastApiEvent(final String api) {
-        final EventCriteria.Builder eventCriteriaBuilder =
-                new EventCriteria.Builder()
-                        .property(Event.EventProperties.API_ID.getValue(), api);
+    /**
+     * Get the last event of each of the given references, using a single paged scan over the events instead of one
+     * query per reference. Events are returned by the repository ordered by date in DESC mode, so the first event
+     * seen for a reference is the last one. The scan stops as soon as every reference has been resolved, or after
+     * a bounded number of pages: the references which are still unresolved, such as APIs which have never been
+     * deployed, are then resolved one by one.
+     */
+    private Map<String, Event> getLastEvents(final EventType[] types, final Event.EventProperties property,
+                                             final Set<String> references) {
+        final Map<String, Event> lastEvents = new HashMap<>(references.size());
+        if (references.isEmpty()) {
+            return lastEvents;
+        }
+
+        final EventCriteria criteria = new EventCriteria.Builder().types(types).build();
+        int pageNumber = 0;
+        boolean exhausted = false;
+        Page<Event> page;
+        do {
+            page = eventRepository.search(criteria,
+                    new PageableBuilder().pageNumber(pageNumber++).pageSize(bulkPageSize).build());
+
+            if (page == null || page.getContent() == null) {
+                exhausted = true;
+                break;
+            }
+
+            page.getContent().forEach(event -> {
+                final String reference = event.getProperties() == null ?
+                        null : event.getProperties().get(property.getValue());
+                if (reference != null && references.contains(reference)) {
+                    lastEvents.putIfAbsent(reference, event);
+                }
+            });
+            exhausted = page.getContent().size() < bulkPageSize;
+        } while (lastEvents.size() < references.size() && !exhausted && pageNumber < bulkMaxPages);
+
+        // The whole event history has been read, the unresolved references do not have any event
+        if (exhausted || lastEvents.size() == references.size()) {
+            return lastEvents;
+        }
+
+        references
+                .stream()
+                .filter(reference -> !lastEvents.containsKey(reference))
+                .forEach(reference -> {
+                    final Page<Event> lastEvent = eventRepository.search(
+                            new EventCriteria.Builder().types(types).property(property.getValue(), reference).build(),
+                            new PageableBuilder().pageNumber(0).pageSize(1).build());
+                    if (lastEvent != null && lastEvent.getContent() != null && !lastEvent.getContent().isEmpty()) {
+                        lastEvents.put(reference, lastEvent.getContent().get(0));
+                    }
+                });
+
+        return lastEvents;
+    }
+
+    /**
+     * Convert a batch of APIs, resolving all their primary owners with one membership query and one user query.
+     */
+    private List<ApiEntity> convert(List<Api> apis) {
+        if (apis.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final Map<String, String> apiToUser = new HashMap<>(apis.size());
+        try {
+            membershipRepository.findByReferencesAndRole(
+                    MembershipReferenceType.API,
+                    apis.stream().map(Api::getId).collect(Collectors.toList()),
+                    RoleScope.API,
+                    SystemRole.PRIMARY_OWNER.name())
+                    .forEach(membership -> apiToUser.put(membership.getReferenceId(), membership.getUserId()));
+        } catch (final TechnicalException e) {
+            logger.error("Error while trying to get primary owners of {} apis", apis.size(), e);
+        }
 
-        List<Event> events = eventRepository.search(eventCriteriaBuilder
-                        .types(EventType.PUBLISH_API, EventType.UNPUBLISH_API, EventType.START_API, EventType.STOP_API).build(),
-                new PageableBuilder().pageNumber(0).pageSize(1).build()).getContent();
+        final Map<String, UserEntity> users = new HashMap<>(apiToUser.size());
+        if (!apiToUser.isEmpty()) {
+            try {
+                userService.findByIds(new ArrayList<>(new HashSet<>(apiToUser.values())))
+                        .forEach(user -> users.put(user.getId(), user));
+            } catch (final Exception e) {
+                logger.error("Error while trying to get primary owners of {} apis", apis.size(), e);
+            }
+        }
 
-        return (!events.isEmpty()) ? events.get(0) : null;
+        return apis.stream()
+                .map(api -> convert(api, users.get(apiToUser.get(api.getId()))))
+                .collect(Collectors.toList());
     }
 
-    private ApiEntity convert(Api api) {
+    private ApiEntity convert(Api api, UserEntity primaryOwner) {
         ApiEntity apiEntity = new ApiEntity();
 
         apiEntity.setId(api.getId());
@@ -329,21 +521,45 @@ public class SyncManager {
             apiEntity.setVisibility(io.gravitee.rest.api.model.Visibility.valueOf(api.getVisibility().toString()));
         }
 
-        try {
-            final Optional<Membership> primaryOwnerMembership = membershipRepository.findByReferenceAndRole(
-                    MembershipReferenceType.API,
-                    api.getId(),
-                    RoleScope.API,
-                    SystemRole.PRIMARY_OWNER.name())
-                    .stream()
-                    .findFirst();
-            if (primaryOwnerMembership.isPresent()) {
-                final UserEntity user = userService.findById(primaryOwnerMembership.get().getUserId());
-                apiEntity.setPrimaryOwner(new PrimaryOwnerEntity(user));
-            }
-        } catch (final TechnicalException e) {
-            logger.error("Error while trying to get primary owner of api " + api.getId(), e);
+        if (primaryOwner != null) {
+            apiEntity.setPrimaryOwner(new PrimaryOwnerEntity(primaryOwner));
         }
         return apiEntity;
     }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("sync.initial.duration", this, SyncManager::getInitialSyncDuration)
+                .baseUnit("milliseconds")
+                .description("Duration of the initial synchronization, -1 until it is done")
+                .register(registry);
+        Gauge.builder("sync.last.apis", this, SyncManager::getLastDeployedCount)
+                .tag("action", "deployed")
+                .description("APIs deployed by the last synchronization")
+                .register(registry);
+        Gauge.builder("sync.last.apis", this, SyncManager::getLastUpdatedCount)
+                .tag("action", "updated")
+                .description("APIs updated by the last synchronization")
+                .register(registry);
+        Gauge.builder("sync.last.apis", this, SyncManager::getLastUndeployedCount)
+                .tag("action", "undeployed")
+                .description("APIs undeployed by the last synchronization")
+                .register(registry);
+    }
+
+    public long getInitialSyncDuration() {
+        return initialSyncDuration;
+    }
+
+    public long getLastDeployedCount() {
+        return lastDeployedCount;
+    }
+
+    public long getLastUpdatedCount() {
+        return lastUpdatedCount;
+    }
+
+    public long getLastUndeployedCount() {
+        return lastUndeployedCount;
+    }
 }
@@ -0,0 +1,124 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.services.sync;
+
+import io.gravitee.common.component.Lifecycle;
+import io.gravitee.common.event.EventManager;
+import io.gravitee.rest.api.model.api.ApiEntity;
+import io.gravitee.rest.api.service.event.ApiEvent;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ApiManagerTest {
+
+    @InjectMocks
+    private ApiManager apiManager = new ApiManager();
+
+    @Mock
+    private EventManager eventManager;
+
+    @Test
+    public void shouldDeployBatchOfApis() {
+        final ApiEntity api1 = api("api-1", 1000);
+        final ApiEntity api2 = api("api-2", 1000);
+
+        final Set<String> failedApis = apiManager.deploy(Arrays.asList(api1, api2));
+
+        assertTrue(failedApis.isEmpty());
+        assertSame(api1, apiManager.get("api-1"));
+        assertSame(api2, apiManager.get("api-2"));
+        assertEquals(2, apiManager.getDeployedCount());
+        verify(eventManager).publishEvent(ApiEvent.DEPLOY, api1);
+        verify(eventManager).publishEvent(ApiEvent.DEPLOY, api2);
+    }
+
+    @Test
+    public void shouldUpdateApiDeployedSince() {
+        apiManager.deploy(Collections.singletonList(api("api-1", 1000)));
+        final ApiEntity newerApi = api("api-1", 2000);
+
+        apiManager.deploy(Collections.singletonList(newerApi));
+
+        assertSame(newerApi, apiManager.get("api-1"));
+        assertEquals(new Date(2000), apiManager.getDeployedAt("api-1"));
+        assertEquals(1, apiManager.getUpdatedCount());
+        verify(eventManager).publishEvent(ApiEvent.UPDATE, newerApi);
+    }
+
+    @Test
+    public void shouldIgnoreOlderApi() {
+        final ApiEntity api = api("api-1", 2000);
+        apiManager.deploy(Collections.singletonList(api));
+
+        final Set<String> failedApis = apiManager.deploy(Collections.singletonList(api("api-1", 1000)));
+
+        assertTrue(failedApis.isEmpty());
+        assertSame(api, apiManager.get("api-1"));
+        assertEquals(0, apiManager.getUpdatedCount());
+        verify(eventManager, never()).publishEvent(eq(ApiEvent.UPDATE), any());
+    }
+
+    @Test
+    public void shouldUnregisterApiWhoseDeploymentFails() {
+        final ApiEntity api1 = api("api-1", 1000);
+        final ApiEntity api2 = api("api-2", 1000);
+        doThrow(new IllegalStateException("Unable to deploy")).when(eventManager).publishEvent(ApiEvent.DEPLOY, api1);
+
+        final Set<String> failedApis = apiManager.deploy(Arrays.asList(api1, api2));
+
+        assertEquals(Collections.singleton("api-1"), failedApis);
+        assertNull(apiManager.get("api-1"));
+        assertSame(api2, apiManager.get("api-2"));
+    }
+
+    @Test
+    public void shouldRestorePreviousApiWhenUpdateFails() {
+        final ApiEntity api = api("api-1", 1000);
+        apiManager.deploy(Collections.singletonList(api));
+        final ApiEntity newerApi = api("api-1", 2000);
+        doThrow(new IllegalStateException("Unable to update")).when(eventManager).publishEvent(ApiEvent.UPDATE, newerApi);
+
+        final Set<String> failedApis = apiManager.deploy(Collections.singletonList(newerApi));
+
+        assertEquals(Collections.singleton("api-1"), failedApis);
+        assertSame(api, apiManager.get("api-1"));
+    }
+
+    private ApiEntity api(String id, long deployedAt) {
+        final ApiEntity api = new ApiEntity();
+        api.setId(id);
+        api.setState(Lifecycle.State.STARTED);
+        api.setDeployedAt(new Date(deployedAt));
+        return api;
+    }
+}
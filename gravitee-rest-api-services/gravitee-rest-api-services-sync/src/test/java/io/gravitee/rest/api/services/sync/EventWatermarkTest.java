@@ -0,0 +1,99 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.services.sync;
+
+import io.gravitee.repository.management.model.Event;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class EventWatermarkTest {
+
+    private static final long CLOCK_SKEW_TOLERANCE = 5000;
+
+    private final EventWatermark watermark = new EventWatermark();
+
+    @Test
+    public void shouldMoveToTheNewestProcessedEvent() {
+        watermark.initialize(10000);
+
+        watermark.processed(Arrays.asList(event("event-2", 12000), event("event-1", 11000)), CLOCK_SKEW_TOLERANCE);
+
+        assertEquals(12000, watermark.getTimestamp());
+        assertEquals("event-2", watermark.getLastEventId());
+        assertTrue(watermark.isProcessed(event("event-1", 11000)));
+        assertTrue(watermark.isProcessed(event("event-2", 12000)));
+        assertFalse(watermark.isProcessed(event("event-3", 12000)));
+    }
+
+    @Test
+    public void shouldNotMoveBackToAnOlderEvent() {
+        watermark.initialize(10000);
+
+        watermark.processed(Collections.singletonList(event("event-1", 8000)), CLOCK_SKEW_TOLERANCE);
+
+        assertEquals(10000, watermark.getTimestamp());
+        assertNull(watermark.getLastEventId());
+        assertTrue(watermark.isProcessed(event("event-1", 8000)));
+    }
+
+    @Test
+    public void shouldForgetEventsOutOfTheClockSkewWindow() {
+        watermark.initialize(10000);
+        watermark.processed(Collections.singletonList(event("event-1", 11000)), CLOCK_SKEW_TOLERANCE);
+
+        watermark.processed(Collections.singletonList(event("event-2", 20000)), CLOCK_SKEW_TOLERANCE);
+
+        assertEquals(20000, watermark.getTimestamp());
+        assertFalse(watermark.isProcessed(event("event-1", 11000)));
+        assertTrue(watermark.isProcessed(event("event-2", 20000)));
+    }
+
+    @Test
+    public void shouldForgetProcessedEventsOnceInitialized() {
+        watermark.initialize(10000);
+        watermark.processed(Collections.singletonList(event("event-1", 11000)), CLOCK_SKEW_TOLERANCE);
+
+        watermark.initialize(30000);
+
+        assertEquals(30000, watermark.getTimestamp());
+        assertNull(watermark.getLastEventId());
+        assertFalse(watermark.isProcessed(event("event-1", 11000)));
+    }
+
+    @Test
+    public void shouldUseCreationDateOfEventNeverUpdated() {
+        final Event event = event("event-1", 11000);
+        event.setUpdatedAt(null);
+
+        assertEquals(11000, EventWatermark.timestamp(event));
+    }
+
+    private Event event(String id, long timestamp) {
+        final Event event = new Event();
+        event.setId(id);
+        event.setCreatedAt(new Date(timestamp));
+        event.setUpdatedAt(new Date(timestamp));
+        return event;
+    }
+}
@@ -0,0 +1,304 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.services.sync;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.common.data.domain.Page;
+import io.gravitee.common.event.EventManager;
+import io.gravitee.repository.management.api.ApiRepository;
+import io.gravitee.repository.management.api.DictionaryRepository;
+import io.gravitee.repository.management.api.EventRepository;
+import io.gravitee.repository.management.api.MembershipRepository;
+import io.gravitee.repository.management.api.search.ApiFieldExclusionFilter;
+import io.gravitee.repository.management.api.search.EventCriteria;
+import io.gravitee.repository.management.api.search.Pageable;
+import io.gravitee.repository.management.model.Api;
+import io.gravitee.repository.management.model.Dictionary;
+import io.gravitee.repository.management.model.DictionaryType;
+import io.gravitee.repository.management.model.Event;
+import io.gravitee.repository.management.model.EventType;
+import io.gravitee.rest.api.model.api.ApiEntity;
+import io.gravitee.rest.api.model.configuration.dictionary.DictionaryEntity;
+import io.gravitee.rest.api.service.UserService;
+import io.gravitee.rest.api.service.configuration.dictionary.DictionaryService;
+import io.gravitee.rest.api.service.event.DictionaryEvent;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SyncManagerTest {
+
+    private static final String API_ID = "api-id";
+    private static final String OTHER_API_ID = "other-api-id";
+    private static final String DICTIONARY_ID = "dictionary-id";
+    private static final long CLOCK_SKEW_TOLERANCE = 5000;
+
+    @InjectMocks
+    private SyncManager syncManager = new SyncManager();
+
+    @Mock
+    private ApiRepository apiRepository;
+    @Mock
+    private DictionaryService dictionaryService;
+    @Mock
+    private DictionaryRepository dictionaryRepository;
+    @Mock
+    private EventRepository eventRepository;
+    @Mock
+    private ApiManager apiManager;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+    @Mock
+    private EventManager eventManager;
+    @Mock
+    private MembershipRepository membershipRepository;
+    @Mock
+    private UserService userService;
+
+    @Captor
+    private ArgumentCaptor<EventCriteria> criteriaCaptor;
+
+    @Captor
+    private ArgumentCaptor<Collection<ApiEntity>> apisCaptor;
+
+    @Before
+    public void init() {
+        ReflectionTestUtils.setField(syncManager, "bulkPageSize", 500);
+        ReflectionTestUtils.setField(syncManager, "bulkMaxPages", 10);
+        ReflectionTestUtils.setField(syncManager, "incrementalEnabled", true);
+        ReflectionTestUtils.setField(syncManager, "clockSkewTolerance", CLOCK_SKEW_TOLERANCE);
+        ReflectionTestUtils.setField(syncManager, "catchUpInterval", 600000L);
+    }
+
+    @Test
+    public void shouldOnlySearchNewEventsAfterInitialSync() throws Exception {
+        final long startedAt = System.currentTimeMillis();
+        syncManager.refresh();
+
+        syncManager.refresh();
+
+        verify(apiRepository, times(1)).search(isNull(), any(ApiFieldExclusionFilter.class));
+        verify(eventRepository, times(2)).search(criteriaCaptor.capture());
+        criteriaCaptor.getAllValues().forEach(criteria -> assertTrue(criteria.getFrom() >= startedAt - CLOCK_SKEW_TOLERANCE));
+    }
+
+    @Test
+    public void shouldCatchUpWithEventsOlderThanWatermark() throws Exception {
+        ReflectionTestUtils.setField(syncManager, "catchUpInterval", 0L);
+        final long startedAt = System.currentTimeMillis();
+        syncManager.refresh();
+
+        // Written by a node whose clock lags behind more than the clock skew tolerance
+        final Event event = apiEvent("event-id", EventType.PUBLISH_API, startedAt - 60000, startedAt - 60000);
+        when(eventRepository.search(any(EventCriteria.class))).thenAnswer(invocation ->
+                invocation.<EventCriteria>getArgument(0).getTypes().contains(EventType.PUBLISH_API) ?
+                        Collections.singletonList(event) : Collections.emptyList());
+        syncManager.refresh();
+
+        verify(apiRepository, times(1)).search(isNull(), any(ApiFieldExclusionFilter.class));
+        verify(eventRepository, times(2)).search(criteriaCaptor.capture());
+        criteriaCaptor.getAllValues().forEach(criteria -> assertTrue(criteria.getFrom() < startedAt - CLOCK_SKEW_TOLERANCE));
+        verify(apiManager, times(2)).deploy(apisCaptor.capture());
+        final List<Collection<ApiEntity>> deployedApis = apisCaptor.getAllValues();
+        assertEquals(API_ID, deployedApis.get(1).iterator().next().getId());
+    }
+
+    @Test
+    public void shouldNotReadPayloadOfEventOlderThanDeployedApi() throws Exception {
+        syncManager.refresh();
+
+        final long deployedAt = System.currentTimeMillis();
+        when(apiManager.getDeployedAt(API_ID)).thenReturn(new Date(deployedAt));
+        final Event event = apiEvent("event-id", EventType.PUBLISH_API, deployedAt - 1000, deployedAt);
+        when(eventRepository.search(any(EventCriteria.class))).thenAnswer(invocation ->
+                invocation.<EventCriteria>getArgument(0).getTypes().contains(EventType.PUBLISH_API) ?
+                        Collections.singletonList(event) : Collections.emptyList());
+        syncManager.refresh();
+
+        verify(objectMapper, never()).readValue(anyString(), eq(Api.class));
+        verify(apiManager, times(2)).deploy(eq(Collections.<ApiEntity>emptyList()));
+    }
+
+    @Test
+    public void shouldUndeployStoppedApi() throws Exception {
+        syncManager.refresh();
+
+        final long stoppedAt = System.currentTimeMillis();
+        final Event event = apiEvent("event-id", EventType.STOP_API, stoppedAt, stoppedAt);
+        when(eventRepository.search(any(EventCriteria.class))).thenAnswer(invocation ->
+                invocation.<EventCriteria>getArgument(0).getTypes().contains(EventType.STOP_API) ?
+                        Collections.singletonList(event) : Collections.emptyList());
+        syncManager.refresh();
+
+        verify(apiManager).undeploy(API_ID);
+    }
+
+    @Test
+    public void shouldResolveLastEventOfEachApiInOneScan() throws Exception {
+        final long now = System.currentTimeMillis();
+        when(apiRepository.search(isNull(), any(ApiFieldExclusionFilter.class))).thenReturn(Arrays.asList(api(API_ID), api(OTHER_API_ID)));
+        final Event lastEvent = apiEvent("last-event-id", API_ID, EventType.PUBLISH_API, now, now);
+        final Event otherEvent = apiEvent("other-event-id", OTHER_API_ID, EventType.PUBLISH_API, now - 2000, now - 2000);
+        final Event olderEvent = apiEvent("older-event-id", API_ID, EventType.PUBLISH_API, now - 5000, now - 5000);
+        when(eventRepository.search(any(EventCriteria.class), any(Pageable.class)))
+                .thenReturn(page(lastEvent, otherEvent, olderEvent));
+
+        syncManager.refresh();
+
+        verify(eventRepository, times(1)).search(any(EventCriteria.class), any(Pageable.class));
+        verify(apiManager).deploy(apisCaptor.capture());
+        final Map<String, Date> deployedApis = apisCaptor.getValue().stream()
+                .collect(Collectors.toMap(ApiEntity::getId, ApiEntity::getDeployedAt));
+        assertEquals(2, deployedApis.size());
+        assertEquals(new Date(now), deployedApis.get(API_ID));
+        assertEquals(new Date(now - 2000), deployedApis.get(OTHER_API_ID));
+    }
+
+    @Test
+    public void shouldResolveRemainingApisOneByOneAfterMaxPages() throws Exception {
+        ReflectionTestUtils.setField(syncManager, "bulkPageSize", 1);
+        ReflectionTestUtils.setField(syncManager, "bulkMaxPages", 1);
+        final long now = System.currentTimeMillis();
+        when(apiRepository.search(isNull(), any(ApiFieldExclusionFilter.class))).thenReturn(Arrays.asList(api(API_ID), api(OTHER_API_ID)));
+        final Event lastEvent = apiEvent("last-event-id", API_ID, EventType.PUBLISH_API, now, now);
+        final Event otherEvent = apiEvent("other-event-id", OTHER_API_ID, EventType.PUBLISH_API, now - 2000, now - 2000);
+        when(eventRepository.search(any(EventCriteria.class), any(Pageable.class))).thenAnswer(invocation ->
+                isSearchOf(invocation.getArgument(0), OTHER_API_ID) ? page(otherEvent) : page(lastEvent));
+
+        syncManager.refresh();
+
+        // one page of the bulk scan, then one query for the unresolved API
+        verify(eventRepository, times(2)).search(any(EventCriteria.class), any(Pageable.class));
+        verify(apiManager).deploy(apisCaptor.capture());
+        assertEquals(2, apisCaptor.getValue().size());
+    }
+
+    @Test
+    public void shouldNotResolveApisWithoutEventOnceHistoryExhausted() throws Exception {
+        final long now = System.currentTimeMillis();
+        when(apiRepository.search(isNull(), any(ApiFieldExclusionFilter.class))).thenReturn(Arrays.asList(api(API_ID), api(OTHER_API_ID)));
+        when(eventRepository.search(any(EventCriteria.class), any(Pageable.class)))
+                .thenReturn(page(apiEvent("last-event-id", API_ID, EventType.PUBLISH_API, now, now)));
+
+        syncManager.refresh();
+
+        verify(eventRepository, times(1)).search(any(EventCriteria.class), any(Pageable.class));
+        verify(apiManager).deploy(apisCaptor.capture());
+        assertEquals(1, apisCaptor.getValue().size());
+        assertEquals(API_ID, apisCaptor.getValue().iterator().next().getId());
+    }
+
+    @Test
+    public void shouldStartDynamicDictionariesOnInitialSync() throws Exception {
+        final Dictionary manualDictionary = new Dictionary();
+        manualDictionary.setId("manual-dictionary-id");
+        manualDictionary.setType(DictionaryType.MANUAL);
+        final Dictionary dynamicDictionary = new Dictionary();
+        dynamicDictionary.setId(DICTIONARY_ID);
+        dynamicDictionary.setType(DictionaryType.DYNAMIC);
+        when(dictionaryRepository.findAll()).thenReturn(new HashSet<>(Arrays.asList(manualDictionary, dynamicDictionary)));
+        when(eventRepository.search(any(EventCriteria.class), any(Pageable.class))).thenAnswer(invocation ->
+                invocation.<EventCriteria>getArgument(0).getTypes().contains(EventType.START_DICTIONARY) ?
+                        page(dictionaryEvent("event-id", EventType.START_DICTIONARY, System.currentTimeMillis())) : null);
+        final DictionaryEntity dictionary = new DictionaryEntity();
+        dictionary.setId(DICTIONARY_ID);
+        when(dictionaryService.findById(DICTIONARY_ID)).thenReturn(dictionary);
+
+        syncManager.refresh();
+
+        verify(eventManager).publishEvent(DictionaryEvent.START, dictionary);
+    }
+
+    @Test
+    public void shouldStopDictionaryOnceWhenCatchingUp() throws Exception {
+        ReflectionTestUtils.setField(syncManager, "catchUpInterval", 0L);
+        syncManager.refresh();
+
+        final Event event = dictionaryEvent("event-id", EventType.STOP_DICTIONARY, System.currentTimeMillis());
+        when(eventRepository.search(any(EventCriteria.class))).thenAnswer(invocation ->
+                invocation.<EventCriteria>getArgument(0).getTypes().contains(EventType.STOP_DICTIONARY) ?
+                        Collections.singletonList(event) : Collections.emptyList());
+        syncManager.refresh();
+        syncManager.refresh();
+
+        verify(eventManager, times(1)).publishEvent(eq(DictionaryEvent.STOP), any(DictionaryEntity.class));
+    }
+
+    private boolean isSearchOf(EventCriteria criteria, String apiId) {
+        return criteria.getProperties() != null &&
+                apiId.equals(criteria.getProperties().get(Event.EventProperties.API_ID.getValue()));
+    }
+
+    private Page<Event> page(Event... events) {
+        return new Page<>(Arrays.asList(events), 0, events.length, events.length);
+    }
+
+    private Api api(String id) {
+        final Api api = new Api();
+        api.setId(id);
+        return api;
+    }
+
+    private Event apiEvent(String id, EventType type, long deployedAt, long createdAt) {
+        return apiEvent(id, API_ID, type, deployedAt, createdAt);
+    }
+
+    private Event apiEvent(String id, String apiId, EventType type, long deployedAt, long createdAt) {
+        final Event event = new Event();
+        event.setId(id);
+        event.setType(type);
+        event.setPayload("{\"id\":\"" + apiId + "\",\"deployedAt\":" + deployedAt + "}");
+        event.setProperties(Collections.singletonMap(Event.EventProperties.API_ID.getValue(), apiId));
+        event.setCreatedAt(new Date(createdAt));
+        event.setUpdatedAt(new Date(createdAt));
+        return event;
+    }
+
+    private Event dictionaryEvent(String id, EventType type, long createdAt) {
+        final Event event = new Event();
+        event.setId(id);
+        event.setType(type);
+        event.setProperties(Collections.singletonMap(Event.EventProperties.DICTIONARY_ID.getValue(), DICTIONARY_ID));
+        event.setCreatedAt(new Date(createdAt));
+        event.setUpdatedAt(new Date(createdAt));
+        return event;
+    }
+}